@@ -0,0 +1,182 @@
+package rocks.inspectit.agent.java.core.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import rocks.inspectit.agent.java.util.ConcurrentLongPairMap;
+
+/**
+ * Compares the per-call cost of the object storage look-up in the {@link CoreService}. The
+ * <i>stringKey</i> benchmarks reproduce the former look-up that built a {@link StringBuffer} key
+ * for every measurement, the <i>longPairKey</i> benchmarks use the {@link ConcurrentLongPairMap}
+ * that the {@link CoreService} is using now.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 5)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CoreServiceStoragePerfTest {
+
+	/**
+	 * Number of different methods to simulate.
+	 */
+	@Param({ "100", "10000" })
+	private int methods;
+
+	/**
+	 * Prefix used for the keys, empty string means no prefix.
+	 */
+	@Param({ "", "select * from table where id = ?" })
+	private String prefix;
+
+	/**
+	 * Sensor type id used for all keys.
+	 */
+	private long sensorTypeIdent = 7L;
+
+	/**
+	 * String keyed map as it was used before.
+	 */
+	private Map<String, Object> stringKeyMap;
+
+	/**
+	 * Long pair keyed map.
+	 */
+	private ConcurrentLongPairMap<Object> longPairKeyMap;
+
+	/**
+	 * Set up, fills the maps.
+	 */
+	@Setup(Level.Trial)
+	public void init() {
+		if (0 == prefix.length()) {
+			prefix = null;
+		}
+
+		stringKeyMap = new ConcurrentHashMap<String, Object>();
+		longPairKeyMap = new ConcurrentLongPairMap<Object>();
+		for (long methodIdent = 0; methodIdent < methods; methodIdent++) {
+			Object storage = new Object();
+			stringKeyMap.put(stringKey(sensorTypeIdent, methodIdent, prefix), storage);
+			longPairKeyMap.put(methodIdent, sensorTypeIdent, prefix, storage);
+		}
+	}
+
+	/**
+	 * Look-up with the string key, single thread.
+	 *
+	 * @param methodState
+	 *            Per thread method id.
+	 * @return Found storage.
+	 */
+	@Benchmark
+	public Object stringKey(MethodState methodState) {
+		return stringKeyMap.get(stringKey(sensorTypeIdent, methodState.next(methods), prefix));
+	}
+
+	/**
+	 * Look-up with the long pair key, single thread.
+	 *
+	 * @param methodState
+	 *            Per thread method id.
+	 * @return Found storage.
+	 */
+	@Benchmark
+	public Object longPairKey(MethodState methodState) {
+		return longPairKeyMap.get(methodState.next(methods), sensorTypeIdent, prefix);
+	}
+
+	/**
+	 * Look-up with the string key, four threads.
+	 *
+	 * @param methodState
+	 *            Per thread method id.
+	 * @return Found storage.
+	 */
+	@Benchmark
+	@Threads(4)
+	public Object stringKeyConcurrent(MethodState methodState) {
+		return stringKey(methodState);
+	}
+
+	/**
+	 * Look-up with the long pair key, four threads.
+	 *
+	 * @param methodState
+	 *            Per thread method id.
+	 * @return Found storage.
+	 */
+	@Benchmark
+	@Threads(4)
+	public Object longPairKeyConcurrent(MethodState methodState) {
+		return longPairKey(methodState);
+	}
+
+	/**
+	 * Creates the key the same way the {@link CoreService} did before.
+	 *
+	 * @param sensorTypeIdent
+	 *            Sensor type id.
+	 * @param methodIdent
+	 *            Method id.
+	 * @param prefix
+	 *            Prefix or <code>null</code>.
+	 * @return String key.
+	 */
+	private static String stringKey(long sensorTypeIdent, long methodIdent, String prefix) {
+		StringBuffer buffer = new StringBuffer();
+		if (null != prefix) {
+			buffer.append(prefix);
+			buffer.append('.');
+		}
+		buffer.append(methodIdent);
+		buffer.append('.');
+		buffer.append(sensorTypeIdent);
+		return buffer.toString();
+	}
+
+	/**
+	 * Iterates the method ids per thread.
+	 */
+	@State(Scope.Thread)
+	public static class MethodState {
+
+		/**
+		 * Current method id.
+		 */
+		private long methodIdent;
+
+		/**
+		 * Returns the next method id.
+		 *
+		 * @param methods
+		 *            Amount of methods.
+		 * @return Method id.
+		 */
+		long next(int methods) {
+			methodIdent++;
+			if (methodIdent >= methods) {
+				methodIdent = 0;
+			}
+			return methodIdent;
+		}
+	}
+
+}
@@ -78,6 +78,22 @@ public class ByteCodeAnalyzer implements IByteCodeAnalyzer {
 	@Value("${instrumentation.classLoaderDelegation}")
 	boolean classLoaderDelegation;
 
+	/**
+	 * Index of the unregistered sensor configurations, rebuilt when the configurations change.
+	 */
+	private volatile SensorConfigMatchIndex matchIndex;
+
+	/**
+	 * Metrics of the class name matching.
+	 */
+	private final ClassAnalysisMetrics classAnalysisMetrics = new ClassAnalysisMetrics();
+
+	/**
+	 * Persistent cache of the analysis and instrumentation results.
+	 */
+	@Autowired(required = false)
+	InstrumentationCache instrumentationCache;
+
 	/**
 	 * The default constructor which accepts two parameters which are needed.
 	 * 
@@ -108,38 +124,60 @@ public class ByteCodeAnalyzer implements IByteCodeAnalyzer {
 	 * {@inheritDoc}
 	 */
 	public byte[] analyzeAndInstrument(byte[] byteCode, String className, ClassLoader classLoader) {
+		List<UnregisteredSensorConfig> unregisteredSensorConfigs = configurationStorage.getUnregisteredSensorConfigs();
+
+		// classes that did not change since the last run do not need to be analyzed again
+		String cacheKey = null;
+		if ((null != byteCode) && (null != instrumentationCache) && instrumentationCache.isEnabled()) {
+			cacheKey = instrumentationCache.getKey(byteCode);
+			if (instrumentationCache.isUninstrumented(cacheKey)) {
+				return null;
+			}
+			byte[] cachedByteCode = instrumentFromCache(cacheKey, unregisteredSensorConfigs);
+			if (null != cachedByteCode) {
+				return cachedByteCode;
+			}
+		}
+
 		// The reason to create a byte array class path here is to handle
 		// classes created at runtime (reflection / byte code engineering
 		// libraries etc.) and to get the real content of that class (think of
 		// classes modified by other java agents before.)
+		// Classes of one class loader can be analyzed in parallel, thus the changes of the class
+		// pool and the byte code generation are done while holding the lock of the class pool,
+		// which is also the lock javassist uses for its class cache. The matching and the
+		// instrumentation only change the class being analyzed and run without the lock.
 		ClassPool classPool = classPoolAnalyzer.getClassPool(classLoader);
 		ClassPath classPath = null;
 		ClassPath loaderClassPath = null;
 		try {
-			if (null == byteCode) {
-				// this occurs if we are in the initialization phase and are instrumenting classes
-				// where we don't have the bytecode directly. Thus we try to load it.
-				byteCode = classPool.get(className).toBytecode();
-			}
-			if (null != Thread.currentThread().getContextClassLoader() && classLoader != Thread.currentThread().getContextClassLoader()) {
-				// only use the context class loader if it is even set and not the same as the
-				// classloader being passed to the instrumentation
-				loaderClassPath = new LoaderClassPath(Thread.currentThread().getContextClassLoader());
-				classPool.insertClassPath(loaderClassPath);
+			synchronized (classPool) {
+				if (null == byteCode) {
+					// this occurs if we are in the initialization phase and are instrumenting
+					// classes where we don't have the bytecode directly. Thus we try to load it.
+					byteCode = classPool.get(className).toBytecode();
+				}
+				if (null != Thread.currentThread().getContextClassLoader() && classLoader != Thread.currentThread().getContextClassLoader()) {
+					// only use the context class loader if it is even set and not the same as the
+					// classloader being passed to the instrumentation
+					loaderClassPath = new LoaderClassPath(Thread.currentThread().getContextClassLoader());
+					classPool.insertClassPath(loaderClassPath);
+				}
+				// the byte array classpath needs to be the last one to be the first for access
+				classPath = new ByteArrayClassPath(className, byteCode);
+				classPool.insertClassPath(classPath);
 			}
-			// the byte array classpath needs to be the last one to be the first for access
-			classPath = new ByteArrayClassPath(className, byteCode);
-			classPool.insertClassPath(classPath);
 
 			byte[] instrumentedByteCode = null;
-			Map<CtBehavior, List<UnregisteredSensorConfig>> behaviorToConfigMap = analyze(className, classLoader);
+			Map<CtBehavior, List<UnregisteredSensorConfig>> behaviorToConfigMap = analyze(className, classLoader, unregisteredSensorConfigs);
+			List<InstrumentationCache.CachedBehavior> cachedBehaviors = (null != cacheKey) ? new ArrayList<InstrumentationCache.CachedBehavior>() : null;
 
 			// class loader delegation behaviors
 			List<? extends CtBehavior> classLoaderDelegationBehaviors = analyzeForClassLoaderDelegation(className, classLoader);
 
 			CtBehavior ctBehavior = null;
 			if (!behaviorToConfigMap.isEmpty()) {
-				ctBehavior = instrumentSensors(behaviorToConfigMap);
+				ctBehavior = instrumentSensors(behaviorToConfigMap, unregisteredSensorConfigs, cachedBehaviors);
 			}
 
 			if (!classLoaderDelegationBehaviors.isEmpty()) {
@@ -147,7 +185,15 @@ public class ByteCodeAnalyzer implements IByteCodeAnalyzer {
 			}
 
 			if (null != ctBehavior) {
-				instrumentedByteCode = ctBehavior.getDeclaringClass().toBytecode();
+				CtClass ctClass = ctBehavior.getDeclaringClass();
+				synchronized (ctClass.getClassPool()) {
+					instrumentedByteCode = ctClass.toBytecode();
+				}
+				if (null != cacheKey) {
+					instrumentationCache.put(cacheKey, byteCode, new InstrumentationCache.CachedClass(ctClass.getPackageName(), ctClass.getSimpleName(), instrumentedByteCode, cachedBehaviors));
+				}
+			} else if (null != cacheKey) {
+				instrumentationCache.putUninstrumented(cacheKey);
 			}
 
 			return instrumentedByteCode;
@@ -170,11 +216,13 @@ public class ByteCodeAnalyzer implements IByteCodeAnalyzer {
 			// Remove the byte array class path from the class pool. The class
 			// loader now should know this class, thus it can be accessed
 			// through the standard way.
-			if (null != classPath) {
-				classPool.removeClassPath(classPath);
-			}
-			if (null != loaderClassPath) {
-				classPool.removeClassPath(loaderClassPath);
+			synchronized (classPool) {
+				if (null != classPath) {
+					classPool.removeClassPath(classPath);
+				}
+				if (null != loaderClassPath) {
+					classPool.removeClassPath(loaderClassPath);
+				}
 			}
 		}
 	}
@@ -213,12 +261,15 @@ public class ByteCodeAnalyzer implements IByteCodeAnalyzer {
 
 	/**
 	 * The analyze method will analyze the passed byte code, class name and class loader and returns
-	 * a {@link Map} with all matching methods to be instrumented.
+	 * a {@link Map} with all matching methods to be instrumented. Only the configurations that the
+	 * {@link SensorConfigMatchIndex} returns as candidates for the class are compared.
 	 * 
 	 * @param className
 	 *            The name of the class.
 	 * @param classLoader
 	 *            The class loader of the passed class.
+	 * @param unregisteredSensorConfigs
+	 *            Current unregistered sensor configurations.
 	 * @return Returns a {@link Map} with all found methods ({@link CtBehavior}) as the Key and a
 	 *         {@link List} of {@link UnregisteredSensorConfig} as the value.
 	 * @throws NotFoundException
@@ -226,14 +277,25 @@ public class ByteCodeAnalyzer implements IByteCodeAnalyzer {
 	 * @throws StorageException
 	 *             Sensor could not be added.
 	 */
-	private Map<CtBehavior, List<UnregisteredSensorConfig>> analyze(String className, ClassLoader classLoader) throws NotFoundException, StorageException {
+	private Map<CtBehavior, List<UnregisteredSensorConfig>> analyze(String className, ClassLoader classLoader, List<UnregisteredSensorConfig> unregisteredSensorConfigs) throws NotFoundException,
+			StorageException {
+		long start = System.nanoTime();
 		Map<CtBehavior, List<UnregisteredSensorConfig>> behaviorToConfigMap = new HashMap<CtBehavior, List<UnregisteredSensorConfig>>();
 
-		// Iterating over all stored unregistered sensor configurations
-		for (UnregisteredSensorConfig unregisteredSensorConfig : configurationStorage.getUnregisteredSensorConfigs()) {
-			// try to match the class name first
-			IMatcher matcher = unregisteredSensorConfig.getMatcher();
-			if (matcher.compareClassName(classLoader, className)) {
+		SensorConfigMatchIndex index = getMatchIndex(unregisteredSensorConfigs);
+		List<UnregisteredSensorConfig> candidates = index.getCandidates(className);
+		int hits = 0;
+
+		try {
+			// Iterating over the candidate unregistered sensor configurations
+			for (UnregisteredSensorConfig unregisteredSensorConfig : candidates) {
+				// try to match the class name first
+				IMatcher matcher = unregisteredSensorConfig.getMatcher();
+				if (!matcher.compareClassName(classLoader, className)) {
+					continue;
+				}
+				hits++;
+
 				List<? extends CtBehavior> behaviors;
 				// differentiate between constructors and methods.
 				if (unregisteredSensorConfig.isConstructor()) {
@@ -261,11 +323,90 @@ public class ByteCodeAnalyzer implements IByteCodeAnalyzer {
 					}
 				}
 			}
+		} finally {
+			long duration = System.nanoTime() - start;
+			classAnalysisMetrics.recordClass(duration, hits, candidates.size() - hits, index.size() - candidates.size());
+			if (log.isTraceEnabled()) {
+				log.trace("analyze: " + className + " compared with " + candidates.size() + " of " + index.size() + " sensor configurations, " + hits + " matched, took " + duration + " ns");
+			}
 		}
 
 		return behaviorToConfigMap;
 	}
 
+	/**
+	 * Returns the {@link SensorConfigMatchIndex} for the given configurations. The index is
+	 * rebuilt if the modification count of the configurations changed since it was built. The
+	 * count is read before the configurations are copied, so an index is never marked newer than
+	 * the configurations it holds. Concurrent rebuilds are harmless as the index is immutable.
+	 * 
+	 * @param unregisteredSensorConfigs
+	 *            Current unregistered sensor configurations.
+	 * @return {@link SensorConfigMatchIndex}.
+	 */
+	private SensorConfigMatchIndex getMatchIndex(List<UnregisteredSensorConfig> unregisteredSensorConfigs) {
+		int modCount = configurationStorage.getUnregisteredSensorConfigsModCount();
+		SensorConfigMatchIndex index = matchIndex;
+		if ((null == index) || !index.isBuiltFor(modCount)) {
+			index = new SensorConfigMatchIndex(unregisteredSensorConfigs, modCount);
+			matchIndex = index;
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the metrics of matching the classes against the sensor configurations.
+	 * 
+	 * @return {@link ClassAnalysisMetrics}.
+	 */
+	public ClassAnalysisMetrics getClassAnalysisMetrics() {
+		return classAnalysisMetrics;
+	}
+
+	/**
+	 * Registers the methods of the class found in the {@link InstrumentationCache} and returns the
+	 * cached instrumented byte code with the newly registered method ids.
+	 * 
+	 * @param cacheKey
+	 *            Key of the class in the cache.
+	 * @param unregisteredSensorConfigs
+	 *            Current unregistered sensor configurations.
+	 * @return Instrumented byte code or <code>null</code> if the class is not in the cache.
+	 */
+	private byte[] instrumentFromCache(String cacheKey, List<UnregisteredSensorConfig> unregisteredSensorConfigs) {
+		InstrumentationCache.CachedClass cachedClass = instrumentationCache.get(cacheKey);
+		if (null == cachedClass) {
+			return null;
+		}
+
+		List<InstrumentationCache.CachedBehavior> behaviors = cachedClass.getBehaviors();
+		List<List<UnregisteredSensorConfig>> behaviorConfigs = new ArrayList<List<UnregisteredSensorConfig>>(behaviors.size());
+		for (InstrumentationCache.CachedBehavior behavior : behaviors) {
+			List<UnregisteredSensorConfig> configs = new ArrayList<UnregisteredSensorConfig>(behavior.getConfigPositions().length);
+			for (int position : behavior.getConfigPositions()) {
+				if ((position < 0) || (position >= unregisteredSensorConfigs.size())) {
+					// can only happen if the configuration changed without changing the fingerprint
+					return null;
+				}
+				configs.add(unregisteredSensorConfigs.get(position));
+			}
+			behaviorConfigs.add(configs);
+		}
+
+		long[] methodIds = new long[behaviors.size()];
+		for (int i = 0; i < methodIds.length; i++) {
+			InstrumentationCache.CachedBehavior behavior = behaviors.get(i);
+			RegisteredSensorConfig rsc = createRegisteredSensorConfig(cachedClass.getPackageName(), cachedClass.getClassName(), behavior.getMethodName(), behavior.getParameterTypes(),
+					behavior.getModifiers(), behavior.getReturnType(), behavior.isConstructor(), behaviorConfigs.get(i));
+			methodIds[i] = hookInstrumenter.registerInstrumentedHook(rsc);
+		}
+
+		if (log.isDebugEnabled()) {
+			log.debug("Instrumented byte code of the class " + cachedClass.getClassName() + " with " + methodIds.length + " methods taken from the instrumentation cache.");
+		}
+		return cachedClass.getInstrumentedByteCode(methodIds);
+	}
+
 	/**
 	 * Instruments the methods in the {@link Map} and creates the appropriate
 	 * {@link RegisteredSensorConfig} classes.
@@ -273,6 +414,11 @@ public class ByteCodeAnalyzer implements IByteCodeAnalyzer {
 	 * @param methodToConfigMap
 	 *            The initialized {@link Map} which is filled by the
 	 *            {@link #analyze(byte[], String, ClassLoader)} method.
+	 * @param unregisteredSensorConfigs
+	 *            Current unregistered sensor configurations.
+	 * @param cachedBehaviors
+	 *            List to add the information about each instrumented method to, so it can be
+	 *            stored in the {@link InstrumentationCache}. Can be <code>null</code>.
 	 * @return Returns the instrumented byte code.
 	 * @throws NotFoundException
 	 *             Something could not be found.
@@ -283,7 +429,8 @@ public class ByteCodeAnalyzer implements IByteCodeAnalyzer {
 	 * @throws CannotCompileException
 	 *             The byte code could not be generated.
 	 */
-	private CtBehavior instrumentSensors(Map<CtBehavior, List<UnregisteredSensorConfig>> methodToConfigMap) throws NotFoundException, HookException, IOException, CannotCompileException {
+	private CtBehavior instrumentSensors(Map<CtBehavior, List<UnregisteredSensorConfig>> methodToConfigMap, List<UnregisteredSensorConfig> unregisteredSensorConfigs,
+			List<InstrumentationCache.CachedBehavior> cachedBehaviors) throws NotFoundException, HookException, IOException, CannotCompileException {
 		CtBehavior ctBehavior = null;
 		for (Map.Entry<CtBehavior, List<UnregisteredSensorConfig>> entry : methodToConfigMap.entrySet()) {
 			ctBehavior = entry.getKey();
@@ -295,56 +442,119 @@ public class ByteCodeAnalyzer implements IByteCodeAnalyzer {
 				parameterTypes.add(parameterClasses[pos].getName());
 			}
 
-			RegisteredSensorConfig rsc = new RegisteredSensorConfig();
-			rsc.setTargetPackageName(ctBehavior.getDeclaringClass().getPackageName());
-			rsc.setTargetClassName(ctBehavior.getDeclaringClass().getSimpleName());
-			rsc.setTargetMethodName(ctBehavior.getName());
-			rsc.setParameterTypes(parameterTypes);
-			rsc.setModifiers(ctBehavior.getModifiers());
-			rsc.setCtBehavior(ctBehavior);
-			rsc.setConstructor(ctBehavior instanceof CtConstructor);
-
 			// return type only for methods available, otherwise the return type is set to empty
 			// string.
-			if (!rsc.isConstructor()) {
+			boolean constructor = ctBehavior instanceof CtConstructor;
+			String returnType = "";
+			if (!constructor) {
 				CtMethod ctMethod = (CtMethod) ctBehavior;
-				rsc.setReturnType(ctMethod.getReturnType().getName());
+				returnType = ctMethod.getReturnType().getName();
+			}
+
+			RegisteredSensorConfig rsc = createRegisteredSensorConfig(ctBehavior.getDeclaringClass().getPackageName(), ctBehavior.getDeclaringClass().getSimpleName(), ctBehavior.getName(),
+					parameterTypes, ctBehavior.getModifiers(), returnType, constructor, configs);
+			rsc.setCtBehavior(ctBehavior);
+
+			if (!rsc.isConstructor()) {
+				hookInstrumenter.addMethodHook((CtMethod) ctBehavior, rsc);
+			} else {
+				hookInstrumenter.addConstructorHook((CtConstructor) ctBehavior, rsc);
+			}
+
+			if (null != cachedBehaviors) {
+				cachedBehaviors.add(new InstrumentationCache.CachedBehavior(rsc, getPositions(configs, unregisteredSensorConfigs)));
 			}
+		}
+		return ctBehavior;
+	}
 
-			for (UnregisteredSensorConfig usc : configs) {
-				rsc.addSensorTypeConfig(usc.getSensorTypeConfig());
-				rsc.getSettings().putAll(usc.getSettings());
+	/**
+	 * Creates the {@link RegisteredSensorConfig} for the method matched by the given
+	 * configurations.
+	 * 
+	 * @param packageName
+	 *            Package name of the class.
+	 * @param className
+	 *            Simple name of the class.
+	 * @param methodName
+	 *            Name of the method.
+	 * @param parameterTypes
+	 *            Parameter types of the method.
+	 * @param modifiers
+	 *            Modifiers of the method.
+	 * @param returnType
+	 *            Return type of the method, ignored for constructors.
+	 * @param constructor
+	 *            If the method is a constructor.
+	 * @param configs
+	 *            Unregistered sensor configurations that matched the method.
+	 * @return {@link RegisteredSensorConfig}.
+	 */
+	private RegisteredSensorConfig createRegisteredSensorConfig(String packageName, String className, String methodName, List<String> parameterTypes, int modifiers, String returnType,
+			boolean constructor, List<UnregisteredSensorConfig> configs) {
+		RegisteredSensorConfig rsc = new RegisteredSensorConfig();
+		rsc.setTargetPackageName(packageName);
+		rsc.setTargetClassName(className);
+		rsc.setTargetMethodName(methodName);
+		rsc.setParameterTypes(parameterTypes);
+		rsc.setModifiers(modifiers);
+		rsc.setConstructor(constructor);
+		if (!constructor) {
+			rsc.setReturnType(returnType);
+		}
+
+		for (UnregisteredSensorConfig usc : configs) {
+			rsc.addSensorTypeConfig(usc.getSensorTypeConfig());
+			rsc.getSettings().putAll(usc.getSettings());
 
-				if (usc.isPropertyAccess()) {
-					for (PropertyPathStart propertyPathStart : usc.getPropertyAccessorList()) {
-						// Filter not meaningful property accessors.
-						if (isMeaningfulCapturing(propertyPathStart.getContentType(), rsc)) {
-							rsc.getPropertyAccessorList().add(propertyPathStart);
-						}
+			if (usc.isPropertyAccess()) {
+				for (PropertyPathStart propertyPathStart : usc.getPropertyAccessorList()) {
+					// Filter not meaningful property accessors.
+					if (isMeaningfulCapturing(propertyPathStart.getContentType(), rsc)) {
+						rsc.getPropertyAccessorList().add(propertyPathStart);
 					}
 				}
 			}
+		}
 
-			rsc.setPropertyAccess(!rsc.getPropertyAccessorList().isEmpty());
+		rsc.setPropertyAccess(!rsc.getPropertyAccessorList().isEmpty());
 
-			// only when there is an enhanced Exception Sensor defined
-			if (configurationStorage.isExceptionSensorActivated() && configurationStorage.isEnhancedExceptionSensorActivated()) {
-				// iterate over the exception sensor types - currently there is only one
-				for (MethodSensorTypeConfig config : configurationStorage.getExceptionSensorTypes()) {
-					// need to add the exception sensor config separately, because otherwise it
-					// would be added to the other method hooks, but the exception sensor is a
-					// constructor hook
-					rsc.setExceptionSensorTypeConfig(config);
-				}
+		// only when there is an enhanced Exception Sensor defined
+		if (configurationStorage.isExceptionSensorActivated() && configurationStorage.isEnhancedExceptionSensorActivated()) {
+			// iterate over the exception sensor types - currently there is only one
+			for (MethodSensorTypeConfig config : configurationStorage.getExceptionSensorTypes()) {
+				// need to add the exception sensor config separately, because otherwise it
+				// would be added to the other method hooks, but the exception sensor is a
+				// constructor hook
+				rsc.setExceptionSensorTypeConfig(config);
 			}
+		}
+		return rsc;
+	}
 
-			if (!rsc.isConstructor()) {
-				hookInstrumenter.addMethodHook((CtMethod) ctBehavior, rsc);
-			} else {
-				hookInstrumenter.addConstructorHook((CtConstructor) ctBehavior, rsc);
+	/**
+	 * Returns the positions of the configurations in the list of all configurations.
+	 * 
+	 * @param configs
+	 *            Configurations that matched a method.
+	 * @param unregisteredSensorConfigs
+	 *            All unregistered sensor configurations.
+	 * @return Positions of the configurations.
+	 */
+	private int[] getPositions(List<UnregisteredSensorConfig> configs, List<UnregisteredSensorConfig> unregisteredSensorConfigs) {
+		int[] positions = new int[configs.size()];
+		int i = 0;
+		for (UnregisteredSensorConfig config : configs) {
+			int position = 0;
+			for (UnregisteredSensorConfig unregisteredSensorConfig : unregisteredSensorConfigs) {
+				if (config == unregisteredSensorConfig) {
+					break;
+				}
+				position++;
 			}
+			positions[i++] = position;
 		}
-		return ctBehavior;
+		return positions;
 	}
 
 	/**
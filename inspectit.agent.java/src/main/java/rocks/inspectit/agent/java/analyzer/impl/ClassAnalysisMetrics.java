@@ -0,0 +1,144 @@
+package rocks.inspectit.agent.java.analyzer.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics of matching the loaded classes against the sensor configurations in the
+ * {@link ByteCodeAnalyzer}. A hit is a candidate configuration whose matcher accepted the class
+ * name, a miss is a candidate that was compared without success. Skipped configurations are the
+ * ones the {@link SensorConfigMatchIndex} excluded without comparing.
+ */
+public class ClassAnalysisMetrics {
+
+	/**
+	 * Amount of analyzed classes.
+	 */
+	private final AtomicLong analyzedClasses = new AtomicLong();
+
+	/**
+	 * Amount of candidate configurations that matched the class name.
+	 */
+	private final AtomicLong matchHits = new AtomicLong();
+
+	/**
+	 * Amount of candidate configurations that did not match the class name.
+	 */
+	private final AtomicLong matchMisses = new AtomicLong();
+
+	/**
+	 * Amount of configurations that were not compared at all.
+	 */
+	private final AtomicLong skippedConfigs = new AtomicLong();
+
+	/**
+	 * Summed up duration of the class analysis in nanoseconds.
+	 */
+	private final AtomicLong analysisTotalNanos = new AtomicLong();
+
+	/**
+	 * Maximum duration of one class analysis in nanoseconds.
+	 */
+	private final AtomicLong analysisMaxNanos = new AtomicLong();
+
+	/**
+	 * Records the analysis of one class.
+	 *
+	 * @param nanos
+	 *            Duration of the analysis in nanoseconds.
+	 * @param hits
+	 *            Amount of candidate configurations that matched.
+	 * @param misses
+	 *            Amount of candidate configurations that did not match.
+	 * @param skipped
+	 *            Amount of configurations that were not compared.
+	 */
+	public void recordClass(long nanos, int hits, int misses, int skipped) {
+		analyzedClasses.incrementAndGet();
+		matchHits.addAndGet(hits);
+		matchMisses.addAndGet(misses);
+		skippedConfigs.addAndGet(skipped);
+		analysisTotalNanos.addAndGet(nanos);
+		long max = analysisMaxNanos.get();
+		while ((nanos > max) && !analysisMaxNanos.compareAndSet(max, nanos)) {
+			max = analysisMaxNanos.get();
+		}
+	}
+
+	/**
+	 * Gets {@link #analyzedClasses}.
+	 *
+	 * @return {@link #analyzedClasses}
+	 */
+	public long getAnalyzedClasses() {
+		return analyzedClasses.get();
+	}
+
+	/**
+	 * Gets {@link #matchHits}.
+	 *
+	 * @return {@link #matchHits}
+	 */
+	public long getMatchHits() {
+		return matchHits.get();
+	}
+
+	/**
+	 * Gets {@link #matchMisses}.
+	 *
+	 * @return {@link #matchMisses}
+	 */
+	public long getMatchMisses() {
+		return matchMisses.get();
+	}
+
+	/**
+	 * Gets {@link #skippedConfigs}.
+	 *
+	 * @return {@link #skippedConfigs}
+	 */
+	public long getSkippedConfigs() {
+		return skippedConfigs.get();
+	}
+
+	/**
+	 * Returns the summed up duration of the class analysis in milliseconds.
+	 *
+	 * @return Total analysis time in milliseconds.
+	 */
+	public long getAnalysisTotalMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(analysisTotalNanos.get());
+	}
+
+	/**
+	 * Returns the average duration of one class analysis in microseconds.
+	 *
+	 * @return Average analysis time in microseconds or <code>0</code> if no class was analyzed.
+	 */
+	public long getAnalysisAverageMicros() {
+		long count = analyzedClasses.get();
+		if (0 == count) {
+			return 0;
+		}
+		return TimeUnit.NANOSECONDS.toMicros(analysisTotalNanos.get() / count);
+	}
+
+	/**
+	 * Returns the maximum duration of one class analysis in microseconds.
+	 *
+	 * @return Maximum analysis time in microseconds.
+	 */
+	public long getAnalysisMaxMicros() {
+		return TimeUnit.NANOSECONDS.toMicros(analysisMaxNanos.get());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public String toString() {
+		return "ClassAnalysisMetrics [analyzedClasses=" + getAnalyzedClasses() + ", matchHits=" + getMatchHits() + ", matchMisses=" + getMatchMisses() + ", skippedConfigs="
+				+ getSkippedConfigs() + ", analysisTotalMillis=" + getAnalysisTotalMillis() + ", analysisAverageMicros=" + getAnalysisAverageMicros() + ", analysisMaxMicros="
+				+ getAnalysisMaxMicros() + "]";
+	}
+
+}
@@ -1,6 +1,7 @@
 package rocks.inspectit.agent.java.analyzer.impl;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
@@ -35,14 +36,17 @@ public class ClassPoolAnalyzer implements IClassPoolAnalyzer {
 	Logger log;
 
 	/**
-	 * A weak list to save references to the class loaders.
+	 * A weak list to save references to the class loaders. Only accessed while holding the lock of
+	 * the {@link #map}.
 	 */
 	private static WeakList<ClassLoader> classLoaders = new WeakList<ClassLoader>();
 
 	/**
-	 * Contains a mapping from the {@link ClassPool} to the {@link ClassLoader} objects.
+	 * Contains a mapping from the {@link ClassPool} to the {@link ClassLoader} objects. Classes can
+	 * be analyzed in parallel, thus the map is synchronized and the hierarchy is copied while
+	 * holding its lock.
 	 */
-	private static Map<ClassLoader, ClassPool> map = new WeakHashMap<ClassLoader, ClassPool>();
+	private static Map<ClassLoader, ClassPool> map = Collections.synchronizedMap(new WeakHashMap<ClassLoader, ClassPool>());
 
 	/**
 	 * {@inheritDoc}
@@ -102,11 +106,13 @@ public class ClassPoolAnalyzer implements IClassPoolAnalyzer {
 		if (null == classLoader) {
 			return ClassPool.getDefault();
 		}
-		if (!classLoaders.contains(classLoader)) {
-			return this.copyHierarchy(classLoader);
-		}
+		synchronized (map) {
+			if (!classLoaders.contains(classLoader)) {
+				return this.copyHierarchy(classLoader);
+			}
 
-		return map.get(classLoader);
+			return map.get(classLoader);
+		}
 	}
 
 	/**
@@ -125,7 +131,8 @@ public class ClassPoolAnalyzer implements IClassPoolAnalyzer {
 	}
 
 	/**
-	 * Copy the hierarchy from the given classloader and build new classpool objects.
+	 * Copy the hierarchy from the given classloader and build new classpool objects. Must be called
+	 * while holding the lock of the {@link #map}.
 	 * 
 	 * @param classLoader
 	 *            The class loader.
@@ -0,0 +1,1096 @@
+package rocks.inspectit.agent.java.analyzer.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import rocks.inspectit.agent.java.config.IConfigurationStorage;
+import rocks.inspectit.agent.java.config.impl.RegisteredSensorConfig;
+import rocks.inspectit.shared.all.spring.logger.Log;
+import rocks.inspectit.shared.all.version.VersionService;
+
+/**
+ * On-disk cache of the class analysis and instrumentation results, so that a restarted agent does
+ * not have to analyze and instrument the unchanged classes again. Entries are keyed by the hash of
+ * the original class byte code and kept in a directory named after the fingerprint of the agent
+ * version and the configuration, thus a changed configuration starts with an empty cache.
+ * <p>
+ * An instrumented class entry holds the instrumented byte code and for each instrumented method
+ * the information needed to create its {@link RegisteredSensorConfig} again. The method ids are
+ * assigned by the id manager in the order of the registration and differ from run to run. As the
+ * hooks pass the id as a long constant, the entry stores the positions of these constants in the
+ * constant pool and they are overwritten with the newly registered ids. Classes where such a
+ * constant can not be found unambiguously are not cached. Classes that were analyzed without
+ * instrumenting anything are cached as well, so they are not analyzed again.
+ * <p>
+ * The cache assumes that the class hierarchy of an unchanged class does not change between the
+ * runs with the same configuration. The cache is disabled if no directory is set with the
+ * <code>instrumentation.cache.directory</code> property.
+ * <p>
+ * The cache is bounded in age and size. Reading an entry marks it as used, and on initialization
+ * the entries and the fingerprint directories not used for the
+ * <code>instrumentation.cache.maxAgeDays</code> are deleted. The amount of cached classes is
+ * limited with the <code>instrumentation.cache.maxEntries</code>, the least recently used entries
+ * are deleted on initialization if there are more and no new classes are added once the limit is
+ * reached.
+ */
+@Component
+public class InstrumentationCache {
+
+	/**
+	 * Version of the entry format.
+	 */
+	private static final int FORMAT_VERSION = 1;
+
+	/**
+	 * Suffix of the instrumented class entry files.
+	 */
+	private static final String ENTRY_SUFFIX = ".icache";
+
+	/**
+	 * Name of the file holding the keys of the classes that were not instrumented.
+	 */
+	private static final String UNINSTRUMENTED_FILE = "uninstrumented.keys";
+
+	/**
+	 * Constant pool tag of the long constant.
+	 */
+	private static final int CONSTANT_LONG = 5;
+
+	/**
+	 * Amount of lookups after which the hits and misses are logged.
+	 */
+	private static final long STATISTICS_INTERVAL = 1000;
+
+	/**
+	 * Milliseconds in a day.
+	 */
+	private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+	/**
+	 * Log for the class.
+	 */
+	@Log
+	Logger log;
+
+	/**
+	 * Directory of the cache, empty to disable the cache.
+	 */
+	@Value("${instrumentation.cache.directory:}")
+	String cacheDirectory;
+
+	/**
+	 * If class loader delegation is active, as it changes the instrumented byte code.
+	 */
+	@Value("${instrumentation.classLoaderDelegation}")
+	boolean classLoaderDelegation;
+
+	/**
+	 * Maximum amount of the cached instrumented and not instrumented classes.
+	 */
+	@Value("${instrumentation.cache.maxEntries:50000}")
+	int maxEntries;
+
+	/**
+	 * Days after which the not used entries and fingerprint directories are deleted.
+	 */
+	@Value("${instrumentation.cache.maxAgeDays:30}")
+	int maxAgeDays;
+
+	/**
+	 * The configuration storage providing the configuration fingerprint.
+	 */
+	private final IConfigurationStorage configurationStorage;
+
+	/**
+	 * Version service providing the agent version.
+	 */
+	private final VersionService versionService;
+
+	/**
+	 * If the cache directory was already resolved.
+	 */
+	private volatile boolean initialized;
+
+	/**
+	 * Directory of the current fingerprint or <code>null</code> if the cache is disabled.
+	 */
+	private volatile File directory;
+
+	/**
+	 * Keys of the stored instrumented class entries.
+	 */
+	private final Map<String, Boolean> instrumentedKeys = new ConcurrentHashMap<String, Boolean>();
+
+	/**
+	 * Keys of the classes that were not instrumented.
+	 */
+	private final Map<String, Boolean> uninstrumentedKeys = new ConcurrentHashMap<String, Boolean>();
+
+	/**
+	 * Amount of classes found in the cache.
+	 */
+	private final AtomicLong hits = new AtomicLong();
+
+	/**
+	 * Amount of classes not found in the cache.
+	 */
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * If the reached {@link #maxEntries} was already logged.
+	 */
+	private volatile boolean fullLogged;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param configurationStorage
+	 *            The configuration storage reference.
+	 * @param versionService
+	 *            The version service reference.
+	 */
+	@Autowired
+	public InstrumentationCache(IConfigurationStorage configurationStorage, VersionService versionService) {
+		this.configurationStorage = configurationStorage;
+		this.versionService = versionService;
+	}
+
+	/**
+	 * Returns if the cache is enabled. The cache directory is resolved on the first call, as the
+	 * configuration has to be loaded before.
+	 *
+	 * @return <code>true</code> if the cache can be used.
+	 */
+	public boolean isEnabled() {
+		if (!initialized) {
+			initDirectory();
+		}
+		return null != directory;
+	}
+
+	/**
+	 * Returns the key of the class.
+	 *
+	 * @param byteCode
+	 *            Original byte code of the class.
+	 * @return Key of the class.
+	 */
+	public String getKey(byte[] byteCode) {
+		return hash(byteCode);
+	}
+
+	/**
+	 * Returns if the class with the given key was analyzed before without being instrumented.
+	 *
+	 * @param key
+	 *            Key of the class.
+	 * @return <code>true</code> if the class does not have to be instrumented.
+	 */
+	public boolean isUninstrumented(String key) {
+		if (uninstrumentedKeys.containsKey(key)) {
+			countLookup(hits);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the cached instrumentation of the class with the given key.
+	 *
+	 * @param key
+	 *            Key of the class.
+	 * @return {@link CachedClass} or <code>null</code> if the class is not in the cache.
+	 */
+	public CachedClass get(String key) {
+		if (!instrumentedKeys.containsKey(key)) {
+			countLookup(misses);
+			return null;
+		}
+
+		File file = new File(directory, key + ENTRY_SUFFIX);
+		try {
+			CachedClass cachedClass = read(file);
+			// mark the entry as used for the age bound
+			if (!file.setLastModified(System.currentTimeMillis()) && log.isDebugEnabled()) {
+				log.debug("Instrumentation cache entry " + file.getAbsolutePath() + " can not be marked as used.");
+			}
+			countLookup(hits);
+			return cachedClass;
+		} catch (IOException e) {
+			log.warn("Instrumentation cache entry " + file.getAbsolutePath() + " can not be read, deleting it.", e);
+			instrumentedKeys.remove(key);
+			if (!file.delete() && log.isDebugEnabled()) {
+				log.debug("Instrumentation cache entry " + file.getAbsolutePath() + " can not be deleted.");
+			}
+			countLookup(misses);
+			return null;
+		}
+	}
+
+	/**
+	 * Stores the key of the class that was analyzed without being instrumented.
+	 *
+	 * @param key
+	 *            Key of the class.
+	 */
+	public void putUninstrumented(String key) {
+		if (isFull() || (null != uninstrumentedKeys.put(key, Boolean.TRUE))) {
+			return;
+		}
+		synchronized (uninstrumentedKeys) {
+			OutputStream outputStream = null;
+			try {
+				outputStream = new FileOutputStream(new File(directory, UNINSTRUMENTED_FILE), true);
+				outputStream.write((key + "\n").getBytes("US-ASCII"));
+			} catch (IOException e) {
+				log.warn("Class key can not be added to the instrumentation cache.", e);
+			} finally {
+				close(outputStream);
+			}
+		}
+	}
+
+	/**
+	 * Stores the instrumentation of the class. The {@link CachedBehavior}s must hold the ids the
+	 * methods were registered with. The class is not stored if an id can not be found
+	 * unambiguously in the constant pool of the instrumented byte code.
+	 *
+	 * @param key
+	 *            Key of the class.
+	 * @param byteCode
+	 *            Original byte code of the class.
+	 * @param cachedClass
+	 *            Instrumentation of the class.
+	 */
+	public void put(String key, byte[] byteCode, CachedClass cachedClass) {
+		if (isFull()) {
+			return;
+		}
+		try {
+			Map<Long, List<Integer>> originalConstants = getLongConstantOffsets(byteCode);
+			Map<Long, List<Integer>> instrumentedConstants = getLongConstantOffsets(cachedClass.instrumentedByteCode);
+			for (CachedBehavior behavior : cachedClass.behaviors) {
+				Long methodId = Long.valueOf(behavior.methodId);
+				List<Integer> offsets = instrumentedConstants.get(methodId);
+				if (originalConstants.containsKey(methodId) || (null == offsets)) {
+					if (log.isDebugEnabled()) {
+						log.debug("Class " + cachedClass.className + " is not cached, the method id " + methodId + " can not be found unambiguously in the instrumented byte code.");
+					}
+					return;
+				}
+				behavior.idOffsets = toArray(offsets);
+			}
+
+			File file = new File(directory, key + ENTRY_SUFFIX);
+			write(file, cachedClass);
+			instrumentedKeys.put(key, Boolean.TRUE);
+		} catch (IOException e) {
+			log.warn("Class " + cachedClass.className + " can not be added to the instrumentation cache.", e);
+		}
+	}
+
+	/**
+	 * Gets {@link #hits}.
+	 *
+	 * @return {@link #hits}
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Gets {@link #misses}.
+	 *
+	 * @return {@link #misses}
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * Counts the lookup and logs the hits and misses after every {@link #STATISTICS_INTERVAL}
+	 * lookups.
+	 *
+	 * @param counter
+	 *            {@link #hits} or {@link #misses}.
+	 */
+	private void countLookup(AtomicLong counter) {
+		counter.incrementAndGet();
+		long hitCount = hits.get();
+		long missCount = misses.get();
+		if ((((hitCount + missCount) % STATISTICS_INTERVAL) == 0) && log.isInfoEnabled()) {
+			log.info("Instrumentation cache lookups: " + hitCount + " hits, " + missCount + " misses.");
+		}
+	}
+
+	/**
+	 * Returns if the {@link #maxEntries} is reached, so that no more classes can be added.
+	 *
+	 * @return <code>true</code> if the cache is full.
+	 */
+	private boolean isFull() {
+		if ((instrumentedKeys.size() + uninstrumentedKeys.size()) < maxEntries) {
+			return false;
+		}
+		if (!fullLogged) {
+			fullLogged = true;
+			log.info("Instrumentation cache holds the maximum of " + maxEntries + " classes, no more classes are added.");
+		}
+		return true;
+	}
+
+	/**
+	 * Resolves the directory of the current fingerprint and loads the keys of the stored classes.
+	 */
+	private synchronized void initDirectory() {
+		if (initialized) {
+			return;
+		}
+		try {
+			if (StringUtils.isBlank(cacheDirectory)) {
+				return;
+			}
+			String configurationFingerprint = configurationStorage.getConfigurationFingerprint();
+			String version = versionService.getVersionAsString();
+			if ((null == configurationFingerprint) || VersionService.UNKNOWN_VERSION.equals(version)) {
+				log.info("Instrumentation cache is disabled, as the agent version or the configuration fingerprint is not known.");
+				return;
+			}
+
+			String fingerprint = hash((version + "\n" + classLoaderDelegation + "\n" + configurationFingerprint).getBytes("UTF-8"));
+			File fingerprintDirectory = new File(cacheDirectory, fingerprint);
+			if (!fingerprintDirectory.isDirectory() && !fingerprintDirectory.mkdirs()) {
+				log.warn("Instrumentation cache is disabled, the directory " + fingerprintDirectory.getAbsolutePath() + " can not be created.");
+				return;
+			}
+
+			long expiryTime = System.currentTimeMillis() - (maxAgeDays * DAY_MILLIS);
+			// mark the directory as used, so that other agents don't prune it
+			if (!fingerprintDirectory.setLastModified(System.currentTimeMillis()) && log.isDebugEnabled()) {
+				log.debug("Instrumentation cache directory " + fingerprintDirectory.getAbsolutePath() + " can not be marked as used.");
+			}
+			pruneFingerprintDirectories(fingerprintDirectory, expiryTime);
+
+			File[] entryFiles = fingerprintDirectory.listFiles(new FilenameFilter() {
+				public boolean accept(File dir, String name) {
+					return name.endsWith(ENTRY_SUFFIX);
+				}
+			});
+			if (null != entryFiles) {
+				loadEntries(entryFiles, expiryTime);
+			}
+			File uninstrumentedFile = new File(fingerprintDirectory, UNINSTRUMENTED_FILE);
+			readUninstrumentedKeys(uninstrumentedFile);
+			if ((uninstrumentedKeys.size() > maxEntries) || (uninstrumentedFile.isFile() && (uninstrumentedFile.lastModified() < expiryTime))) {
+				// the keys can not be aged separately, so the file starts over
+				uninstrumentedKeys.clear();
+				delete(uninstrumentedFile);
+			} else if (uninstrumentedFile.isFile() && !uninstrumentedFile.setLastModified(System.currentTimeMillis()) && log.isDebugEnabled()) {
+				log.debug("Instrumentation cache file " + uninstrumentedFile.getAbsolutePath() + " can not be marked as used.");
+			}
+
+			directory = fingerprintDirectory;
+			if (log.isInfoEnabled()) {
+				log.info("Instrumentation cache at " + fingerprintDirectory.getAbsolutePath() + " holds " + instrumentedKeys.size() + " instrumented and " + uninstrumentedKeys.size()
+						+ " not instrumented classes.");
+			}
+		} catch (IOException e) {
+			log.warn("Instrumentation cache is disabled, the cache can not be initialized.", e);
+		} finally {
+			initialized = true;
+		}
+	}
+
+	/**
+	 * Deletes the directories of the other fingerprints that were not used since the expiry time.
+	 * Other agents using the same cache directory mark their fingerprint directory as used on
+	 * initialization.
+	 *
+	 * @param fingerprintDirectory
+	 *            Directory of the current fingerprint.
+	 * @param expiryTime
+	 *            Time before which the directories are stale.
+	 */
+	private void pruneFingerprintDirectories(File fingerprintDirectory, long expiryTime) {
+		File[] directories = fingerprintDirectory.getParentFile().listFiles();
+		if (null == directories) {
+			return;
+		}
+		for (File staleDirectory : directories) {
+			// only the directories named as fingerprints are pruned
+			if (staleDirectory.isDirectory() && staleDirectory.getName().matches("[0-9a-f]+") && !staleDirectory.equals(fingerprintDirectory) && (staleDirectory.lastModified() < expiryTime)) {
+				File[] files = staleDirectory.listFiles();
+				if (null != files) {
+					for (File file : files) {
+						delete(file);
+					}
+				}
+				delete(staleDirectory);
+				if (log.isDebugEnabled()) {
+					log.debug("Stale instrumentation cache directory " + staleDirectory.getAbsolutePath() + " deleted.");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Loads the keys of the instrumented class entries. The entries not used since the expiry time
+	 * are deleted, as well as the least recently used ones exceeding the {@link #maxEntries}.
+	 *
+	 * @param entryFiles
+	 *            Entry files.
+	 * @param expiryTime
+	 *            Time before which the entries are stale.
+	 */
+	private void loadEntries(File[] entryFiles, long expiryTime) {
+		List<File> entries = new ArrayList<File>(entryFiles.length);
+		for (File entryFile : entryFiles) {
+			if (entryFile.lastModified() < expiryTime) {
+				delete(entryFile);
+			} else {
+				entries.add(entryFile);
+			}
+		}
+		if (entries.size() > maxEntries) {
+			// most recently used first
+			Collections.sort(entries, new Comparator<File>() {
+				public int compare(File o1, File o2) {
+					long lastModified1 = o1.lastModified();
+					long lastModified2 = o2.lastModified();
+					return (lastModified1 > lastModified2) ? -1 : ((lastModified1 == lastModified2) ? 0 : 1);
+				}
+			});
+			for (File entryFile : entries.subList(maxEntries, entries.size())) {
+				delete(entryFile);
+			}
+			entries = entries.subList(0, maxEntries);
+		}
+		for (File entryFile : entries) {
+			String fileName = entryFile.getName();
+			instrumentedKeys.put(fileName.substring(0, fileName.length() - ENTRY_SUFFIX.length()), Boolean.TRUE);
+		}
+	}
+
+	/**
+	 * Deletes the file or empty directory.
+	 *
+	 * @param file
+	 *            File to delete.
+	 */
+	private void delete(File file) {
+		if (file.exists() && !file.delete() && log.isDebugEnabled()) {
+			log.debug("Instrumentation cache file " + file.getAbsolutePath() + " can not be deleted.");
+		}
+	}
+
+	/**
+	 * Reads the keys of the classes that were not instrumented.
+	 *
+	 * @param file
+	 *            File holding the keys.
+	 * @throws IOException
+	 *             If reading fails.
+	 */
+	private void readUninstrumentedKeys(File file) throws IOException {
+		if (!file.isFile()) {
+			return;
+		}
+		InputStream inputStream = null;
+		try {
+			inputStream = new BufferedInputStream(new FileInputStream(file));
+			StringBuilder key = new StringBuilder(40);
+			int b = inputStream.read();
+			while (b >= 0) {
+				if (b == '\n') {
+					if (key.length() > 0) {
+						uninstrumentedKeys.put(key.toString(), Boolean.TRUE);
+					}
+					key.setLength(0);
+				} else {
+					key.append((char) b);
+				}
+				b = inputStream.read();
+			}
+			// an incomplete last line is ignored, as it may be written concurrently
+		} finally {
+			close(inputStream);
+		}
+	}
+
+	/**
+	 * Writes the entry to the temporary file and renames it to the entry file, so that other
+	 * agents using the same directory never read an incomplete entry.
+	 *
+	 * @param file
+	 *            Entry file.
+	 * @param cachedClass
+	 *            Instrumentation of the class.
+	 * @throws IOException
+	 *             If writing fails.
+	 */
+	private void write(File file, CachedClass cachedClass) throws IOException {
+		File tempFile = File.createTempFile("entry", ".tmp", directory);
+		DataOutputStream outputStream = null;
+		try {
+			outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+			outputStream.writeInt(FORMAT_VERSION);
+			writeString(outputStream, cachedClass.packageName);
+			writeString(outputStream, cachedClass.className);
+			outputStream.writeInt(cachedClass.instrumentedByteCode.length);
+			outputStream.write(cachedClass.instrumentedByteCode);
+			outputStream.writeInt(cachedClass.behaviors.size());
+			for (CachedBehavior behavior : cachedClass.behaviors) {
+				writeString(outputStream, behavior.methodName);
+				outputStream.writeInt(behavior.parameterTypes.size());
+				for (String parameterType : behavior.parameterTypes) {
+					writeString(outputStream, parameterType);
+				}
+				outputStream.writeInt(behavior.modifiers);
+				writeString(outputStream, behavior.returnType);
+				outputStream.writeBoolean(behavior.constructor);
+				writeInts(outputStream, behavior.configPositions);
+				writeInts(outputStream, behavior.idOffsets);
+			}
+			outputStream.close();
+			outputStream = null;
+
+			if (!tempFile.renameTo(file)) {
+				throw new IOException("Temporary file " + tempFile.getAbsolutePath() + " can not be renamed to " + file.getAbsolutePath() + ".");
+			}
+		} finally {
+			close(outputStream);
+			if (tempFile.exists() && !tempFile.delete() && log.isDebugEnabled()) {
+				log.debug("Temporary file " + tempFile.getAbsolutePath() + " can not be deleted.");
+			}
+		}
+	}
+
+	/**
+	 * Reads the entry.
+	 *
+	 * @param file
+	 *            Entry file.
+	 * @return {@link CachedClass}.
+	 * @throws IOException
+	 *             If reading fails or the entry is not valid.
+	 */
+	private CachedClass read(File file) throws IOException {
+		DataInputStream inputStream = null;
+		try {
+			inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			int formatVersion = inputStream.readInt();
+			if (FORMAT_VERSION != formatVersion) {
+				throw new IOException("Entry format version " + formatVersion + " is not supported.");
+			}
+			String packageName = readString(inputStream);
+			String className = readString(inputStream);
+			byte[] instrumentedByteCode = new byte[inputStream.readInt()];
+			inputStream.readFully(instrumentedByteCode);
+			int behaviorCount = inputStream.readInt();
+			List<CachedBehavior> behaviors = new ArrayList<CachedBehavior>(behaviorCount);
+			for (int i = 0; i < behaviorCount; i++) {
+				CachedBehavior behavior = new CachedBehavior();
+				behavior.methodName = readString(inputStream);
+				int parameterCount = inputStream.readInt();
+				behavior.parameterTypes = new ArrayList<String>(parameterCount);
+				for (int j = 0; j < parameterCount; j++) {
+					behavior.parameterTypes.add(readString(inputStream));
+				}
+				behavior.modifiers = inputStream.readInt();
+				behavior.returnType = readString(inputStream);
+				behavior.constructor = inputStream.readBoolean();
+				behavior.configPositions = readInts(inputStream);
+				behavior.idOffsets = readInts(inputStream);
+				for (int offset : behavior.idOffsets) {
+					if ((offset < 0) || (offset > (instrumentedByteCode.length - 8))) {
+						throw new IOException("Method id offset " + offset + " is outside of the byte code.");
+					}
+				}
+				behaviors.add(behavior);
+			}
+			return new CachedClass(packageName, className, instrumentedByteCode, behaviors);
+		} finally {
+			close(inputStream);
+		}
+	}
+
+	/**
+	 * Returns the offsets of the long constant values in the class file, mapped by the value.
+	 *
+	 * @param classFile
+	 *            Byte code of the class.
+	 * @return Offsets of the eight value bytes of each long constant in the constant pool.
+	 * @throws IOException
+	 *             If the constant pool can not be parsed.
+	 */
+	static Map<Long, List<Integer>> getLongConstantOffsets(byte[] classFile) throws IOException {
+		Map<Long, List<Integer>> constants = new HashMap<Long, List<Integer>>();
+		if (classFile.length < 10) {
+			throw new IOException("Byte code is too short to be a class file.");
+		}
+		int constantPoolCount = readUnsignedShort(classFile, 8);
+		int offset = 10;
+		for (int index = 1; index < constantPoolCount; index++) {
+			if (offset >= classFile.length) {
+				throw new IOException("Constant pool exceeds the byte code.");
+			}
+			int tag = classFile[offset] & 0xFF;
+			switch (tag) {
+			case 1: // utf8
+				if ((offset + 3) > classFile.length) {
+					throw new IOException("Constant pool exceeds the byte code.");
+				}
+				offset += 3 + readUnsignedShort(classFile, offset + 1);
+				break;
+			case 3: // integer
+			case 4: // float
+			case 9: // field reference
+			case 10: // method reference
+			case 11: // interface method reference
+			case 12: // name and type
+			case 17: // dynamic
+			case 18: // invoke dynamic
+				offset += 5;
+				break;
+			case CONSTANT_LONG:
+			case 6: // double
+				if ((offset + 9) > classFile.length) {
+					throw new IOException("Constant pool exceeds the byte code.");
+				}
+				if (CONSTANT_LONG == tag) {
+					Long value = Long.valueOf(readLong(classFile, offset + 1));
+					List<Integer> offsets = constants.get(value);
+					if (null == offsets) {
+						offsets = new ArrayList<Integer>(1);
+						constants.put(value, offsets);
+					}
+					offsets.add(Integer.valueOf(offset + 1));
+				}
+				offset += 9;
+				// long and double constants take two entries
+				index++;
+				break;
+			case 7: // class
+			case 8: // string
+			case 16: // method type
+			case 19: // module
+			case 20: // package
+				offset += 3;
+				break;
+			case 15: // method handle
+				offset += 4;
+				break;
+			default:
+				throw new IOException("Unknown constant pool tag " + tag + " at offset " + offset + ".");
+			}
+		}
+		return constants;
+	}
+
+	/**
+	 * Reads the unsigned short at the offset.
+	 *
+	 * @param bytes
+	 *            Bytes.
+	 * @param offset
+	 *            Offset.
+	 * @return Value.
+	 */
+	private static int readUnsignedShort(byte[] bytes, int offset) {
+		return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+	}
+
+	/**
+	 * Reads the big-endian long at the offset.
+	 *
+	 * @param bytes
+	 *            Bytes.
+	 * @param offset
+	 *            Offset.
+	 * @return Value.
+	 */
+	private static long readLong(byte[] bytes, int offset) {
+		long value = 0;
+		for (int i = 0; i < 8; i++) {
+			value = (value << 8) | (bytes[offset + i] & 0xFF);
+		}
+		return value;
+	}
+
+	/**
+	 * Writes the big-endian long at the offset.
+	 *
+	 * @param bytes
+	 *            Bytes.
+	 * @param offset
+	 *            Offset.
+	 * @param value
+	 *            Value.
+	 */
+	private static void writeLong(byte[] bytes, int offset, long value) {
+		for (int i = 7; i >= 0; i--) {
+			bytes[offset + 7 - i] = (byte) (value >>> (i * 8));
+		}
+	}
+
+	/**
+	 * Returns the SHA-1 hash of the bytes as hex string.
+	 *
+	 * @param bytes
+	 *            Bytes.
+	 * @return Hash.
+	 */
+	private static String hash(byte[] bytes) {
+		try {
+			return new BigInteger(1, MessageDigest.getInstance("SHA-1").digest(bytes)).toString(16);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-1 algorithm is not available.", e);
+		}
+	}
+
+	/**
+	 * Writes the string that can be <code>null</code>.
+	 *
+	 * @param outputStream
+	 *            Stream.
+	 * @param value
+	 *            String.
+	 * @throws IOException
+	 *             If writing fails.
+	 */
+	private static void writeString(DataOutputStream outputStream, String value) throws IOException {
+		outputStream.writeBoolean(null != value);
+		if (null != value) {
+			outputStream.writeUTF(value);
+		}
+	}
+
+	/**
+	 * Reads the string written with {@link #writeString(DataOutputStream, String)}.
+	 *
+	 * @param inputStream
+	 *            Stream.
+	 * @return String or <code>null</code>.
+	 * @throws IOException
+	 *             If reading fails.
+	 */
+	private static String readString(DataInputStream inputStream) throws IOException {
+		if (inputStream.readBoolean()) {
+			return inputStream.readUTF();
+		}
+		return null;
+	}
+
+	/**
+	 * Writes the int array.
+	 *
+	 * @param outputStream
+	 *            Stream.
+	 * @param values
+	 *            Array.
+	 * @throws IOException
+	 *             If writing fails.
+	 */
+	private static void writeInts(DataOutputStream outputStream, int[] values) throws IOException {
+		outputStream.writeInt(values.length);
+		for (int value : values) {
+			outputStream.writeInt(value);
+		}
+	}
+
+	/**
+	 * Reads the int array written with {@link #writeInts(DataOutputStream, int[])}.
+	 *
+	 * @param inputStream
+	 *            Stream.
+	 * @return Array.
+	 * @throws IOException
+	 *             If reading fails.
+	 */
+	private static int[] readInts(DataInputStream inputStream) throws IOException {
+		int[] values = new int[inputStream.readInt()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = inputStream.readInt();
+		}
+		return values;
+	}
+
+	/**
+	 * Converts the list of integers to the array.
+	 *
+	 * @param list
+	 *            List.
+	 * @return Array.
+	 */
+	private static int[] toArray(List<Integer> list) {
+		int[] array = new int[list.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = list.get(i).intValue();
+		}
+		return array;
+	}
+
+	/**
+	 * Closes the stream quietly.
+	 *
+	 * @param closeable
+	 *            Stream, can be <code>null</code>.
+	 */
+	private void close(Closeable closeable) {
+		if (null != closeable) {
+			try {
+				closeable.close();
+			} catch (IOException e) {
+				if (log.isDebugEnabled()) {
+					log.debug("Stream of the instrumentation cache can not be closed.", e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Cached instrumentation of one class.
+	 */
+	public static class CachedClass {
+
+		/**
+		 * Package name of the class.
+		 */
+		private final String packageName;
+
+		/**
+		 * Simple name of the class.
+		 */
+		private final String className;
+
+		/**
+		 * Instrumented byte code with the method ids of the run that created the entry.
+		 */
+		private final byte[] instrumentedByteCode;
+
+		/**
+		 * Instrumented methods and constructors.
+		 */
+		private final List<CachedBehavior> behaviors;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param packageName
+		 *            Package name of the class.
+		 * @param className
+		 *            Simple name of the class.
+		 * @param instrumentedByteCode
+		 *            Instrumented byte code.
+		 * @param behaviors
+		 *            Instrumented methods and constructors.
+		 */
+		public CachedClass(String packageName, String className, byte[] instrumentedByteCode, List<CachedBehavior> behaviors) {
+			this.packageName = packageName;
+			this.className = className;
+			this.instrumentedByteCode = instrumentedByteCode;
+			this.behaviors = behaviors;
+		}
+
+		/**
+		 * Returns the instrumented byte code where the method ids are replaced with the given
+		 * ones.
+		 *
+		 * @param methodIds
+		 *            Newly registered ids, same order as the {@link #getBehaviors()}.
+		 * @return Instrumented byte code.
+		 */
+		public byte[] getInstrumentedByteCode(long[] methodIds) {
+			byte[] byteCode = new byte[instrumentedByteCode.length];
+			System.arraycopy(instrumentedByteCode, 0, byteCode, 0, byteCode.length);
+			for (int i = 0; i < methodIds.length; i++) {
+				for (int offset : behaviors.get(i).idOffsets) {
+					writeLong(byteCode, offset, methodIds[i]);
+				}
+			}
+			return byteCode;
+		}
+
+		/**
+		 * Gets {@link #packageName}.
+		 *
+		 * @return {@link #packageName}
+		 */
+		public String getPackageName() {
+			return packageName;
+		}
+
+		/**
+		 * Gets {@link #className}.
+		 *
+		 * @return {@link #className}
+		 */
+		public String getClassName() {
+			return className;
+		}
+
+		/**
+		 * Gets {@link #behaviors}.
+		 *
+		 * @return {@link #behaviors}
+		 */
+		public List<CachedBehavior> getBehaviors() {
+			return behaviors;
+		}
+
+	}
+
+	/**
+	 * Cached information of one instrumented method or constructor.
+	 */
+	public static class CachedBehavior {
+
+		/**
+		 * Name of the method.
+		 */
+		private String methodName;
+
+		/**
+		 * Parameter types of the method.
+		 */
+		private List<String> parameterTypes;
+
+		/**
+		 * Modifiers of the method.
+		 */
+		private int modifiers;
+
+		/**
+		 * Return type of the method.
+		 */
+		private String returnType;
+
+		/**
+		 * If this is a constructor.
+		 */
+		private boolean constructor;
+
+		/**
+		 * Positions of the matching unregistered sensor configurations in the configuration.
+		 */
+		private int[] configPositions;
+
+		/**
+		 * Id of the method in the run that instruments it, only used when the entry is stored.
+		 */
+		private long methodId;
+
+		/**
+		 * Offsets of the method id constants in the instrumented byte code.
+		 */
+		private int[] idOffsets;
+
+		/**
+		 * No-arg constructor for reading the entry.
+		 */
+		CachedBehavior() {
+		}
+
+		/**
+		 * Creates the cached information of the instrumented method.
+		 *
+		 * @param rsc
+		 *            {@link RegisteredSensorConfig} of the method, holding the registered id.
+		 * @param configPositions
+		 *            Positions of the matching unregistered sensor configurations in the
+		 *            configuration.
+		 */
+		public CachedBehavior(RegisteredSensorConfig rsc, int[] configPositions) {
+			this.methodName = rsc.getTargetMethodName();
+			this.parameterTypes = rsc.getParameterTypes();
+			this.modifiers = rsc.getModifiers();
+			this.returnType = rsc.getReturnType();
+			this.constructor = rsc.isConstructor();
+			this.configPositions = configPositions;
+			this.methodId = rsc.getId();
+		}
+
+		/**
+		 * Gets {@link #methodName}.
+		 *
+		 * @return {@link #methodName}
+		 */
+		public String getMethodName() {
+			return methodName;
+		}
+
+		/**
+		 * Gets {@link #parameterTypes}.
+		 *
+		 * @return {@link #parameterTypes}
+		 */
+		public List<String> getParameterTypes() {
+			return parameterTypes;
+		}
+
+		/**
+		 * Gets {@link #modifiers}.
+		 *
+		 * @return {@link #modifiers}
+		 */
+		public int getModifiers() {
+			return modifiers;
+		}
+
+		/**
+		 * Gets {@link #returnType}.
+		 *
+		 * @return {@link #returnType}
+		 */
+		public String getReturnType() {
+			return returnType;
+		}
+
+		/**
+		 * Gets {@link #constructor}.
+		 *
+		 * @return {@link #constructor}
+		 */
+		public boolean isConstructor() {
+			return constructor;
+		}
+
+		/**
+		 * Gets {@link #configPositions}.
+		 *
+		 * @return {@link #configPositions}
+		 */
+		public int[] getConfigPositions() {
+			return configPositions;
+		}
+
+	}
+
+}
@@ -0,0 +1,288 @@
+package rocks.inspectit.agent.java.analyzer.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import rocks.inspectit.agent.java.config.impl.UnregisteredSensorConfig;
+
+/**
+ * Index of the {@link UnregisteredSensorConfig}s by the target class name, used to find the
+ * configurations that can match a loaded class without comparing the class name with every
+ * configuration.
+ * <p>
+ * Configurations with a plain target class name are kept in a hash map under this name.
+ * Configurations with a wildcard pattern are kept in a character trie under the text before the
+ * first wildcard, thus a pattern starting with a wildcard is a candidate for every class.
+ * Configurations that match over the superclass or interface hierarchy can not be indexed by the
+ * class name and are always candidates.
+ * <p>
+ * The index only narrows down the candidates, the class name still has to be compared with the
+ * matcher of each candidate. The candidates are returned in the order of the configurations, so
+ * the analysis result does not change with the index. The index is immutable and can be used by
+ * several threads.
+ */
+public class SensorConfigMatchIndex {
+
+	/**
+	 * The configurations the index was built for.
+	 */
+	private final UnregisteredSensorConfig[] configs;
+
+	/**
+	 * Modification count of the configurations the index was built for.
+	 */
+	private final int configsModCount;
+
+	/**
+	 * Positions of the configurations with the plain target class name, mapped by the name.
+	 */
+	private final Map<String, int[]> exactNameIndex;
+
+	/**
+	 * Root of the trie holding the positions of the configurations with a class name pattern.
+	 */
+	private final TrieNode patternPrefixTrie;
+
+	/**
+	 * Positions of the configurations that are candidates for every class.
+	 */
+	private final int[] alwaysCandidates;
+
+	/**
+	 * Builds the index.
+	 *
+	 * @param configs
+	 *            Configurations to index.
+	 * @param configsModCount
+	 *            Modification count of the configurations, read before the configurations.
+	 */
+	public SensorConfigMatchIndex(List<UnregisteredSensorConfig> configs, int configsModCount) {
+		this.configs = configs.toArray(new UnregisteredSensorConfig[configs.size()]);
+		this.configsModCount = configsModCount;
+
+		Map<String, List<Integer>> exactNames = new HashMap<String, List<Integer>>();
+		List<Integer> always = new ArrayList<Integer>();
+		MutableTrieNode trie = new MutableTrieNode();
+		for (int i = 0; i < this.configs.length; i++) {
+			UnregisteredSensorConfig config = this.configs[i];
+			String targetClassName = config.getTargetClassName();
+			if (config.isSuperclass() || config.isInterface() || (null == targetClassName)) {
+				always.add(Integer.valueOf(i));
+			} else if (SimpleMatchPattern.isPattern(targetClassName)) {
+				trie.add(targetClassName.substring(0, targetClassName.indexOf('*')), i);
+			} else {
+				List<Integer> positions = exactNames.get(targetClassName);
+				if (null == positions) {
+					positions = new ArrayList<Integer>(1);
+					exactNames.put(targetClassName, positions);
+				}
+				positions.add(Integer.valueOf(i));
+			}
+		}
+
+		exactNameIndex = new HashMap<String, int[]>(exactNames.size() * 2);
+		for (Map.Entry<String, List<Integer>> entry : exactNames.entrySet()) {
+			exactNameIndex.put(entry.getKey(), toArray(entry.getValue()));
+		}
+		alwaysCandidates = toArray(always);
+		patternPrefixTrie = trie.freeze();
+	}
+
+	/**
+	 * Returns if the index was built for the configurations with the given modification count.
+	 *
+	 * @param currentConfigsModCount
+	 *            Current modification count of the configurations.
+	 * @return <code>true</code> if the index can be used for the current configurations.
+	 */
+	public boolean isBuiltFor(int currentConfigsModCount) {
+		return configsModCount == currentConfigsModCount;
+	}
+
+	/**
+	 * Returns the configurations that can match the class with the given name, in the order of the
+	 * indexed configurations.
+	 *
+	 * @param className
+	 *            Fully qualified class name.
+	 * @return Candidate configurations.
+	 */
+	public List<UnregisteredSensorConfig> getCandidates(String className) {
+		int[] exact = exactNameIndex.get(className);
+		int count = alwaysCandidates.length + ((null != exact) ? exact.length : 0);
+
+		int[] positions = new int[count + patternPrefixTrie.maxPathPositions];
+		System.arraycopy(alwaysCandidates, 0, positions, 0, alwaysCandidates.length);
+		if (null != exact) {
+			System.arraycopy(exact, 0, positions, alwaysCandidates.length, exact.length);
+		}
+
+		TrieNode node = patternPrefixTrie;
+		int depth = 0;
+		while (null != node) {
+			System.arraycopy(node.positions, 0, positions, count, node.positions.length);
+			count += node.positions.length;
+			if (depth >= className.length()) {
+				break;
+			}
+			node = node.getChild(className.charAt(depth++));
+		}
+
+		if (0 == count) {
+			return Collections.emptyList();
+		}
+		Arrays.sort(positions, 0, count);
+		List<UnregisteredSensorConfig> candidates = new ArrayList<UnregisteredSensorConfig>(count);
+		for (int i = 0; i < count; i++) {
+			candidates.add(configs[positions[i]]);
+		}
+		return candidates;
+	}
+
+	/**
+	 * Returns the amount of indexed configurations.
+	 *
+	 * @return Returns the amount of indexed configurations.
+	 */
+	public int size() {
+		return configs.length;
+	}
+
+	/**
+	 * Converts the list of integers to the array.
+	 *
+	 * @param list
+	 *            List.
+	 * @return Array.
+	 */
+	private static int[] toArray(List<Integer> list) {
+		int[] array = new int[list.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = list.get(i).intValue();
+		}
+		return array;
+	}
+
+	/**
+	 * Immutable node of the pattern prefix trie.
+	 */
+	private static final class TrieNode {
+
+		/**
+		 * Sorted characters of the children.
+		 */
+		private final char[] childChars;
+
+		/**
+		 * Children, same order as {@link #childChars}.
+		 */
+		private final TrieNode[] children;
+
+		/**
+		 * Positions of the configurations whose prefix ends at this node.
+		 */
+		private final int[] positions;
+
+		/**
+		 * Maximum amount of positions on any path starting at this node.
+		 */
+		private final int maxPathPositions;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param childChars
+		 *            Sorted characters of the children.
+		 * @param children
+		 *            Children.
+		 * @param positions
+		 *            Positions of the configurations whose prefix ends at this node.
+		 */
+		TrieNode(char[] childChars, TrieNode[] children, int[] positions) {
+			this.childChars = childChars;
+			this.children = children;
+			this.positions = positions;
+			int maxChildPositions = 0;
+			for (TrieNode child : children) {
+				maxChildPositions = Math.max(maxChildPositions, child.maxPathPositions);
+			}
+			this.maxPathPositions = positions.length + maxChildPositions;
+		}
+
+		/**
+		 * Returns the child for the character.
+		 *
+		 * @param c
+		 *            Character.
+		 * @return Child or <code>null</code> if there is none.
+		 */
+		TrieNode getChild(char c) {
+			int index = Arrays.binarySearch(childChars, c);
+			return (index >= 0) ? children[index] : null;
+		}
+
+	}
+
+	/**
+	 * Node of the pattern prefix trie used while building the index.
+	 */
+	private static final class MutableTrieNode {
+
+		/**
+		 * Children by the character.
+		 */
+		private final Map<Character, MutableTrieNode> children = new HashMap<Character, MutableTrieNode>();
+
+		/**
+		 * Positions of the configurations whose prefix ends at this node.
+		 */
+		private final List<Integer> positions = new ArrayList<Integer>(1);
+
+		/**
+		 * Adds the position of the configuration under the given prefix.
+		 *
+		 * @param prefix
+		 *            Prefix.
+		 * @param position
+		 *            Position of the configuration.
+		 */
+		void add(String prefix, int position) {
+			MutableTrieNode node = this;
+			for (int i = 0; i < prefix.length(); i++) {
+				Character c = Character.valueOf(prefix.charAt(i));
+				MutableTrieNode child = node.children.get(c);
+				if (null == child) {
+					child = new MutableTrieNode();
+					node.children.put(c, child);
+				}
+				node = child;
+			}
+			node.positions.add(Integer.valueOf(position));
+		}
+
+		/**
+		 * Creates the immutable copy of this node and all children.
+		 *
+		 * @return {@link TrieNode}.
+		 */
+		TrieNode freeze() {
+			char[] childChars = new char[children.size()];
+			int i = 0;
+			for (Character c : children.keySet()) {
+				childChars[i++] = c.charValue();
+			}
+			Arrays.sort(childChars);
+			TrieNode[] frozenChildren = new TrieNode[childChars.length];
+			for (int j = 0; j < childChars.length; j++) {
+				frozenChildren[j] = children.get(Character.valueOf(childChars[j])).freeze();
+			}
+			return new TrieNode(childChars, frozenChildren, toArray(positions));
+		}
+
+	}
+
+}
@@ -0,0 +1,346 @@
+package rocks.inspectit.agent.java.buffer.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.slf4j.Logger;
+
+import rocks.inspectit.agent.java.buffer.AbstractBufferStrategy;
+import rocks.inspectit.agent.java.buffer.IBufferStrategy;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.spring.logger.Log;
+
+/**
+ * Buffer strategy that holds the lists of measurements in a preallocated ring. The buffer is
+ * bounded by the estimated size of the contained data in bytes and by the amount of slots in the
+ * ring. If a new list does not fit, the oldest lists are dropped until it does. Lists are returned
+ * in the order they were added.
+ * <p>
+ * The ring is a single-producer/single-consumer hand-off between the preparing thread that adds
+ * the measurements and the sending thread that takes them out, no locking is done. The only
+ * contended operation is the advance of the head of the ring, as it is also done by the producer
+ * when dropping the oldest list.
+ * <p>
+ * The size of the data is estimated with the configured size of a single data object. Invocation
+ * sequences are counted with all their children. The amount of dropped objects, dropped bytes and
+ * the current occupancy are exposed by the getters of this class.
+ */
+public class RingBufferStrategy extends AbstractBufferStrategy<DefaultData> implements IBufferStrategy<DefaultData> {
+
+	/**
+	 * The logger of the class.
+	 */
+	@Log
+	Logger log;
+
+	/**
+	 * Default maximum size of the buffer in bytes.
+	 */
+	private static final long DEFAULT_SIZE = 16L * 1024 * 1024;
+
+	/**
+	 * Default amount of slots in the ring.
+	 */
+	private static final int DEFAULT_SLOTS = 128;
+
+	/**
+	 * Default estimated size of one data object in bytes.
+	 */
+	private static final long DEFAULT_OBJECT_SIZE = 256L;
+
+	/**
+	 * Maximum size of the buffer in bytes.
+	 */
+	private long maxSize = DEFAULT_SIZE;
+
+	/**
+	 * Estimated size of one data object in bytes.
+	 */
+	private long objectSize = DEFAULT_OBJECT_SIZE;
+
+	/**
+	 * Slots of the ring.
+	 */
+	private AtomicReferenceArray<Batch> slots;
+
+	/**
+	 * Mask to get the slot index from the position, slot count is always a power of two.
+	 */
+	private int mask;
+
+	/**
+	 * Position of the oldest list in the buffer.
+	 */
+	private final AtomicLong head = new AtomicLong();
+
+	/**
+	 * Position where the next list is added. Only written by the producer.
+	 */
+	private volatile long tail;
+
+	/**
+	 * Estimated bytes currently in the buffer.
+	 */
+	private final AtomicLong occupiedBytes = new AtomicLong();
+
+	/**
+	 * Amount of dropped data objects.
+	 */
+	private final AtomicLong droppedObjects = new AtomicLong();
+
+	/**
+	 * Estimated amount of dropped bytes.
+	 */
+	private final AtomicLong droppedBytes = new AtomicLong();
+
+	/**
+	 * If data was dropped since the last time a list was taken out. Used to log once per
+	 * overload.
+	 */
+	private volatile boolean dropping;
+
+	/**
+	 * Creates the buffer with the default settings.
+	 */
+	public RingBufferStrategy() {
+		this(DEFAULT_SLOTS, DEFAULT_SIZE, DEFAULT_OBJECT_SIZE);
+	}
+
+	/**
+	 * Creates the buffer with the given settings.
+	 *
+	 * @param slots
+	 *            Amount of slots in the ring, rounded up to the next power of two.
+	 * @param maxSize
+	 *            Maximum size of the buffer in bytes.
+	 * @param objectSize
+	 *            Estimated size of one data object in bytes.
+	 */
+	public RingBufferStrategy(int slots, long maxSize, long objectSize) {
+		setSlots(slots);
+		this.maxSize = maxSize;
+		this.objectSize = objectSize;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void addMeasurements(List<DefaultData> measurements) {
+		if (null == measurements) {
+			throw new IllegalArgumentException("Measurements cannot be null!");
+		}
+
+		Batch batch = new Batch(measurements, estimateSize(measurements));
+		if (batch.bytes > maxSize) {
+			drop(batch);
+			return;
+		}
+
+		long currentTail = tail;
+		while (((currentTail - head.get()) >= slots.length()) || ((occupiedBytes.get() + batch.bytes) > maxSize)) {
+			Batch oldest = poll();
+			if (null == oldest) {
+				break;
+			}
+			drop(oldest);
+		}
+
+		occupiedBytes.addAndGet(batch.bytes);
+		slots.set((int) currentTail & mask, batch);
+		tail = currentTail + 1;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean hasNext() {
+		return head.get() != tail;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<DefaultData> next() {
+		Batch batch = poll();
+		if (null == batch) {
+			throw new NoSuchElementException();
+		}
+		dropping = false;
+		return batch.measurements;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void init(Map<String, String> settings) {
+		if (settings.containsKey("slots")) {
+			setSlots(Integer.parseInt(settings.get("slots")));
+		}
+		if (settings.containsKey("size")) {
+			this.maxSize = Long.parseLong(settings.get("size"));
+		}
+		if (settings.containsKey("objectSize")) {
+			this.objectSize = Long.parseLong(settings.get("objectSize"));
+		}
+	}
+
+	/**
+	 * Returns the amount of data objects that were dropped because the buffer was full.
+	 *
+	 * @return Amount of dropped data objects.
+	 */
+	public long getDroppedObjects() {
+		return droppedObjects.get();
+	}
+
+	/**
+	 * Returns the estimated amount of bytes that were dropped because the buffer was full.
+	 *
+	 * @return Estimated amount of dropped bytes.
+	 */
+	public long getDroppedBytes() {
+		return droppedBytes.get();
+	}
+
+	/**
+	 * Returns the estimated amount of bytes currently in the buffer.
+	 *
+	 * @return Estimated amount of bytes currently in the buffer.
+	 */
+	public long getOccupiedBytes() {
+		return occupiedBytes.get();
+	}
+
+	/**
+	 * Returns the amount of lists currently in the buffer.
+	 *
+	 * @return Amount of lists currently in the buffer.
+	 */
+	public int getOccupiedSlots() {
+		return (int) (tail - head.get());
+	}
+
+	/**
+	 * Returns the maximum size of the buffer in bytes.
+	 *
+	 * @return Maximum size of the buffer in bytes.
+	 */
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Takes the oldest list out of the ring.
+	 *
+	 * @return The oldest list or <code>null</code> if the ring is empty.
+	 */
+	private Batch poll() {
+		while (true) {
+			long currentHead = head.get();
+			if (currentHead == tail) {
+				return null;
+			}
+
+			// the slot can only be overwritten after the head moved on, thus the read batch is
+			// valid if the head did not change
+			int index = (int) currentHead & mask;
+			Batch batch = slots.get(index);
+			if (head.compareAndSet(currentHead, currentHead + 1)) {
+				slots.compareAndSet(index, batch, null);
+				occupiedBytes.addAndGet(-batch.bytes);
+				return batch;
+			}
+		}
+	}
+
+	/**
+	 * Counts the batch as dropped.
+	 *
+	 * @param batch
+	 *            Dropped batch.
+	 */
+	private void drop(Batch batch) {
+		droppedObjects.addAndGet(batch.measurements.size());
+		droppedBytes.addAndGet(batch.bytes);
+
+		if (!dropping) {
+			dropping = true;
+			log.info("Possible data loss due to the excessive data creation on the Agent! In total " + droppedObjects.get() + " data objects (~" + droppedBytes.get() + " bytes) dropped so far.");
+		}
+	}
+
+	/**
+	 * Estimates the size of the measurements in bytes.
+	 *
+	 * @param measurements
+	 *            Measurements.
+	 * @return Estimated size in bytes.
+	 */
+	private long estimateSize(List<DefaultData> measurements) {
+		long objects = 0;
+		for (DefaultData data : measurements) {
+			objects++;
+			if (data instanceof InvocationSequenceData) {
+				objects += ((InvocationSequenceData) data).getChildCount();
+			}
+		}
+		return objects * objectSize;
+	}
+
+	/**
+	 * Preallocates the ring with the given amount of slots rounded up to the next power of two.
+	 * Must not be called when the buffer is in use.
+	 *
+	 * @param count
+	 *            Requested slot count.
+	 */
+	private void setSlots(int count) {
+		int size = 1;
+		while (size < count) {
+			size = size << 1;
+		}
+		slots = new AtomicReferenceArray<Batch>(size);
+		mask = size - 1;
+	}
+
+	/**
+	 * List of measurements with its estimated size.
+	 */
+	private static final class Batch {
+
+		/**
+		 * Measurements.
+		 */
+		private final List<DefaultData> measurements;
+
+		/**
+		 * Estimated size in bytes.
+		 */
+		private final long bytes;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param measurements
+		 *            Measurements.
+		 * @param bytes
+		 *            Estimated size in bytes.
+		 */
+		Batch(List<DefaultData> measurements, long bytes) {
+			this.measurements = measurements;
+			this.bytes = bytes;
+		}
+	}
+
+}
@@ -105,6 +105,23 @@ public interface IConfigurationStorage {
 	 */
 	List<StrategyConfig> getSendingStrategyConfigs();
 
+	/**
+	 * Sets the settings of the sending pipeline that hands the data from the core service to the
+	 * connection.
+	 * 
+	 * @param settings
+	 *            A map containing the settings of the sending pipeline.
+	 */
+	void setSendingPipelineSettings(Map<String, String> settings);
+
+	/**
+	 * Returns the settings of the sending pipeline. If no settings were defined, an empty map is
+	 * returned and the default pipeline is used.
+	 * 
+	 * @return A map containing the settings of the sending pipeline.
+	 */
+	Map<String, String> getSendingPipelineSettings();
+
 	/**
 	 * Creates and initializes a {@link MethodSensorTypeConfig} out of the given parameters. A
 	 * sensor type is always unique, hence only one instance exists which is used by all installed
@@ -270,6 +287,15 @@ public interface IConfigurationStorage {
 	 */
 	List<UnregisteredSensorConfig> getUnregisteredSensorConfigs();
 
+	/**
+	 * Returns the modification count of the {@link UnregisteredSensorConfig} list. The count
+	 * changes with every added configuration, so comparing it tells if the list changed without
+	 * comparing the configurations.
+	 * 
+	 * @return Modification count of the {@link UnregisteredSensorConfig} list.
+	 */
+	int getUnregisteredSensorConfigsModCount();
+
 	/**
 	 * Returns a {@link List} of the {@link UnregisteredJmxConfig} classes.
 	 * 
@@ -324,4 +350,22 @@ public interface IConfigurationStorage {
 	 */
 	Collection<IMatcher> getClassLoaderDelegationMatchers();
 
+	/**
+	 * Sets the fingerprint of the configuration, a hash over all configuration lines the reader
+	 * processed.
+	 * 
+	 * @param fingerprint
+	 *            Fingerprint of the configuration.
+	 */
+	void setConfigurationFingerprint(String fingerprint);
+
+	/**
+	 * Returns the fingerprint of the configuration. Two agents that return the same fingerprint
+	 * were started with the same configuration.
+	 * 
+	 * @return Fingerprint of the configuration or <code>null</code> if the reader did not
+	 *         provide one.
+	 */
+	String getConfigurationFingerprint();
+
 }
\ No newline at end of file
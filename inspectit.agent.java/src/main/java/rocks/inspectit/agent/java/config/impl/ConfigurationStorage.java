@@ -92,6 +92,11 @@ public class ConfigurationStorage implements IConfigurationStorage, Initializing
 	 */
 	private List<StrategyConfig> sendingStrategies = new ArrayList<StrategyConfig>(1);
 
+	/**
+	 * The settings of the sending pipeline.
+	 */
+	private Map<String, String> sendingPipelineSettings = Collections.emptyMap();
+
 	/**
 	 * The default size of the method sensor type list.
 	 */
@@ -127,6 +132,12 @@ public class ConfigurationStorage implements IConfigurationStorage, Initializing
 	 */
 	private List<UnregisteredSensorConfig> unregisteredSensorConfigs = new ArrayList<UnregisteredSensorConfig>();
 
+	/**
+	 * Modification count of the {@link #unregisteredSensorConfigs}, increased with every added
+	 * configuration.
+	 */
+	private volatile int unregisteredSensorConfigsModCount;
+
 	/**
 	 * A list containing all unregistered sensor definitions from the configuration.
 	 */
@@ -148,6 +159,11 @@ public class ConfigurationStorage implements IConfigurationStorage, Initializing
 	 */
 	private List<IMatchPattern> ignoreClassesPatterns = new ArrayList<IMatchPattern>();
 
+	/**
+	 * Fingerprint of the configuration.
+	 */
+	private String configurationFingerprint;
+
 	/**
 	 * The matchers that can be used to test if the ClassLoader class should be instrumented in the
 	 * way that class loading is delegated if the class to be loaded is inspectIT class.
@@ -280,6 +296,28 @@ public class ConfigurationStorage implements IConfigurationStorage, Initializing
 		return Collections.unmodifiableList(sendingStrategies);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public void setSendingPipelineSettings(Map<String, String> settings) {
+		if (null == settings) {
+			settings = Collections.emptyMap();
+		}
+
+		this.sendingPipelineSettings = settings;
+
+		if (log.isDebugEnabled()) {
+			log.debug("Sending pipeline settings set to: " + settings);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Map<String, String> getSendingPipelineSettings() {
+		return sendingPipelineSettings;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -507,7 +545,7 @@ public class ConfigurationStorage implements IConfigurationStorage, Initializing
 
 		sensorConfig.completeConfiguration();
 
-		unregisteredSensorConfigs.add(sensorConfig);
+		addUnregisteredSensorConfig(sensorConfig);
 
 		if (log.isDebugEnabled()) {
 			log.debug("Sensor configuration added: " + sensorConfig.toString());
@@ -516,7 +554,7 @@ public class ConfigurationStorage implements IConfigurationStorage, Initializing
 		if (methodSensorTypeConfig.isJRebelActive()) {
 			UnregisteredSensorConfig jRebelSensorConfig = JRebelUtil.getJRebelSensorConfiguration(sensorConfig, classPoolAnalyzer, inheritanceAnalyzer);
 			jRebelSensorConfig.completeConfiguration();
-			unregisteredSensorConfigs.add(jRebelSensorConfig);
+			addUnregisteredSensorConfig(jRebelSensorConfig);
 
 			if (log.isDebugEnabled()) {
 				log.debug("Sensor configuration for JRebel enhanced classes added: " + jRebelSensorConfig.toString());
@@ -572,6 +610,25 @@ public class ConfigurationStorage implements IConfigurationStorage, Initializing
 		return Collections.unmodifiableList(unregisteredSensorConfigs);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public int getUnregisteredSensorConfigsModCount() {
+		return unregisteredSensorConfigsModCount;
+	}
+
+	/**
+	 * Adds the configuration to the {@link #unregisteredSensorConfigs} and increases the
+	 * {@link #unregisteredSensorConfigsModCount}.
+	 * 
+	 * @param sensorConfig
+	 *            Configuration to add.
+	 */
+	private void addUnregisteredSensorConfig(UnregisteredSensorConfig sensorConfig) {
+		unregisteredSensorConfigs.add(sensorConfig);
+		unregisteredSensorConfigsModCount++;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -712,7 +769,7 @@ public class ConfigurationStorage implements IConfigurationStorage, Initializing
 		sensorConfig.setIgnoreSignature(true);
 		sensorConfig.completeConfiguration();
 
-		unregisteredSensorConfigs.add(sensorConfig);
+		addUnregisteredSensorConfig(sensorConfig);
 		exceptionSensorActivated = true;
 	}
 
@@ -758,6 +815,20 @@ public class ConfigurationStorage implements IConfigurationStorage, Initializing
 		ignoreClassesPatterns.add(new SimpleMatchPattern(patternString));
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public void setConfigurationFingerprint(String fingerprint) {
+		this.configurationFingerprint = fingerprint;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public String getConfigurationFingerprint() {
+		return configurationFingerprint;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -7,6 +7,10 @@ import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -77,6 +81,8 @@ public class FileConfigurationReader implements IConfigurationReader, Initializi
 	private static final String CONFIG_SEND_STRATEGY = "send-strategy";
 	/** Keyword to mark the buffer strategy definition. */
 	private static final String CONFIG_BUFFER_STRATEGY = "buffer-strategy";
+	/** Keyword to mark the sending pipeline definition. */
+	private static final String CONFIG_SENDING_PIPELINE = "sending-pipeline";
 	/** Keyword to mark the method sensor definition. */
 	private static final String CONFIG_METHOD_SENSOR_TYPE = "method-sensor-type";
 	/** Keyword to mark the platform sensor definition. */
@@ -112,6 +118,12 @@ public class FileConfigurationReader implements IConfigurationReader, Initializi
 	 */
 	private final Pattern emptyMethodSignature = Pattern.compile(".*\\(\\)");
 
+	/**
+	 * Digest over all processed configuration lines, including the ones of the additional
+	 * configuration files. Only set while the configuration is loaded.
+	 */
+	private MessageDigest configurationDigest;
+
 	/**
 	 * Default constructor which accepts one parameter.
 	 * 
@@ -145,7 +157,12 @@ public class FileConfigurationReader implements IConfigurationReader, Initializi
 			}
 			InputStream is = new FileInputStream(configFile);
 			InputStreamReader reader = new InputStreamReader(is);
+			configurationDigest = createDigest();
 			this.parse(reader, pathToConfig);
+			if (null != configurationDigest) {
+				configurationStorage.setConfigurationFingerprint(new BigInteger(1, configurationDigest.digest()).toString(16));
+				configurationDigest = null;
+			}
 
 			// check if the exclude class patterns were supplied
 			// if not add the default ones to the configuration
@@ -162,6 +179,39 @@ public class FileConfigurationReader implements IConfigurationReader, Initializi
 		}
 	}
 
+	/**
+	 * Creates the digest for the configuration fingerprint.
+	 * 
+	 * @return {@link MessageDigest} or <code>null</code> if the algorithm is not available.
+	 */
+	private MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			log.warn("Fingerprint of the agent configuration can not be created.", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Adds the configuration line to the {@link #configurationDigest}.
+	 * 
+	 * @param line
+	 *            Processed configuration line.
+	 */
+	private void updateDigest(String line) {
+		if (null == configurationDigest) {
+			return;
+		}
+		try {
+			configurationDigest.update(line.getBytes("UTF-8"));
+			configurationDigest.update((byte) '\n');
+		} catch (UnsupportedEncodingException e) {
+			// UTF-8 is always supported
+			configurationDigest = null;
+		}
+	}
+
 	/**
 	 * Parses the given file.
 	 * 
@@ -187,6 +237,7 @@ public class FileConfigurationReader implements IConfigurationReader, Initializi
 				if (line.trim().equals("") || line.startsWith(CONFIG_COMMENT)) {
 					continue;
 				}
+				updateDigest(line);
 
 				// Split the line into tokens
 				StringTokenizer tokenizer = new StringTokenizer(line, " ");
@@ -210,6 +261,12 @@ public class FileConfigurationReader implements IConfigurationReader, Initializi
 					continue;
 				}
 
+				// check for the sending pipeline
+				if (discriminator.equalsIgnoreCase(CONFIG_SENDING_PIPELINE)) {
+					processSendingPipelineLine(tokenizer);
+					continue;
+				}
+
 				// Check for the method sensor type
 				if (discriminator.equalsIgnoreCase(CONFIG_METHOD_SENSOR_TYPE)) {
 					processMethodSensorTypeLine(tokenizer);
@@ -607,6 +664,24 @@ public class FileConfigurationReader implements IConfigurationReader, Initializi
 		}
 	}
 
+	/**
+	 * Processes the sending pipeline line.
+	 * 
+	 * @param tokenizer
+	 *            The tokenizer which contains the settings of the sending pipeline.
+	 */
+	private void processSendingPipelineLine(StringTokenizer tokenizer) {
+		Map<String, String> settings = new HashMap<String, String>();
+		while (tokenizer.hasMoreTokens()) {
+			String parameterToken = tokenizer.nextToken();
+			StringTokenizer parameterTokenizer = new StringTokenizer(parameterToken, "=");
+			String leftSide = parameterTokenizer.nextToken();
+			String rightSide = parameterTokenizer.nextToken();
+			settings.put(leftSide, rightSide);
+		}
+		configurationStorage.setSendingPipelineSettings(settings);
+	}
+
 	/**
 	 * Process an additional configuration file.
 	 * 
@@ -7,10 +7,15 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.springframework.stereotype.Component;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import rocks.inspectit.agent.java.config.IPropertyAccessor;
 import rocks.inspectit.agent.java.config.PropertyAccessException;
 import rocks.inspectit.shared.all.communication.data.ParameterContentData;
@@ -46,6 +51,14 @@ public class PropertyAccessor implements IPropertyAccessor {
 	 */
 	private static final String[] ALLOWED_METHODS = new String[] { "size", "length" };
 
+	/**
+	 * Cache of the resolved accessors, so that the class hierarchy is not searched with reflection
+	 * on every capturing. The cache holds the map of the path element names to the accessors per
+	 * class. Classes are weakly referenced and the maps softly, as the accessors reference the
+	 * classes, so that the class loaders can still be unloaded.
+	 */
+	private final Cache<Class<?>, ConcurrentMap<String, MemberAccessor>> accessorCache = CacheBuilder.newBuilder().weakKeys().softValues().build();
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -139,6 +152,73 @@ public class PropertyAccessor implements IPropertyAccessor {
 			c = object.getClass();
 		}
 
+		MemberAccessor accessor = getAccessor(c, propertyPath, object);
+		Object result;
+		try {
+			result = accessor.access(object);
+		} catch (SecurityException e) {
+			log.error(e.getMessage());
+			throw new PropertyAccessException("Security Exception was thrown while accessing a field!", e);
+		} catch (IllegalArgumentException e) {
+			log.error(e.getMessage());
+			throw new PropertyAccessException("Illegal Argument Exception!", e);
+		} catch (IllegalAccessException e) {
+			log.error(e.getMessage());
+			throw new PropertyAccessException("Illegal Access Exception!", e);
+		} catch (InvocationTargetException e) {
+			log.error(e.getMessage());
+			throw new PropertyAccessException("InvocationTargetException!", e);
+		}
+		return getPropertyContent(propertyPath.getPathToContinue(), result);
+	}
+
+	/**
+	 * Returns the accessor for the given path element in the given class. The accessor is resolved
+	 * only once per class and path element name and then taken from the {@link #accessorCache}.
+	 * 
+	 * @param c
+	 *            Class to look in.
+	 * @param propertyPath
+	 *            The path element to resolve.
+	 * @param object
+	 *            The object to analyze, used for the error reporting only.
+	 * @return {@link MemberAccessor}, never <code>null</code>.
+	 * @throws PropertyAccessException
+	 *             If the path element can not be resolved in the class.
+	 */
+	private MemberAccessor getAccessor(Class<?> c, PropertyPath propertyPath, Object object) throws PropertyAccessException {
+		ConcurrentMap<String, MemberAccessor> classAccessors = accessorCache.getIfPresent(c);
+		if (null == classAccessors) {
+			// race conditions are not an issue here, in the worst case the accessors of the class
+			// are resolved once more
+			classAccessors = new ConcurrentHashMap<String, MemberAccessor>();
+			accessorCache.put(c, classAccessors);
+		}
+
+		MemberAccessor accessor = classAccessors.get(propertyPath.getName());
+		if (null == accessor) {
+			accessor = resolveAccessor(c, propertyPath, object);
+			classAccessors.put(propertyPath.getName(), accessor);
+		}
+		return accessor;
+	}
+
+	/**
+	 * Resolves the accessor for the given path element by walking the class hierarchy.
+	 * 
+	 * @param clazz
+	 *            Class to look in.
+	 * @param propertyPath
+	 *            The path element to resolve.
+	 * @param object
+	 *            The object to analyze, used for the error reporting only.
+	 * @return {@link MemberAccessor}.
+	 * @throws PropertyAccessException
+	 *             If the path element can not be resolved in the class.
+	 */
+	private MemberAccessor resolveAccessor(Class<?> clazz, PropertyPath propertyPath, Object object) throws PropertyAccessException {
+		Class<?> c = clazz;
+
 		// We need to differ between calls of methods and the navigation of
 		// properties of an object. This differentiation is integrated to
 		// force the user to add () to the method to be called, thus the
@@ -160,7 +240,7 @@ public class PropertyAccessor implements IPropertyAccessor {
 			if ("length".equals(methodName)) {
 				if (object.getClass().isArray()) { // ensure that we are really
 					// dealing with an array
-					return getPropertyContent(propertyPath.getPathToContinue(), Integer.valueOf(Array.getLength(object)));
+					return ArrayLengthAccessor.INSTANCE;
 				} else {
 					log.error("Trying to access the lenght() method for a non array type");
 					throw new PropertyAccessException("Trying to access the length() method for a non array type");
@@ -186,25 +266,12 @@ public class PropertyAccessor implements IPropertyAccessor {
 							continue;
 						}
 
-						try {
-							Object result = method.invoke(object, (Object[]) null);
-							return getPropertyContent(propertyPath.getPathToContinue(), result);
-						} catch (IllegalArgumentException e) {
-							log.error(e.getMessage());
-							throw new PropertyAccessException("Illegal Argument Exception!", e);
-						} catch (IllegalAccessException e) {
-							log.error(e.getMessage());
-							throw new PropertyAccessException("IllegalAccessException!", e);
-						} catch (InvocationTargetException e) {
-							log.error(e.getMessage());
-							throw new PropertyAccessException("InvocationTargetException!", e);
-						}
-
+						return new MethodAccessor(method);
 					}
 				}
 
 				c = c.getSuperclass();
-			} while (c != Object.class);
+			} while ((null != c) && (c != Object.class));
 
 		} else { // We are dealing with a property navigation and not an method
 			// call
@@ -215,23 +282,16 @@ public class PropertyAccessor implements IPropertyAccessor {
 					if (propertyPath.getName().equals(field.getName())) {
 						try {
 							field.setAccessible(true);
-							Object fieldObject = field.get(object);
-							return getPropertyContent(propertyPath.getPathToContinue(), fieldObject);
 						} catch (SecurityException e) {
 							log.error(e.getMessage());
 							throw new PropertyAccessException("Security Exception was thrown while accessing a field!", e);
-						} catch (IllegalArgumentException e) {
-							log.error(e.getMessage());
-							throw new PropertyAccessException("Illegal Argument Exception!", e);
-						} catch (IllegalAccessException e) {
-							log.error(e.getMessage());
-							throw new PropertyAccessException("Illegal Access Exception!", e);
 						}
+						return new FieldAccessor(field);
 					}
 				}
 
 				c = c.getSuperclass();
-			} while (c != Object.class);
+			} while ((null != c) && (c != Object.class));
 		}
 
 		throw new PropertyAccessException("Property or method " + propertyPath.getName() + " cannot be found in class " + object.getClass() + "!");
@@ -269,6 +329,106 @@ public class PropertyAccessor implements IPropertyAccessor {
 		return parameterContentData;
 	}
 
+	/**
+	 * Resolved access to one element of the property path.
+	 */
+	private abstract static class MemberAccessor {
+
+		/**
+		 * Accesses the member on the given object.
+		 * 
+		 * @param object
+		 *            Object to access.
+		 * @return Value of the member.
+		 * @throws IllegalAccessException
+		 *             If member can not be accessed.
+		 * @throws InvocationTargetException
+		 *             If invoked method throws an exception.
+		 */
+		abstract Object access(Object object) throws IllegalAccessException, InvocationTargetException;
+
+	}
+
+	/**
+	 * Accessor of the field that has been already made accessible.
+	 */
+	private static class FieldAccessor extends MemberAccessor {
+
+		/**
+		 * Field to read.
+		 */
+		private final Field field;
+
+		/**
+		 * Default constructor.
+		 * 
+		 * @param field
+		 *            Field to read.
+		 */
+		FieldAccessor(Field field) {
+			this.field = field;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Object access(Object object) throws IllegalAccessException {
+			return field.get(object);
+		}
+
+	}
+
+	/**
+	 * Accessor invoking the method without arguments.
+	 */
+	private static class MethodAccessor extends MemberAccessor {
+
+		/**
+		 * Method to invoke.
+		 */
+		private final Method method;
+
+		/**
+		 * Default constructor.
+		 * 
+		 * @param method
+		 *            Method to invoke.
+		 */
+		MethodAccessor(Method method) {
+			this.method = method;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Object access(Object object) throws IllegalAccessException, InvocationTargetException {
+			return method.invoke(object, (Object[]) null);
+		}
+
+	}
+
+	/**
+	 * Accessor of the array length.
+	 */
+	private static final class ArrayLengthAccessor extends MemberAccessor {
+
+		/**
+		 * Stateless instance.
+		 */
+		static final ArrayLengthAccessor INSTANCE = new ArrayLengthAccessor();
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Object access(Object object) {
+			return Integer.valueOf(Array.getLength(object));
+		}
+
+	}
+
 	/**
 	 * Every path can have another follower path. These classes are used to describe the way to find
 	 * a specific property in an object.
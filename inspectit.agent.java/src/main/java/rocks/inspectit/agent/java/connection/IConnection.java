@@ -57,10 +57,12 @@ public interface IConnection {
 	 * 
 	 * @param dataObjects
 	 *            The measurements to send.
+	 * @return <code>true</code> if the server accepted the measurements, <code>false</code> if
+	 *         the server is overloaded and the measurements have to be sent again later.
 	 * @throws ServerUnavailableException
 	 *             If server to send the request to is unavailable.
 	 */
-	void sendDataObjects(List<? extends DefaultData> dataObjects) throws ServerUnavailableException;
+	boolean sendDataObjects(List<? extends DefaultData> dataObjects) throws ServerUnavailableException;
 
 	/**
 	 * Registers the current platform (composed of the network interface with the Agent name) in the
@@ -12,7 +12,7 @@ import rocks.inspectit.shared.all.communication.DefaultData;
  * @author Patrice Bouillet
  * 
  */
-public class AddDataObjects extends AbstractRemoteMethodCall<IAgentStorageService, Void> {
+public class AddDataObjects extends AbstractRemoteMethodCall<IAgentStorageService, Boolean> {
 
 	/**
 	 * A list containing our measurements we want to send.
@@ -37,9 +37,8 @@ public class AddDataObjects extends AbstractRemoteMethodCall<IAgentStorageServic
 	/**
 	 * {@inheritDoc}
 	 */
-	protected Void performRemoteCall(IAgentStorageService remoteObject) {
-		remoteObject.addDataObjects(dataObjects);
-		return null;
+	protected Boolean performRemoteCall(IAgentStorageService remoteObject) {
+		return Boolean.valueOf(remoteObject.addDataObjects(dataObjects));
 	}
 
 }
@@ -12,6 +12,7 @@ import java.util.concurrent.ExecutionException;
 
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.esotericsoftware.kryonet.rmi.RemoteObject;
@@ -85,6 +86,14 @@ public class KryoNetConnection implements IConnection {
 	 */
 	private List<String> networkInterfaces;
 
+	/**
+	 * If the CMR runs in the lossless mode. Only then sending the data waits for the CMR to signal
+	 * if it accepted the data, otherwise the data is sent without blocking. Can be set with the
+	 * JVM parameter <code>-Dconnection.lossless=true</code>.
+	 */
+	@Value("${connection.lossless:false}")
+	boolean lossless;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -99,8 +108,10 @@ public class KryoNetConnection implements IConnection {
 
 				int agentStorageServiceId = IAgentStorageService.class.getAnnotation(ServiceInterface.class).serviceId();
 				agentStorageService = ObjectSpace.getRemoteObject(client, agentStorageServiceId, IAgentStorageService.class);
-				((RemoteObject) agentStorageService).setNonBlocking(true);
-				((RemoteObject) agentStorageService).setTransmitReturnValue(false);
+				// in the lossless mode the return value signals if the CMR accepted the data, thus
+				// the call has to be blocking
+				((RemoteObject) agentStorageService).setNonBlocking(!lossless);
+				((RemoteObject) agentStorageService).setTransmitReturnValue(lossless);
 
 				int registrationServiceServiceId = IRegistrationService.class.getAnnotation(ServiceInterface.class).serviceId();
 				registrationService = ObjectSpace.getRemoteObject(client, registrationServiceServiceId, IRegistrationService.class);
@@ -274,7 +285,7 @@ public class KryoNetConnection implements IConnection {
 	/**
 	 * {@inheritDoc}
 	 */
-	public void sendDataObjects(List<? extends DefaultData> measurements) throws ServerUnavailableException {
+	public boolean sendDataObjects(List<? extends DefaultData> measurements) throws ServerUnavailableException {
 		if (!isConnected()) {
 			throw new ServerUnavailableException();
 		}
@@ -282,12 +293,19 @@ public class KryoNetConnection implements IConnection {
 		if (null != measurements && !measurements.isEmpty()) {
 			try {
 				AddDataObjects remote = new AddDataObjects(agentStorageService, measurements);
-				remote.makeCall();
+				Boolean accepted = remote.makeCall();
+				if (!lossless) {
+					// non-blocking calls return no value
+					return true;
+				}
+				// servers not signaling back pressure return nothing
+				return (null == accepted) || accepted.booleanValue();
 			} catch (ExecutionException executionException) {
 				// there should be no execution exception
 				log.error("Could not send data objects", executionException);
 			}
 		}
+		return true;
 	}
 
 	/**
@@ -0,0 +1,39 @@
+package rocks.inspectit.agent.java.core;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+
+/**
+ * Object storage that lives across several sending intervals and collects the data in time
+ * windows. A window is only transmitted once it is closed, thus {@link #finalizeDataObject()} can
+ * be called repeatedly and returns <code>null</code> as long as no closed window is available.
+ */
+public interface IWindowedObjectStorage extends IObjectStorage {
+
+	/**
+	 * Returns the data of the oldest closed window that contains data. Must be called until
+	 * <code>null</code> is returned to get the data of all closed windows.
+	 *
+	 * @return Returns a {@link DefaultData} of a closed window or <code>null</code> if no closed
+	 *         window is available.
+	 */
+	DefaultData finalizeDataObject();
+
+	/**
+	 * Closes the current window before its end and returns its data. Used when the data can not
+	 * wait for the end of the window, like on shutdown.
+	 *
+	 * @return Returns a {@link DefaultData} of the current window or <code>null</code> if the
+	 *         current window does not contain any data.
+	 */
+	DefaultData finalizeOpenWindow();
+
+	/**
+	 * Returns if the windows finalized last were empty, all closed windows were finalized and no
+	 * data was added to the current window. Such a storage can be discarded, but data that is
+	 * still added to it by a sensor holding the storage has to be finalized once more.
+	 *
+	 * @return <code>true</code> if the storage can be discarded.
+	 */
+	boolean isIdle();
+
+}
@@ -1,11 +1,12 @@
 package rocks.inspectit.agent.java.core.impl;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 import org.slf4j.Logger;
 import org.springframework.beans.factory.DisposableBean;
@@ -24,10 +25,12 @@ import rocks.inspectit.agent.java.connection.ServerUnavailableException;
 import rocks.inspectit.agent.java.core.ICoreService;
 import rocks.inspectit.agent.java.core.IIdManager;
 import rocks.inspectit.agent.java.core.IObjectStorage;
+import rocks.inspectit.agent.java.core.IWindowedObjectStorage;
 import rocks.inspectit.agent.java.core.ListListener;
 import rocks.inspectit.agent.java.sending.ISendingStrategy;
 import rocks.inspectit.agent.java.sensor.jmx.IJmxSensor;
 import rocks.inspectit.agent.java.sensor.platform.IPlatformSensor;
+import rocks.inspectit.agent.java.util.ConcurrentLongPairMap;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.ExceptionEvent;
 import rocks.inspectit.shared.all.communication.MethodSensorData;
@@ -70,29 +73,73 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	private final IIdManager idManager;
 
 	/**
-	 * Already used data objects which can be used directly on the CMR to persist.
+	 * Key prefix separating the platform sensor data from the other data objects.
 	 */
-	private Map<String, DefaultData> sensorDataObjects = new ConcurrentHashMap<String, DefaultData>();
+	private static final Object PLATFORM_SENSOR_DATA_PREFIX = new Object();
 
 	/**
-	 * Contains object storage instances which will be initialized when sending.
+	 * Key prefix separating the exception sensor data from the other data objects.
 	 */
-	private Map<String, IObjectStorage> objectStorages = new ConcurrentHashMap<String, IObjectStorage>();
+	private static final Object EXCEPTION_SENSOR_DATA_PREFIX = new Object();
+
+	/**
+	 * Already used data objects which can be used directly on the CMR to persist. Method sensor
+	 * data is keyed by the method and sensor type id and the optional prefix, thus no key has to
+	 * be created on every measurement. Volatile as the reference is switched by the preparing
+	 * thread while the sensors keep adding data.
+	 */
+	private volatile ConcurrentLongPairMap<DefaultData> sensorDataObjects = new ConcurrentLongPairMap<DefaultData>();
+
+	/**
+	 * Contains object storage instances which will be initialized when sending. Volatile as the
+	 * reference is switched by the preparing thread while the sensors keep adding storages.
+	 */
+	private volatile ConcurrentLongPairMap<IObjectStorage> objectStorages = new ConcurrentLongPairMap<IObjectStorage>();
 
 	/**
 	 * Used as second hash table for the measurements when processed before sending.
 	 */
-	private Map<String, DefaultData> measurementsProcessing = new ConcurrentHashMap<String, DefaultData>();
+	private ConcurrentLongPairMap<DefaultData> measurementsProcessing = new ConcurrentLongPairMap<DefaultData>();
 
 	/**
 	 * Used as second hash table for the object storages when processed before sending.
 	 */
-	private Map<String, IObjectStorage> objectStoragesProcessing = new ConcurrentHashMap<String, IObjectStorage>();
+	private ConcurrentLongPairMap<IObjectStorage> objectStoragesProcessing = new ConcurrentLongPairMap<IObjectStorage>();
 
 	/**
-	 * Temporary Map to switch the references of the active hash table with the processed one.
+	 * Contains the windowed object storages. They are kept over several sending intervals and are
+	 * thus never switched, only removed when idle.
 	 */
-	private Map<String, ?> temp;
+	private ConcurrentLongPairMap<IObjectStorage> windowedObjectStorages = new ConcurrentLongPairMap<IObjectStorage>();
+
+	/**
+	 * Windowed object storages removed as idle in the last prepare step. A sensor might have
+	 * fetched such a storage right before it was removed and still add data to it, thus the
+	 * storages are finalized once more in the next prepare step before they are dropped. Only
+	 * accessed by the thread preparing the data.
+	 */
+	private List<IWindowedObjectStorage> evictedWindowedObjectStorages = new ArrayList<IWindowedObjectStorage>();
+
+	/**
+	 * Filter matching the idle windowed object storages. The matched storages are remembered in
+	 * the {@link #evictedWindowedObjectStorages}.
+	 */
+	private final ConcurrentLongPairMap.ValueFilter<IObjectStorage> idleStorageFilter = new ConcurrentLongPairMap.ValueFilter<IObjectStorage>() {
+		public boolean matches(IObjectStorage value) {
+			IWindowedObjectStorage windowedObjectStorage = (IWindowedObjectStorage) value;
+			if (windowedObjectStorage.isIdle()) {
+				evictedWindowedObjectStorages.add(windowedObjectStorage);
+				return true;
+			}
+			return false;
+		}
+	};
+
+	/**
+	 * If the open windows of the windowed object storages are closed in the next prepare step. Set
+	 * on shutdown.
+	 */
+	private volatile boolean closeOpenWindows;
 
 	/**
 	 * The registered list listeners.
@@ -136,12 +183,50 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	 */
 	private volatile SendingThread sendingThread;
 
+	/**
+	 * Mode of the sending pipeline in which a single thread prepares and sends the data.
+	 */
+	private static final String BATCHING_PIPELINE = "batching";
+
+	/**
+	 * The default amount of prepared lists sent with one call to the connection in the batching
+	 * pipeline.
+	 */
+	private static final int DEFAULT_MAX_BATCHES_PER_SEND = 10;
+
+	/**
+	 * The amount of prepared lists sent with one call to the connection in the batching pipeline.
+	 */
+	private int maxBatchesPerSend = DEFAULT_MAX_BATCHES_PER_SEND;
+
+	/**
+	 * The batching thread that replaces the preparing and the sending thread if the batching
+	 * sending pipeline is configured.
+	 */
+	private volatile BatchingThread batchingThread;
+
+	/**
+	 * Latency metrics of preparing and sending the data.
+	 */
+	private final SendingPipelineMetrics sendingPipelineMetrics = new SendingPipelineMetrics();
+
 	/**
 	 * Defines if there was an exception before while trying to send the data. Used to throttle the
 	 * printing of log statements.
 	 */
 	private boolean sendingExceptionNotice = false;
 
+	/**
+	 * Data the CMR did not accept because it was overloaded. Sent again before any new data is
+	 * taken from the buffer strategy, which keeps buffering in the meantime.
+	 */
+	private List<DefaultData> rejectedData;
+
+	/**
+	 * Amount of lists of the buffer strategy contained in the {@link #rejectedData}.
+	 */
+	private int rejectedBatches;
+
 	/**
 	 * The scheduled executor service.
 	 */
@@ -200,11 +285,21 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 			strategy.start(this);
 		}
 
-		preparingThread = new PreparingThread();
-		preparingThread.start();
+		Map<String, String> pipelineSettings = configurationStorage.getSendingPipelineSettings();
+		if ((null != pipelineSettings) && BATCHING_PIPELINE.equals(pipelineSettings.get("mode"))) {
+			if (pipelineSettings.containsKey("maxBatches")) {
+				maxBatchesPerSend = Integer.parseInt(pipelineSettings.get("maxBatches"));
+			}
 
-		sendingThread = new SendingThread();
-		sendingThread.start();
+			batchingThread = new BatchingThread();
+			batchingThread.start();
+		} else {
+			preparingThread = new PreparingThread();
+			preparingThread.start();
+
+			sendingThread = new SendingThread();
+			sendingThread.start();
+		}
 
 		sensorRefresher = new SensorRefresher();
 		sensorRefresher.start();
@@ -220,18 +315,25 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 			strategy.stop();
 		}
 
-		synchronized (preparingThread) {
-			preparingThread.interrupt();
-		}
+		if (null != batchingThread) {
+			batchingThread.interrupt();
+		} else {
+			synchronized (preparingThread) {
+				preparingThread.interrupt();
+			}
 
-		synchronized (sendingThread) {
-			sendingThread.interrupt();
+			synchronized (sendingThread) {
+				sendingThread.interrupt();
+			}
 		}
 
 		Thread temp = sensorRefresher;
 		sensorRefresher = null; // NOPMD
-		synchronized (temp) {
-			temp.interrupt();
+		if (null != temp) {
+			// already stopped if the shutdown hook runs after the service was destroyed
+			synchronized (temp) {
+				temp.interrupt();
+			}
 		}
 	}
 
@@ -239,6 +341,11 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	 * {@inheritDoc}
 	 */
 	public void sendData() {
+		if (null != batchingThread) {
+			batchingThread.activate();
+			return;
+		}
+
 		// notify the sending thread. if it is currently sending something,
 		// nothing should happen
 		synchronized (preparingThread) {
@@ -246,20 +353,21 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 		}
 	}
 
+	/**
+	 * Returns the latency metrics of preparing and sending the data.
+	 * 
+	 * @return The latency metrics of preparing and sending the data.
+	 */
+	public SendingPipelineMetrics getSendingPipelineMetrics() {
+		return sendingPipelineMetrics;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	public void addJmxSensorValueData(long sensorTypeIdent, String objectName, String attributeName, JmxSensorValueData jmxSensorValueData) {
-		StringBuffer buffer = new StringBuffer();
-		buffer.append(sensorTypeIdent);
-		buffer.append('.');
-		buffer.append(objectName);
-		buffer.append('.');
-		buffer.append(attributeName);
-		buffer.append('.');
 		// Added timestamp to be able to send multiple objects to cmr.
-		buffer.append(jmxSensorValueData.getTimeStamp().getTime());
-		sensorDataObjects.put(buffer.toString(), jmxSensorValueData);
+		sensorDataObjects.put(sensorTypeIdent, jmxSensorValueData.getTimeStamp().getTime(), Arrays.asList(objectName, attributeName), jmxSensorValueData);
 		notifyListListeners();
 	}
 
@@ -267,15 +375,7 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	 * {@inheritDoc}
 	 */
 	public void addMethodSensorData(long sensorTypeIdent, long methodIdent, String prefix, MethodSensorData methodSensorData) {
-		StringBuffer buffer = new StringBuffer();
-		if (null != prefix) {
-			buffer.append(prefix);
-			buffer.append('.');
-		}
-		buffer.append(methodIdent);
-		buffer.append('.');
-		buffer.append(sensorTypeIdent);
-		sensorDataObjects.put(buffer.toString(), methodSensorData);
+		sensorDataObjects.put(methodIdent, sensorTypeIdent, prefix, methodSensorData);
 		notifyListListeners();
 	}
 
@@ -283,22 +383,14 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	 * {@inheritDoc}
 	 */
 	public MethodSensorData getMethodSensorData(long sensorTypeIdent, long methodIdent, String prefix) {
-		StringBuffer buffer = new StringBuffer();
-		if (null != prefix) {
-			buffer.append(prefix);
-			buffer.append('.');
-		}
-		buffer.append(methodIdent);
-		buffer.append('.');
-		buffer.append(sensorTypeIdent);
-		return (MethodSensorData) sensorDataObjects.get(buffer.toString());
+		return (MethodSensorData) sensorDataObjects.get(methodIdent, sensorTypeIdent, prefix);
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public void addPlatformSensorData(long sensorTypeIdent, SystemSensorData systemSensorData) {
-		sensorDataObjects.put(Long.toString(sensorTypeIdent), systemSensorData);
+		sensorDataObjects.put(sensorTypeIdent, 0L, PLATFORM_SENSOR_DATA_PREFIX, systemSensorData);
 		notifyListListeners();
 	}
 
@@ -306,25 +398,19 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	 * {@inheritDoc}
 	 */
 	public SystemSensorData getPlatformSensorData(long sensorTypeIdent) {
-		return (SystemSensorData) sensorDataObjects.get(Long.toString(sensorTypeIdent));
+		return (SystemSensorData) sensorDataObjects.get(sensorTypeIdent, 0L, PLATFORM_SENSOR_DATA_PREFIX);
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public void addExceptionSensorData(long sensorTypeIdent, long throwableIdentityHashCode, ExceptionSensorData exceptionSensorData) {
-		StringBuffer buffer = new StringBuffer();
-		buffer.append(sensorTypeIdent);
-		buffer.append("::");
-		buffer.append(throwableIdentityHashCode);
-		String key = buffer.toString();
-
 		// we always only save the first data object, because this object contains the nested
 		// objects to create the whole exception tree
 		if (exceptionSensorData.getExceptionEvent().equals(ExceptionEvent.CREATED)) {
 			// if a data object with the same hash code was already created, then it has to be For
 			// us only the last-most data object is relevant
-			sensorDataObjects.put(key, exceptionSensorData);
+			sensorDataObjects.put(sensorTypeIdent, throwableIdentityHashCode, EXCEPTION_SENSOR_DATA_PREFIX, exceptionSensorData);
 			notifyListListeners();
 		}
 	}
@@ -333,27 +419,18 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	 * {@inheritDoc}
 	 */
 	public ExceptionSensorData getExceptionSensorData(long sensorTypeIdent, long throwableIdentityHashCode) {
-		StringBuffer buffer = new StringBuffer();
-		buffer.append(sensorTypeIdent);
-		buffer.append("::");
-		buffer.append(throwableIdentityHashCode);
-
-		return (ExceptionSensorData) sensorDataObjects.get(buffer.toString());
+		return (ExceptionSensorData) sensorDataObjects.get(sensorTypeIdent, throwableIdentityHashCode, EXCEPTION_SENSOR_DATA_PREFIX);
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public void addObjectStorage(long sensorTypeIdent, long methodIdent, String prefix, IObjectStorage objectStorage) {
-		StringBuffer buffer = new StringBuffer();
-		if (null != prefix) {
-			buffer.append(prefix);
-			buffer.append('.');
-		}
-		buffer.append(methodIdent);
-		buffer.append('.');
-		buffer.append(sensorTypeIdent);
-		objectStorages.put(buffer.toString(), objectStorage);
+		if (objectStorage instanceof IWindowedObjectStorage) {
+			windowedObjectStorages.put(methodIdent, sensorTypeIdent, prefix, objectStorage);
+		} else {
+			objectStorages.put(methodIdent, sensorTypeIdent, prefix, objectStorage);
+		}
 		notifyListListeners();
 	}
 
@@ -361,15 +438,11 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	 * {@inheritDoc}
 	 */
 	public IObjectStorage getObjectStorage(long sensorTypeIdent, long methodIdent, String prefix) {
-		StringBuffer buffer = new StringBuffer();
-		if (null != prefix) {
-			buffer.append(prefix);
-			buffer.append('.');
+		IObjectStorage objectStorage = objectStorages.get(methodIdent, sensorTypeIdent, prefix);
+		if (null == objectStorage) {
+			objectStorage = windowedObjectStorages.get(methodIdent, sensorTypeIdent, prefix);
 		}
-		buffer.append(methodIdent);
-		buffer.append('.');
-		buffer.append(sensorTypeIdent);
-		return (IObjectStorage) objectStorages.get(buffer.toString());
+		return objectStorage;
 	}
 
 	/**
@@ -401,8 +474,9 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	private void notifyListListeners() {
 		if (!listListeners.isEmpty()) {
-			List temp = new ArrayList(sensorDataObjects.values());
+			List temp = sensorDataObjects.values();
 			temp.addAll(objectStorages.values());
+			temp.addAll(windowedObjectStorages.values());
 			for (ListListener<?> listListener : listListeners) {
 				listListener.contentChanged(temp);
 			}
@@ -491,40 +565,160 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	 * 
 	 * @return <code>true</code> if new data were prepared, else <code>false</code>
 	 */
-	@SuppressWarnings("unchecked")
 	private boolean prepareData() {
 		// check if measurements are added in the last interval, if not nothing needs to be sent.
-		if (sensorDataObjects.isEmpty() && objectStorages.isEmpty()) {
+		if (sensorDataObjects.isEmpty() && objectStorages.isEmpty() && windowedObjectStorages.isEmpty() && evictedWindowedObjectStorages.isEmpty()) {
 			return false;
 		}
 
+		long start = System.nanoTime();
+
 		// switch the references so that new data is stored while sending
-		temp = sensorDataObjects;
+		ConcurrentLongPairMap<DefaultData> tempMeasurements = sensorDataObjects;
 		sensorDataObjects = measurementsProcessing;
-		measurementsProcessing = (Map<String, DefaultData>) temp;
+		measurementsProcessing = tempMeasurements;
 
-		temp = objectStorages;
+		ConcurrentLongPairMap<IObjectStorage> tempObjectStorages = objectStorages;
 		objectStorages = objectStoragesProcessing;
-		objectStoragesProcessing = (Map<String, IObjectStorage>) temp;
+		objectStoragesProcessing = tempObjectStorages;
 
 		// copy the measurements values to a new list
-		List<DefaultData> tempList = new ArrayList<DefaultData>(measurementsProcessing.values());
+		List<DefaultData> tempList = measurementsProcessing.values();
 		measurementsProcessing.clear();
 
 		// iterate the object storages and get the value objects which will be stored in the same
 		// list.
-		for (Iterator<IObjectStorage> i = objectStoragesProcessing.values().iterator(); i.hasNext();) {
-			IObjectStorage objectStorage = i.next();
+		for (IObjectStorage objectStorage : objectStoragesProcessing.values()) {
 			tempList.add(objectStorage.finalizeDataObject());
 		}
 		objectStoragesProcessing.clear();
+		prepareWindowedData(tempList);
+
+		if (tempList.isEmpty()) {
+			return false;
+		}
 
 		// Now give the strategy the list
 		bufferStrategy.addMeasurements(tempList);
 
+		sendingPipelineMetrics.recordPrepare(System.nanoTime() - start);
 		return true;
 	}
 
+	/**
+	 * Prepares the data like {@link #prepareData()}, but drains the maps instead of copying and
+	 * clearing them. Data objects and storages that threads still put into the map being processed
+	 * are thus not dropped by the clear: they are either drained now or stay in the map and are
+	 * drained after the next switch.
+	 * <p>
+	 * Same as with {@link #prepareData()}, an update to an object storage that a sensor fetched
+	 * before the switch and changes after the storage was finalized is not included in the sent
+	 * data.
+	 * 
+	 * <b> WARNING: This code is supposed to be run single-threaded! We ensure single-threaded
+	 * invocation by only calling this method within the single <code>BatchingThread</code>. During
+	 * the JVM shutdown (in the shutdownhook), it is also ensured that this code is run
+	 * singlethreaded. </b>
+	 * 
+	 * @return <code>true</code> if new data were prepared, else <code>false</code>
+	 */
+	private boolean prepareDataDraining() {
+		long start = System.nanoTime();
+
+		// switch the references so that new data is stored while sending
+		ConcurrentLongPairMap<DefaultData> tempMeasurements = sensorDataObjects;
+		sensorDataObjects = measurementsProcessing;
+		measurementsProcessing = tempMeasurements;
+
+		ConcurrentLongPairMap<IObjectStorage> tempObjectStorages = objectStorages;
+		objectStorages = objectStoragesProcessing;
+		objectStoragesProcessing = tempObjectStorages;
+
+		List<DefaultData> tempList = measurementsProcessing.drain();
+		for (IObjectStorage objectStorage : objectStoragesProcessing.drain()) {
+			tempList.add(objectStorage.finalizeDataObject());
+		}
+		prepareWindowedData(tempList);
+
+		if (tempList.isEmpty()) {
+			return false;
+		}
+
+		bufferStrategy.addMeasurements(tempList);
+
+		sendingPipelineMetrics.recordPrepare(System.nanoTime() - start);
+		return true;
+	}
+
+	/**
+	 * Prepares the data and sends everything available in the buffer strategy, joining up to
+	 * {@link #maxBatchesPerSend} lists into one call to the connection. Used by the batching
+	 * sending pipeline.
+	 * 
+	 * <b> WARNING: This code is supposed to be run single-threaded! We ensure single-threaded
+	 * invocation by only calling this method within the single <code>BatchingThread</code> and in
+	 * the shutdown hook after the thread has ended. </b>
+	 */
+	void prepareAndSendBatches() {
+		prepareDataDraining();
+		send(maxBatchesPerSend);
+
+		if (log.isDebugEnabled()) {
+			log.debug(sendingPipelineMetrics.toString());
+		}
+	}
+
+	/**
+	 * Adds the data of the closed windows of the windowed object storages to the list and removes
+	 * the idle storages. On shutdown the open windows are closed as well. The storages removed in
+	 * the last prepare step are finalized completely and dropped.
+	 * 
+	 * @param dataList
+	 *            List to add the data to.
+	 */
+	private void prepareWindowedData(List<DefaultData> dataList) {
+		if (!evictedWindowedObjectStorages.isEmpty()) {
+			for (IWindowedObjectStorage windowedObjectStorage : evictedWindowedObjectStorages) {
+				finalizeWindows(windowedObjectStorage, true, dataList);
+			}
+			evictedWindowedObjectStorages.clear();
+		}
+
+		if (windowedObjectStorages.isEmpty()) {
+			return;
+		}
+
+		boolean closeOpen = closeOpenWindows;
+		for (IObjectStorage objectStorage : windowedObjectStorages.values()) {
+			finalizeWindows((IWindowedObjectStorage) objectStorage, closeOpen, dataList);
+		}
+		windowedObjectStorages.removeIf(idleStorageFilter);
+	}
+
+	/**
+	 * Adds the data of the closed windows of the windowed object storage to the list.
+	 * 
+	 * @param windowedObjectStorage
+	 *            Storage to finalize.
+	 * @param closeOpen
+	 *            If the open window should be closed and added as well.
+	 * @param dataList
+	 *            List to add the data to.
+	 */
+	private void finalizeWindows(IWindowedObjectStorage windowedObjectStorage, boolean closeOpen, List<DefaultData> dataList) {
+		DefaultData data = windowedObjectStorage.finalizeDataObject();
+		while (null != data) {
+			dataList.add(data);
+			data = windowedObjectStorage.finalizeDataObject();
+		}
+		if (closeOpen) {
+			data = windowedObjectStorage.finalizeOpenWindow();
+			if (null != data) {
+				dataList.add(data);
+			}
+		}
+	}
+
 	/**
 	 * sends the data.
 	 * 
@@ -534,15 +728,57 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 	 * singlethreaded. </b>
 	 */
 	private void send() {
+		send(1);
+	}
+
+	/**
+	 * Sends the data, joining up to the given amount of lists of the buffer strategy into one call
+	 * to the connection.
+	 * 
+	 * <b> WARNING: This code is supposed to be run single-threaded! See {@link #send()}. </b>
+	 * 
+	 * @param maxBatches
+	 *            The maximum amount of lists sent with one call.
+	 */
+	private void send(int maxBatches) {
 		try {
-			while (bufferStrategy.hasNext()) {
+			while ((null != rejectedData) || bufferStrategy.hasNext()) {
 				// if we are not connected keep data in buffer strategy
 				if (!connection.isConnected()) {
 					return;
 				}
 
-				List<DefaultData> dataToSend = bufferStrategy.next();
-				connection.sendDataObjects(dataToSend);
+				List<DefaultData> dataToSend;
+				int batches;
+				if (null != rejectedData) {
+					dataToSend = rejectedData;
+					batches = rejectedBatches;
+					rejectedData = null;
+				} else {
+					dataToSend = bufferStrategy.next();
+					batches = 1;
+					if (maxBatches > 1 && bufferStrategy.hasNext()) {
+						dataToSend = new ArrayList<DefaultData>(dataToSend);
+						while (batches < maxBatches && bufferStrategy.hasNext()) {
+							dataToSend.addAll(bufferStrategy.next());
+							batches++;
+						}
+					}
+				}
+
+				long start = System.nanoTime();
+				boolean accepted = connection.sendDataObjects(dataToSend);
+				if (!accepted) {
+					// the CMR is overloaded, keep the data and try again on the next send
+					rejectedData = dataToSend;
+					rejectedBatches = batches;
+					sendingPipelineMetrics.recordRejected();
+					if (log.isDebugEnabled()) {
+						log.debug("CMR overloaded, " + dataToSend.size() + " data objects will be sent again.");
+					}
+					return;
+				}
+				sendingPipelineMetrics.recordSend(System.nanoTime() - start, batches, dataToSend.size());
 				sendingExceptionNotice = false;
 			}
 		} catch (ServerUnavailableException serverUnavailableException) {
@@ -658,6 +894,55 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 		}
 	}
 
+	/**
+	 * This implementation of a {@link Thread} replaces the {@link PreparingThread} and the
+	 * {@link SendingThread} in the batching sending pipeline. On each activation by a sending
+	 * strategy it prepares the data and then sends everything available in the
+	 * {@link IBufferStrategy}, joining several lists into one call to the connection. Activations
+	 * that arrive while the thread is busy are not lost, but result in one more run.
+	 * <p>
+	 * Note that only one thread of this type can be started. Otherwise serious synchronization
+	 * problems can appear.
+	 */
+	private class BatchingThread extends Thread {
+
+		/**
+		 * If the thread was activated since the last run.
+		 */
+		private final AtomicBoolean activated = new AtomicBoolean();
+
+		/**
+		 * Creates a new <code>BatchingThread</code> as daemon.
+		 */
+		public BatchingThread() {
+			setName("inspectit-batching-thread");
+			setDaemon(true);
+		}
+
+		/**
+		 * Requests one run of preparing and sending.
+		 */
+		public void activate() {
+			activated.set(true);
+			LockSupport.unpark(this);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public void run() {
+			while (!isInterrupted()) {
+				if (!activated.getAndSet(false)) {
+					// wait for activation, spurious wake ups are handled by the loop
+					LockSupport.park();
+					continue;
+				}
+
+				prepareAndSendBatches();
+			}
+		}
+	}
+
 	/**
 	 * Used for the JVM Shutdown. Ensure that all threads are closed correctly and tries to send
 	 * data one last time to prevent data loss.
@@ -675,6 +960,23 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 			// safety on the entities used for preparing and sending. If we get interrupted while
 			// waiting, then we stop the ShutdownHook completely. We'll wait only 10 seconds as
 			// a maximum for each join and then continue
+			if (null != batchingThread) {
+				try {
+					batchingThread.join(10000);
+				} catch (InterruptedException e) {
+					log.error("ShutdownHook was interrupted while waiting for the batching thread to shut down. Stopping the shutdown hook");
+					return;
+				}
+
+				// Try to prepare and send data for the last time.
+				closeOpenWindows = true;
+				CoreService.this.prepareAndSendBatches();
+
+				log.info("Unregistering the Agent");
+				idManager.unregisterPlatform();
+				return;
+			}
+
 			try {
 				preparingThread.join(10000);
 			} catch (InterruptedException e) {
@@ -690,6 +992,7 @@ public class CoreService implements ICoreService, InitializingBean, DisposableBe
 			}
 
 			// Try to prepare data for the last time.
+			closeOpenWindows = true;
 			CoreService.this.prepareData();
 
 			// Try to send data for the last time. We do not set a timeout here, the user can simply
@@ -4,6 +4,8 @@ import java.net.ConnectException;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.springframework.beans.factory.DisposableBean;
@@ -67,9 +69,15 @@ public class IdManager implements IIdManager, InitializingBean, DisposableBean {
 	private long platformId = -1;
 
 	/**
-	 * The mapping between the local and remote method ids.
+	 * The mapping between the local and remote method ids. Concurrent as the methods can be
+	 * registered by several threads.
 	 */
-	private final Map<Long, Long> methodIdMap = new HashMap<Long, Long>();
+	private final Map<Long, Long> methodIdMap = new ConcurrentHashMap<Long, Long>();
+
+	/**
+	 * Sequence of the local method ids.
+	 */
+	private final AtomicLong methodIdSequence = new AtomicLong();
 
 	/**
 	 * The mapping between the local and remote sensor type ids.
@@ -286,10 +294,7 @@ public class IdManager implements IIdManager, InitializingBean, DisposableBean {
 	 * {@inheritDoc}
 	 */
 	public long registerMethod(RegisteredSensorConfig registeredSensorConfig) {
-		long id;
-		synchronized (methodsToRegister) {
-			id = methodIdMap.size() + methodsToRegister.size();
-		}
+		long id = methodIdSequence.getAndIncrement();
 		registeredSensorConfig.setId(id);
 
 		if (!serverErrorOccured) {
@@ -798,13 +803,11 @@ public class IdManager implements IIdManager, InitializingBean, DisposableBean {
 		 */
 		private void registerMethod(RegisteredSensorConfig rsc) throws ServerUnavailableException, RegistrationException {
 			long registeredId = connection.registerMethod(platformId, rsc);
-			synchronized (methodsToRegister) {
-				Long localId = Long.valueOf(methodIdMap.size());
-				methodIdMap.put(localId, Long.valueOf(registeredId));
+			Long localId = Long.valueOf(rsc.getId());
+			methodIdMap.put(localId, Long.valueOf(registeredId));
 
-				if (log.isDebugEnabled()) {
-					log.debug("Method " + rsc.toString() + " registered. ID (local/global): " + localId + "/" + registeredId);
-				}
+			if (log.isDebugEnabled()) {
+				log.debug("Method " + rsc.toString() + " registered. ID (local/global): " + localId + "/" + registeredId);
 			}
 		}
 
@@ -0,0 +1,228 @@
+package rocks.inspectit.agent.java.core.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency metrics of the sending pipeline of the {@link CoreService}. The prepare latency is the
+ * time needed to collect the measurements and object storages and hand them to the buffer
+ * strategy, the send latency is the time one call to the connection takes.
+ */
+public class SendingPipelineMetrics {
+
+	/**
+	 * Amount of prepare steps.
+	 */
+	private final AtomicLong prepareCount = new AtomicLong();
+
+	/**
+	 * Summed up duration of the prepare steps in nanoseconds.
+	 */
+	private final AtomicLong prepareTotalNanos = new AtomicLong();
+
+	/**
+	 * Maximum duration of a prepare step in nanoseconds.
+	 */
+	private final AtomicLong prepareMaxNanos = new AtomicLong();
+
+	/**
+	 * Amount of send calls.
+	 */
+	private final AtomicLong sendCount = new AtomicLong();
+
+	/**
+	 * Summed up duration of the send calls in nanoseconds.
+	 */
+	private final AtomicLong sendTotalNanos = new AtomicLong();
+
+	/**
+	 * Maximum duration of a send call in nanoseconds.
+	 */
+	private final AtomicLong sendMaxNanos = new AtomicLong();
+
+	/**
+	 * Amount of prepared batches that were sent.
+	 */
+	private final AtomicLong sentBatches = new AtomicLong();
+
+	/**
+	 * Amount of data objects that were sent.
+	 */
+	private final AtomicLong sentObjects = new AtomicLong();
+
+	/**
+	 * Amount of send calls the CMR rejected because it was overloaded.
+	 */
+	private final AtomicLong rejectedSends = new AtomicLong();
+
+	/**
+	 * Records one prepare step.
+	 *
+	 * @param nanos
+	 *            Duration in nanoseconds.
+	 */
+	public void recordPrepare(long nanos) {
+		prepareCount.incrementAndGet();
+		prepareTotalNanos.addAndGet(nanos);
+		updateMax(prepareMaxNanos, nanos);
+	}
+
+	/**
+	 * Records one send call.
+	 *
+	 * @param nanos
+	 *            Duration in nanoseconds.
+	 * @param batches
+	 *            Amount of prepared batches sent in the call.
+	 * @param objects
+	 *            Amount of data objects sent in the call.
+	 */
+	public void recordSend(long nanos, int batches, int objects) {
+		sendCount.incrementAndGet();
+		sendTotalNanos.addAndGet(nanos);
+		updateMax(sendMaxNanos, nanos);
+		sentBatches.addAndGet(batches);
+		sentObjects.addAndGet(objects);
+	}
+
+	/**
+	 * Records one send call that the CMR rejected.
+	 */
+	public void recordRejected() {
+		rejectedSends.incrementAndGet();
+	}
+
+	/**
+	 * Returns the amount of prepare steps.
+	 *
+	 * @return Amount of prepare steps.
+	 */
+	public long getPrepareCount() {
+		return prepareCount.get();
+	}
+
+	/**
+	 * Returns the average prepare latency in milliseconds.
+	 *
+	 * @return Average prepare latency in milliseconds.
+	 */
+	public double getPrepareAverageMillis() {
+		return average(prepareTotalNanos.get(), prepareCount.get());
+	}
+
+	/**
+	 * Returns the maximum prepare latency in milliseconds.
+	 *
+	 * @return Maximum prepare latency in milliseconds.
+	 */
+	public double getPrepareMaxMillis() {
+		return toMillis(prepareMaxNanos.get());
+	}
+
+	/**
+	 * Returns the amount of send calls.
+	 *
+	 * @return Amount of send calls.
+	 */
+	public long getSendCount() {
+		return sendCount.get();
+	}
+
+	/**
+	 * Returns the average send latency in milliseconds.
+	 *
+	 * @return Average send latency in milliseconds.
+	 */
+	public double getSendAverageMillis() {
+		return average(sendTotalNanos.get(), sendCount.get());
+	}
+
+	/**
+	 * Returns the maximum send latency in milliseconds.
+	 *
+	 * @return Maximum send latency in milliseconds.
+	 */
+	public double getSendMaxMillis() {
+		return toMillis(sendMaxNanos.get());
+	}
+
+	/**
+	 * Returns the amount of prepared batches that were sent.
+	 *
+	 * @return Amount of prepared batches that were sent.
+	 */
+	public long getSentBatches() {
+		return sentBatches.get();
+	}
+
+	/**
+	 * Returns the amount of data objects that were sent.
+	 *
+	 * @return Amount of data objects that were sent.
+	 */
+	public long getSentObjects() {
+		return sentObjects.get();
+	}
+
+	/**
+	 * Returns the amount of send calls the CMR rejected because it was overloaded.
+	 *
+	 * @return Amount of rejected send calls.
+	 */
+	public long getRejectedSends() {
+		return rejectedSends.get();
+	}
+
+	/**
+	 * Sets the maximum if the value is bigger.
+	 *
+	 * @param max
+	 *            Current maximum.
+	 * @param value
+	 *            Value.
+	 */
+	private static void updateMax(AtomicLong max, long value) {
+		long current = max.get();
+		while ((value > current) && !max.compareAndSet(current, value)) {
+			current = max.get();
+		}
+	}
+
+	/**
+	 * Returns the average in milliseconds.
+	 *
+	 * @param totalNanos
+	 *            Total in nanoseconds.
+	 * @param count
+	 *            Count.
+	 * @return Average in milliseconds or <code>0</code> if count is <code>0</code>.
+	 */
+	private static double average(long totalNanos, long count) {
+		if (0 == count) {
+			return 0d;
+		}
+		return toMillis(totalNanos) / count;
+	}
+
+	/**
+	 * Converts nanoseconds to milliseconds.
+	 *
+	 * @param nanos
+	 *            Nanoseconds.
+	 * @return Milliseconds.
+	 */
+	private static double toMillis(long nanos) {
+		return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "SendingPipelineMetrics [prepareCount=" + getPrepareCount() + ", prepareAverageMillis=" + getPrepareAverageMillis() + ", prepareMaxMillis=" + getPrepareMaxMillis() + ", sendCount="
+				+ getSendCount() + ", sendAverageMillis=" + getSendAverageMillis() + ", sendMaxMillis=" + getSendMaxMillis() + ", sentBatches=" + getSentBatches() + ", sentObjects="
+				+ getSentObjects() + ", rejectedSends=" + getRejectedSends() + "]";
+	}
+
+}
@@ -50,6 +50,38 @@ public interface IHookDispatcher {
 	 */
 	void dispatchSecondMethodAfterBody(long id, Object object, Object[] parameters, Object returnValue);
 
+	/**
+	 * Dispatches the 'before' method statement for methods where none of the hooks needs the
+	 * object or the parameters.
+	 * 
+	 * @param id
+	 *            The id of the method.
+	 */
+	void dispatchMethodBeforeBody(long id);
+
+	/**
+	 * Dispatches the first and the second 'after' method statement in one call.
+	 * 
+	 * @param id
+	 *            The id of the method.
+	 * @param object
+	 *            The instance of the class or the class itself.
+	 * @param parameters
+	 *            The parameters of the method.
+	 * @param returnValue
+	 *            The return value of the method.
+	 */
+	void dispatchMethodAfterBody(long id, Object object, Object[] parameters, Object returnValue);
+
+	/**
+	 * Dispatches the first and the second 'after' method statement in one call for methods where
+	 * none of the hooks needs the object, the parameters or the return value.
+	 * 
+	 * @param id
+	 *            The id of the method.
+	 */
+	void dispatchMethodAfterBody(long id);
+
 	/**
 	 * Dispatches the 'addCatch' statement of a method.
 	 * 
@@ -56,4 +56,18 @@ public interface IHookInstrumenter {
 	 *             instrumentation was not completed successfully.
 	 */
 	void addClassLoaderDelegationHook(CtMethod ctMethod) throws HookException;
+
+	/**
+	 * Registers the method or constructor whose byte code already contains the hooks, because it
+	 * was instrumented in an earlier run of the agent. The method gets a new id and the dispatcher
+	 * stores the information the same way as for the method instrumented with
+	 * {@link #addMethodHook(CtMethod, RegisteredSensorConfig)} or
+	 * {@link #addConstructorHook(CtConstructor, RegisteredSensorConfig)}.
+	 * 
+	 * @param rsc
+	 *            The {@link RegisteredSensorConfig} class which holds the information which sensor
+	 *            types are called for this method.
+	 * @return The id of the method the hooks in the byte code have to use.
+	 */
+	long registerInstrumentedHook(RegisteredSensorConfig rsc);
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package rocks.inspectit.agent.java.hooking;
+
+import rocks.inspectit.agent.java.config.impl.RegisteredSensorConfig;
+
+/**
+ * Optional interface for {@link IMethodHook}s that declares which values of the instrumented
+ * method the hook is using. The instrumentation skips passing the object, the boxed parameters
+ * and the boxed return value to the hook dispatcher if none of the hooks of a method needs them.
+ * Hooks not implementing this interface always get all the values.
+ * <p>
+ * The values needed for the property access defined in the {@link RegisteredSensorConfig} are
+ * always passed and don't have to be declared here.
+ *
+ */
+public interface IMethodHookRequirements {
+
+	/**
+	 * Returns if the hook needs the instance of the class the method is called on.
+	 *
+	 * @return If the object is needed.
+	 */
+	boolean isObjectNeeded();
+
+	/**
+	 * Returns if the hook needs the parameters of the method call.
+	 *
+	 * @return If the parameters are needed.
+	 */
+	boolean isParametersNeeded();
+
+	/**
+	 * Returns if the hook needs the return value of the method.
+	 *
+	 * @return If the return value is needed.
+	 */
+	boolean isReturnValueNeeded();
+
+}
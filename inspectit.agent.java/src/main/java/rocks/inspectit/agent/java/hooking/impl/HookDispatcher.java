@@ -1,7 +1,7 @@
 package rocks.inspectit.agent.java.hooking.impl;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,14 +41,22 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	private final ICoreService coreService;
 
 	/**
-	 * Contains all method hooks.
+	 * Initial size of the dispatching tables. The ids handed out by the ID manager are dense and
+	 * start at zero, thus they are directly used as the index in the tables.
 	 */
-	private Map<Long, RegisteredSensorConfig> methodHooks = new HashMap<Long, RegisteredSensorConfig>();
+	private static final int INITIAL_TABLE_SIZE = 1024;
 
 	/**
-	 * Contains all constructor hooks.
+	 * Contains all method hooks indexed by the method id. Reading is lock free, the table is copied
+	 * to a bigger one when an id does not fit anymore.
 	 */
-	private Map<Long, RegisteredSensorConfig> constructorHooks = new HashMap<Long, RegisteredSensorConfig>();
+	private volatile AtomicReferenceArray<MethodHooks> methodHooks = new AtomicReferenceArray<MethodHooks>(INITIAL_TABLE_SIZE);
+
+	/**
+	 * Contains all constructor hooks indexed by the constructor id. Reading is lock free, the table
+	 * is copied to a bigger one when an id does not fit anymore.
+	 */
+	private volatile AtomicReferenceArray<ConstructorHooks> constructorHooks = new AtomicReferenceArray<ConstructorHooks>(INITIAL_TABLE_SIZE);
 
 	/**
 	 * Stores the current Status of the invocation sequence tracer in a {@link ThreadLocal} object.
@@ -81,15 +89,83 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 	/**
 	 * {@inheritDoc}
 	 */
-	public void addMethodMapping(long id, RegisteredSensorConfig rsc) {
-		methodHooks.put(Long.valueOf(id), rsc);
+	public synchronized void addMethodMapping(long id, RegisteredSensorConfig rsc) {
+		AtomicReferenceArray<MethodHooks> table = ensureCapacity(methodHooks, id);
+		table.set((int) id, new MethodHooks(rsc));
+		methodHooks = table;
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
-	public void addConstructorMapping(long id, RegisteredSensorConfig rsc) {
-		constructorHooks.put(Long.valueOf(id), rsc);
+	public synchronized void addConstructorMapping(long id, RegisteredSensorConfig rsc) {
+		AtomicReferenceArray<ConstructorHooks> table = ensureCapacity(constructorHooks, id);
+		table.set((int) id, new ConstructorHooks(rsc));
+		constructorHooks = table;
+	}
+
+	/**
+	 * Returns a table that can hold the given id. If the passed table is too small, a copy with
+	 * doubled size is created, otherwise the passed table is returned.
+	 * 
+	 * @param <E>
+	 *            Type of the table elements.
+	 * @param table
+	 *            Current table.
+	 * @param id
+	 *            Id that has to fit into the table.
+	 * @return Table to use.
+	 */
+	private static <E> AtomicReferenceArray<E> ensureCapacity(AtomicReferenceArray<E> table, long id) {
+		if (id < 0 || id >= Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Id " + id + " can not be mapped by the hook dispatcher.");
+		}
+
+		int length = table.length();
+		if (id < length) {
+			return table;
+		}
+
+		int newLength = length;
+		while (newLength <= id) {
+			newLength = newLength << 1;
+		}
+
+		AtomicReferenceArray<E> newTable = new AtomicReferenceArray<E>(newLength);
+		for (int i = 0; i < length; i++) {
+			newTable.set(i, table.get(i));
+		}
+		return newTable;
+	}
+
+	/**
+	 * Returns the method hooks for the given method id.
+	 * 
+	 * @param id
+	 *            Method id.
+	 * @return {@link MethodHooks} or <code>null</code> if no mapping exists.
+	 */
+	private MethodHooks getMethodHooks(long id) {
+		AtomicReferenceArray<MethodHooks> table = methodHooks;
+		if (id < table.length()) {
+			return table.get((int) id);
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the constructor hooks for the given constructor id.
+	 * 
+	 * @param id
+	 *            Constructor id.
+	 * @return {@link ConstructorHooks} or <code>null</code> if no mapping exists.
+	 */
+	private ConstructorHooks getConstructorHooks(long id) {
+		AtomicReferenceArray<ConstructorHooks> table = constructorHooks;
+		if (id < table.length()) {
+			return table.get((int) id);
+		}
+		return null;
 	}
 
 	/**
@@ -101,7 +177,8 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 				executionMarker.active();
 
 				try {
-					RegisteredSensorConfig rsc = (RegisteredSensorConfig) methodHooks.get(Long.valueOf(id));
+					MethodHooks hooks = getMethodHooks(id);
+					RegisteredSensorConfig rsc = hooks.rsc;
 
 					if (rsc.startsInvocationSequence()) {
 						// The sensor configuration contains an invocation sequence
@@ -126,9 +203,10 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 					}
 
 					// Now iterate over all registered sensor types and execute them
-					for (Map.Entry<Long, IHook> entry : rsc.getReverseMethodHooks().entrySet()) {
-						IMethodHook methodHook = (IMethodHook) entry.getValue();
-						methodHook.beforeBody(id, entry.getKey().longValue(), object, parameters, rsc);
+					IMethodHook[] reverseHooks = hooks.reverseHooks;
+					long[] reverseSensorTypeIds = hooks.reverseSensorTypeIds;
+					for (int i = 0; i < reverseHooks.length; i++) {
+						reverseHooks[i].beforeBody(id, reverseSensorTypeIds[i], object, parameters, rsc);
 					}
 				} catch (Throwable throwable) { // NOPMD
 					log.error("An error happened in the Hook Dispatcher! (before body)", throwable);
@@ -139,6 +217,13 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public void dispatchMethodBeforeBody(long id) {
+		dispatchMethodBeforeBody(id, null, null);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -146,16 +231,7 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 		if (!executionMarker.isActive()) {
 			try {
 				executionMarker.active();
-
-				try {
-					RegisteredSensorConfig rsc = (RegisteredSensorConfig) methodHooks.get(Long.valueOf(id));
-					for (Map.Entry<Long, IHook> entry : rsc.getMethodHooks().entrySet()) {
-						IMethodHook methodHook = (IMethodHook) entry.getValue();
-						methodHook.firstAfterBody(id, entry.getKey().longValue(), object, parameters, returnValue, rsc);
-					}
-				} catch (Throwable throwable) { // NOPMD
-					log.error("An error happened in the Hook Dispatcher! (after body)", throwable);
-				}
+				firstMethodAfterBody(id, object, parameters, returnValue);
 			} finally {
 				executionMarker.deactive();
 			}
@@ -169,53 +245,120 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 		if (!executionMarker.isActive()) {
 			try {
 				executionMarker.active();
+				secondMethodAfterBody(id, object, parameters, returnValue);
+			} finally {
+				executionMarker.deactive();
+			}
+		}
+	}
 
-				try {
-					RegisteredSensorConfig rsc = (RegisteredSensorConfig) methodHooks.get(Long.valueOf(id));
+	/**
+	 * {@inheritDoc}
+	 */
+	public void dispatchMethodAfterBody(long id, Object object, Object[] parameters, Object returnValue) {
+		if (!executionMarker.isActive()) {
+			try {
+				executionMarker.active();
+				firstMethodAfterBody(id, object, parameters, returnValue);
+				secondMethodAfterBody(id, object, parameters, returnValue);
+			} finally {
+				executionMarker.deactive();
+			}
+		}
+	}
 
-					if (null != invocationSequenceHolder.get()) {
-						// Need to replace the core service with the one from the invocation
-						// sequence so that all data objects can be associated to that invocation
-						// record.
-						ICoreService invocCoreService = (ICoreService) invocationSequenceHolder.get();
+	/**
+	 * {@inheritDoc}
+	 */
+	public void dispatchMethodAfterBody(long id) {
+		dispatchMethodAfterBody(id, null, null, null);
+	}
 
-						for (Map.Entry<Long, IHook> entry : rsc.getMethodHooks().entrySet()) {
-							IMethodHook methodHook = (IMethodHook) entry.getValue();
-							// the invocation sequence sensor needs the original core service!
-							if (invocCoreService == methodHook) { // NOPMD
-								methodHook.secondAfterBody(coreService, id, entry.getKey().longValue(), object, parameters, returnValue, rsc);
-							} else {
-								methodHook.secondAfterBody(invocCoreService, id, entry.getKey().longValue(), object, parameters, returnValue, rsc);
-							}
-						}
+	/**
+	 * Executes the first after body of all method hooks. Execution marker must be active when
+	 * calling this method.
+	 * 
+	 * @param id
+	 *            The id of the method.
+	 * @param object
+	 *            The instance of the class or the class itself.
+	 * @param parameters
+	 *            The parameters of the method.
+	 * @param returnValue
+	 *            The return value of the method.
+	 */
+	private void firstMethodAfterBody(long id, Object object, Object[] parameters, Object returnValue) {
+		try {
+			MethodHooks hooks = getMethodHooks(id);
+			RegisteredSensorConfig rsc = hooks.rsc;
+			IMethodHook[] methodHookArray = hooks.hooks;
+			long[] sensorTypeIds = hooks.sensorTypeIds;
+			for (int i = 0; i < methodHookArray.length; i++) {
+				methodHookArray[i].firstAfterBody(id, sensorTypeIds[i], object, parameters, returnValue, rsc);
+			}
+		} catch (Throwable throwable) { // NOPMD
+			log.error("An error happened in the Hook Dispatcher! (after body)", throwable);
+		}
+	}
+
+	/**
+	 * Executes the second after body of all method hooks and ends the invocation sequence handling
+	 * of the method. Execution marker must be active when calling this method.
+	 * 
+	 * @param id
+	 *            The id of the method.
+	 * @param object
+	 *            The instance of the class or the class itself.
+	 * @param parameters
+	 *            The parameters of the method.
+	 * @param returnValue
+	 *            The return value of the method.
+	 */
+	private void secondMethodAfterBody(long id, Object object, Object[] parameters, Object returnValue) {
+		try {
+			MethodHooks hooks = getMethodHooks(id);
+			RegisteredSensorConfig rsc = hooks.rsc;
+			IMethodHook[] methodHookArray = hooks.hooks;
+			long[] sensorTypeIds = hooks.sensorTypeIds;
+
+			if (null != invocationSequenceHolder.get()) {
+				// Need to replace the core service with the one from the invocation
+				// sequence so that all data objects can be associated to that invocation
+				// record.
+				ICoreService invocCoreService = (ICoreService) invocationSequenceHolder.get();
+
+				for (int i = 0; i < methodHookArray.length; i++) {
+					IMethodHook methodHook = methodHookArray[i];
+					// the invocation sequence sensor needs the original core service!
+					if (invocCoreService == methodHook) { // NOPMD
+						methodHook.secondAfterBody(coreService, id, sensorTypeIds[i], object, parameters, returnValue, rsc);
 					} else {
-						for (Map.Entry<Long, IHook> entry : rsc.getMethodHooks().entrySet()) {
-							IMethodHook methodHook = (IMethodHook) entry.getValue();
-							methodHook.secondAfterBody(coreService, id, entry.getKey().longValue(), object, parameters, returnValue, rsc);
-						}
+						methodHook.secondAfterBody(invocCoreService, id, sensorTypeIds[i], object, parameters, returnValue, rsc);
 					}
+				}
+			} else {
+				for (int i = 0; i < methodHookArray.length; i++) {
+					methodHookArray[i].secondAfterBody(coreService, id, sensorTypeIds[i], object, parameters, returnValue, rsc);
+				}
+			}
 
-					if (rsc.startsInvocationSequence()) {
-						invocationSequenceCount.decrement();
+			if (rsc.startsInvocationSequence()) {
+				invocationSequenceCount.decrement();
 
-						if (0 == invocationSequenceCount.getCount()) {
-							invocationSequenceHolder.set(null);
-						}
-					} else if (null != invocationSequenceHolder.get()) {
-						// We have to execute the after body method of the invocation sequence hook
-						// manually.
-						IMethodHook invocationHook = (IMethodHook) invocationSequenceHolder.get();
-
-						// The sensor type ID is not important here, thus we are passing a -1. It is
-						// already stored in the data object
-						invocationHook.secondAfterBody(coreService, id, -1, object, parameters, returnValue, rsc);
-					}
-				} catch (Throwable throwable) { // NOPMD
-					log.error("An error happened in the Hook Dispatcher! (second after body)", throwable);
+				if (0 == invocationSequenceCount.getCount()) {
+					invocationSequenceHolder.set(null);
 				}
-			} finally {
-				executionMarker.deactive();
+			} else if (null != invocationSequenceHolder.get()) {
+				// We have to execute the after body method of the invocation sequence hook
+				// manually.
+				IMethodHook invocationHook = (IMethodHook) invocationSequenceHolder.get();
+
+				// The sensor type ID is not important here, thus we are passing a -1. It is
+				// already stored in the data object
+				invocationHook.secondAfterBody(coreService, id, -1, object, parameters, returnValue, rsc);
 			}
+		} catch (Throwable throwable) { // NOPMD
+			log.error("An error happened in the Hook Dispatcher! (second after body)", throwable);
 		}
 	}
 
@@ -228,7 +371,7 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 				executionMarker.active();
 
 				// rsc contains the settings for the actual method where the exception was thrown.
-				RegisteredSensorConfig rsc = (RegisteredSensorConfig) methodHooks.get(Long.valueOf(id));
+				RegisteredSensorConfig rsc = getMethodHooks(id).rsc;
 				long sensorTypeId = rsc.getExceptionSensorTypeConfig().getId();
 
 				ICoreService invocCoreService = null;
@@ -260,7 +403,7 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 				executionMarker.active();
 
 				// rsc contains the settings of the actual method where the exception is catched.
-				RegisteredSensorConfig rsc = (RegisteredSensorConfig) methodHooks.get(Long.valueOf(id));
+				RegisteredSensorConfig rsc = getMethodHooks(id).rsc;
 				long sensorTypeId = rsc.getExceptionSensorTypeConfig().getId();
 
 				ICoreService invocCoreService = null;
@@ -293,7 +436,7 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 
 				// rsc contains the settings for the actual constructor where the exception was
 				// thrown.
-				RegisteredSensorConfig rsc = (RegisteredSensorConfig) constructorHooks.get(Long.valueOf(id));
+				RegisteredSensorConfig rsc = getConstructorHooks(id).rsc;
 				long sensorTypeId = rsc.getExceptionSensorTypeConfig().getId();
 
 				ICoreService invocCoreService = null;
@@ -326,7 +469,7 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 
 				// rsc contains the settings of the actual constructor where the exception is
 				// catched.
-				RegisteredSensorConfig rsc = (RegisteredSensorConfig) constructorHooks.get(Long.valueOf(id));
+				RegisteredSensorConfig rsc = getConstructorHooks(id).rsc;
 				long sensorTypeId = rsc.getExceptionSensorTypeConfig().getId();
 
 				ICoreService invocCoreService = null;
@@ -358,7 +501,8 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 				executionMarker.active();
 
 				try {
-					RegisteredSensorConfig rsc = (RegisteredSensorConfig) constructorHooks.get(Long.valueOf(id));
+					ConstructorHooks hooks = getConstructorHooks(id);
+					RegisteredSensorConfig rsc = hooks.rsc;
 
 					if (rsc.startsInvocationSequence()) {
 						// The sensor configuration contains an invocation sequence sensor. We have
@@ -381,9 +525,10 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 					}
 
 					// Now iterate over all registered sensor types and execute them
-					for (Map.Entry<Long, IHook> entry : rsc.getReverseMethodHooks().entrySet()) {
-						IConstructorHook constructorHook = (IConstructorHook) entry.getValue();
-						constructorHook.beforeConstructor(id, entry.getKey().longValue(), parameters, rsc);
+					IConstructorHook[] reverseHooks = hooks.reverseHooks;
+					long[] reverseSensorTypeIds = hooks.reverseSensorTypeIds;
+					for (int i = 0; i < reverseHooks.length; i++) {
+						reverseHooks[i].beforeConstructor(id, reverseSensorTypeIds[i], parameters, rsc);
 					}
 				} catch (Throwable throwable) { // NOPMD
 					log.error("An error happened in the Hook Dispatcher! (before constructor)", throwable);
@@ -403,7 +548,10 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 				executionMarker.active();
 
 				try {
-					RegisteredSensorConfig rsc = (RegisteredSensorConfig) constructorHooks.get(Long.valueOf(id));
+					ConstructorHooks hooks = getConstructorHooks(id);
+					RegisteredSensorConfig rsc = hooks.rsc;
+					IConstructorHook[] constructorHookArray = hooks.hooks;
+					long[] sensorTypeIds = hooks.sensorTypeIds;
 
 					if (null != invocationSequenceHolder.get()) {
 						// Need to replace the core service with the one from the invocation
@@ -411,20 +559,19 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 						// record.
 						ICoreService invocCoreService = (ICoreService) invocationSequenceHolder.get();
 
-						for (Map.Entry<Long, IHook> entry : rsc.getMethodHooks().entrySet()) {
-							IConstructorHook constructorHook = (IConstructorHook) entry.getValue();
+						for (int i = 0; i < constructorHookArray.length; i++) {
+							IConstructorHook constructorHook = constructorHookArray[i];
 							// the invocation sequence sensor and the exception sensor need the
 							// original core service!
 							if (invocCoreService == constructorHook) { // NOPMD
-								constructorHook.afterConstructor(coreService, id, entry.getKey().longValue(), object, parameters, rsc);
+								constructorHook.afterConstructor(coreService, id, sensorTypeIds[i], object, parameters, rsc);
 							} else {
-								constructorHook.afterConstructor(invocCoreService, id, entry.getKey().longValue(), object, parameters, rsc);
+								constructorHook.afterConstructor(invocCoreService, id, sensorTypeIds[i], object, parameters, rsc);
 							}
 						}
 					} else {
-						for (Map.Entry<Long, IHook> entry : rsc.getMethodHooks().entrySet()) {
-							IConstructorHook constructorHook = (IConstructorHook) entry.getValue();
-							constructorHook.afterConstructor(coreService, id, entry.getKey().longValue(), object, parameters, rsc);
+						for (int i = 0; i < constructorHookArray.length; i++) {
+							constructorHookArray[i].afterConstructor(coreService, id, sensorTypeIds[i], object, parameters, rsc);
 						}
 					}
 
@@ -452,6 +599,132 @@ public class HookDispatcher implements IHookDispatcherMapper, IHookDispatcher {
 		}
 	}
 
+	/**
+	 * Copies the hooks of the given map to the arrays preserving the iteration order of the map.
+	 * 
+	 * @param hookMap
+	 *            Map of sensor type ids to the hooks as provided by the
+	 *            {@link RegisteredSensorConfig}.
+	 * @param hooks
+	 *            Array to fill with the hooks. Its component type must be implemented by all hooks
+	 *            in the map.
+	 * @param sensorTypeIds
+	 *            Array to fill with the sensor type ids.
+	 */
+	private static void flatten(Map<Long, IHook> hookMap, IHook[] hooks, long[] sensorTypeIds) {
+		int i = 0;
+		for (Map.Entry<Long, IHook> entry : hookMap.entrySet()) {
+			hooks[i] = entry.getValue();
+			sensorTypeIds[i] = entry.getKey().longValue();
+			i++;
+		}
+	}
+
+	/**
+	 * Dispatching information of one instrumented method. The hooks of the
+	 * {@link RegisteredSensorConfig} are flattened to arrays when the mapping is added, so that no
+	 * map iteration and unboxing of the sensor type ids is needed on every call.
+	 */
+	private static final class MethodHooks {
+
+		/**
+		 * Registered sensor config of the method.
+		 */
+		private final RegisteredSensorConfig rsc;
+
+		/**
+		 * Method hooks in the order of {@link RegisteredSensorConfig#getMethodHooks()}.
+		 */
+		private final IMethodHook[] hooks;
+
+		/**
+		 * Sensor type ids belonging to the {@link #hooks}.
+		 */
+		private final long[] sensorTypeIds;
+
+		/**
+		 * Method hooks in the order of {@link RegisteredSensorConfig#getReverseMethodHooks()}.
+		 */
+		private final IMethodHook[] reverseHooks;
+
+		/**
+		 * Sensor type ids belonging to the {@link #reverseHooks}.
+		 */
+		private final long[] reverseSensorTypeIds;
+
+		/**
+		 * Default constructor.
+		 * 
+		 * @param rsc
+		 *            Registered sensor config of the method.
+		 */
+		MethodHooks(RegisteredSensorConfig rsc) {
+			this.rsc = rsc;
+
+			Map<Long, IHook> hookMap = rsc.getMethodHooks();
+			hooks = new IMethodHook[hookMap.size()];
+			sensorTypeIds = new long[hookMap.size()];
+			flatten(hookMap, hooks, sensorTypeIds);
+
+			Map<Long, IHook> reverseHookMap = rsc.getReverseMethodHooks();
+			reverseHooks = new IMethodHook[reverseHookMap.size()];
+			reverseSensorTypeIds = new long[reverseHookMap.size()];
+			flatten(reverseHookMap, reverseHooks, reverseSensorTypeIds);
+		}
+	}
+
+	/**
+	 * Dispatching information of one instrumented constructor. Same as {@link MethodHooks} but
+	 * with the constructor hooks.
+	 */
+	private static final class ConstructorHooks {
+
+		/**
+		 * Registered sensor config of the constructor.
+		 */
+		private final RegisteredSensorConfig rsc;
+
+		/**
+		 * Constructor hooks in the order of {@link RegisteredSensorConfig#getMethodHooks()}.
+		 */
+		private final IConstructorHook[] hooks;
+
+		/**
+		 * Sensor type ids belonging to the {@link #hooks}.
+		 */
+		private final long[] sensorTypeIds;
+
+		/**
+		 * Constructor hooks in the order of {@link RegisteredSensorConfig#getReverseMethodHooks()}.
+		 */
+		private final IConstructorHook[] reverseHooks;
+
+		/**
+		 * Sensor type ids belonging to the {@link #reverseHooks}.
+		 */
+		private final long[] reverseSensorTypeIds;
+
+		/**
+		 * Default constructor.
+		 * 
+		 * @param rsc
+		 *            Registered sensor config of the constructor.
+		 */
+		ConstructorHooks(RegisteredSensorConfig rsc) {
+			this.rsc = rsc;
+
+			Map<Long, IHook> hookMap = rsc.getMethodHooks();
+			hooks = new IConstructorHook[hookMap.size()];
+			sensorTypeIds = new long[hookMap.size()];
+			flatten(hookMap, hooks, sensorTypeIds);
+
+			Map<Long, IHook> reverseHookMap = rsc.getReverseMethodHooks();
+			reverseHooks = new IConstructorHook[reverseHookMap.size()];
+			reverseSensorTypeIds = new long[reverseHookMap.size()];
+			flatten(reverseHookMap, reverseHooks, reverseSensorTypeIds);
+		}
+	}
+
 	/**
 	 * Private inner class used to track the count of the started invocation sequences in one
 	 * thread. Thus it extends {@link ThreadLocal} to provide a unique number for every Thread.
@@ -1,5 +1,7 @@
 package rocks.inspectit.agent.java.hooking.impl;
 
+import java.util.List;
+
 import javassist.CannotCompileException;
 import javassist.ClassPool;
 import javassist.CtClass;
@@ -13,8 +15,11 @@ import rocks.inspectit.agent.java.config.IConfigurationStorage;
 import rocks.inspectit.agent.java.config.impl.MethodSensorTypeConfig;
 import rocks.inspectit.agent.java.config.impl.RegisteredSensorConfig;
 import rocks.inspectit.agent.java.core.IIdManager;
+import rocks.inspectit.agent.java.hooking.IHook;
 import rocks.inspectit.agent.java.hooking.IHookDispatcherMapper;
 import rocks.inspectit.agent.java.hooking.IHookInstrumenter;
+import rocks.inspectit.agent.java.hooking.IMethodHookRequirements;
+import rocks.inspectit.agent.java.sensor.method.IMethodSensor;
 import rocks.inspectit.shared.all.spring.logger.Log;
 
 import org.slf4j.Logger;
@@ -50,25 +55,35 @@ public class HookInstrumenter implements IHookInstrumenter {
 	private static String agentTarget = "rocks.inspectit.agent.java.Agent#agent";
 
 	/**
-	 * The hook dispatching service.
+	 * Requirement flag denoting that the object has to be passed to the dispatcher.
 	 */
-	private final IHookDispatcherMapper hookDispatcher;
+	private static final int OBJECT_NEEDED = 1;
 
 	/**
-	 * The ID manager used to register the methods and the mapping between the method sensor type id
-	 * and the method id.
+	 * Requirement flag denoting that the parameters have to be passed to the dispatcher.
 	 */
-	private final IIdManager idManager;
+	private static final int PARAMETERS_NEEDED = 2;
+
+	/**
+	 * Requirement flag denoting that the return value has to be passed to the dispatcher.
+	 */
+	private static final int RETURN_VALUE_NEEDED = 4;
+
+	/**
+	 * Requirements value denoting that the hooks did not declare their requirements.
+	 */
+	private static final int REQUIREMENTS_UNKNOWN = -1;
 
 	/**
-	 * The expression editor to modify a method body.
+	 * The hook dispatching service.
 	 */
-	private MethodExprEditor methodExprEditor = new MethodExprEditor();
+	private final IHookDispatcherMapper hookDispatcher;
 
 	/**
-	 * The expression editor to modify a constructor body.
+	 * The ID manager used to register the methods and the mapping between the method sensor type id
+	 * and the method id.
 	 */
-	private ConstructorExprEditor constructorExprEditor = new ConstructorExprEditor();
+	private final IIdManager idManager;
 
 	/**
 	 * The implementation of the configuration storage where all definitions of the user are stored.
@@ -105,12 +120,7 @@ public class HookInstrumenter implements IHookInstrumenter {
 			method.getDeclaringClass().defrost();
 		}
 
-		final long methodId = idManager.registerMethod(rsc);
-
-		for (MethodSensorTypeConfig config : rsc.getSensorTypeConfigs()) {
-			long sensorTypeId = config.getId();
-			idManager.addSensorTypeToMethod(sensorTypeId, methodId);
-		}
+		final long methodId = registerMethod(rsc);
 
 		try {
 			boolean exceptionSensorActivated = configurationStorage.isExceptionSensorActivated();
@@ -118,7 +128,16 @@ public class HookInstrumenter implements IHookInstrumenter {
 			// instrument as finally if exception sensor is deactivated or activated in simple mode
 			boolean asFinally = !(exceptionSensorActivated && exceptionSensorEnhanced);
 
-			if (Modifier.isStatic(method.getModifiers())) {
+			int requirements = getDispatchRequirements(rsc);
+			if (REQUIREMENTS_UNKNOWN != requirements) {
+				// all hooks declared what they need, thus lean dispatch can be used
+				boolean isStatic = Modifier.isStatic(method.getModifiers());
+				insertLeanMethodHook(method, methodId, requirements, isStatic, asFinally);
+
+				if (!asFinally) {
+					instrumentMethodWithTryCatch(method, methodId, isStatic);
+				}
+			} else if (Modifier.isStatic(method.getModifiers())) {
 				// static method
 				method.insertBefore(hookDispatcherTarget + ".dispatchMethodBeforeBody(" + methodId + "l, null, $args);");
 				method.insertAfter(hookDispatcherTarget + ".dispatchFirstMethodAfterBody(" + methodId + "l, null, $args, ($w)$_);", asFinally);
@@ -165,12 +184,7 @@ public class HookInstrumenter implements IHookInstrumenter {
 			constructor.getDeclaringClass().defrost();
 		}
 
-		long constructorId = idManager.registerMethod(rsc);
-
-		for (MethodSensorTypeConfig config : rsc.getSensorTypeConfigs()) {
-			long sensorTypeId = config.getId();
-			idManager.addSensorTypeToMethod(sensorTypeId, constructorId);
-		}
+		long constructorId = registerMethod(rsc);
 
 		try {
 			boolean exceptionSensorActivated = configurationStorage.isExceptionSensorActivated();
@@ -194,6 +208,110 @@ public class HookInstrumenter implements IHookInstrumenter {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public long registerInstrumentedHook(RegisteredSensorConfig rsc) {
+		long methodId = registerMethod(rsc);
+		if (rsc.isConstructor()) {
+			hookDispatcher.addConstructorMapping(methodId, rsc);
+		} else {
+			hookDispatcher.addMethodMapping(methodId, rsc);
+		}
+		return methodId;
+	}
+
+	/**
+	 * Returns the values the hooks of the method need to get from the instrumented method. The
+	 * property access of the {@link RegisteredSensorConfig} needs all of them.
+	 * 
+	 * @param rsc
+	 *            The {@link RegisteredSensorConfig} of the method.
+	 * @return Combination of the requirement flags or {@link #REQUIREMENTS_UNKNOWN} if any of the
+	 *         hooks does not declare its requirements.
+	 */
+	private int getDispatchRequirements(RegisteredSensorConfig rsc) {
+		List<MethodSensorTypeConfig> sensorTypeConfigs = rsc.getSensorTypeConfigs();
+		if (sensorTypeConfigs.isEmpty()) {
+			return REQUIREMENTS_UNKNOWN;
+		}
+
+		int requirements = 0;
+		if (rsc.isPropertyAccess()) {
+			requirements = OBJECT_NEEDED | PARAMETERS_NEEDED | RETURN_VALUE_NEEDED;
+		}
+		for (MethodSensorTypeConfig config : sensorTypeConfigs) {
+			if (!(config.getSensorType() instanceof IMethodSensor)) {
+				return REQUIREMENTS_UNKNOWN;
+			}
+			IHook hook = ((IMethodSensor) config.getSensorType()).getHook();
+			if (!(hook instanceof IMethodHookRequirements)) {
+				return REQUIREMENTS_UNKNOWN;
+			}
+
+			IMethodHookRequirements hookRequirements = (IMethodHookRequirements) hook;
+			if (hookRequirements.isObjectNeeded()) {
+				requirements |= OBJECT_NEEDED;
+			}
+			if (hookRequirements.isParametersNeeded()) {
+				requirements |= PARAMETERS_NEEDED;
+			}
+			if (hookRequirements.isReturnValueNeeded()) {
+				requirements |= RETURN_VALUE_NEEDED;
+			}
+		}
+		return requirements;
+	}
+
+	/**
+	 * Inserts the dispatching calls that pass only the values needed by the hooks. The arguments
+	 * array and the boxed return value are not created if not needed and both after body calls are
+	 * dispatched with one call.
+	 * 
+	 * @param method
+	 *            The {@link CtMethod} where additional instructions are added.
+	 * @param methodId
+	 *            The method id of the passed method.
+	 * @param requirements
+	 *            Combination of the requirement flags.
+	 * @param isStatic
+	 *            Defines whether the current method is a static method.
+	 * @param asFinally
+	 *            If the after body call should be executed as finally.
+	 * @throws CannotCompileException
+	 *             When the additional instructions could not be compiled by Javassist.
+	 */
+	private void insertLeanMethodHook(CtMethod method, long methodId, int requirements, boolean isStatic, boolean asFinally) throws CannotCompileException {
+		String object = (0 != (requirements & OBJECT_NEEDED) && !isStatic) ? "$0" : "null";
+		String parameters = (0 != (requirements & PARAMETERS_NEEDED)) ? "$args" : "null";
+		String returnValue = (0 != (requirements & RETURN_VALUE_NEEDED)) ? "($w)$_" : "null";
+
+		if (0 == requirements) {
+			method.insertBefore(hookDispatcherTarget + ".dispatchMethodBeforeBody(" + methodId + "l);");
+			method.insertAfter(hookDispatcherTarget + ".dispatchMethodAfterBody(" + methodId + "l);", asFinally);
+		} else {
+			method.insertBefore(hookDispatcherTarget + ".dispatchMethodBeforeBody(" + methodId + "l, " + object + ", " + parameters + ");");
+			method.insertAfter(hookDispatcherTarget + ".dispatchMethodAfterBody(" + methodId + "l, " + object + ", " + parameters + ", " + returnValue + ");", asFinally);
+		}
+	}
+
+	/**
+	 * Registers the method and its sensor types with the id manager.
+	 * 
+	 * @param rsc
+	 *            The {@link RegisteredSensorConfig} of the method.
+	 * @return The id of the method.
+	 */
+	private long registerMethod(RegisteredSensorConfig rsc) {
+		long methodId = idManager.registerMethod(rsc);
+
+		for (MethodSensorTypeConfig config : rsc.getSensorTypeConfigs()) {
+			long sensorTypeId = config.getId();
+			idManager.addSensorTypeToMethod(sensorTypeId, methodId);
+		}
+		return methodId;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -234,7 +352,9 @@ public class HookInstrumenter implements IHookInstrumenter {
 	private void instrumentMethodWithTryCatch(CtMethod method, long methodId, boolean isStatic) throws CannotCompileException, NotFoundException {
 		if (configurationStorage.isExceptionSensorActivated()) {
 			// we instrument the method with an expression editor to get events
-			// when a handler of an exception is found.
+			// when a handler of an exception is found. A new editor is used for every method as
+			// classes can be instrumented in parallel.
+			MethodExprEditor methodExprEditor = new MethodExprEditor();
 			methodExprEditor.setId(methodId);
 			method.instrument(methodExprEditor);
 		}
@@ -271,6 +391,7 @@ public class HookInstrumenter implements IHookInstrumenter {
 		if (configurationStorage.isExceptionSensorActivated()) {
 			// we instrument the constructor with an expression editor to get
 			// events when a handler of an exception is found.
+			ConstructorExprEditor constructorExprEditor = new ConstructorExprEditor();
 			constructorExprEditor.setId(constructorId);
 			constructor.instrument(constructorExprEditor);
 		}
@@ -20,10 +20,18 @@ import java.security.AllPermission;
 import java.security.CodeSource;
 import java.security.PermissionCollection;
 import java.security.ProtectionDomain;
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.logging.Logger;
@@ -71,6 +79,12 @@ public class JavaAgent implements ClassFileTransformer {
 	 */
 	private static final String INSPECTIT_AGENT = "rocks.inspectit.agent.java.SpringAgent";
 
+	/**
+	 * System property defining the number of threads analyzing the classes that are already loaded
+	 * when the agent starts. The classes are analyzed one by one if not set.
+	 */
+	private static final String STARTUP_ANALYSIS_THREADS_PROPERTY = "inspectit.startup.analysis.threads";
+
 	/**
 	 * Defines the self first classes which should be loaded by this class loader instead of
 	 * delegating the loading to the parent.
@@ -201,31 +215,42 @@ public class JavaAgent implements ClassFileTransformer {
 	 * Analyzes all the classes which are already loaded by the jvm. This only works if the
 	 * -Xbootclasspath option is being set in addition as we are instrumenting core classes which
 	 * are directly connected to the bootstrap classloader.
+	 * <p>
+	 * The classes are analyzed in parallel if more than one thread is defined with the
+	 * {@value #STARTUP_ANALYSIS_THREADS_PROPERTY} system property.
 	 */
 	private static void analyzeAlreadyLoadedClasses() {
 		try {
 			if (instrumentation.isRedefineClassesSupported()) {
 				if (instrumentCoreClasses) {
+					long startTime = System.nanoTime();
+					List<Class<?>> loadedClasses = new ArrayList<Class<?>>();
 					for (Class<?> loadedClass : instrumentation.getAllLoadedClasses()) {
 						String clazzName = loadedClass.getCanonicalName();
 						if (null != clazzName && !selfFirstClasses.contains(clazzName)) {
 							if (null == loadedClass.getClassLoader() || !InspectItClassLoader.class.getCanonicalName().equals(loadedClass.getClassLoader().getClass().getCanonicalName())) {
-								try {
-									clazzName = getClassNameForJavassist(loadedClass);
-									byte[] modified = Agent.agent.inspectByteCode(null, clazzName, loadedClass.getClassLoader());
-									if (null != modified) {
-										ClassDefinition classDefinition = new ClassDefinition(loadedClass, modified);
-										instrumentation.redefineClasses(new ClassDefinition[] { classDefinition });
-									}
-								} catch (ClassNotFoundException e) {
-									LOGGER.severe(e.getMessage());
-								} catch (UnmodifiableClassException e) {
-									LOGGER.severe(e.getMessage());
-								}
+								loadedClasses.add(loadedClass);
 							}
 						}
 					}
-					LOGGER.info("inspectIT Agent: Instrumentation of core classes finished...");
+
+					// no more workers than classes
+					int threads = Math.max(1, Math.min(Integer.getInteger(STARTUP_ANALYSIS_THREADS_PROPERTY, 1).intValue(), loadedClasses.size()));
+					int instrumentedCount;
+					if (threads > 1) {
+						instrumentedCount = analyzeClassesInParallel(instrumentation, loadedClasses, threads);
+					} else {
+						instrumentedCount = 0;
+						for (Class<?> loadedClass : loadedClasses) {
+							if (analyzeLoadedClass(instrumentation, loadedClass)) {
+								instrumentedCount++;
+							}
+						}
+					}
+
+					long duration = (System.nanoTime() - startTime) / 1000000L;
+					LOGGER.info("inspectIT Agent: Instrumentation of core classes finished in " + duration + " ms (" + loadedClasses.size() + " classes analyzed, " + instrumentedCount
+							+ " instrumented, " + threads + " thread(s))...");
 				} else {
 					LOGGER.info("inspectIT Agent: Core classes cannot be instrumented, please add -Xbootclasspath/a:<path_to_agent.jar> to the JVM parameters!");
 				}
@@ -240,6 +265,76 @@ public class JavaAgent implements ClassFileTransformer {
 		}
 	}
 
+	/**
+	 * Analyzes the given already loaded classes on a fixed number of worker threads. The classes of
+	 * one class loader share a javassist class pool, the {@link rocks.inspectit.agent.java.IAgent}
+	 * changes the class pool only while holding its lock, so that the classes can be spread over
+	 * all workers.
+	 * 
+	 * @param instrumentation
+	 *            the instrumentation used for the redefinition.
+	 * @param loadedClasses
+	 *            the classes to analyze.
+	 * @param threads
+	 *            the number of worker threads.
+	 * @return the number of redefined classes.
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting for the analysis.
+	 */
+	static int analyzeClassesInParallel(final Instrumentation instrumentation, List<Class<?>> loadedClasses, int threads) throws InterruptedException {
+		ExecutorService executorService = Executors.newFixedThreadPool(threads, new StartupAnalysisThreadFactory());
+		try {
+			List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>(loadedClasses.size());
+			for (final Class<?> loadedClass : loadedClasses) {
+				tasks.add(new Callable<Boolean>() {
+					public Boolean call() throws Exception {
+						return Boolean.valueOf(analyzeLoadedClass(instrumentation, loadedClass));
+					}
+				});
+			}
+
+			int instrumentedCount = 0;
+			for (Future<Boolean> future : executorService.invokeAll(tasks)) {
+				try {
+					if (future.get().booleanValue()) {
+						instrumentedCount++;
+					}
+				} catch (ExecutionException e) {
+					LOGGER.severe("Error occurred while analyzing an already loaded class: " + e.getCause().getMessage());
+				}
+			}
+			return instrumentedCount;
+		} finally {
+			executorService.shutdown();
+		}
+	}
+
+	/**
+	 * Analyzes one already loaded class and redefines it if the agent instrumented it.
+	 * 
+	 * @param instrumentation
+	 *            the instrumentation used for the redefinition.
+	 * @param loadedClass
+	 *            the class to analyze.
+	 * @return <code>true</code> if the class was redefined, <code>false</code> otherwise.
+	 */
+	private static boolean analyzeLoadedClass(Instrumentation instrumentation, Class<?> loadedClass) {
+		try {
+			String clazzName = getClassNameForJavassist(loadedClass);
+			byte[] modified = Agent.agent.inspectByteCode(null, clazzName, loadedClass.getClassLoader());
+			if (null != modified) {
+				ClassDefinition classDefinition = new ClassDefinition(loadedClass, modified);
+				instrumentation.redefineClasses(new ClassDefinition[] { classDefinition });
+				return true;
+			}
+		} catch (ClassNotFoundException e) {
+			LOGGER.severe(e.getMessage());
+		} catch (UnmodifiableClassException e) {
+			LOGGER.severe(e.getMessage());
+		}
+		return false;
+	}
+
 	/**
 	 * Preload some classes to prevent errors in the running application.
 	 */
@@ -307,6 +402,27 @@ public class JavaAgent implements ClassFileTransformer {
 		return null;
 	}
 
+	/**
+	 * Creates the daemon worker threads analyzing the already loaded classes.
+	 */
+	private static class StartupAnalysisThreadFactory implements ThreadFactory {
+
+		/**
+		 * Number of the next thread.
+		 */
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "inspectit-startup-analysis-thread-" + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
 	/**
 	 * Self first class loader handling the boundaries of our needed dependency classes and
 	 * inspectit classes so we don't mess up with the target.
@@ -15,22 +15,23 @@ import rocks.inspectit.agent.java.core.IdNotAvailableException;
 import rocks.inspectit.agent.java.core.impl.CoreService;
 import rocks.inspectit.agent.java.hooking.IConstructorHook;
 import rocks.inspectit.agent.java.hooking.IMethodHook;
+import rocks.inspectit.agent.java.hooking.IMethodHookRequirements;
 import rocks.inspectit.agent.java.util.StringConstraint;
-import rocks.inspectit.agent.java.util.ThreadLocalStack;
+import rocks.inspectit.agent.java.util.ThreadLocalLongStack;
 import rocks.inspectit.agent.java.util.Timer;
 import rocks.inspectit.shared.all.communication.data.ParameterContentData;
 import rocks.inspectit.shared.all.communication.data.TimerData;
 
 /**
- * The hook implementation for the average timer sensor. It uses the {@link ThreadLocalStack} class
- * to save the time when the method was called. After the complete original method was executed, it
+ * The hook implementation for the average timer sensor. It uses the {@link ThreadLocalLongStack}
+ * class to save the time when the method was called. After the complete original method was executed, it
  * computes the how long the method took to finish. Afterwards, the measurement is added to the
  * {@link CoreService}.
  * 
  * @author Patrice Bouillet
  * 
  */
-public class AverageTimerHook implements IMethodHook, IConstructorHook {
+public class AverageTimerHook implements IMethodHook, IConstructorHook, IMethodHookRequirements {
 
 	/**
 	 * The logger of this class. Initialized manually.
@@ -40,7 +41,7 @@ public class AverageTimerHook implements IMethodHook, IConstructorHook {
 	/**
 	 * The stack containing the start time values.
 	 */
-	private ThreadLocalStack<Double> timeStack = new ThreadLocalStack<Double>();
+	private final ThreadLocalLongStack timeStack = new ThreadLocalLongStack();
 
 	/**
 	 * The timer used for accurate measuring.
@@ -85,23 +86,23 @@ public class AverageTimerHook implements IMethodHook, IConstructorHook {
 	 * {@inheritDoc}
 	 */
 	public void beforeBody(long methodId, long sensorTypeId, Object object, Object[] parameters, RegisteredSensorConfig rsc) {
-		timeStack.push(new Double(timer.getCurrentTime()));
+		timeStack.push(timer.getCurrentTime());
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public void firstAfterBody(long methodId, long sensorTypeId, Object object, Object[] parameters, Object result, RegisteredSensorConfig rsc) {
-		timeStack.push(new Double(timer.getCurrentTime()));
+		timeStack.push(timer.getCurrentTime());
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public void secondAfterBody(ICoreService coreService, long methodId, long sensorTypeId, Object object, Object[] parameters, Object result, RegisteredSensorConfig rsc) {
-		double endTime = timeStack.pop().doubleValue();
-		double startTime = timeStack.pop().doubleValue();
-		double duration = endTime - startTime;
+		long endTime = timeStack.pop();
+		long startTime = timeStack.pop();
+		double duration = (endTime - startTime) / 1000000.0d;
 
 		List<ParameterContentData> parameterContentData = null;
 		String prefix = null;
@@ -152,15 +153,38 @@ public class AverageTimerHook implements IMethodHook, IConstructorHook {
 	 * {@inheritDoc}
 	 */
 	public void beforeConstructor(long methodId, long sensorTypeId, Object[] parameters, RegisteredSensorConfig rsc) {
-		timeStack.push(new Double(timer.getCurrentTime()));
+		timeStack.push(timer.getCurrentTime());
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public void afterConstructor(ICoreService coreService, long methodId, long sensorTypeId, Object object, Object[] parameters, RegisteredSensorConfig rsc) {
-		timeStack.push(new Double(timer.getCurrentTime()));
+		timeStack.push(timer.getCurrentTime());
 		secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, null, rsc);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Values are only needed for the property access defined in the registered sensor config.
+	 */
+	public boolean isObjectNeeded() {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isParametersNeeded() {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isReturnValueNeeded() {
+		return false;
+	}
+
 }
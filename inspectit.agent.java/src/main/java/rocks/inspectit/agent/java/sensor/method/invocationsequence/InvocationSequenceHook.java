@@ -19,10 +19,12 @@ import rocks.inspectit.agent.java.config.impl.RegisteredSensorConfig;
 import rocks.inspectit.agent.java.core.ICoreService;
 import rocks.inspectit.agent.java.core.IIdManager;
 import rocks.inspectit.agent.java.core.IObjectStorage;
+import rocks.inspectit.agent.java.core.IWindowedObjectStorage;
 import rocks.inspectit.agent.java.core.IdNotAvailableException;
 import rocks.inspectit.agent.java.core.ListListener;
 import rocks.inspectit.agent.java.hooking.IConstructorHook;
 import rocks.inspectit.agent.java.hooking.IMethodHook;
+import rocks.inspectit.agent.java.hooking.IMethodHookRequirements;
 import rocks.inspectit.agent.java.sending.ISendingStrategy;
 import rocks.inspectit.agent.java.sensor.exception.ExceptionSensor;
 import rocks.inspectit.agent.java.sensor.method.jdbc.ConnectionSensor;
@@ -30,7 +32,7 @@ import rocks.inspectit.agent.java.sensor.method.jdbc.PreparedStatementParameterS
 import rocks.inspectit.agent.java.sensor.method.jdbc.PreparedStatementSensor;
 import rocks.inspectit.agent.java.sensor.method.logging.Log4JLoggingSensor;
 import rocks.inspectit.agent.java.util.StringConstraint;
-import rocks.inspectit.agent.java.util.ThreadLocalStack;
+import rocks.inspectit.agent.java.util.ThreadLocalLongStack;
 import rocks.inspectit.agent.java.util.Timer;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.MethodSensorData;
@@ -57,7 +59,7 @@ import rocks.inspectit.shared.all.communication.data.TimerData;
  * @author Patrice Bouillet
  *
  */
-public class InvocationSequenceHook implements IMethodHook, IConstructorHook, ICoreService {
+public class InvocationSequenceHook implements IMethodHook, IConstructorHook, ICoreService, IMethodHookRequirements {
 
 	/**
 	 * The logger of this class. Initialized manually.
@@ -100,7 +102,7 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 	/**
 	 * The stack containing the start time values.
 	 */
-	private final ThreadLocalStack<Double> timeStack = new ThreadLocalStack<Double>();
+	private final ThreadLocalLongStack timeStack = new ThreadLocalLongStack();
 
 	/**
 	 * Saves the min duration for faster access of the values.
@@ -159,7 +161,7 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 				long registeredSensorTypeId = idManager.getRegisteredSensorTypeId(sensorTypeId);
 
 				// save the start time
-				timeStack.push(new Double(timer.getCurrentTime()));
+				timeStack.push(timer.getCurrentTime());
 
 				// no invocation tracer is currently started, so we do that now.
 				InvocationSequenceData invocationSequenceData = new InvocationSequenceData(timestamp, platformId, registeredSensorTypeId, registeredMethodId);
@@ -178,7 +180,7 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 				invocationSequenceData.setChildCount(invocationSequenceData.getChildCount() + 1L);
 
 				InvocationSequenceData nestedInvocationSequenceData = new InvocationSequenceData(timestamp, platformId, invocationSequenceData.getSensorTypeIdent(), registeredMethodId);
-				nestedInvocationSequenceData.setStart(timer.getCurrentTime());
+				nestedInvocationSequenceData.setStart(timer.getCurrentTime() / 1000000.0d);
 				nestedInvocationSequenceData.setParentSequence(invocationSequenceData);
 
 				invocationSequenceData.getNestedSequences().add(nestedInvocationSequenceData);
@@ -208,7 +210,7 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 				invocationStartIdCount.set(Long.valueOf(count - 1));
 
 				if (0 == count - 1) {
-					timeStack.push(new Double(timer.getCurrentTime()));
+					timeStack.push(timer.getCurrentTime());
 				}
 			}
 		}
@@ -236,8 +238,9 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 			}
 
 			if (methodId == invocationStartId.get().longValue() && 0 == invocationStartIdCount.get().longValue()) {
-				double endTime = timeStack.pop().doubleValue();
-				double startTime = timeStack.pop().doubleValue();
+				// timer values are nanoseconds, invocation start and end are kept in milliseconds
+				double endTime = timeStack.pop() / 1000000.0d;
+				double startTime = timeStack.pop() / 1000000.0d;
 				double duration = endTime - startTime;
 
 				// complete the sequence and store the data object in the 'true'
@@ -292,7 +295,7 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 						parentSequence.setChildCount(parentSequence.getChildCount() + invocationSequenceData.getChildCount());
 					}
 				} else {
-					invocationSequenceData.setEnd(timer.getCurrentTime());
+					invocationSequenceData.setEnd(timer.getCurrentTime() / 1000000.0d);
 					invocationSequenceData.setDuration(invocationSequenceData.getEnd() - invocationSequenceData.getStart());
 					parentSequence.setChildCount(parentSequence.getChildCount() + invocationSequenceData.getChildCount());
 				}
@@ -459,6 +462,29 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 		secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, null, rsc);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Values are only needed for the property access defined in the registered sensor config.
+	 */
+	public boolean isObjectNeeded() {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isParametersNeeded() {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isReturnValueNeeded() {
+		return false;
+	}
+
 	/**
 	 * Save the data objects which are coming from all the different sensor types in the current
 	 * invocation tracer context.
@@ -525,8 +551,16 @@ public class InvocationSequenceHook implements IMethodHook, IConstructorHook, IC
 			LOG.error("thread data NULL!!!!");
 			return;
 		}
-		DefaultData defaultData = objectStorage.finalizeDataObject();
-		saveDataObject(defaultData.finalizeData());
+		DefaultData defaultData;
+		if (objectStorage instanceof IWindowedObjectStorage) {
+			// the invocation can not wait for the window to close
+			defaultData = ((IWindowedObjectStorage) objectStorage).finalizeOpenWindow();
+		} else {
+			defaultData = objectStorage.finalizeDataObject();
+		}
+		if (null != defaultData) {
+			saveDataObject(defaultData.finalizeData());
+		}
 	}
 
 	/**
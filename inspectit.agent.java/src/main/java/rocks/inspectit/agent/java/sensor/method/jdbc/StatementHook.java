@@ -13,16 +13,16 @@ import rocks.inspectit.agent.java.core.IdNotAvailableException;
 import rocks.inspectit.agent.java.core.impl.CoreService;
 import rocks.inspectit.agent.java.hooking.IMethodHook;
 import rocks.inspectit.agent.java.util.StringConstraint;
-import rocks.inspectit.agent.java.util.ThreadLocalStack;
+import rocks.inspectit.agent.java.util.ThreadLocalLongStack;
 import rocks.inspectit.agent.java.util.Timer;
 import rocks.inspectit.shared.all.communication.data.SqlStatementData;
 
 /**
- * The hook implementation for the statement sensor. It uses the {@link ThreadLocalStack} class to
- * know if some execute methods call each other which would result in multiple data objects for only
- * one query. After the complete SQL method was executed, it computes how long the method took to
- * finish and saves the executed SQL Statement String. Afterwards, the measurement is added to the
- * {@link CoreService}.
+ * The hook implementation for the statement sensor. It uses the {@link ThreadLocalLongStack} class
+ * to save the time and a {@link ThreadLocal} flag to know if some execute methods call each other
+ * which would result in multiple data objects for only one query. After the complete SQL method was
+ * executed, it computes how long the method took to finish and saves the executed SQL Statement
+ * String. Afterwards, the measurement is added to the {@link CoreService}.
  * 
  * @author Christian Herzog
  * @author Patrice Bouillet
@@ -38,7 +38,7 @@ public class StatementHook implements IMethodHook {
 	/**
 	 * The stack containing the start time values.
 	 */
-	private final ThreadLocalStack<Double> timeStack = new ThreadLocalStack<Double>();
+	private final ThreadLocalLongStack timeStack = new ThreadLocalLongStack();
 
 	/**
 	 * The timer used for accurate measuring.
@@ -97,7 +97,7 @@ public class StatementHook implements IMethodHook {
 	 * {@inheritDoc}
 	 */
 	public void beforeBody(long methodId, long sensorTypeId, Object object, Object[] parameters, RegisteredSensorConfig rsc) {
-		timeStack.push(new Double(timer.getCurrentTime()));
+		timeStack.push(timer.getCurrentTime());
 		threadLast.set(Boolean.TRUE);
 	}
 
@@ -105,20 +105,20 @@ public class StatementHook implements IMethodHook {
 	 * {@inheritDoc}
 	 */
 	public void firstAfterBody(long methodId, long sensorTypeId, Object object, Object[] parameters, Object result, RegisteredSensorConfig rsc) {
-		timeStack.push(new Double(timer.getCurrentTime()));
+		timeStack.push(timer.getCurrentTime());
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public void secondAfterBody(ICoreService coreService, long methodId, long sensorTypeId, Object object, Object[] parameters, Object result, RegisteredSensorConfig rsc) {
-		double endTime = timeStack.pop().doubleValue();
-		double startTime = timeStack.pop().doubleValue();
+		long endTime = timeStack.pop();
+		long startTime = timeStack.pop();
 
 		if (threadLast.get().booleanValue()) {
 			threadLast.set(Boolean.FALSE);
 
-			double duration = endTime - startTime;
+			double duration = (endTime - startTime) / 1000000.0d;
 			String sql = parameters[0].toString();
 			SqlStatementData sqlData = (SqlStatementData) coreService.getMethodSensorData(sensorTypeId, methodId, sql);
 
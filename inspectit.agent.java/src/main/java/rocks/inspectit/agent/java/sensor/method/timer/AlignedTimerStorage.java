@@ -0,0 +1,291 @@
+package rocks.inspectit.agent.java.sensor.method.timer;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import rocks.inspectit.agent.java.core.IWindowedObjectStorage;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.ParameterContentData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+
+/**
+ * Timer storage that aggregates the data in time windows which are aligned to the aggregation
+ * period of the CMR. The window starts are multiples of the period, exactly like the time stamps
+ * the CMR aggregates to, so every window results in a single {@link TimerData} that is
+ * transmitted once the window is closed and does not have to be merged with other objects of the
+ * same period on the CMR.
+ * <p>
+ * Each window is a {@link StripedTimerStorage}, thus adding the data is lock-free. The storage is
+ * kept by the core service over several sending intervals, the data is only transmitted when
+ * {@link #finalizeDataObject()} finds a closed window.
+ * <p>
+ * A thread adding data can still hold a window that was closed in the meantime. Each window
+ * counts the threads adding to it, and a closed window is sealed and finalized only after these
+ * threads are done, so no data added at the window boundary is lost. A thread that finds its
+ * window sealed adds the data to the next window.
+ */
+public class AlignedTimerStorage implements ITimerStorage, IWindowedObjectStorage {
+
+	/**
+	 * The default aggregation period in milliseconds, same as the default of the CMR.
+	 */
+	public static final long DEFAULT_PERIOD = 10000L;
+
+	/**
+	 * Amount of consecutive empty windows after which the storage is idle.
+	 */
+	static final int IDLE_WINDOWS = 2;
+
+	/**
+	 * Length of a window in milliseconds.
+	 */
+	private final long period;
+
+	/**
+	 * The platform ID.
+	 */
+	private final long platformIdent;
+
+	/**
+	 * The sensor type ID.
+	 */
+	private final long sensorTypeIdent;
+
+	/**
+	 * The method ID.
+	 */
+	private final long methodIdent;
+
+	/**
+	 * The content of the parameter/fields.
+	 */
+	private final List<ParameterContentData> parameterContentData;
+
+	/**
+	 * If TimerData's charting should be set or not.
+	 */
+	private final boolean charting;
+
+	/**
+	 * The window data is currently added to.
+	 */
+	private final AtomicReference<Window> current;
+
+	/**
+	 * Closed windows which were not finalized yet.
+	 */
+	private final Queue<Window> closed = new ConcurrentLinkedQueue<Window>();
+
+	/**
+	 * Amount of consecutive empty windows seen when finalizing. Only changed by the thread
+	 * finalizing the data.
+	 */
+	private volatile int emptyWindows;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param period
+	 *            Length of a window in milliseconds.
+	 * @param platformIdent
+	 *            The platform ID.
+	 * @param sensorTypeIdent
+	 *            The sensor type ID.
+	 * @param methodIdent
+	 *            The method ID.
+	 * @param parameterContentData
+	 *            The content of the parameter/fields.
+	 * @param charting
+	 *            If TimerData's charting should be set or not.
+	 */
+	public AlignedTimerStorage(long period, long platformIdent, long sensorTypeIdent, long methodIdent, List<ParameterContentData> parameterContentData, boolean charting) {
+		if (period <= 0) {
+			throw new IllegalArgumentException("Period must be positive.");
+		}
+		this.period = period;
+		this.platformIdent = platformIdent;
+		this.sensorTypeIdent = sensorTypeIdent;
+		this.methodIdent = methodIdent;
+		this.parameterContentData = parameterContentData;
+		this.charting = charting;
+		this.current = new AtomicReference<Window>(newWindow(currentTimeMillis()));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void addData(double time, double cpuTime) {
+		Window window = roll(currentTimeMillis());
+		window.writers.incrementAndGet();
+		while (window.sealed) {
+			// window is being finalized, add to the next one
+			window.writers.decrementAndGet();
+			window = roll(currentTimeMillis());
+			window.writers.incrementAndGet();
+		}
+		try {
+			if (!window.used) {
+				window.used = true;
+			}
+			window.storage.addData(time, cpuTime);
+		} finally {
+			window.writers.decrementAndGet();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public DefaultData finalizeDataObject() {
+		roll(currentTimeMillis());
+
+		Window window = closed.poll();
+		while (null != window) {
+			seal(window);
+			if (window.used) {
+				emptyWindows = 0;
+				return window.storage.finalizeDataObject();
+			}
+			emptyWindows++;
+			window = closed.poll();
+		}
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public DefaultData finalizeOpenWindow() {
+		Window window = current.get();
+		if (!current.compareAndSet(window, newWindow(currentTimeMillis()))) {
+			return null;
+		}
+		seal(window);
+		if (!window.used) {
+			return null;
+		}
+		emptyWindows = 0;
+		return window.storage.finalizeDataObject();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isIdle() {
+		return (emptyWindows >= IDLE_WINDOWS) && closed.isEmpty() && !current.get().used;
+	}
+
+	/**
+	 * Returns the length of a window.
+	 *
+	 * @return Length of a window in milliseconds.
+	 */
+	public long getPeriod() {
+		return period;
+	}
+
+	/**
+	 * Closes the current window if it ended and starts the window of the given time.
+	 *
+	 * @param now
+	 *            Current time in milliseconds.
+	 * @return The window for the given time.
+	 */
+	private Window roll(long now) {
+		Window window = current.get();
+		while (now >= window.start + period) {
+			Window next = newWindow(now);
+			if (current.compareAndSet(window, next)) {
+				closed.offer(window);
+				return next;
+			}
+			window = current.get();
+		}
+		return window;
+	}
+
+	/**
+	 * Seals the closed window and waits until the threads still adding data to it are done.
+	 *
+	 * @param window
+	 *            Closed window.
+	 */
+	private void seal(Window window) {
+		window.sealed = true;
+		while (window.writers.get() > 0) {
+			// adding the data takes only a few lock-free operations
+			Thread.yield();
+		}
+	}
+
+	/**
+	 * Creates the window that contains the given time.
+	 *
+	 * @param now
+	 *            Time in milliseconds.
+	 * @return New window.
+	 */
+	private Window newWindow(long now) {
+		long start = now - (now % period);
+		StripedTimerStorage storage = new StripedTimerStorage(new Timestamp(start), platformIdent, sensorTypeIdent, methodIdent, parameterContentData, charting);
+		return new Window(start, storage);
+	}
+
+	/**
+	 * Returns the current time. Can be overwritten in tests.
+	 *
+	 * @return Current time in milliseconds.
+	 */
+	long currentTimeMillis() {
+		return System.currentTimeMillis();
+	}
+
+	/**
+	 * One time window.
+	 */
+	private static final class Window {
+
+		/**
+		 * Start of the window in milliseconds.
+		 */
+		private final long start;
+
+		/**
+		 * Storage holding the data of the window.
+		 */
+		private final StripedTimerStorage storage;
+
+		/**
+		 * If data was added to the window. Only set once, thus no atomic update is needed.
+		 */
+		private volatile boolean used;
+
+		/**
+		 * Amount of threads currently adding data to the window.
+		 */
+		private final AtomicInteger writers = new AtomicInteger();
+
+		/**
+		 * If the window is being finalized and no more data can be added.
+		 */
+		private volatile boolean sealed;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param start
+		 *            Start of the window in milliseconds.
+		 * @param storage
+		 *            Storage holding the data of the window.
+		 */
+		Window(long start, StripedTimerStorage storage) {
+			this.start = start;
+			this.storage = storage;
+		}
+	}
+
+}
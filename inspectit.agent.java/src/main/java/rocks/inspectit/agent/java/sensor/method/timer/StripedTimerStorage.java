@@ -0,0 +1,324 @@
+package rocks.inspectit.agent.java.sensor.method.timer;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.ParameterContentData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+
+/**
+ * The striped timer storage is the thread safe version of the {@link OptimizedTimerStorage} meant
+ * for methods that are executed by many threads at the same time. The values are not added to the
+ * {@link TimerData} directly, but to accumulators which are updated with compare-and-set operations
+ * only. As long as there is no contention, a single base accumulator is used. As soon as a
+ * contention is detected, every thread is assigned to one of several striped accumulators, so that
+ * the threads do not compete for the same memory. All accumulators are merged into the
+ * {@link TimerData} in the {@link #finalizeDataObject()}.
+ * <p>
+ * Note that the {@link #finalizeDataObject()} does not block the threads adding data, thus if the
+ * data is added while finalizing, the returned {@link TimerData} can contain the count of a
+ * measurement but not yet its duration. Such measurement is never lost, but only half included in
+ * the currently finalized data.
+ */
+public class StripedTimerStorage implements ITimerStorage {
+
+	/**
+	 * Index of the count in the accumulator.
+	 */
+	private static final int COUNT = 0;
+
+	/**
+	 * Index of the duration sum in the accumulator.
+	 */
+	private static final int DURATION = 1;
+
+	/**
+	 * Index of the minimum duration in the accumulator.
+	 */
+	private static final int MIN = 2;
+
+	/**
+	 * Index of the maximum duration in the accumulator.
+	 */
+	private static final int MAX = 3;
+
+	/**
+	 * Index of the CPU measurements count in the accumulator.
+	 */
+	private static final int CPU_COUNT = 4;
+
+	/**
+	 * Index of the CPU duration sum in the accumulator.
+	 */
+	private static final int CPU_DURATION = 5;
+
+	/**
+	 * Index of the minimum CPU duration in the accumulator.
+	 */
+	private static final int CPU_MIN = 6;
+
+	/**
+	 * Index of the maximum CPU duration in the accumulator.
+	 */
+	private static final int CPU_MAX = 7;
+
+	/**
+	 * Amount of longs one accumulator occupies. Equals 64 bytes, thus two stripes do not share a
+	 * cache line most of the time.
+	 */
+	private static final int STRIPE_SIZE = 8;
+
+	/**
+	 * Maximum amount of stripes.
+	 */
+	private static final int MAX_STRIPES = 64;
+
+	/**
+	 * Amount of stripes, the next power of two of the available processors.
+	 */
+	private static final int STRIPES = stripes(Runtime.getRuntime().availableProcessors());
+
+	/**
+	 * The used {@link TimerData}.
+	 */
+	private final TimerData timerData;
+
+	/**
+	 * The accumulator used as long as there is no contention.
+	 */
+	private final AtomicLongArray base = newAccumulators(1);
+
+	/**
+	 * Striped accumulators, created on the first contention.
+	 */
+	private final AtomicReference<AtomicLongArray> stripes = new AtomicReference<AtomicLongArray>();
+
+	/**
+	 * Default constructor which initializes a {@link TimerData} object.
+	 *
+	 * @param timeStamp
+	 *            The time stamp.
+	 * @param platformIdent
+	 *            The platform ID.
+	 * @param sensorTypeIdent
+	 *            The sensor type ID.
+	 * @param methodIdent
+	 *            The method ID.
+	 * @param parameterContentData
+	 *            The content of the parameter/fields.
+	 * @param charting
+	 *            If TimerData's charting should be set or not.
+	 */
+	public StripedTimerStorage(Timestamp timeStamp, long platformIdent, long sensorTypeIdent, long methodIdent, List<ParameterContentData> parameterContentData, boolean charting) {
+		timerData = new TimerData(timeStamp, platformIdent, sensorTypeIdent, methodIdent, parameterContentData);
+		timerData.setCharting(charting);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void addData(double time, double cpuTime) {
+		AtomicLongArray accumulators = stripes.get();
+
+		if (null == accumulators) {
+			long count = base.get(COUNT);
+			if (base.compareAndSet(COUNT, count, count + 1)) {
+				add(base, 0, time, cpuTime);
+				return;
+			}
+
+			// contention on the base accumulator, switch to the striped ones
+			stripes.compareAndSet(null, newAccumulators(STRIPES));
+			accumulators = stripes.get();
+		}
+
+		int offset = ((int) Thread.currentThread().getId() & (STRIPES - 1)) * STRIPE_SIZE;
+		accumulators.getAndIncrement(offset + COUNT);
+		add(accumulators, offset, time, cpuTime);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public DefaultData finalizeDataObject() {
+		long count = 0;
+		double duration = 0;
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		long cpuCount = 0;
+		double cpuDuration = 0;
+		double cpuMin = Double.POSITIVE_INFINITY;
+		double cpuMax = Double.NEGATIVE_INFINITY;
+
+		AtomicLongArray accumulators = stripes.get();
+		int stripeCount = (null == accumulators) ? 0 : STRIPES;
+		for (int i = -1; i < stripeCount; i++) {
+			AtomicLongArray array = (i < 0) ? base : accumulators;
+			int offset = (i < 0) ? 0 : i * STRIPE_SIZE;
+
+			count += array.get(offset + COUNT);
+			duration += getDouble(array, offset + DURATION);
+			min = Math.min(min, getDouble(array, offset + MIN));
+			max = Math.max(max, getDouble(array, offset + MAX));
+			cpuCount += array.get(offset + CPU_COUNT);
+			cpuDuration += getDouble(array, offset + CPU_DURATION);
+			cpuMin = Math.min(cpuMin, getDouble(array, offset + CPU_MIN));
+			cpuMax = Math.max(cpuMax, getDouble(array, offset + CPU_MAX));
+		}
+
+		timerData.setCount(count);
+		timerData.setDuration(duration);
+		if (count > 0 && min <= max) {
+			timerData.calculateMin(min);
+			timerData.calculateMax(max);
+		}
+
+		// only set the cpu time if we had measurements
+		if (cpuCount > 0 && cpuMin <= cpuMax) {
+			timerData.setCpuDuration(cpuDuration);
+			timerData.calculateCpuMin(cpuMin);
+			timerData.calculateCpuMax(cpuMax);
+		}
+
+		return timerData;
+	}
+
+	/**
+	 * Adds the measurement to the accumulator starting at the given offset. The count is not
+	 * increased by this method.
+	 *
+	 * @param array
+	 *            Array holding the accumulator.
+	 * @param offset
+	 *            Offset of the accumulator in the array.
+	 * @param time
+	 *            The time value.
+	 * @param cpuTime
+	 *            The cpu time value.
+	 */
+	private static void add(AtomicLongArray array, int offset, double time, double cpuTime) {
+		addDouble(array, offset + DURATION, time);
+		minDouble(array, offset + MIN, time);
+		maxDouble(array, offset + MAX, time);
+
+		// only add the cpu time if it greater than zero
+		if (cpuTime >= 0) {
+			array.getAndIncrement(offset + CPU_COUNT);
+			addDouble(array, offset + CPU_DURATION, cpuTime);
+			minDouble(array, offset + CPU_MIN, cpuTime);
+			maxDouble(array, offset + CPU_MAX, cpuTime);
+		}
+	}
+
+	/**
+	 * Atomically adds the value to the double stored at the index.
+	 *
+	 * @param array
+	 *            Array holding the double bits.
+	 * @param index
+	 *            Index.
+	 * @param value
+	 *            Value to add.
+	 */
+	private static void addDouble(AtomicLongArray array, int index, double value) {
+		long current;
+		long update;
+		do {
+			current = array.get(index);
+			update = Double.doubleToRawLongBits(Double.longBitsToDouble(current) + value);
+		} while (!array.compareAndSet(index, current, update));
+	}
+
+	/**
+	 * Atomically sets the double stored at the index to the value if the value is smaller.
+	 *
+	 * @param array
+	 *            Array holding the double bits.
+	 * @param index
+	 *            Index.
+	 * @param value
+	 *            Value to compare.
+	 */
+	private static void minDouble(AtomicLongArray array, int index, double value) {
+		long current;
+		do {
+			current = array.get(index);
+			if (Double.longBitsToDouble(current) <= value) {
+				return;
+			}
+		} while (!array.compareAndSet(index, current, Double.doubleToRawLongBits(value)));
+	}
+
+	/**
+	 * Atomically sets the double stored at the index to the value if the value is bigger.
+	 *
+	 * @param array
+	 *            Array holding the double bits.
+	 * @param index
+	 *            Index.
+	 * @param value
+	 *            Value to compare.
+	 */
+	private static void maxDouble(AtomicLongArray array, int index, double value) {
+		long current;
+		do {
+			current = array.get(index);
+			if (Double.longBitsToDouble(current) >= value) {
+				return;
+			}
+		} while (!array.compareAndSet(index, current, Double.doubleToRawLongBits(value)));
+	}
+
+	/**
+	 * Returns the double stored at the index.
+	 *
+	 * @param array
+	 *            Array holding the double bits.
+	 * @param index
+	 *            Index.
+	 * @return Double value.
+	 */
+	private static double getDouble(AtomicLongArray array, int index) {
+		return Double.longBitsToDouble(array.get(index));
+	}
+
+	/**
+	 * Creates the given amount of initialized accumulators.
+	 *
+	 * @param count
+	 *            Amount of accumulators.
+	 * @return Array holding the accumulators.
+	 */
+	private static AtomicLongArray newAccumulators(int count) {
+		AtomicLongArray array = new AtomicLongArray(count * STRIPE_SIZE);
+		long positiveInfinity = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+		long negativeInfinity = Double.doubleToRawLongBits(Double.NEGATIVE_INFINITY);
+		for (int i = 0; i < count; i++) {
+			int offset = i * STRIPE_SIZE;
+			array.set(offset + MIN, positiveInfinity);
+			array.set(offset + MAX, negativeInfinity);
+			array.set(offset + CPU_MIN, positiveInfinity);
+			array.set(offset + CPU_MAX, negativeInfinity);
+		}
+		return array;
+	}
+
+	/**
+	 * Returns the amount of stripes to use for the given amount of processors.
+	 *
+	 * @param processors
+	 *            Available processors.
+	 * @return Power of two between 2 and {@value #MAX_STRIPES}.
+	 */
+	private static int stripes(int processors) {
+		int stripes = 2;
+		while (stripes < processors && stripes < MAX_STRIPES) {
+			stripes = stripes << 1;
+		}
+		return stripes;
+	}
+
+}
@@ -35,11 +35,27 @@ public final class TimerStorageFactory {
 	 */
 	public static final int OPTIMIZED = 2;
 
+	/**
+	 * Optimized mode with lock-free striped accumulators for highly concurrent methods.
+	 */
+	public static final int STRIPED = 3;
+
+	/**
+	 * Aggregate the data in time windows aligned to the aggregation period of the CMR and send
+	 * each window once it is closed.
+	 */
+	public static final int ALIGNED = 4;
+
 	/**
 	 * The default mode.
 	 */
 	private int mode = OPTIMIZED;
 
+	/**
+	 * The window length in milliseconds used in the aligned mode.
+	 */
+	private long period = AlignedTimerStorage.DEFAULT_PERIOD;
+
 	/**
 	 * Constructor is private to prevent subclasses and new instances.
 	 */
@@ -69,7 +85,9 @@ public final class TimerStorageFactory {
 
 	/**
 	 * If given {@link Map} contains a key named <b>mode</b>, it is checked against the keywords
-	 * <b>raw</b>, <b>aggregate</b> and <b>optimized</b>.
+	 * <b>raw</b>, <b>aggregate</b>, <b>optimized</b>, <b>striped</b> and <b>aligned</b>. The
+	 * <b>period</b> key defines the window length in milliseconds of the aligned mode and should
+	 * match the aggregation period of the CMR.
 	 * 
 	 * @param parameters
 	 *            The parameters.
@@ -84,15 +102,26 @@ public final class TimerStorageFactory {
 				setMode(AGGREGATE_BEFORE_SEND);
 			} else if ("optimized".equals(mode)) {
 				setMode(OPTIMIZED);
+			} else if ("striped".equals(mode)) {
+				setMode(STRIPED);
+			} else if ("aligned".equals(mode)) {
+				setMode(ALIGNED);
 			}
 		}
+
+		String period = (String) parameters.get("period");
+		if (null != period) {
+			setPeriod(Long.parseLong(period));
+		}
 	}
 
 	/**
 	 * Sets the mode for this factory. It can be one of the following: <br>
 	 * <b>RAW_DATA_TRANSMISSION</b> <br>
 	 * <b>AGGREGATE_BEFORE_SEND</b> <br>
-	 * <b>OPTIMIZED</b>
+	 * <b>OPTIMIZED</b> <br>
+	 * <b>STRIPED</b> <br>
+	 * <b>ALIGNED</b>
 	 * 
 	 * @param mode
 	 *            The mode to set.
@@ -101,9 +130,20 @@ public final class TimerStorageFactory {
 		this.mode = mode;
 	}
 
+	/**
+	 * Sets the window length used in the aligned mode.
+	 * 
+	 * @param period
+	 *            The window length in milliseconds.
+	 */
+	public void setPeriod(final long period) {
+		this.period = period;
+	}
+
 	/**
 	 * Returns a new implementation of the {@link ITimerStorage} interface. Depends on the current
-	 * mode which is set through {@link #setMode(int)}.
+	 * mode which is set through {@link #setMode(int)}. The time stamp is ignored in the aligned
+	 * mode, there the time stamps are the starts of the windows.
 	 * 
 	 * @param timeStamp
 	 *            The time stamp.
@@ -127,6 +167,10 @@ public final class TimerStorageFactory {
 			return new AggregateTimerStorage(timeStamp, platformIdent, sensorTypeIdent, methodIdent, parameterContentData, charting);
 		case OPTIMIZED:
 			return new OptimizedTimerStorage(timeStamp, platformIdent, sensorTypeIdent, methodIdent, parameterContentData, charting);
+		case STRIPED:
+			return new StripedTimerStorage(timeStamp, platformIdent, sensorTypeIdent, methodIdent, parameterContentData, charting);
+		case ALIGNED:
+			return new AlignedTimerStorage(period, platformIdent, sensorTypeIdent, methodIdent, parameterContentData, charting);
 		default:
 			return new OptimizedTimerStorage(timeStamp, platformIdent, sensorTypeIdent, methodIdent, parameterContentData, charting);
 		}
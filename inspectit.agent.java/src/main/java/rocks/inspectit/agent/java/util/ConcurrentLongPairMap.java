@@ -0,0 +1,515 @@
+package rocks.inspectit.agent.java.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent map that is keyed by a pair of <code>long</code> values and an optional prefix
+ * object. In contrast to a {@link java.util.concurrent.ConcurrentHashMap} with composed keys, no
+ * key object has to be created for a look-up, thus {@link #get(long, long, Object)} does not create
+ * any garbage.
+ * <p>
+ * The map is divided into segments that are locked on modification. Reading is not locking and
+ * always sees a consistent state of the bucket chains, as the entries are immutable apart from the
+ * volatile value. Prefixes are compared with {@link Object#equals(Object)}, <code>null</code> is a
+ * valid prefix.
+ *
+ * @param <V>
+ *            Type of the values.
+ */
+public class ConcurrentLongPairMap<V> {
+
+	/**
+	 * Amount of segments, must be a power of two.
+	 */
+	private static final int SEGMENTS = 16;
+
+	/**
+	 * Shift to get the segment index from the hash.
+	 */
+	private static final int SEGMENT_SHIFT = 28;
+
+	/**
+	 * Initial capacity of a segment, must be a power of two.
+	 */
+	private static final int INITIAL_SEGMENT_CAPACITY = 8;
+
+	/**
+	 * Load factor of the segments.
+	 */
+	private static final float LOAD_FACTOR = 0.75f;
+
+	/**
+	 * Segments of the map.
+	 */
+	private final Segment<V>[] segments;
+
+	/**
+	 * Default constructor.
+	 */
+	@SuppressWarnings("unchecked")
+	public ConcurrentLongPairMap() {
+		segments = new Segment[SEGMENTS];
+		for (int i = 0; i < SEGMENTS; i++) {
+			segments[i] = new Segment<V>();
+		}
+	}
+
+	/**
+	 * Returns the value for the given key.
+	 *
+	 * @param first
+	 *            First part of the key.
+	 * @param second
+	 *            Second part of the key.
+	 * @param prefix
+	 *            Prefix of the key, can be <code>null</code>.
+	 * @return The value or <code>null</code> if no mapping exists for the key.
+	 */
+	public V get(long first, long second, Object prefix) {
+		int hash = hash(first, second, prefix);
+		return segmentFor(hash).get(first, second, prefix, hash);
+	}
+
+	/**
+	 * Maps the value to the given key.
+	 *
+	 * @param first
+	 *            First part of the key.
+	 * @param second
+	 *            Second part of the key.
+	 * @param prefix
+	 *            Prefix of the key, can be <code>null</code>.
+	 * @param value
+	 *            Value, must not be <code>null</code>.
+	 * @return The previous value or <code>null</code> if no mapping existed for the key.
+	 */
+	public V put(long first, long second, Object prefix, V value) {
+		if (null == value) {
+			throw new NullPointerException("Value must not be null.");
+		}
+		int hash = hash(first, second, prefix);
+		return segmentFor(hash).put(first, second, prefix, hash, value);
+	}
+
+	/**
+	 * Returns if the map is empty.
+	 *
+	 * @return <code>true</code> if the map contains no mappings.
+	 */
+	public boolean isEmpty() {
+		for (Segment<V> segment : segments) {
+			if (0 != segment.count) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the amount of mappings in the map.
+	 *
+	 * @return The amount of mappings in the map.
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment<V> segment : segments) {
+			size += segment.count;
+		}
+		return size;
+	}
+
+	/**
+	 * Returns a new list holding the values of the map. Mappings added while the list is created
+	 * may or may not be included.
+	 *
+	 * @return List of the values.
+	 */
+	public List<V> values() {
+		List<V> values = new ArrayList<V>(size());
+		for (Segment<V> segment : segments) {
+			segment.addValues(values);
+		}
+		return values;
+	}
+
+	/**
+	 * Removes all mappings and returns their values. Each segment is drained atomically, thus
+	 * every value put concurrently is either included in the returned list or stays in the map.
+	 *
+	 * @return List of the removed values.
+	 */
+	public List<V> drain() {
+		List<V> values = new ArrayList<V>(size());
+		for (Segment<V> segment : segments) {
+			segment.drainTo(values);
+		}
+		return values;
+	}
+
+	/**
+	 * Removes all mappings whose value is matched by the filter.
+	 *
+	 * @param filter
+	 *            Filter deciding which values to remove.
+	 */
+	public void removeIf(ValueFilter<? super V> filter) {
+		for (Segment<V> segment : segments) {
+			segment.removeIf(filter);
+		}
+	}
+
+	/**
+	 * Removes all mappings.
+	 */
+	public void clear() {
+		for (Segment<V> segment : segments) {
+			segment.clear();
+		}
+	}
+
+	/**
+	 * Returns the segment for the hash.
+	 *
+	 * @param hash
+	 *            Hash of the key.
+	 * @return Segment.
+	 */
+	private Segment<V> segmentFor(int hash) {
+		return segments[(hash >>> SEGMENT_SHIFT) & (SEGMENTS - 1)];
+	}
+
+	/**
+	 * Calculates the hash of the key.
+	 *
+	 * @param first
+	 *            First part of the key.
+	 * @param second
+	 *            Second part of the key.
+	 * @param prefix
+	 *            Prefix of the key, can be <code>null</code>.
+	 * @return Hash.
+	 */
+	private static int hash(long first, long second, Object prefix) {
+		long h = (first * 0x9E3779B97F4A7C15L) + second;
+		if (null != prefix) {
+			h = (h * 31) + prefix.hashCode();
+		}
+		int hash = (int) (h ^ (h >>> 32));
+
+		// same spreading as in the ConcurrentHashMap, the high bits are used for the segments
+		hash += (hash << 15) ^ 0xffffcd7d;
+		hash ^= hash >>> 10;
+		hash += hash << 3;
+		hash ^= hash >>> 6;
+		hash += (hash << 2) + (hash << 14);
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * Filter for the values of the map.
+	 *
+	 * @param <V>
+	 *            Type of the values.
+	 */
+	public interface ValueFilter<V> {
+
+		/**
+		 * Returns if the value is matched by the filter.
+		 *
+		 * @param value
+		 *            Value.
+		 * @return <code>true</code> if the value is matched.
+		 */
+		boolean matches(V value);
+	}
+
+	/**
+	 * One segment of the map. Modifications are done under the segment lock, reading is done
+	 * without locking.
+	 *
+	 * @param <V>
+	 *            Type of the values.
+	 */
+	private static final class Segment<V> extends ReentrantLock {
+
+		/**
+		 * Generated UID.
+		 */
+		private static final long serialVersionUID = -2375837146716413716L;
+
+		/**
+		 * Amount of mappings in the segment. Written as last action of every modification, thus
+		 * reading it first makes the modification visible.
+		 */
+		private volatile int count;
+
+		/**
+		 * Buckets of the segment.
+		 */
+		private volatile AtomicReferenceArray<Entry<V>> table = new AtomicReferenceArray<Entry<V>>(INITIAL_SEGMENT_CAPACITY);
+
+		/**
+		 * Amount of mappings after which the table is resized.
+		 */
+		private int threshold = (int) (INITIAL_SEGMENT_CAPACITY * LOAD_FACTOR);
+
+		/**
+		 * Returns the value for the key.
+		 *
+		 * @param first
+		 *            First part of the key.
+		 * @param second
+		 *            Second part of the key.
+		 * @param prefix
+		 *            Prefix of the key.
+		 * @param hash
+		 *            Hash of the key.
+		 * @return Value or <code>null</code>.
+		 */
+		V get(long first, long second, Object prefix, int hash) {
+			if (0 != count) {
+				AtomicReferenceArray<Entry<V>> currentTable = table;
+				Entry<V> entry = currentTable.get(hash & (currentTable.length() - 1));
+				while (null != entry) {
+					if (entry.matches(first, second, prefix, hash)) {
+						return entry.value;
+					}
+					entry = entry.next;
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Maps the value to the key.
+		 *
+		 * @param first
+		 *            First part of the key.
+		 * @param second
+		 *            Second part of the key.
+		 * @param prefix
+		 *            Prefix of the key.
+		 * @param hash
+		 *            Hash of the key.
+		 * @param value
+		 *            Value.
+		 * @return Previous value or <code>null</code>.
+		 */
+		V put(long first, long second, Object prefix, int hash, V value) {
+			lock();
+			try {
+				int newCount = count + 1;
+				if (newCount > threshold) {
+					rehash();
+				}
+
+				AtomicReferenceArray<Entry<V>> currentTable = table;
+				int index = hash & (currentTable.length() - 1);
+				Entry<V> head = currentTable.get(index);
+				for (Entry<V> entry = head; null != entry; entry = entry.next) {
+					if (entry.matches(first, second, prefix, hash)) {
+						V oldValue = entry.value;
+						entry.value = value;
+						return oldValue;
+					}
+				}
+
+				currentTable.set(index, new Entry<V>(first, second, prefix, hash, value, head));
+				count = newCount;
+				return null;
+			} finally {
+				unlock();
+			}
+		}
+
+		/**
+		 * Adds all values of the segment to the list.
+		 *
+		 * @param values
+		 *            List to add to.
+		 */
+		void addValues(List<V> values) {
+			if (0 != count) {
+				AtomicReferenceArray<Entry<V>> currentTable = table;
+				for (int i = 0; i < currentTable.length(); i++) {
+					for (Entry<V> entry = currentTable.get(i); null != entry; entry = entry.next) {
+						values.add(entry.value);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Removes all mappings of the segment and adds their values to the list.
+		 *
+		 * @param values
+		 *            List to add to.
+		 */
+		void drainTo(List<V> values) {
+			if (0 != count) {
+				lock();
+				try {
+					addValues(values);
+					table = new AtomicReferenceArray<Entry<V>>(INITIAL_SEGMENT_CAPACITY);
+					threshold = (int) (INITIAL_SEGMENT_CAPACITY * LOAD_FACTOR);
+					count = 0;
+				} finally {
+					unlock();
+				}
+			}
+		}
+
+		/**
+		 * Removes the mappings whose value is matched by the filter. The kept entries are copied,
+		 * so that concurrent readers of the old chains are not affected.
+		 *
+		 * @param filter
+		 *            Filter deciding which values to remove.
+		 */
+		void removeIf(ValueFilter<? super V> filter) {
+			if (0 != count) {
+				lock();
+				try {
+					AtomicReferenceArray<Entry<V>> oldTable = table;
+					AtomicReferenceArray<Entry<V>> newTable = new AtomicReferenceArray<Entry<V>>(oldTable.length());
+					int newCount = 0;
+					for (int i = 0; i < oldTable.length(); i++) {
+						for (Entry<V> entry = oldTable.get(i); null != entry; entry = entry.next) {
+							if (!filter.matches(entry.value)) {
+								newTable.set(i, new Entry<V>(entry.first, entry.second, entry.prefix, entry.hash, entry.value, newTable.get(i)));
+								newCount++;
+							}
+						}
+					}
+					if (newCount != count) {
+						table = newTable;
+						count = newCount;
+					}
+				} finally {
+					unlock();
+				}
+			}
+		}
+
+		/**
+		 * Removes all mappings of the segment.
+		 */
+		void clear() {
+			if (0 != count) {
+				lock();
+				try {
+					table = new AtomicReferenceArray<Entry<V>>(INITIAL_SEGMENT_CAPACITY);
+					threshold = (int) (INITIAL_SEGMENT_CAPACITY * LOAD_FACTOR);
+					count = 0;
+				} finally {
+					unlock();
+				}
+			}
+		}
+
+		/**
+		 * Doubles the table. Must be called under the lock. The entries are copied, so that
+		 * concurrent readers of the old table are not affected.
+		 */
+		private void rehash() {
+			AtomicReferenceArray<Entry<V>> oldTable = table;
+			AtomicReferenceArray<Entry<V>> newTable = new AtomicReferenceArray<Entry<V>>(oldTable.length() << 1);
+			int mask = newTable.length() - 1;
+			for (int i = 0; i < oldTable.length(); i++) {
+				for (Entry<V> entry = oldTable.get(i); null != entry; entry = entry.next) {
+					int index = entry.hash & mask;
+					newTable.set(index, new Entry<V>(entry.first, entry.second, entry.prefix, entry.hash, entry.value, newTable.get(index)));
+				}
+			}
+			threshold = (int) (newTable.length() * LOAD_FACTOR);
+			table = newTable;
+		}
+
+	}
+
+	/**
+	 * Entry of the bucket chain. Only the value can change.
+	 *
+	 * @param <V>
+	 *            Type of the value.
+	 */
+	private static final class Entry<V> {
+
+		/**
+		 * First part of the key.
+		 */
+		private final long first;
+
+		/**
+		 * Second part of the key.
+		 */
+		private final long second;
+
+		/**
+		 * Prefix of the key.
+		 */
+		private final Object prefix;
+
+		/**
+		 * Hash of the key.
+		 */
+		private final int hash;
+
+		/**
+		 * Next entry in the chain.
+		 */
+		private final Entry<V> next;
+
+		/**
+		 * Value.
+		 */
+		private volatile V value;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param first
+		 *            First part of the key.
+		 * @param second
+		 *            Second part of the key.
+		 * @param prefix
+		 *            Prefix of the key.
+		 * @param hash
+		 *            Hash of the key.
+		 * @param value
+		 *            Value.
+		 * @param next
+		 *            Next entry in the chain.
+		 */
+		Entry(long first, long second, Object prefix, int hash, V value, Entry<V> next) {
+			this.first = first;
+			this.second = second;
+			this.prefix = prefix;
+			this.hash = hash;
+			this.value = value;
+			this.next = next;
+		}
+
+		/**
+		 * Returns if this entry has the given key.
+		 *
+		 * @param otherFirst
+		 *            First part of the key.
+		 * @param otherSecond
+		 *            Second part of the key.
+		 * @param otherPrefix
+		 *            Prefix of the key.
+		 * @param otherHash
+		 *            Hash of the key.
+		 * @return <code>true</code> if the keys are equal.
+		 */
+		boolean matches(long otherFirst, long otherSecond, Object otherPrefix, int otherHash) {
+			return (hash == otherHash) && (first == otherFirst) && (second == otherSecond) && ((prefix == otherPrefix) || ((null != prefix) && prefix.equals(otherPrefix))); // NOPMD
+		}
+
+	}
+
+}
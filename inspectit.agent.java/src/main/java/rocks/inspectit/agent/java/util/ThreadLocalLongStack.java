@@ -0,0 +1,140 @@
+package rocks.inspectit.agent.java.util;
+
+import java.util.NoSuchElementException;
+
+/**
+ * The ThreadLocalLongStack class is the primitive counterpart of the {@link ThreadLocalStack}. It
+ * extends {@link ThreadLocal} to have a {@link LongStack} per thread that is backed by a
+ * <code>long</code> array. The array only grows and is never shrunk, thus pushing and popping
+ * values does not create any garbage once the stack reached its maximum depth for the thread.
+ * <p>
+ * This stack is meant to be used by the hooks for the time and CPU time values that are taken on
+ * every instrumented call.
+ */
+public class ThreadLocalLongStack extends ThreadLocal<ThreadLocalLongStack.LongStack> {
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public LongStack initialValue() { // NOPMD
+		return new LongStack();
+	}
+
+	/**
+	 * Pushes the specified value onto the stack.
+	 *
+	 * @param value
+	 *            the value to push onto the stack.
+	 */
+	public void push(long value) {
+		super.get().push(value);
+	}
+
+	/**
+	 * Returns the last pushed value.
+	 *
+	 * @return The last pushed value.
+	 * @throws NoSuchElementException
+	 *             If the stack is empty.
+	 */
+	public long pop() {
+		return super.get().pop();
+	}
+
+	/**
+	 * Returns the last pushed value without removing it.
+	 *
+	 * @return The last pushed value.
+	 * @throws NoSuchElementException
+	 *             If the stack is empty.
+	 */
+	public long getLast() {
+		return super.get().getLast();
+	}
+
+	/**
+	 * Simple grow-only stack of <code>long</code> values. Not thread safe, as it is only accessed
+	 * by the thread owning it.
+	 */
+	public static final class LongStack {
+
+		/**
+		 * Initial capacity of the stack. Covers the nesting depth of most of the instrumented
+		 * calls without resizing.
+		 */
+		private static final int INITIAL_CAPACITY = 16;
+
+		/**
+		 * Values on the stack.
+		 */
+		private long[] elements = new long[INITIAL_CAPACITY];
+
+		/**
+		 * Current amount of values on the stack.
+		 */
+		private int size;
+
+		/**
+		 * Pushes the specified value onto the stack, doubling the backing array if needed.
+		 *
+		 * @param value
+		 *            the value to push onto the stack.
+		 */
+		public void push(long value) {
+			if (size == elements.length) {
+				long[] newElements = new long[elements.length << 1];
+				System.arraycopy(elements, 0, newElements, 0, size);
+				elements = newElements;
+			}
+			elements[size++] = value;
+		}
+
+		/**
+		 * Returns and removes the last pushed value.
+		 *
+		 * @return The last pushed value.
+		 * @throws NoSuchElementException
+		 *             If the stack is empty.
+		 */
+		public long pop() {
+			if (0 == size) {
+				throw new NoSuchElementException();
+			}
+			return elements[--size];
+		}
+
+		/**
+		 * Returns the last pushed value without removing it.
+		 *
+		 * @return The last pushed value.
+		 * @throws NoSuchElementException
+		 *             If the stack is empty.
+		 */
+		public long getLast() {
+			if (0 == size) {
+				throw new NoSuchElementException();
+			}
+			return elements[size - 1];
+		}
+
+		/**
+		 * Returns the amount of values on the stack.
+		 *
+		 * @return The amount of values on the stack.
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Returns the current capacity of the backing array.
+		 *
+		 * @return The current capacity of the backing array.
+		 */
+		int capacity() {
+			return elements.length;
+		}
+
+	}
+
+}
@@ -6,6 +6,10 @@ import org.springframework.stereotype.Component;
  * Class which was used as a wrapper around a timer factory. As the move to Java 5 was done, the
  * factory is currently not needed anymore, but this class stays if some new timer implementations
  * will be needed in the future (higher precision, performance, ...).
+ * <p>
+ * The time is returned as raw nanoseconds so that the hooks can keep it on a
+ * {@link ThreadLocalLongStack} without boxing. Durations should be converted to milliseconds only
+ * once, after the end time has been subtracted from the start time.
  * 
  * @author Patrice Bouillet
  * 
@@ -14,12 +18,13 @@ import org.springframework.stereotype.Component;
 public class Timer {
 
 	/**
-	 * Returns the current time in milliseconds.
+	 * Returns the current value of the most precise available system timer in nanoseconds. The
+	 * value has no relation to the wall-clock time and can only be used to measure elapsed time.
 	 * 
-	 * @return The time as a double value.
+	 * @return The time in nanoseconds.
 	 */
-	public double getCurrentTime() {
-		return System.nanoTime() / 1000000.0d;
+	public long getCurrentTime() {
+		return System.nanoTime();
 	}
 
 }
@@ -8,10 +8,13 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Matchers.aryEq;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
@@ -416,4 +419,108 @@ public class ByteCodeAnalyzerTest extends AbstractLogSupport {
 
 		verifyNoMoreInteractions(hookInstrumenter);
 	}
+
+	@Test
+	public void instrumentationFromCache() throws NotFoundException, IOException, CannotCompileException {
+		String className = TestClass.class.getName();
+		ClassLoader classLoader = TestClass.class.getClassLoader();
+		byte[] byteCode = getByteCode(className);
+		byte[] cachedByteCode = new byte[] { 1, 2, 3 };
+
+		UnregisteredSensorConfig unregisteredSensorConfig = mock(UnregisteredSensorConfig.class);
+		MethodSensorTypeConfig methodSensorTypeConfig = mock(MethodSensorTypeConfig.class);
+		when(methodSensorTypeConfig.getClassName()).thenReturn("");
+		when(methodSensorTypeConfig.getSensorType()).thenReturn(mock(IMethodSensor.class));
+		when(unregisteredSensorConfig.getSensorTypeConfig()).thenReturn(methodSensorTypeConfig);
+		when(configurationStorage.getUnregisteredSensorConfigs()).thenReturn(Collections.singletonList(unregisteredSensorConfig));
+
+		InstrumentationCache.CachedBehavior cachedBehavior = mock(InstrumentationCache.CachedBehavior.class);
+		when(cachedBehavior.getMethodName()).thenReturn("voidNullParameter");
+		when(cachedBehavior.getParameterTypes()).thenReturn(Collections.<String> emptyList());
+		when(cachedBehavior.getReturnType()).thenReturn("void");
+		when(cachedBehavior.getConfigPositions()).thenReturn(new int[] { 0 });
+		InstrumentationCache.CachedClass cachedClass = mock(InstrumentationCache.CachedClass.class);
+		when(cachedClass.getClassName()).thenReturn("TestClass");
+		when(cachedClass.getBehaviors()).thenReturn(Collections.singletonList(cachedBehavior));
+		when(cachedClass.getInstrumentedByteCode(aryEq(new long[] { 42L }))).thenReturn(cachedByteCode);
+
+		InstrumentationCache instrumentationCache = mock(InstrumentationCache.class);
+		when(instrumentationCache.isEnabled()).thenReturn(true);
+		when(instrumentationCache.getKey(byteCode)).thenReturn("key");
+		when(instrumentationCache.get("key")).thenReturn(cachedClass);
+		when(hookInstrumenter.registerInstrumentedHook(Mockito.any(RegisteredSensorConfig.class))).thenReturn(42L);
+		byteCodeAnalyzer.instrumentationCache = instrumentationCache;
+
+		byte[] instrumentedByteCode = byteCodeAnalyzer.analyzeAndInstrument(byteCode, className, classLoader);
+
+		assertThat(instrumentedByteCode, is(cachedByteCode));
+		ArgumentCaptor<RegisteredSensorConfig> capturedRegisteredSensorConfig = ArgumentCaptor.forClass(RegisteredSensorConfig.class);
+		verify(hookInstrumenter).registerInstrumentedHook(capturedRegisteredSensorConfig.capture());
+		assertThat(capturedRegisteredSensorConfig.getValue().getTargetClassName(), is("TestClass"));
+		assertThat(capturedRegisteredSensorConfig.getValue().getTargetMethodName(), is("voidNullParameter"));
+		assertThat(capturedRegisteredSensorConfig.getValue().getSensorTypeConfigs(), contains(methodSensorTypeConfig));
+		verifyNoMoreInteractions(hookInstrumenter);
+		verifyZeroInteractions(classPoolAnalyzer);
+	}
+
+	@Test
+	public void uninstrumentedClassFromCache() throws NotFoundException, IOException, CannotCompileException {
+		String className = TestClass.class.getName();
+		ClassLoader classLoader = TestClass.class.getClassLoader();
+		byte[] byteCode = getByteCode(className);
+
+		InstrumentationCache instrumentationCache = mock(InstrumentationCache.class);
+		when(instrumentationCache.isEnabled()).thenReturn(true);
+		when(instrumentationCache.getKey(byteCode)).thenReturn("key");
+		when(instrumentationCache.isUninstrumented("key")).thenReturn(true);
+		byteCodeAnalyzer.instrumentationCache = instrumentationCache;
+
+		byte[] instrumentedByteCode = byteCodeAnalyzer.analyzeAndInstrument(byteCode, className, classLoader);
+
+		assertThat(instrumentedByteCode, is(nullValue()));
+		verifyZeroInteractions(classPoolAnalyzer, hookInstrumenter);
+	}
+
+	@Test
+	public void analysisResultAddedToCache() throws NotFoundException, IOException, CannotCompileException {
+		String className = TestClass.class.getName();
+		String methodName = "voidNullParameter";
+		ClassLoader classLoader = TestClass.class.getClassLoader();
+		byte[] byteCode = getByteCode(className);
+
+		ClassPool classPool = ClassPool.getDefault();
+		when(classPoolAnalyzer.getClassPool(classLoader)).thenReturn(classPool);
+
+		InstrumentationCache instrumentationCache = mock(InstrumentationCache.class);
+		when(instrumentationCache.isEnabled()).thenReturn(true);
+		when(instrumentationCache.getKey(byteCode)).thenReturn("key");
+		byteCodeAnalyzer.instrumentationCache = instrumentationCache;
+
+		byteCodeAnalyzer.analyzeAndInstrument(byteCode, className, classLoader);
+
+		verify(instrumentationCache).putUninstrumented("key");
+
+		UnregisteredSensorConfig unregisteredSensorConfig = mock(UnregisteredSensorConfig.class);
+		when(unregisteredSensorConfig.getTargetClassName()).thenReturn(className);
+		when(unregisteredSensorConfig.getTargetMethodName()).thenReturn(methodName);
+		MethodSensorTypeConfig methodSensorTypeConfig = mock(MethodSensorTypeConfig.class);
+		when(methodSensorTypeConfig.getClassName()).thenReturn("");
+		when(methodSensorTypeConfig.getSensorType()).thenReturn(mock(IMethodSensor.class));
+		when(unregisteredSensorConfig.getSensorTypeConfig()).thenReturn(methodSensorTypeConfig);
+		IMatcher matcher = mock(IMatcher.class);
+		List<CtMethod> ctMethods = new ArrayList<CtMethod>();
+		ctMethods.add(ClassPool.getDefault().getMethod(className, methodName));
+		when(matcher.compareClassName(classLoader, className)).thenReturn(true);
+		when(matcher.getMatchingMethods(classLoader, className)).thenReturn(ctMethods);
+		when(unregisteredSensorConfig.getMatcher()).thenReturn(matcher);
+		when(configurationStorage.getUnregisteredSensorConfigs()).thenReturn(Collections.singletonList(unregisteredSensorConfig));
+
+		byteCodeAnalyzer.analyzeAndInstrument(byteCode, className, classLoader);
+
+		ArgumentCaptor<InstrumentationCache.CachedClass> capturedCachedClass = ArgumentCaptor.forClass(InstrumentationCache.CachedClass.class);
+		verify(instrumentationCache).put(eq("key"), eq(byteCode), capturedCachedClass.capture());
+		assertThat(capturedCachedClass.getValue().getBehaviors(), hasSize(1));
+		assertThat(capturedCachedClass.getValue().getBehaviors().get(0).getMethodName(), is(methodName));
+		assertThat(capturedCachedClass.getValue().getBehaviors().get(0).getConfigPositions(), is(new int[] { 0 }));
+	}
 }
@@ -5,9 +5,16 @@ import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
 
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javassist.ClassPool;
 import javassist.CtMethod;
@@ -98,6 +105,36 @@ public class ClassPoolAnalyzerTest extends AbstractLogSupport {
 		assertThat(getClassLoader(parentParentClassPool), is(equalTo((ClassLoader) testClassLoader)));
 	}
 
+	@Test
+	public void concurrentClassPoolAccess() throws Exception {
+		TestClassLoader testClassLoader = new TestClassLoader(TestClass.class.getClassLoader());
+		TestClassLoader subTestClassLoader = new TestClassLoader(testClassLoader);
+		List<Callable<ClassPool>> tasks = new ArrayList<Callable<ClassPool>>();
+		for (int i = 0; i < 100; i++) {
+			final ClassLoader classLoader = (0 == (i % 2)) ? subTestClassLoader : testClassLoader;
+			tasks.add(new Callable<ClassPool>() {
+				public ClassPool call() {
+					return classPoolAnalyzer.getClassPool(classLoader);
+				}
+			});
+		}
+
+		ExecutorService executorService = Executors.newFixedThreadPool(8);
+		List<Future<ClassPool>> results;
+		try {
+			results = executorService.invokeAll(tasks);
+		} finally {
+			executorService.shutdown();
+		}
+
+		ClassPool subClassPool = classPoolAnalyzer.getClassPool(subTestClassLoader);
+		ClassPool classPool = classPoolAnalyzer.getClassPool(testClassLoader);
+		for (int i = 0; i < results.size(); i++) {
+			assertThat(results.get(i).get(), is(sameInstance((0 == (i % 2)) ? subClassPool : classPool)));
+		}
+		assertThat(getParentClassPool(subClassPool), is(sameInstance(classPool)));
+	}
+
 	private ClassPool getParentClassPool(ClassPool classPool) throws Exception {
 		// only possible through reflection :(
 		Field field = ClassPool.class.getDeclaredField("parent");
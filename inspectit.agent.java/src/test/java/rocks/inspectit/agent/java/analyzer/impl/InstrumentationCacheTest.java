@@ -0,0 +1,262 @@
+package rocks.inspectit.agent.java.analyzer.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.mockito.Mock;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import rocks.inspectit.agent.java.AbstractLogSupport;
+import rocks.inspectit.agent.java.analyzer.classes.TestClass;
+import rocks.inspectit.agent.java.config.IConfigurationStorage;
+import rocks.inspectit.agent.java.config.impl.RegisteredSensorConfig;
+import rocks.inspectit.shared.all.version.VersionService;
+
+@SuppressWarnings("PMD")
+public class InstrumentationCacheTest extends AbstractLogSupport {
+
+	private static final long METHOD_ID = 123456789L;
+
+	@Mock
+	private IConfigurationStorage configurationStorage;
+
+	@Mock
+	private VersionService versionService;
+
+	private File cacheDirectory;
+
+	private byte[] byteCode;
+
+	private byte[] instrumentedByteCode;
+
+	@BeforeMethod
+	public void init() throws Exception {
+		cacheDirectory = Files.createTempDirectory("instrumentation-cache").toFile();
+		when(configurationStorage.getConfigurationFingerprint()).thenReturn("fingerprint");
+		when(versionService.getVersionAsString()).thenReturn("1.0");
+
+		ClassPool classPool = new ClassPool(true);
+		CtClass ctClass = classPool.get(TestClass.class.getName());
+		byteCode = ctClass.toBytecode();
+		ctClass.defrost();
+		ctClass.getDeclaredMethod("voidNullParameter").insertBefore("System.identityHashCode(Long.valueOf(" + METHOD_ID + "L));");
+		instrumentedByteCode = ctClass.toBytecode();
+	}
+
+	@AfterMethod
+	public void cleanUp() {
+		delete(cacheDirectory);
+	}
+
+	@Test
+	public void disabledWithoutDirectory() {
+		InstrumentationCache cache = createCache();
+		cache.cacheDirectory = "";
+
+		assertThat(cache.isEnabled(), is(false));
+	}
+
+	@Test
+	public void disabledWithoutFingerprint() {
+		when(configurationStorage.getConfigurationFingerprint()).thenReturn(null);
+		InstrumentationCache cache = createCache();
+
+		assertThat(cache.isEnabled(), is(false));
+	}
+
+	@Test
+	public void disabledWithUnknownVersion() {
+		when(versionService.getVersionAsString()).thenReturn(VersionService.UNKNOWN_VERSION);
+		InstrumentationCache cache = createCache();
+
+		assertThat(cache.isEnabled(), is(false));
+	}
+
+	@Test
+	public void instrumentedClassAfterRestart() throws IOException {
+		InstrumentationCache cache = createCache();
+		assertThat(cache.isEnabled(), is(true));
+		String key = cache.getKey(byteCode);
+		cache.put(key, byteCode, createCachedClass());
+
+		InstrumentationCache restartedCache = createCache();
+		assertThat(restartedCache.isEnabled(), is(true));
+		InstrumentationCache.CachedClass cachedClass = restartedCache.get(key);
+
+		assertThat(cachedClass, is(notNullValue()));
+		assertThat(cachedClass.getPackageName(), is("rocks.inspectit.agent.java.analyzer.classes"));
+		assertThat(cachedClass.getClassName(), is("TestClass"));
+		assertThat(cachedClass.getBehaviors().get(0).getMethodName(), is("voidNullParameter"));
+		assertThat(cachedClass.getBehaviors().get(0).getParameterTypes(), contains("java.lang.String"));
+		assertThat(cachedClass.getBehaviors().get(0).getReturnType(), is("void"));
+		assertThat(cachedClass.getBehaviors().get(0).getConfigPositions(), is(new int[] { 3 }));
+		Map<Long, List<Integer>> constants = InstrumentationCache.getLongConstantOffsets(cachedClass.getInstrumentedByteCode(new long[] { 5L }));
+		assertThat(constants, hasKey(5L));
+		assertThat(constants, not(hasKey(METHOD_ID)));
+		assertThat(restartedCache.getHits(), is(1L));
+	}
+
+	@Test
+	public void ambiguousMethodIdNotCached() {
+		InstrumentationCache cache = createCache();
+		cache.isEnabled();
+		// original byte code already holds the constant
+		String key = cache.getKey(instrumentedByteCode);
+		cache.put(key, instrumentedByteCode, createCachedClass());
+
+		assertThat(createCache().get(key), is(nullValue()));
+	}
+
+	@Test
+	public void uninstrumentedClassAfterRestart() {
+		InstrumentationCache cache = createCache();
+		cache.isEnabled();
+		String key = cache.getKey(byteCode);
+		cache.putUninstrumented(key);
+
+		InstrumentationCache restartedCache = createCache();
+		restartedCache.isEnabled();
+
+		assertThat(restartedCache.isUninstrumented(key), is(true));
+		assertThat(restartedCache.isUninstrumented(cache.getKey(instrumentedByteCode)), is(false));
+	}
+
+	@Test
+	public void changedConfigurationNotShared() {
+		InstrumentationCache cache = createCache();
+		cache.isEnabled();
+		String key = cache.getKey(byteCode);
+		cache.put(key, byteCode, createCachedClass());
+		cache.putUninstrumented("other");
+
+		when(configurationStorage.getConfigurationFingerprint()).thenReturn("changed");
+		InstrumentationCache restartedCache = createCache();
+		restartedCache.isEnabled();
+
+		assertThat(restartedCache.get(key), is(nullValue()));
+		assertThat(restartedCache.isUninstrumented("other"), is(false));
+	}
+
+	@Test
+	public void staleFingerprintDirectoryPruned() throws IOException {
+		File staleDirectory = new File(cacheDirectory, "abc123");
+		staleDirectory.mkdirs();
+		new File(staleDirectory, "stale.icache").createNewFile();
+		staleDirectory.setLastModified(System.currentTimeMillis() - (31L * 24 * 60 * 60 * 1000));
+		File otherDirectory = new File(cacheDirectory, "other");
+		otherDirectory.mkdirs();
+		otherDirectory.setLastModified(0L);
+
+		InstrumentationCache cache = createCache();
+		assertThat(cache.isEnabled(), is(true));
+
+		assertThat(staleDirectory.exists(), is(false));
+		assertThat(otherDirectory.exists(), is(true));
+	}
+
+	@Test
+	public void staleEntryDeleted() {
+		InstrumentationCache cache = createCache();
+		cache.isEnabled();
+		String key = cache.getKey(byteCode);
+		cache.put(key, byteCode, createCachedClass());
+		for (File fingerprintDirectory : cacheDirectory.listFiles()) {
+			for (File entry : fingerprintDirectory.listFiles()) {
+				entry.setLastModified(System.currentTimeMillis() - (31L * 24 * 60 * 60 * 1000));
+			}
+		}
+
+		InstrumentationCache restartedCache = createCache();
+		restartedCache.isEnabled();
+
+		assertThat(restartedCache.get(key), is(nullValue()));
+		assertThat(restartedCache.getMisses(), is(1L));
+	}
+
+	@Test
+	public void maxEntriesNotExceeded() {
+		InstrumentationCache cache = createCache();
+		cache.maxEntries = 1;
+		cache.isEnabled();
+		cache.putUninstrumented("first");
+		String key = cache.getKey(byteCode);
+		cache.put(key, byteCode, createCachedClass());
+		cache.putUninstrumented("second");
+
+		InstrumentationCache restartedCache = createCache();
+		restartedCache.isEnabled();
+
+		assertThat(restartedCache.isUninstrumented("first"), is(true));
+		assertThat(restartedCache.isUninstrumented("second"), is(false));
+		assertThat(restartedCache.get(key), is(nullValue()));
+	}
+
+	@Test
+	public void leastRecentlyUsedEntriesDeleted() throws IOException {
+		InstrumentationCache cache = createCache();
+		cache.isEnabled();
+		String key = cache.getKey(byteCode);
+		cache.put(key, byteCode, createCachedClass());
+		File fingerprintDirectory = cacheDirectory.listFiles()[0];
+		File entry = new File(fingerprintDirectory, key + ".icache");
+		File olderEntry = new File(fingerprintDirectory, "older.icache");
+		Files.copy(entry.toPath(), olderEntry.toPath());
+		olderEntry.setLastModified(entry.lastModified() - 60000L);
+
+		InstrumentationCache restartedCache = createCache();
+		restartedCache.maxEntries = 1;
+		restartedCache.isEnabled();
+
+		assertThat(restartedCache.get(key), is(notNullValue()));
+		assertThat(olderEntry.exists(), is(false));
+	}
+
+	private InstrumentationCache createCache() {
+		InstrumentationCache cache = new InstrumentationCache(configurationStorage, versionService);
+		cache.log = LoggerFactory.getLogger(InstrumentationCache.class);
+		cache.cacheDirectory = cacheDirectory.getAbsolutePath();
+		cache.maxEntries = 50000;
+		cache.maxAgeDays = 30;
+		return cache;
+	}
+
+	private InstrumentationCache.CachedClass createCachedClass() {
+		RegisteredSensorConfig rsc = mock(RegisteredSensorConfig.class);
+		when(rsc.getTargetMethodName()).thenReturn("voidNullParameter");
+		when(rsc.getParameterTypes()).thenReturn(Collections.singletonList("java.lang.String"));
+		when(rsc.getReturnType()).thenReturn("void");
+		when(rsc.getId()).thenReturn(METHOD_ID);
+		InstrumentationCache.CachedBehavior behavior = new InstrumentationCache.CachedBehavior(rsc, new int[] { 3 });
+		return new InstrumentationCache.CachedClass("rocks.inspectit.agent.java.analyzer.classes", "TestClass", instrumentedByteCode, Collections.singletonList(behavior));
+	}
+
+	private void delete(File file) {
+		File[] children = file.listFiles();
+		if (null != children) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+}
@@ -0,0 +1,137 @@
+package rocks.inspectit.agent.java.analyzer.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import rocks.inspectit.agent.java.config.impl.UnregisteredSensorConfig;
+
+/**
+ * Tests the {@link SensorConfigMatchIndex}.
+ */
+@SuppressWarnings("PMD")
+public class SensorConfigMatchIndexTest {
+
+	@Test
+	public void noConfigs() {
+		SensorConfigMatchIndex index = new SensorConfigMatchIndex(Collections.<UnregisteredSensorConfig> emptyList(), 0);
+
+		assertThat(index.getCandidates("info.novatec.Test"), is(empty()));
+	}
+
+	@Test
+	public void exactClassName() {
+		UnregisteredSensorConfig config = getConfig("info.novatec.Test", false, false);
+		SensorConfigMatchIndex index = new SensorConfigMatchIndex(Collections.singletonList(config), 0);
+
+		assertThat(index.getCandidates("info.novatec.Test"), contains(config));
+		assertThat(index.getCandidates("info.novatec.Test2"), is(empty()));
+		assertThat(index.getCandidates("info.novatec"), is(empty()));
+	}
+
+	@Test
+	public void classNamePattern() {
+		UnregisteredSensorConfig packagePattern = getConfig("info.novatec.*", false, false);
+		UnregisteredSensorConfig middlePattern = getConfig("info.*.Service", false, false);
+		UnregisteredSensorConfig leadingPattern = getConfig("*Service", false, false);
+		SensorConfigMatchIndex index = new SensorConfigMatchIndex(Arrays.asList(packagePattern, middlePattern, leadingPattern), 0);
+
+		assertThat(index.getCandidates("info.novatec.Test"), contains(packagePattern, middlePattern, leadingPattern));
+		assertThat(index.getCandidates("info.Test"), contains(middlePattern, leadingPattern));
+		assertThat(index.getCandidates("com.Test"), contains(leadingPattern));
+		assertThat(index.getCandidates("i"), contains(leadingPattern));
+	}
+
+	@Test
+	public void inheritanceConfigsAlwaysCandidates() {
+		UnregisteredSensorConfig superclass = getConfig("info.novatec.Test", true, false);
+		UnregisteredSensorConfig interf = getConfig("info.novatec.ITest", false, true);
+		UnregisteredSensorConfig noName = getConfig(null, false, false);
+		SensorConfigMatchIndex index = new SensorConfigMatchIndex(Arrays.asList(superclass, interf, noName), 0);
+
+		assertThat(index.getCandidates("com.Test"), contains(superclass, interf, noName));
+	}
+
+	@Test
+	public void configOrderKept() {
+		UnregisteredSensorConfig first = getConfig("info.novatec.Test", true, false);
+		UnregisteredSensorConfig second = getConfig("info.novatec.Test", false, false);
+		UnregisteredSensorConfig third = getConfig("info.*", false, false);
+		UnregisteredSensorConfig fourth = getConfig("info.novatec.Test", false, false);
+		SensorConfigMatchIndex index = new SensorConfigMatchIndex(Arrays.asList(first, second, third, fourth), 0);
+
+		assertThat(index.getCandidates("info.novatec.Test"), contains(first, second, third, fourth));
+	}
+
+	@Test
+	public void builtFor() {
+		UnregisteredSensorConfig first = getConfig("info.novatec.Test", false, false);
+		UnregisteredSensorConfig second = getConfig("info.novatec.Test2", false, false);
+		List<UnregisteredSensorConfig> configs = new ArrayList<UnregisteredSensorConfig>();
+		configs.add(first);
+		configs.add(second);
+		SensorConfigMatchIndex index = new SensorConfigMatchIndex(configs, 2);
+
+		assertThat(index.isBuiltFor(2), is(true));
+		assertThat(index.isBuiltFor(3), is(false));
+		assertThat(index.isBuiltFor(1), is(false));
+	}
+
+	/**
+	 * Every configuration matching the class name must be a candidate. Plain names are compared
+	 * with equals, same as the {@link DirectMatcher} does.
+	 */
+	@Test
+	public void candidatesContainAllMatches() {
+		Random random = new Random();
+		String[] parts = new String[] { "info", "novatec", "Test", "Service", "*", "." };
+		List<UnregisteredSensorConfig> configs = new ArrayList<UnregisteredSensorConfig>();
+		for (int i = 0; i < 200; i++) {
+			configs.add(getConfig(getRandomName(random, parts), false, false));
+		}
+		SensorConfigMatchIndex index = new SensorConfigMatchIndex(configs, 0);
+
+		String[] classParts = new String[] { "info", "novatec", "Test", "Service", "." };
+		for (int i = 0; i < 1000; i++) {
+			String className = getRandomName(random, classParts);
+			List<UnregisteredSensorConfig> candidates = index.getCandidates(className);
+			for (UnregisteredSensorConfig config : configs) {
+				String targetClassName = config.getTargetClassName();
+				boolean matches = SimpleMatchPattern.isPattern(targetClassName) ? new SimpleMatchPattern(targetClassName).match(className) : targetClassName.equals(className);
+				if (matches) {
+					assertThat(candidates, hasItem(config));
+				}
+			}
+		}
+	}
+
+	private String getRandomName(Random random, String[] parts) {
+		StringBuilder name = new StringBuilder();
+		int length = 1 + random.nextInt(5);
+		for (int i = 0; i < length; i++) {
+			name.append(parts[random.nextInt(parts.length)]);
+		}
+		return name.toString();
+	}
+
+	private UnregisteredSensorConfig getConfig(String targetClassName, boolean superclass, boolean interf) {
+		UnregisteredSensorConfig config = mock(UnregisteredSensorConfig.class);
+		when(config.getTargetClassName()).thenReturn(targetClassName);
+		when(config.isSuperclass()).thenReturn(superclass);
+		when(config.isInterface()).thenReturn(interf);
+		return config;
+	}
+
+}
@@ -0,0 +1,174 @@
+package rocks.inspectit.agent.java.buffer.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+
+@SuppressWarnings("PMD")
+public class RingBufferStrategyTest {
+
+	private RingBufferStrategy bufferStrategy;
+
+	@BeforeMethod
+	public void initTestClass() {
+		bufferStrategy = new RingBufferStrategy();
+		bufferStrategy.log = LoggerFactory.getLogger(RingBufferStrategy.class);
+	}
+
+	@Test
+	public void addAndRetrieve() {
+		List<DefaultData> list = Collections.<DefaultData> singletonList(new TimerData());
+		bufferStrategy.addMeasurements(list);
+
+		assertThat(bufferStrategy.hasNext(), is(true));
+		assertThat(bufferStrategy.getOccupiedSlots(), is(1));
+		assertThat(bufferStrategy.getOccupiedBytes(), is(256L));
+		assertThat(bufferStrategy.next(), is(sameInstance(list)));
+
+		assertThat(bufferStrategy.hasNext(), is(false));
+		assertThat(bufferStrategy.getOccupiedSlots(), is(0));
+		assertThat(bufferStrategy.getOccupiedBytes(), is(0L));
+	}
+
+	@Test
+	public void emptyBuffer() {
+		assertThat(bufferStrategy.hasNext(), is(false));
+	}
+
+	@Test(expectedExceptions = { NoSuchElementException.class })
+	public void noSuchElementException() {
+		bufferStrategy.next();
+	}
+
+	@Test(expectedExceptions = { IllegalArgumentException.class })
+	public void addNullMeasurement() {
+		bufferStrategy.addMeasurements(null);
+	}
+
+	@Test
+	public void fifoOrder() {
+		List<DefaultData> listOne = new ArrayList<DefaultData>(0);
+		List<DefaultData> listTwo = new ArrayList<DefaultData>(0);
+
+		bufferStrategy.addMeasurements(listOne);
+		bufferStrategy.addMeasurements(listTwo);
+
+		assertThat(bufferStrategy.next(), is(sameInstance(listOne)));
+		assertThat(bufferStrategy.next(), is(sameInstance(listTwo)));
+		assertThat(bufferStrategy.hasNext(), is(false));
+	}
+
+	@Test
+	public void dropOldestWhenSlotsFull() {
+		Map<String, String> settings = new HashMap<String, String>();
+		settings.put("slots", "2");
+		bufferStrategy.init(settings);
+
+		List<DefaultData> listOne = Collections.<DefaultData> singletonList(new TimerData());
+		List<DefaultData> listTwo = Collections.<DefaultData> singletonList(new TimerData());
+		List<DefaultData> listThree = Collections.<DefaultData> singletonList(new TimerData());
+
+		bufferStrategy.addMeasurements(listOne);
+		bufferStrategy.addMeasurements(listTwo);
+		bufferStrategy.addMeasurements(listThree);
+
+		assertThat(bufferStrategy.getDroppedObjects(), is(1L));
+		assertThat(bufferStrategy.getDroppedBytes(), is(256L));
+		assertThat(bufferStrategy.next(), is(sameInstance(listTwo)));
+		assertThat(bufferStrategy.next(), is(sameInstance(listThree)));
+		assertThat(bufferStrategy.hasNext(), is(false));
+	}
+
+	@Test
+	public void dropOldestWhenBytesFull() {
+		Map<String, String> settings = new HashMap<String, String>();
+		settings.put("size", "300");
+		settings.put("objectSize", "100");
+		bufferStrategy.init(settings);
+
+		List<DefaultData> listOne = new ArrayList<DefaultData>();
+		listOne.add(new TimerData());
+		listOne.add(new TimerData());
+		List<DefaultData> listTwo = new ArrayList<DefaultData>();
+		listTwo.add(new TimerData());
+		listTwo.add(new TimerData());
+
+		bufferStrategy.addMeasurements(listOne);
+		bufferStrategy.addMeasurements(listTwo);
+
+		assertThat(bufferStrategy.getDroppedObjects(), is(2L));
+		assertThat(bufferStrategy.getDroppedBytes(), is(200L));
+		assertThat(bufferStrategy.getOccupiedBytes(), is(200L));
+		assertThat(bufferStrategy.next(), is(sameInstance(listTwo)));
+		assertThat(bufferStrategy.hasNext(), is(false));
+	}
+
+	@Test
+	public void dropTooBigList() {
+		Map<String, String> settings = new HashMap<String, String>();
+		settings.put("size", "1000");
+		settings.put("objectSize", "100");
+		bufferStrategy.init(settings);
+
+		InvocationSequenceData invocation = new InvocationSequenceData();
+		invocation.setChildCount(10L);
+		List<DefaultData> small = Collections.<DefaultData> singletonList(new TimerData());
+		List<DefaultData> big = Collections.<DefaultData> singletonList(invocation);
+
+		bufferStrategy.addMeasurements(small);
+		bufferStrategy.addMeasurements(big);
+
+		assertThat(bufferStrategy.getDroppedObjects(), is(1L));
+		assertThat(bufferStrategy.getDroppedBytes(), is(1100L));
+		assertThat(bufferStrategy.next(), is(sameInstance(small)));
+		assertThat(bufferStrategy.hasNext(), is(false));
+	}
+
+	@Test
+	public void producerConsumer() throws InterruptedException {
+		Map<String, String> settings = new HashMap<String, String>();
+		settings.put("slots", "4");
+		bufferStrategy.init(settings);
+
+		final int lists = 100000;
+		Thread producer = new Thread() {
+			@Override
+			public void run() {
+				for (int i = 0; i < lists; i++) {
+					bufferStrategy.addMeasurements(Collections.<DefaultData> singletonList(new TimerData()));
+				}
+			}
+		};
+		producer.start();
+
+		long received = 0;
+		while (producer.isAlive() || bufferStrategy.hasNext()) {
+			try {
+				received += bufferStrategy.next().size();
+			} catch (NoSuchElementException e) {
+				// empty or the list was dropped by the producer in the meantime
+				continue;
+			}
+		}
+
+		assertThat(received + bufferStrategy.getDroppedObjects(), is(equalTo((long) lists)));
+		assertThat(bufferStrategy.getOccupiedBytes(), is(0L));
+	}
+
+}
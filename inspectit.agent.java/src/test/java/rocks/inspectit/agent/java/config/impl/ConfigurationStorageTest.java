@@ -515,6 +515,27 @@ public class ConfigurationStorageTest extends AbstractLogSupport {
 		verifyZeroInteractions(classPoolAnalyzer, inheritanceAnalyzer);
 	}
 
+	@Test
+	public void sendingPipelineSettingsDefault() {
+		Map<String, String> settings = configurationStorage.getSendingPipelineSettings();
+
+		assertThat(settings, is(notNullValue()));
+		assertThat(settings.size(), is(0));
+	}
+
+	@Test
+	public void setSendingPipelineSettings() {
+		Map<String, String> settings = new HashMap<String, String>();
+		settings.put("mode", "batching");
+		configurationStorage.setSendingPipelineSettings(settings);
+
+		assertThat(configurationStorage.getSendingPipelineSettings(), is(equalTo(settings)));
+
+		configurationStorage.setSendingPipelineSettings(null);
+
+		assertThat(configurationStorage.getSendingPipelineSettings().size(), is(0));
+	}
+
 	@Test
 	public void sensorCheck() {
 		List<UnregisteredSensorConfig> configs = configurationStorage.getUnregisteredSensorConfigs();
@@ -673,6 +694,16 @@ public class ConfigurationStorageTest extends AbstractLogSupport {
 		verifyZeroInteractions(classPoolAnalyzer, inheritanceAnalyzer);
 	}
 
+	@Test
+	public void unregisteredSensorConfigsModCount() throws StorageException {
+		int modCount = configurationStorage.getUnregisteredSensorConfigsModCount();
+		assertThat(modCount, is(configurationStorage.getUnregisteredSensorConfigs().size()));
+
+		configurationStorage.addSensor("timer", "info.novatec.Test", "*", null, true, null);
+
+		assertThat(configurationStorage.getUnregisteredSensorConfigsModCount(), is(modCount + 1));
+	}
+
 	@Test
 	public void annotationCheck() {
 		List<UnregisteredSensorConfig> configs = configurationStorage.getUnregisteredSensorConfigs();
@@ -278,6 +278,20 @@ public class FileConfigurationReaderTest extends AbstractLogSupport {
 		verify(configurationStorage, times(1)).setBufferStrategy(clazz, Collections.<String, String> emptyMap());
 	}
 
+	@Test
+	public void loadAndVerifySendingPipeline() throws ParserException, StorageException {
+		writer.println("sending-pipeline mode=batching maxBatches=5");
+		writer.close();
+
+		fileConfigurationReader.load();
+
+		Map<String, String> settings = new HashMap<String, String>();
+		settings.put("mode", "batching");
+		settings.put("maxBatches", "5");
+
+		verify(configurationStorage, times(1)).setSendingPipelineSettings(settings);
+	}
+
 	@Test
 	public void loadAndVerifySendingStrategy() throws ParserException, StorageException {
 		String clazz = "rocks.inspectit.agent.java.sending.impl.TimeStrategy";
@@ -446,6 +446,46 @@ public class PropertyAccessorTest extends AbstractLogSupport {
 
 	}
 
+	/**
+	 * Resolved accessors are cached per class, so same path must return correct values for
+	 * different instances and different classes.
+	 */
+	@Test
+	public void cachedAccessorsPerClass() throws PropertyAccessException {
+		PropertyPathStart start = new PropertyPathStart();
+		start.setName("this");
+		start.setContentType(ParameterContentType.FIELD);
+		start.setPathToContinue(new PropertyPath("name"));
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(propertyAccessor.getPropertyContent(start, new Person("Peter" + i), null, null), is("Peter" + i));
+			assertThat(propertyAccessor.getPropertyContent(start, new Pet("Rex" + i), null, null), is("Rex" + i));
+			assertThat(propertyAccessor.getPropertyContent(start, new Dog("Max" + i), null, null), is("Max" + i));
+		}
+	}
+
+	@SuppressWarnings("unused")
+	private static class Pet {
+
+		private String name;
+
+		public Pet(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public String toString() {
+			return "Pet " + name;
+		}
+	}
+
+	private static class Dog extends Pet {
+
+		public Dog(String name) {
+			super(name);
+		}
+	}
+
 	@SuppressWarnings("unused")
 	private static class Person {
 
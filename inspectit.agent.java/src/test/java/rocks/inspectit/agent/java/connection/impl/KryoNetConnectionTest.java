@@ -140,11 +140,42 @@ public class KryoNetConnectionTest {
 		@Test
 		public void sendData() throws Exception {
 			when(client.isConnected()).thenReturn(true);
+			when(agentStorageService.addDataObjects(Mockito.<List<? extends DefaultData>> any())).thenReturn(true);
 			List<DefaultData> measurements = new ArrayList<DefaultData>();
 			measurements.add(new TimerData());
 
-			connection.sendDataObjects(measurements);
+			boolean accepted = connection.sendDataObjects(measurements);
 
+			assertThat(accepted, is(true));
+			verify(agentStorageService, times(1)).addDataObjects(measurements);
+			verifyNoMoreInteractions(agentStorageService);
+		}
+
+		@Test
+		public void sendDataRejected() throws Exception {
+			connection.lossless = true;
+			when(client.isConnected()).thenReturn(true);
+			when(agentStorageService.addDataObjects(Mockito.<List<? extends DefaultData>> any())).thenReturn(false);
+			List<DefaultData> measurements = new ArrayList<DefaultData>();
+			measurements.add(new TimerData());
+
+			boolean accepted = connection.sendDataObjects(measurements);
+
+			assertThat(accepted, is(false));
+			verify(agentStorageService, times(1)).addDataObjects(measurements);
+			verifyNoMoreInteractions(agentStorageService);
+		}
+
+		@Test
+		public void sendDataNonBlocking() throws Exception {
+			when(client.isConnected()).thenReturn(true);
+			when(agentStorageService.addDataObjects(Mockito.<List<? extends DefaultData>> any())).thenReturn(false);
+			List<DefaultData> measurements = new ArrayList<DefaultData>();
+			measurements.add(new TimerData());
+
+			boolean accepted = connection.sendDataObjects(measurements);
+
+			assertThat(accepted, is(true));
 			verify(agentStorageService, times(1)).addDataObjects(measurements);
 			verifyNoMoreInteractions(agentStorageService);
 		}
@@ -2,20 +2,25 @@ package rocks.inspectit.agent.java.core.impl;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
-
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.slf4j.LoggerFactory;
 import org.testng.annotations.BeforeMethod;
@@ -23,6 +28,7 @@ import org.testng.annotations.Test;
 
 import rocks.inspectit.agent.java.AbstractLogSupport;
 import rocks.inspectit.agent.java.buffer.IBufferStrategy;
+import rocks.inspectit.agent.java.buffer.impl.RingBufferStrategy;
 import rocks.inspectit.agent.java.config.IConfigurationStorage;
 import rocks.inspectit.agent.java.connection.IConnection;
 import rocks.inspectit.agent.java.connection.ServerUnavailableException;
@@ -31,6 +37,7 @@ import rocks.inspectit.agent.java.core.IObjectStorage;
 import rocks.inspectit.agent.java.core.ListListener;
 import rocks.inspectit.agent.java.core.impl.CoreService;
 import rocks.inspectit.agent.java.sending.ISendingStrategy;
+import rocks.inspectit.agent.java.sensor.method.timer.AlignedTimerStorage;
 import rocks.inspectit.agent.java.sensor.method.timer.PlainTimerStorage;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.ExceptionEvent;
@@ -230,6 +237,147 @@ public class CoreServiceTest extends AbstractLogSupport {
 		verifyZeroInteractions(idManager);
 	}
 
+	@Test
+	public void batchingThreadSendsOnActivation() throws ServerUnavailableException {
+		Map<String, String> pipelineSettings = new HashMap<String, String>();
+		pipelineSettings.put("mode", "batching");
+		when(configurationStorage.getSendingPipelineSettings()).thenReturn(pipelineSettings);
+		when(connection.isConnected()).thenReturn(true);
+		when(connection.sendDataObjects(anyListOf(DefaultData.class))).thenReturn(true);
+		CoreService batchingCoreService = createCoreService(new RingBufferStrategy(16, Long.MAX_VALUE, 1));
+		TimerData timerData = new TimerData();
+
+		batchingCoreService.start();
+		try {
+			batchingCoreService.addMethodSensorData(1, 5, null, timerData);
+			batchingCoreService.sendData();
+
+			verify(connection, timeout(5000)).sendDataObjects(Collections.singletonList(timerData));
+		} finally {
+			batchingCoreService.stop();
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Test
+	public void batchesJoinedIntoOneSend() throws ServerUnavailableException {
+		RingBufferStrategy ringBufferStrategy = new RingBufferStrategy(16, Long.MAX_VALUE, 1);
+		for (int i = 0; i < 12; i++) {
+			ringBufferStrategy.addMeasurements(Collections.<DefaultData> singletonList(new TimerData()));
+		}
+		when(connection.isConnected()).thenReturn(true);
+		when(connection.sendDataObjects(anyListOf(DefaultData.class))).thenReturn(true);
+		CoreService batchingCoreService = createCoreService(ringBufferStrategy);
+
+		batchingCoreService.prepareAndSendBatches();
+
+		ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+		verify(connection, times(2)).sendDataObjects(captor.capture());
+		assertThat(captor.getAllValues().get(0), hasSize(10));
+		assertThat(captor.getAllValues().get(1), hasSize(2));
+		assertThat(ringBufferStrategy.hasNext(), is(false));
+
+		SendingPipelineMetrics metrics = batchingCoreService.getSendingPipelineMetrics();
+		assertThat(metrics.getPrepareCount(), is(0L));
+		assertThat(metrics.getSendCount(), is(2L));
+		assertThat(metrics.getSentBatches(), is(12L));
+		assertThat(metrics.getSentObjects(), is(12L));
+		assertThat(metrics.getRejectedSends(), is(0L));
+	}
+
+	@Test
+	public void preparedDataSentWithMetrics() throws ServerUnavailableException {
+		when(connection.isConnected()).thenReturn(true);
+		when(connection.sendDataObjects(anyListOf(DefaultData.class))).thenReturn(true);
+		CoreService batchingCoreService = createCoreService(new RingBufferStrategy(16, Long.MAX_VALUE, 1));
+		TimerData timerData = new TimerData();
+		PlainTimerStorage timerStorage = new PlainTimerStorage(null, 0, 7, 10, Collections.<ParameterContentData> emptyList(), false);
+
+		batchingCoreService.addMethodSensorData(1, 5, null, timerData);
+		batchingCoreService.addObjectStorage(7, 10, null, timerStorage);
+		batchingCoreService.prepareAndSendBatches();
+
+		verify(connection, times(1)).sendDataObjects(anyListOf(DefaultData.class));
+		assertThat(batchingCoreService.getMethodSensorData(1, 5, null), is((MethodSensorData) null));
+		assertThat(batchingCoreService.getObjectStorage(7, 10, null), is((IObjectStorage) null));
+
+		SendingPipelineMetrics metrics = batchingCoreService.getSendingPipelineMetrics();
+		assertThat(metrics.getPrepareCount(), is(1L));
+		assertThat(metrics.getSendCount(), is(1L));
+		assertThat(metrics.getSentBatches(), is(1L));
+		assertThat(metrics.getSentObjects(), is(2L));
+
+		// nothing new to prepare or send
+		batchingCoreService.prepareAndSendBatches();
+		assertThat(metrics.getPrepareCount(), is(1L));
+		assertThat(metrics.getSendCount(), is(1L));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void rejectedDataSentAgain() throws ServerUnavailableException {
+		when(connection.isConnected()).thenReturn(true);
+		when(connection.sendDataObjects(anyListOf(DefaultData.class))).thenReturn(false, true);
+		CoreService batchingCoreService = createCoreService(new RingBufferStrategy(16, Long.MAX_VALUE, 1));
+		TimerData timerData = new TimerData();
+
+		batchingCoreService.addMethodSensorData(1, 5, null, timerData);
+		batchingCoreService.prepareAndSendBatches();
+
+		SendingPipelineMetrics metrics = batchingCoreService.getSendingPipelineMetrics();
+		assertThat(metrics.getRejectedSends(), is(1L));
+		assertThat(metrics.getSendCount(), is(0L));
+
+		// nothing new prepared, the rejected data is sent again
+		batchingCoreService.prepareAndSendBatches();
+
+		ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+		verify(connection, times(2)).sendDataObjects(captor.capture());
+		for (List sent : captor.getAllValues()) {
+			assertThat(sent, hasSize(1));
+			assertThat(sent.get(0), is((Object) timerData));
+		}
+		assertThat(metrics.getRejectedSends(), is(1L));
+		assertThat(metrics.getSendCount(), is(1L));
+		assertThat(metrics.getSentBatches(), is(1L));
+		assertThat(metrics.getSentObjects(), is(1L));
+
+		// nothing left to send
+		batchingCoreService.prepareAndSendBatches();
+		verify(connection, times(2)).sendDataObjects(anyListOf(DefaultData.class));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void idleWindowedStorageEvicted() throws ServerUnavailableException, InterruptedException {
+		when(connection.isConnected()).thenReturn(true);
+		when(connection.sendDataObjects(anyListOf(DefaultData.class))).thenReturn(true);
+		CoreService batchingCoreService = createCoreService(new RingBufferStrategy(16, Long.MAX_VALUE, 1));
+		AlignedTimerStorage timerStorage = new AlignedTimerStorage(1L, 0, 7, 10, null, false);
+
+		timerStorage.addData(5d, 2d);
+		batchingCoreService.addObjectStorage(7, 10, null, timerStorage);
+
+		// window with data, then two empty windows until the storage is idle
+		for (int i = 0; i < 3; i++) {
+			assertThat(batchingCoreService.getObjectStorage(7, 10, null), is((IObjectStorage) timerStorage));
+			Thread.sleep(5L);
+			batchingCoreService.prepareAndSendBatches();
+		}
+		assertThat(batchingCoreService.getObjectStorage(7, 10, null), is((IObjectStorage) null));
+
+		// sensor still holding the evicted storage
+		timerStorage.addData(3d, 1d);
+		batchingCoreService.prepareAndSendBatches();
+		batchingCoreService.prepareAndSendBatches();
+
+		ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+		verify(connection, times(2)).sendDataObjects(captor.capture());
+		List<List> sent = captor.getAllValues();
+		assertThat(((TimerData) sent.get(0).get(0)).getDuration(), is(5d));
+		assertThat(((TimerData) sent.get(1).get(0)).getDuration(), is(3d));
+	}
+
 	@SuppressWarnings("unchecked")
 	@Test
 	public void verifyListListenerMethodData() {
@@ -309,6 +457,15 @@ public class CoreServiceTest extends AbstractLogSupport {
 		verifyZeroInteractions(idManager);
 	}
 
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private CoreService createCoreService(IBufferStrategy strategy) {
+		List<ISendingStrategy> sendingStrategies = new ArrayList<ISendingStrategy>();
+		sendingStrategies.add(sendingStrategy);
+		CoreService service = new CoreService(configurationStorage, connection, strategy, sendingStrategies, idManager);
+		service.log = LoggerFactory.getLogger(CoreService.class);
+		return service;
+	}
+
 	@Test
 	public void addAndRetrieveMethodSensorDataNoPrefix() {
 		long sensorTypeId = 2;
@@ -3,6 +3,7 @@ package rocks.inspectit.agent.java.core.impl;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.mockito.Matchers.anyInt;
@@ -16,9 +17,20 @@ import static org.mockito.Mockito.when;
 
 import java.net.ConnectException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.slf4j.LoggerFactory;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -279,7 +291,7 @@ public class IdManagerTest extends AbstractLogSupport {
 		when(configurationStorage.getRepositoryConfig()).thenReturn(repositoryConfig);
 		when(connection.isConnected()).thenReturn(true);
 
-		RegisteredSensorConfig registeredSensorConfig = mock(RegisteredSensorConfig.class);
+		RegisteredSensorConfig registeredSensorConfig = new RegisteredSensorConfig();
 
 		idManager.start();
 
@@ -295,6 +307,58 @@ public class IdManagerTest extends AbstractLogSupport {
 		idManager.stop();
 	}
 
+	@Test
+	public void registerMethodConcurrently() throws Exception {
+		RepositoryConfig repositoryConfig = mock(RepositoryConfig.class);
+		when(configurationStorage.getRepositoryConfig()).thenReturn(repositoryConfig);
+		when(connection.isConnected()).thenReturn(true);
+		// the server id is derived from the local id of the registered method
+		when(connection.registerMethod(anyInt(), Mockito.<RegisteredSensorConfig> anyObject())).thenAnswer(new Answer<Long>() {
+			@Override
+			public Long answer(InvocationOnMock invocation) throws Throwable {
+				RegisteredSensorConfig rsc = (RegisteredSensorConfig) invocation.getArguments()[1];
+				return rsc.getId() + 1000L;
+			}
+		});
+
+		idManager.start();
+
+		int threads = 8;
+		final int methodsPerThread = 250;
+		ExecutorService executorService = Executors.newFixedThreadPool(threads);
+		final CountDownLatch startLatch = new CountDownLatch(1);
+		List<Future<List<RegisteredSensorConfig>>> futures = new ArrayList<Future<List<RegisteredSensorConfig>>>();
+		for (int i = 0; i < threads; i++) {
+			futures.add(executorService.submit(new Callable<List<RegisteredSensorConfig>>() {
+				@Override
+				public List<RegisteredSensorConfig> call() throws Exception {
+					startLatch.await();
+					List<RegisteredSensorConfig> registered = new ArrayList<RegisteredSensorConfig>();
+					for (int j = 0; j < methodsPerThread; j++) {
+						RegisteredSensorConfig rsc = new RegisteredSensorConfig();
+						long id = idManager.registerMethod(rsc);
+						assertThat(rsc.getId(), is(id));
+						registered.add(rsc);
+					}
+					return registered;
+				}
+			}));
+		}
+		startLatch.countDown();
+
+		Set<Long> ids = new HashSet<Long>();
+		for (Future<List<RegisteredSensorConfig>> future : futures) {
+			for (RegisteredSensorConfig rsc : future.get(30, TimeUnit.SECONDS)) {
+				assertThat(ids.add(rsc.getId()), is(true));
+				assertThat(idManager.getRegisteredMethodId(rsc.getId()), is(rsc.getId() + 1000L));
+			}
+		}
+		executorService.shutdown();
+		idManager.stop();
+
+		assertThat(ids, hasSize(threads * methodsPerThread));
+	}
+
 	@Test
 	public void testMapping() throws Exception {
 		RepositoryConfig repositoryConfig = mock(RepositoryConfig.class);
@@ -66,7 +66,7 @@ public class HookDispatcherTest extends AbstractLogSupport {
 
 		hookDispatcher.dispatchSecondMethodAfterBody(methodId, object, parameters, returnValue);
 		verify(registeredSensorConfig, times(2)).startsInvocationSequence();
-		verify(registeredSensorConfig, times(2)).getMethodHooks();
+		verify(registeredSensorConfig, times(1)).getMethodHooks();
 
 		verifyZeroInteractions(object, coreService, returnValue);
 		verifyNoMoreInteractions(registeredSensorConfig);
@@ -100,13 +100,77 @@ public class HookDispatcherTest extends AbstractLogSupport {
 
 		hookDispatcher.dispatchSecondMethodAfterBody(methodId, object, parameters, returnValue);
 		verify(registeredSensorConfig, times(2)).startsInvocationSequence();
-		verify(registeredSensorConfig, times(2)).getMethodHooks();
+		verify(registeredSensorConfig, times(1)).getMethodHooks();
 		verify(methodHook, times(1)).secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, returnValue, registeredSensorConfig);
 
 		verifyZeroInteractions(object, coreService, returnValue);
 		verifyNoMoreInteractions(registeredSensorConfig, methodHook);
 	}
 
+	@Test
+	public void dispatchMergedMethodAfterBody() {
+		RegisteredSensorConfig registeredSensorConfig = mock(RegisteredSensorConfig.class);
+		Map<Long, IHook> methodHooks = new LinkedHashMap<Long, IHook>();
+		IMethodHook methodHook = mock(IMethodHook.class);
+		long sensorTypeId = 7L;
+		methodHooks.put(sensorTypeId, methodHook);
+		when(registeredSensorConfig.getReverseMethodHooks()).thenReturn(methodHooks);
+		when(registeredSensorConfig.getMethodHooks()).thenReturn(methodHooks);
+
+		int methodId = 3;
+
+		hookDispatcher.addMethodMapping(methodId, registeredSensorConfig);
+
+		hookDispatcher.dispatchMethodBeforeBody(methodId);
+		verify(methodHook, times(1)).beforeBody(methodId, sensorTypeId, null, null, registeredSensorConfig);
+
+		hookDispatcher.dispatchMethodAfterBody(methodId);
+		InOrder inOrder = inOrder(methodHook);
+		inOrder.verify(methodHook, times(1)).firstAfterBody(methodId, sensorTypeId, null, null, null, registeredSensorConfig);
+		inOrder.verify(methodHook, times(1)).secondAfterBody(coreService, methodId, sensorTypeId, null, null, null, registeredSensorConfig);
+		verify(registeredSensorConfig, times(2)).startsInvocationSequence();
+
+		verifyZeroInteractions(coreService);
+		verifyNoMoreInteractions(methodHook);
+	}
+
+	@Test
+	public void dispatchMethodHookWithHighId() {
+		RegisteredSensorConfig registeredSensorConfig = mock(RegisteredSensorConfig.class);
+		RegisteredSensorConfig registeredSensorConfigTwo = mock(RegisteredSensorConfig.class);
+		Map<Long, IHook> methodHooks = new LinkedHashMap<Long, IHook>();
+		IMethodHook methodHook = mock(IMethodHook.class);
+		long sensorTypeId = 7L;
+		methodHooks.put(sensorTypeId, methodHook);
+		when(registeredSensorConfig.getReverseMethodHooks()).thenReturn(methodHooks);
+		when(registeredSensorConfig.getMethodHooks()).thenReturn(methodHooks);
+
+		long methodId = 3L;
+		long methodIdTwo = 100000L;
+		Object object = mock(Object.class);
+		Object[] parameters = new Object[0];
+		Object returnValue = mock(Object.class);
+
+		// mapping with the high id grows the dispatching table, first mapping must survive
+		hookDispatcher.addMethodMapping(methodId, registeredSensorConfig);
+		hookDispatcher.addMethodMapping(methodIdTwo, registeredSensorConfigTwo);
+
+		hookDispatcher.dispatchMethodBeforeBody(methodId, object, parameters);
+		hookDispatcher.dispatchFirstMethodAfterBody(methodId, object, parameters, returnValue);
+		hookDispatcher.dispatchSecondMethodAfterBody(methodId, object, parameters, returnValue);
+		verify(methodHook, times(1)).beforeBody(methodId, sensorTypeId, object, parameters, registeredSensorConfig);
+		verify(methodHook, times(1)).firstAfterBody(methodId, sensorTypeId, object, parameters, returnValue, registeredSensorConfig);
+		verify(methodHook, times(1)).secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, returnValue, registeredSensorConfig);
+
+		hookDispatcher.dispatchMethodBeforeBody(methodIdTwo, object, parameters);
+		hookDispatcher.dispatchFirstMethodAfterBody(methodIdTwo, object, parameters, returnValue);
+		hookDispatcher.dispatchSecondMethodAfterBody(methodIdTwo, object, parameters, returnValue);
+		verify(registeredSensorConfigTwo, times(2)).startsInvocationSequence();
+
+		verifyZeroInteractions(object, coreService, returnValue);
+		verifyNoMoreInteractions(methodHook);
+	}
+
 	@Test
 	public void dispatchManyMethodHooksWithoutInvocationTrace() {
 		RegisteredSensorConfig registeredSensorConfig = mock(RegisteredSensorConfig.class);
@@ -151,7 +215,7 @@ public class HookDispatcherTest extends AbstractLogSupport {
 
 		hookDispatcher.dispatchSecondMethodAfterBody(methodId, object, parameters, returnValue);
 		verify(registeredSensorConfig, times(2)).startsInvocationSequence();
-		verify(registeredSensorConfig, times(2)).getMethodHooks();
+		verify(registeredSensorConfig, times(1)).getMethodHooks();
 		inOrder = inOrder(methodHookOne, methodHookTwo, methodHookThree);
 		inOrder.verify(methodHookOne, times(1)).secondAfterBody(coreService, methodId, sensorTypeIdOne, object, parameters, returnValue, registeredSensorConfig);
 		inOrder.verify(methodHookTwo, times(1)).secondAfterBody(coreService, methodId, sensorTypeIdTwo, object, parameters, returnValue, registeredSensorConfig);
@@ -234,7 +298,7 @@ public class HookDispatcherTest extends AbstractLogSupport {
 		// dispatch the second method - second after body
 		hookDispatcher.dispatchSecondMethodAfterBody(methodIdTwo, object, parameters, returnValue);
 		verify(registeredSensorConfigTwo, times(2)).startsInvocationSequence();
-		verify(registeredSensorConfigTwo, times(2)).getMethodHooks();
+		verify(registeredSensorConfigTwo, times(1)).getMethodHooks();
 		verify(methodHook, times(1)).secondAfterBody(invocHook, methodIdTwo, methodSensorTypeId, object, parameters, returnValue, registeredSensorConfigTwo);
 		verify(invocHook, times(1)).secondAfterBody(eq(coreService), eq(methodIdTwo), anyLong(), eq(object), eq(parameters), eq(returnValue), eq(registeredSensorConfigTwo));
 
@@ -250,7 +314,7 @@ public class HookDispatcherTest extends AbstractLogSupport {
 		// dispatch the first method - second after body
 		hookDispatcher.dispatchSecondMethodAfterBody(methodId, object, parameters, returnValue);
 		verify(registeredSensorConfig, times(2)).startsInvocationSequence();
-		verify(registeredSensorConfig, times(2)).getMethodHooks();
+		verify(registeredSensorConfig, times(1)).getMethodHooks();
 		verify(methodHook, times(1)).secondAfterBody(invocHook, methodId, methodSensorTypeId, object, parameters, returnValue, registeredSensorConfig);
 		verify(invocHook, times(1)).secondAfterBody(coreService, methodId, invocSensorTypeId, object, parameters, returnValue, registeredSensorConfig);
 
@@ -440,7 +504,7 @@ public class HookDispatcherTest extends AbstractLogSupport {
 		// dispatch the method - second after body
 		hookDispatcher.dispatchSecondMethodAfterBody(methodId, object, parameters, returnValue);
 		verify(registeredSensorConfig, times(2)).startsInvocationSequence();
-		verify(registeredSensorConfig, times(2)).getMethodHooks();
+		verify(registeredSensorConfig, times(1)).getMethodHooks();
 		verify(invocHook, times(1)).secondAfterBody(coreService, methodId, invocSensorTypeId, object, parameters, returnValue, registeredSensorConfig);
 
 		// END METHOD DISPATCHER
@@ -518,7 +582,7 @@ public class HookDispatcherTest extends AbstractLogSupport {
 
 		hookDispatcher.dispatchSecondMethodAfterBody(methodId, object, parameters, returnValue);
 		verify(registeredSensorConfig, times(2)).startsInvocationSequence();
-		verify(registeredSensorConfig, times(2)).getMethodHooks();
+		verify(registeredSensorConfig, times(1)).getMethodHooks();
 		verify(methodHook, times(1)).secondAfterBody(coreService, methodId, sensorTypeId, object, parameters, returnValue, registeredSensorConfig);
 
 		// third method of exception sensor
@@ -616,7 +680,7 @@ public class HookDispatcherTest extends AbstractLogSupport {
 
 		hookDispatcher.dispatchSecondMethodAfterBody(methodId, object, parameters, returnValue);
 		verify(registeredSensorConfig, times(2)).startsInvocationSequence();
-		verify(registeredSensorConfig, times(2)).getMethodHooks();
+		verify(registeredSensorConfig, times(1)).getMethodHooks();
 		inOrder = inOrder(methodHookOne, methodHookTwo, methodHookThree);
 		inOrder.verify(methodHookOne, times(1)).secondAfterBody(coreService, methodId, sensorTypeIdOne, object, parameters, returnValue, registeredSensorConfig);
 		inOrder.verify(methodHookTwo, times(1)).secondAfterBody(coreService, methodId, sensorTypeIdTwo, object, parameters, returnValue, registeredSensorConfig);
@@ -745,7 +809,7 @@ public class HookDispatcherTest extends AbstractLogSupport {
 		// dispatch the second method - second after body
 		hookDispatcher.dispatchSecondMethodAfterBody(methodIdTwo, object, parameters, returnValue);
 		verify(registeredSensorConfigTwo, times(2)).startsInvocationSequence();
-		verify(registeredSensorConfigTwo, times(2)).getMethodHooks();
+		verify(registeredSensorConfigTwo, times(1)).getMethodHooks();
 		verify(methodHook, times(1)).secondAfterBody(invocHook, methodIdTwo, methodSensorTypeId, object, parameters, returnValue, registeredSensorConfigTwo);
 		verify(invocHook, times(1)).secondAfterBody(eq(coreService), eq(methodIdTwo), anyLong(), eq(object), eq(parameters), eq(returnValue), eq(registeredSensorConfigTwo));
 		// END SECOND METHOD DISPATCHER
@@ -765,7 +829,7 @@ public class HookDispatcherTest extends AbstractLogSupport {
 		// dispatch the first method - second after body
 		hookDispatcher.dispatchSecondMethodAfterBody(methodId, object, parameters, returnValue);
 		verify(registeredSensorConfig, times(2)).startsInvocationSequence();
-		verify(registeredSensorConfig, times(2)).getMethodHooks();
+		verify(registeredSensorConfig, times(1)).getMethodHooks();
 		verify(methodHook, times(1)).secondAfterBody(invocHook, methodId, methodSensorTypeId, object, parameters, returnValue, registeredSensorConfig);
 		verify(invocHook, times(1)).secondAfterBody(coreService, methodId, invocSensorTypeId, object, parameters, returnValue, registeredSensorConfig);
 
@@ -4,21 +4,25 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.mockito.ArgumentMatcher;
@@ -48,8 +52,11 @@ import rocks.inspectit.agent.java.config.impl.RegisteredSensorConfig;
 import rocks.inspectit.agent.java.core.IIdManager;
 import rocks.inspectit.agent.java.hooking.IHookDispatcher;
 import rocks.inspectit.agent.java.hooking.IHookDispatcherMapper;
+import rocks.inspectit.agent.java.hooking.IMethodHook;
+import rocks.inspectit.agent.java.hooking.IMethodHookRequirements;
 import rocks.inspectit.agent.java.hooking.impl.HookException;
 import rocks.inspectit.agent.java.hooking.impl.HookInstrumenter;
+import rocks.inspectit.agent.java.sensor.method.IMethodSensor;
 
 @SuppressWarnings("PMD")
 public class HookInstrumenterTest extends AbstractLogSupport {
@@ -122,6 +129,18 @@ public class HookInstrumenterTest extends AbstractLogSupport {
 		return clazz.newInstance();
 	}
 
+	private RegisteredSensorConfig createLeanSensorConfig(boolean parametersNeeded) {
+		IMethodHook hook = mock(IMethodHook.class, withSettings().extraInterfaces(IMethodHookRequirements.class));
+		when(((IMethodHookRequirements) hook).isParametersNeeded()).thenReturn(parametersNeeded);
+		IMethodSensor methodSensor = mock(IMethodSensor.class);
+		when(methodSensor.getHook()).thenReturn(hook);
+		MethodSensorTypeConfig sensorTypeConfig = mock(MethodSensorTypeConfig.class);
+		when(sensorTypeConfig.getSensorType()).thenReturn(methodSensor);
+		RegisteredSensorConfig registeredSensorConfig = mock(RegisteredSensorConfig.class);
+		when(registeredSensorConfig.getSensorTypeConfigs()).thenReturn(Collections.singletonList(sensorTypeConfig));
+		return registeredSensorConfig;
+	}
+
 	private Object callMethod(Object object, String methodName, Object[] parameters) throws Exception {
 		if (null == parameters) {
 			parameters = new Object[0];
@@ -554,6 +573,69 @@ public class HookInstrumenterTest extends AbstractLogSupport {
 		verify(hookDispatcher).dispatchSecondMethodAfterBody(methodId, testClass, parameters, "stringOneParameter");
 	}
 
+	@Test
+	public void leanMethodHookNothingNeeded() throws Exception {
+		String methodName = "stringOneParameter";
+		Object[] parameters = { "java.lang.String" };
+		RegisteredSensorConfig registeredSensorConfig = createLeanSensorConfig(false);
+		Loader loader = this.createLoader();
+		CtMethod ctMethod = this.getCtMethod(loader, TestClass.class.getName(), methodName);
+		long methodId = 9L;
+
+		when(idManager.registerMethod(registeredSensorConfig)).thenReturn(methodId);
+
+		hookInstrumenter.addMethodHook(ctMethod, registeredSensorConfig);
+
+		Object testClass = this.createInstance(loader, ctMethod);
+		this.callMethod(testClass, methodName, parameters);
+
+		verify(hookDispatcher).dispatchMethodBeforeBody(methodId);
+		verify(hookDispatcher).dispatchMethodAfterBody(methodId);
+		verify(hookDispatcher, never()).dispatchFirstMethodAfterBody(anyLong(), anyObject(), (Object[]) anyObject(), anyObject());
+		verify(hookDispatcher, never()).dispatchSecondMethodAfterBody(anyLong(), anyObject(), (Object[]) anyObject(), anyObject());
+	}
+
+	@Test
+	public void leanMethodHookParametersNeeded() throws Exception {
+		String methodName = "stringOneParameter";
+		Object[] parameters = { "java.lang.String" };
+		RegisteredSensorConfig registeredSensorConfig = createLeanSensorConfig(true);
+		Loader loader = this.createLoader();
+		CtMethod ctMethod = this.getCtMethod(loader, TestClass.class.getName(), methodName);
+		long methodId = 9L;
+
+		when(idManager.registerMethod(registeredSensorConfig)).thenReturn(methodId);
+
+		hookInstrumenter.addMethodHook(ctMethod, registeredSensorConfig);
+
+		Object testClass = this.createInstance(loader, ctMethod);
+		this.callMethod(testClass, methodName, parameters);
+
+		verify(hookDispatcher).dispatchMethodBeforeBody(methodId, null, parameters);
+		verify(hookDispatcher).dispatchMethodAfterBody(methodId, null, parameters, null);
+	}
+
+	@Test
+	public void leanMethodHookPropertyAccess() throws Exception {
+		String methodName = "stringOneParameter";
+		Object[] parameters = { "java.lang.String" };
+		RegisteredSensorConfig registeredSensorConfig = createLeanSensorConfig(false);
+		when(registeredSensorConfig.isPropertyAccess()).thenReturn(true);
+		Loader loader = this.createLoader();
+		CtMethod ctMethod = this.getCtMethod(loader, TestClass.class.getName(), methodName);
+		long methodId = 9L;
+
+		when(idManager.registerMethod(registeredSensorConfig)).thenReturn(methodId);
+
+		hookInstrumenter.addMethodHook(ctMethod, registeredSensorConfig);
+
+		Object testClass = this.createInstance(loader, ctMethod);
+		this.callMethod(testClass, methodName, parameters);
+
+		verify(hookDispatcher).dispatchMethodBeforeBody(methodId, testClass, parameters);
+		verify(hookDispatcher).dispatchMethodAfterBody(methodId, testClass, parameters, "stringOneParameter");
+	}
+
 	@Test
 	public void voidTwoParameters() throws Exception {
 		String methodName = "voidTwoParameters";
@@ -1313,6 +1395,39 @@ public class HookInstrumenterTest extends AbstractLogSupport {
 		verifyNoMoreInteractions(hookDispatcher);
 	}
 
+	@Test
+	public void registerInstrumentedMethodHook() {
+		RegisteredSensorConfig registeredSensorConfig = mock(RegisteredSensorConfig.class);
+		MethodSensorTypeConfig methodSensorTypeConfig = mock(MethodSensorTypeConfig.class);
+		when(methodSensorTypeConfig.getId()).thenReturn(7L);
+		when(registeredSensorConfig.getSensorTypeConfigs()).thenReturn(Collections.singletonList(methodSensorTypeConfig));
+		long methodId = 3L;
+		when(idManager.registerMethod(registeredSensorConfig)).thenReturn(methodId);
+
+		long registeredId = hookInstrumenter.registerInstrumentedHook(registeredSensorConfig);
+
+		assertThat(registeredId, is(methodId));
+		verify(idManager).registerMethod(registeredSensorConfig);
+		verify(idManager).addSensorTypeToMethod(7L, methodId);
+		verify(hookDispatcher).addMethodMapping(methodId, registeredSensorConfig);
+		verifyNoMoreInteractions(idManager, hookDispatcher);
+	}
+
+	@Test
+	public void registerInstrumentedConstructorHook() {
+		RegisteredSensorConfig registeredSensorConfig = mock(RegisteredSensorConfig.class);
+		when(registeredSensorConfig.isConstructor()).thenReturn(true);
+		long constructorId = 11L;
+		when(idManager.registerMethod(registeredSensorConfig)).thenReturn(constructorId);
+
+		long registeredId = hookInstrumenter.registerInstrumentedHook(registeredSensorConfig);
+
+		assertThat(registeredId, is(constructorId));
+		verify(idManager).registerMethod(registeredSensorConfig);
+		verify(hookDispatcher).addConstructorMapping(constructorId, registeredSensorConfig);
+		verifyNoMoreInteractions(idManager, hookDispatcher);
+	}
+
 	/**
 	 * Inner class used to verify the contents of MyTestException objects.
 	 */
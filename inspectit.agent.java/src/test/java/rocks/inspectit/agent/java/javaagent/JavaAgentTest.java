@@ -0,0 +1,143 @@
+package rocks.inspectit.agent.java.javaagent;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.instrument.ClassDefinition;
+import java.lang.instrument.Instrumentation;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.agent.java.Agent;
+import rocks.inspectit.agent.java.IAgent;
+import rocks.inspectit.agent.java.analyzer.classes.EmptyClass;
+import rocks.inspectit.agent.java.analyzer.classes.MyTestException;
+
+@SuppressWarnings("PMD")
+public class JavaAgentTest {
+
+	private Instrumentation instrumentation;
+
+	private IAgent agent;
+
+	private IAgent originalAgent;
+
+	private List<Class<?>> loadedClasses;
+
+	private URLClassLoader firstClassLoader;
+
+	private URLClassLoader secondClassLoader;
+
+	@BeforeMethod
+	public void init() throws Exception {
+		instrumentation = mock(Instrumentation.class);
+		agent = mock(IAgent.class);
+		originalAgent = Agent.agent;
+		Agent.agent = agent;
+
+		// two class loaders on the same level, both having the bootstrap class loader as parent
+		URL testClasses = EmptyClass.class.getProtectionDomain().getCodeSource().getLocation();
+		firstClassLoader = new URLClassLoader(new URL[] { testClasses }, null);
+		secondClassLoader = new URLClassLoader(new URL[] { testClasses }, null);
+
+		loadedClasses = new ArrayList<Class<?>>();
+		loadedClasses.add(String.class);
+		loadedClasses.add(Class.forName(EmptyClass.class.getName(), false, firstClassLoader));
+		loadedClasses.add(Integer.class);
+		loadedClasses.add(Class.forName(MyTestException.class.getName(), false, firstClassLoader));
+		loadedClasses.add(Class.forName(EmptyClass.class.getName(), false, secondClassLoader));
+		loadedClasses.add(JavaAgentTest.class);
+		loadedClasses.add(Long.class);
+		loadedClasses.add(Class.forName(MyTestException.class.getName(), false, secondClassLoader));
+	}
+
+	@AfterMethod
+	public void cleanUp() throws Exception {
+		Agent.agent = originalAgent;
+		firstClassLoader.close();
+		secondClassLoader.close();
+	}
+
+	@Test
+	public void analyzeClassesInParallel() throws Exception {
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		final List<Class<?>> analyzed = Collections.synchronizedList(new ArrayList<Class<?>>());
+		when(agent.inspectByteCode((byte[]) any(), anyString(), (ClassLoader) any())).thenAnswer(new Answer<byte[]>() {
+			@Override
+			public byte[] answer(InvocationOnMock invocation) throws Throwable {
+				String className = (String) invocation.getArguments()[1];
+				ClassLoader classLoader = (ClassLoader) invocation.getArguments()[2];
+				int current = running.incrementAndGet();
+				synchronized (maxRunning) {
+					maxRunning.set(Math.max(maxRunning.get(), current));
+				}
+				try {
+					Thread.sleep(50);
+					analyzed.add(Class.forName(className, false, classLoader));
+				} finally {
+					running.decrementAndGet();
+				}
+				// only the bootstrap classes are instrumented
+				return (null == classLoader) ? new byte[] { 1 } : null;
+			}
+		});
+
+		int instrumentedCount = JavaAgent.analyzeClassesInParallel(instrumentation, loadedClasses.subList(0, 4), 4);
+
+		assertThat(instrumentedCount, is(2));
+		verify(instrumentation, times(2)).redefineClasses((ClassDefinition[]) any());
+		assertThat(analyzed, containsInAnyOrder(loadedClasses.subList(0, 4).toArray()));
+		// classes of the bootstrap and of the same class loader are analyzed concurrently
+		assertThat(maxRunning.get(), is(greaterThan(1)));
+	}
+
+	@Test
+	public void analyzeClassesOfOneClassLoaderInParallel() throws Exception {
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		when(agent.inspectByteCode((byte[]) any(), anyString(), (ClassLoader) any())).thenAnswer(new Answer<byte[]>() {
+			@Override
+			public byte[] answer(InvocationOnMock invocation) throws Throwable {
+				int current = running.incrementAndGet();
+				synchronized (maxRunning) {
+					maxRunning.set(Math.max(maxRunning.get(), current));
+				}
+				try {
+					Thread.sleep(50);
+				} finally {
+					running.decrementAndGet();
+				}
+				return null;
+			}
+		});
+		List<Class<?>> sameClassLoader = new ArrayList<Class<?>>();
+		sameClassLoader.add(loadedClasses.get(1));
+		sameClassLoader.add(loadedClasses.get(3));
+
+		int instrumentedCount = JavaAgent.analyzeClassesInParallel(instrumentation, sameClassLoader, 2);
+
+		assertThat(instrumentedCount, is(0));
+		verify(agent, times(2)).inspectByteCode((byte[]) any(), anyString(), (ClassLoader) any());
+		assertThat(maxRunning.get(), is(2));
+	}
+
+}
@@ -77,8 +77,8 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(idManager.getPlatformId()).thenReturn(platformId);
@@ -103,9 +103,9 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		timerData.setMethodIdent(registeredMethodId);
 		timerData.setSensorTypeIdent(registeredSensorTypeId);
 		timerData.setCount(1L);
-		timerData.setDuration(secondTimerValue - firstTimerValue);
-		timerData.calculateMax(secondTimerValue - firstTimerValue);
-		timerData.calculateMin(secondTimerValue - firstTimerValue);
+		timerData.setDuration((secondTimerValue - firstTimerValue) / 1000000.0d);
+		timerData.calculateMax((secondTimerValue - firstTimerValue) / 1000000.0d);
+		timerData.calculateMin((secondTimerValue - firstTimerValue) / 1000000.0d);
 		verify(coreService).addMethodSensorData(eq(sensorTypeId), eq(methodId), (String) eq(null), argThat(new TimerDataVerifier(timerData)));
 
 		verifyNoMoreInteractions(timer, idManager, coreService, registeredSensorConfig);
@@ -125,10 +125,10 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
-		Double thirdTimerValue = 1578.92d;
-		Double fourthTimerValue = 2319.712d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
+		Long thirdTimerValue = 1578920000L;
+		Long fourthTimerValue = 2319712000L;
 
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue).thenReturn(thirdTimerValue).thenReturn(fourthTimerValue);
 		when(idManager.getPlatformId()).thenReturn(platformId);
@@ -146,9 +146,9 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		timerDataTwo.setMethodIdent(registeredMethodIdTwo);
 		timerDataTwo.setSensorTypeIdent(registeredSensorTypeId);
 		timerDataTwo.setCount(1L);
-		timerDataTwo.setDuration(thirdTimerValue - secondTimerValue);
-		timerDataTwo.calculateMax(thirdTimerValue - secondTimerValue);
-		timerDataTwo.calculateMin(thirdTimerValue - secondTimerValue);
+		timerDataTwo.setDuration((thirdTimerValue - secondTimerValue) / 1000000.0d);
+		timerDataTwo.calculateMax((thirdTimerValue - secondTimerValue) / 1000000.0d);
+		timerDataTwo.calculateMin((thirdTimerValue - secondTimerValue) / 1000000.0d);
 		verify(coreService).addMethodSensorData(eq(sensorTypeId), eq(methodIdTwo), (String) eq(null), argThat(new TimerDataVerifier(timerDataTwo)));
 
 		averageTimerHook.firstAfterBody(methodIdOne, sensorTypeId, object, parameters, result, registeredSensorConfig);
@@ -158,9 +158,9 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		timerDataOne.setMethodIdent(registeredMethodIdOne);
 		timerDataOne.setSensorTypeIdent(registeredSensorTypeId);
 		timerDataOne.setCount(1L);
-		timerDataOne.setDuration(fourthTimerValue - firstTimerValue);
-		timerDataOne.calculateMax(fourthTimerValue - firstTimerValue);
-		timerDataOne.calculateMin(fourthTimerValue - firstTimerValue);
+		timerDataOne.setDuration((fourthTimerValue - firstTimerValue) / 1000000.0d);
+		timerDataOne.calculateMax((fourthTimerValue - firstTimerValue) / 1000000.0d);
+		timerDataOne.calculateMin((fourthTimerValue - firstTimerValue) / 1000000.0d);
 		verify(coreService).addMethodSensorData(eq(sensorTypeId), eq(methodIdOne), (String) eq(null), argThat(new TimerDataVerifier(timerDataOne)));
 	}
 
@@ -176,10 +176,10 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.0d;
-		Double secondTimerValue = 1323.0d;
-		Double thirdTimerValue = 1894.0d;
-		Double fourthTimerValue = 2812.0d;
+		Long firstTimerValue = 1000000000L;
+		Long secondTimerValue = 1323000000L;
+		Long thirdTimerValue = 1894000000L;
+		Long fourthTimerValue = 2812000000L;
 
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue).thenReturn(thirdTimerValue).thenReturn(fourthTimerValue);
 		when(idManager.getPlatformId()).thenReturn(platformId);
@@ -205,9 +205,9 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		timerData.setMethodIdent(registeredMethodId);
 		timerData.setSensorTypeIdent(registeredSensorTypeId);
 		timerData.setCount(1L);
-		timerData.setDuration(secondTimerValue - firstTimerValue);
-		timerData.calculateMax(secondTimerValue - firstTimerValue);
-		timerData.calculateMin(secondTimerValue - firstTimerValue);
+		timerData.setDuration((secondTimerValue - firstTimerValue) / 1000000.0d);
+		timerData.calculateMax((secondTimerValue - firstTimerValue) / 1000000.0d);
+		timerData.calculateMin((secondTimerValue - firstTimerValue) / 1000000.0d);
 		verify(coreService).addMethodSensorData(eq(sensorTypeId), eq(methodId), (String) eq(null), argThat(new TimerDataVerifier(timerData)));
 
 		// second one
@@ -226,9 +226,9 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		assertThat(timerData.getMethodIdent(), is(equalTo(registeredMethodId)));
 		assertThat(timerData.getSensorTypeIdent(), is(equalTo(registeredSensorTypeId)));
 		assertThat(timerData.getCount(), is(equalTo(2L)));
-		assertThat(timerData.getDuration(), is(equalTo(fourthTimerValue - thirdTimerValue + secondTimerValue - firstTimerValue)));
-		assertThat(timerData.getMax(), is(equalTo(fourthTimerValue - thirdTimerValue)));
-		assertThat(timerData.getMin(), is(equalTo(secondTimerValue - firstTimerValue)));
+		assertThat(timerData.getDuration(), is(equalTo((secondTimerValue - firstTimerValue) / 1000000.0d + (fourthTimerValue - thirdTimerValue) / 1000000.0d)));
+		assertThat(timerData.getMax(), is(equalTo((fourthTimerValue - thirdTimerValue) / 1000000.0d)));
+		assertThat(timerData.getMin(), is(equalTo((secondTimerValue - firstTimerValue) / 1000000.0d)));
 
 		verifyNoMoreInteractions(timer, idManager, coreService, registeredSensorConfig);
 		verifyZeroInteractions(propertyAccessor, object, result);
@@ -246,10 +246,10 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.0d;
-		Double secondTimerValue = 1323.0d;
-		Double thirdTimerValue = 1894.0d;
-		Double fourthTimerValue = 1934.0d;
+		Long firstTimerValue = 1000000000L;
+		Long secondTimerValue = 1323000000L;
+		Long thirdTimerValue = 1894000000L;
+		Long fourthTimerValue = 1934000000L;
 
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue).thenReturn(thirdTimerValue).thenReturn(fourthTimerValue);
 		when(idManager.getPlatformId()).thenReturn(platformId);
@@ -275,9 +275,9 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		timerData.setMethodIdent(registeredMethodId);
 		timerData.setSensorTypeIdent(registeredSensorTypeId);
 		timerData.setCount(1L);
-		timerData.setDuration(secondTimerValue - firstTimerValue);
-		timerData.calculateMax(secondTimerValue - firstTimerValue);
-		timerData.calculateMin(secondTimerValue - firstTimerValue);
+		timerData.setDuration((secondTimerValue - firstTimerValue) / 1000000.0d);
+		timerData.calculateMax((secondTimerValue - firstTimerValue) / 1000000.0d);
+		timerData.calculateMin((secondTimerValue - firstTimerValue) / 1000000.0d);
 		verify(coreService).addMethodSensorData(eq(sensorTypeId), eq(methodId), (String) eq(null), argThat(new TimerDataVerifier(timerData)));
 
 		// second one
@@ -296,9 +296,9 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		assertThat(timerData.getMethodIdent(), is(equalTo(registeredMethodId)));
 		assertThat(timerData.getSensorTypeIdent(), is(equalTo(registeredSensorTypeId)));
 		assertThat(timerData.getCount(), is(equalTo(2L)));
-		assertThat(timerData.getDuration(), is(equalTo(fourthTimerValue - thirdTimerValue + secondTimerValue - firstTimerValue)));
-		assertThat(timerData.getMax(), is(equalTo(secondTimerValue - firstTimerValue)));
-		assertThat(timerData.getMin(), is(equalTo(fourthTimerValue - thirdTimerValue)));
+		assertThat(timerData.getDuration(), is(equalTo((secondTimerValue - firstTimerValue) / 1000000.0d + (fourthTimerValue - thirdTimerValue) / 1000000.0d)));
+		assertThat(timerData.getMax(), is(equalTo((secondTimerValue - firstTimerValue) / 1000000.0d)));
+		assertThat(timerData.getMin(), is(equalTo((fourthTimerValue - thirdTimerValue) / 1000000.0d)));
 
 		verifyNoMoreInteractions(timer, idManager, coreService, registeredSensorConfig);
 		verifyZeroInteractions(propertyAccessor, object, result);
@@ -354,8 +354,8 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		doThrow(new IdNotAvailableException("")).when(idManager).getPlatformId();
@@ -377,8 +377,8 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(idManager.getPlatformId()).thenReturn(platformId);
@@ -402,8 +402,8 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(idManager.getPlatformId()).thenReturn(platformId);
@@ -428,8 +428,8 @@ public class AverageTimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[2];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(idManager.getPlatformId()).thenReturn(platformId);
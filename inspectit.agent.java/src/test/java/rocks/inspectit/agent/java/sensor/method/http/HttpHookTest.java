@@ -89,8 +89,8 @@ public class HttpHookTest extends AbstractLogSupport {
 
 	@Test
 	public void oneRecordThatIsHttpWithoutReadingData() throws IdNotAvailableException {
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		Long firstCpuTimerValue = 5000L;
 		Long secondCpuTimerValue = 6872L;
@@ -156,8 +156,8 @@ public class HttpHookTest extends AbstractLogSupport {
 		Collections.addAll(sessionAttributesList, sa1, sa2);
 		final Enumeration<String> sessionAttributes = sessionAttributesList.elements();
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		Long firstCpuTimerValue = 5000L;
 		Long secondCpuTimerValue = 6872L;
@@ -217,8 +217,8 @@ public class HttpHookTest extends AbstractLogSupport {
 
 	@Test
 	public void oneRecordThatIsNotHttp() throws IdNotAvailableException {
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		Long firstCpuTimerValue = 5000L;
 		Long secondCpuTimerValue = 6872L;
@@ -271,15 +271,15 @@ public class HttpHookTest extends AbstractLogSupport {
 		long registeredMethodId21 = 13L;
 		long registeredMethodId22 = 14L;
 
-		Double timerS11 = 1000d;
-		Double timerS12 = 1500d;
-		Double timerE12 = 2000d;
-		Double timerE11 = 2500d;
+		Long timerS11 = 1000000000L;
+		Long timerS12 = 1500000000L;
+		Long timerE12 = 2000000000L;
+		Long timerE11 = 2500000000L;
 
-		Double timerS21 = 2000d;
-		Double timerS22 = 2500d;
-		Double timerE22 = 3000d;
-		Double timerE21 = 3500d;
+		Long timerS21 = 2000000000L;
+		Long timerS22 = 2500000000L;
+		Long timerE22 = 3000000000L;
+		Long timerE21 = 3500000000L;
 
 		Long cpuS11 = 11000L;
 		Long cpuS12 = 21500L;
@@ -366,14 +366,14 @@ public class HttpHookTest extends AbstractLogSupport {
 		long registeredMethodId3 = 13L;
 		long registeredMethodId4 = 14L;
 
-		Double timerS1 = 1000d;
-		Double timerS2 = 1500d;
-		Double timerS3 = 2000d;
-		Double timerS4 = 2500d;
-		Double timerE4 = 3500d;
-		Double timerE3 = 4000d;
-		Double timerE2 = 4500d;
-		Double timerE1 = 5000d;
+		Long timerS1 = 1000000000L;
+		Long timerS2 = 1500000000L;
+		Long timerS3 = 2000000000L;
+		Long timerS4 = 2500000000L;
+		Long timerE4 = 3500000000L;
+		Long timerE3 = 4000000000L;
+		Long timerE2 = 4500000000L;
+		Long timerE1 = 5000000000L;
 
 		Long cpuS1 = 11000L;
 		Long cpuS2 = 21500L;
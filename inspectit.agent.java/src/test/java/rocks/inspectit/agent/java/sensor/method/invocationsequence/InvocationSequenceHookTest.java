@@ -99,8 +99,8 @@ public class InvocationSequenceHookTest extends AbstractLogSupport {
 		when(idManager.getRegisteredMethodId(methodId)).thenReturn(registeredMethodId);
 		when(idManager.getRegisteredSensorTypeId(sensorTypeId)).thenReturn(registeredSensorTypeId);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1323.0d;
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1323000000L;
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue);
 
 		invocationSequenceHook.beforeBody(methodId, sensorTypeId, object, parameters, rsc);
@@ -121,7 +121,7 @@ public class InvocationSequenceHookTest extends AbstractLogSupport {
 		assertThat(invocation.getPlatformIdent(), is(platformId));
 		assertThat(invocation.getMethodIdent(), is(registeredMethodId));
 		assertThat(invocation.getSensorTypeIdent(), is(registeredSensorTypeId));
-		assertThat(invocation.getDuration(), is(secondTimerValue - firstTimerValue));
+		assertThat(invocation.getDuration(), is((secondTimerValue - firstTimerValue) / 1000000.0d));
 		assertThat(invocation.getNestedSequences(), is(empty()));
 		assertThat(invocation.getChildCount(), is(0L));
 		assertThat(invocation.getTimerData(), is(timerData));
@@ -151,10 +151,10 @@ public class InvocationSequenceHookTest extends AbstractLogSupport {
 		when(idManager.getRegisteredMethodId(methodId1)).thenReturn(registeredMethodId1);
 		when(idManager.getRegisteredMethodId(methodId2)).thenReturn(registeredMethodId2);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1323.0d;
-		double thirdTimerValue = 1881.0d;
-		double fourthTimerValue = 2562.0d;
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1323000000L;
+		long thirdTimerValue = 1881000000L;
+		long fourthTimerValue = 2562000000L;
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue, fourthTimerValue);
 
 		invocationSequenceHook.beforeBody(methodId1, sensorTypeId, object, parameters, rsc);
@@ -172,14 +172,14 @@ public class InvocationSequenceHookTest extends AbstractLogSupport {
 		assertThat(invocation.getPlatformIdent(), is(platformId));
 		assertThat(invocation.getMethodIdent(), is(registeredMethodId1));
 		assertThat(invocation.getSensorTypeIdent(), is(registeredSensorTypeId));
-		assertThat(invocation.getDuration(), is(fourthTimerValue - firstTimerValue));
+		assertThat(invocation.getDuration(), is((fourthTimerValue - firstTimerValue) / 1000000.0d));
 		assertThat(invocation.getNestedSequences(), hasSize(1));
 		assertThat(invocation.getChildCount(), is(1L));
 		InvocationSequenceData child = invocation.getNestedSequences().iterator().next();
 		assertThat(child.getPlatformIdent(), is(platformId));
 		assertThat(child.getMethodIdent(), is(registeredMethodId2));
 		assertThat(child.getSensorTypeIdent(), is(registeredSensorTypeId));
-		assertThat(child.getDuration(), is(thirdTimerValue - secondTimerValue));
+		assertThat(child.getDuration(), is((thirdTimerValue - secondTimerValue) / 1000000.0d));
 		assertThat(child.getNestedSequences(), is(empty()));
 		assertThat(child.getParentSequence(), is(invocation));
 		assertThat(child.getChildCount(), is(0L));
@@ -206,10 +206,10 @@ public class InvocationSequenceHookTest extends AbstractLogSupport {
 		when(idManager.getRegisteredSensorTypeId(sensorTypeId)).thenReturn(registeredSensorTypeId);
 		when(idManager.getRegisteredMethodId(methodId1)).thenReturn(registeredMethodId1);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1323.0d;
-		double thirdTimerValue = 1881.0d;
-		double fourthTimerValue = 2562.0d;
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1323000000L;
+		long thirdTimerValue = 1881000000L;
+		long fourthTimerValue = 2562000000L;
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue, fourthTimerValue);
 
 		invocationSequenceHook.beforeBody(methodId1, sensorTypeId, object, parameters, rsc);
@@ -227,14 +227,14 @@ public class InvocationSequenceHookTest extends AbstractLogSupport {
 		assertThat(invocation.getPlatformIdent(), is(platformId));
 		assertThat(invocation.getMethodIdent(), is(registeredMethodId1));
 		assertThat(invocation.getSensorTypeIdent(), is(registeredSensorTypeId));
-		assertThat(invocation.getDuration(), is(fourthTimerValue - firstTimerValue));
+		assertThat(invocation.getDuration(), is((fourthTimerValue - firstTimerValue) / 1000000.0d));
 		assertThat(invocation.getNestedSequences(), hasSize(1));
 		assertThat(invocation.getChildCount(), is(1L));
 		InvocationSequenceData child = invocation.getNestedSequences().iterator().next();
 		assertThat(child.getPlatformIdent(), is(platformId));
 		assertThat(child.getMethodIdent(), is(registeredMethodId1));
 		assertThat(child.getSensorTypeIdent(), is(registeredSensorTypeId));
-		assertThat(child.getDuration(), is(thirdTimerValue - secondTimerValue));
+		assertThat(child.getDuration(), is((thirdTimerValue - secondTimerValue) / 1000000.0d));
 		assertThat(child.getNestedSequences(), is(empty()));
 		assertThat(child.getParentSequence(), is(invocation));
 		assertThat(child.getChildCount(), is(0L));
@@ -261,8 +261,8 @@ public class InvocationSequenceHookTest extends AbstractLogSupport {
 		when(idManager.getRegisteredMethodId(methodId)).thenReturn(registeredMethodId);
 		when(idManager.getRegisteredSensorTypeId(sensorTypeId)).thenReturn(registeredSensorTypeId);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1200.0d;
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1200000000L;
 		String minDuration = "201";
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue);
 		Map<String, Object> map = new HashMap<String, Object>();
@@ -276,7 +276,7 @@ public class InvocationSequenceHookTest extends AbstractLogSupport {
 		verify(timer, times(2)).getCurrentTime();
 		verifyZeroInteractions(coreService);
 
-		secondTimerValue = 1202.0d;
+		secondTimerValue = 1202000000L;
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue);
 
 		invocationSequenceHook.beforeBody(methodId, sensorTypeId, object, parameters, rsc);
@@ -353,8 +353,8 @@ public class InvocationSequenceHookTest extends AbstractLogSupport {
 		when(idManager.getRegisteredMethodId(methodId1)).thenReturn(registeredMethodId1);
 		when(idManager.getRegisteredMethodId(methodId2)).thenThrow(new IdNotAvailableException("test"));
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1323.0d;
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1323000000L;
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue);
 
 		invocationSequenceHook.beforeBody(methodId1, sensorTypeId, object, parameters, rsc);
@@ -372,7 +372,7 @@ public class InvocationSequenceHookTest extends AbstractLogSupport {
 		assertThat(invocation.getPlatformIdent(), is(platformId));
 		assertThat(invocation.getMethodIdent(), is(registeredMethodId1));
 		assertThat(invocation.getSensorTypeIdent(), is(registeredSensorTypeId));
-		assertThat(invocation.getDuration(), is(secondTimerValue - firstTimerValue));
+		assertThat(invocation.getDuration(), is((secondTimerValue - firstTimerValue) / 1000000.0d));
 		assertThat(invocation.getNestedSequences(), is(empty()));
 		assertThat(invocation.getChildCount(), is(0L));
 	}
@@ -399,8 +399,8 @@ public class InvocationSequenceHookTest extends AbstractLogSupport {
 		when(idManager.getRegisteredMethodId(methodId1)).thenReturn(registeredMethodId1);
 		when(idManager.getRegisteredMethodId(methodId2)).thenThrow(new IdNotAvailableException("test")).thenReturn(registeredMethodId2);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1323.0d;
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1323000000L;
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue);
 
 		invocationSequenceHook.beforeBody(methodId1, sensorTypeId, object, parameters, rsc);
@@ -418,7 +418,7 @@ public class InvocationSequenceHookTest extends AbstractLogSupport {
 		assertThat(invocation.getPlatformIdent(), is(platformId));
 		assertThat(invocation.getMethodIdent(), is(registeredMethodId1));
 		assertThat(invocation.getSensorTypeIdent(), is(registeredSensorTypeId));
-		assertThat(invocation.getDuration(), is(secondTimerValue - firstTimerValue));
+		assertThat(invocation.getDuration(), is((secondTimerValue - firstTimerValue) / 1000000.0d));
 		assertThat(invocation.getNestedSequences(), is(empty()));
 		assertThat(invocation.getChildCount(), is(0L));
 	}
@@ -447,11 +447,11 @@ public class InvocationSequenceHookTest extends AbstractLogSupport {
 		when(idManager.getRegisteredMethodId(methodId2)).thenReturn(registeredMethodId2);
 		when(idManager.getRegisteredMethodId(methodId3)).thenReturn(registeredMethodId3);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1323.0d;
-		double thirdTimerValue = 1881.0d;
-		double fourthTimerValue = 2562.0d;
-		double fifthTimerValue = 3221.0d;
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1323000000L;
+		long thirdTimerValue = 1881000000L;
+		long fourthTimerValue = 2562000000L;
+		long fifthTimerValue = 3221000000L;
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue, fourthTimerValue, fifthTimerValue);
 
 		RegisteredSensorConfig removingRsc = mock(RegisteredSensorConfig.class);
@@ -477,14 +477,14 @@ public class InvocationSequenceHookTest extends AbstractLogSupport {
 		assertThat(invocation.getPlatformIdent(), is(platformId));
 		assertThat(invocation.getMethodIdent(), is(registeredMethodId1));
 		assertThat(invocation.getSensorTypeIdent(), is(registeredSensorTypeId));
-		assertThat(invocation.getDuration(), is(fifthTimerValue - firstTimerValue));
+		assertThat(invocation.getDuration(), is((fifthTimerValue - firstTimerValue) / 1000000.0d));
 		assertThat(invocation.getNestedSequences(), hasSize(1));
 		assertThat(invocation.getChildCount(), is(1L));
 		InvocationSequenceData child = invocation.getNestedSequences().iterator().next();
 		assertThat(child.getPlatformIdent(), is(platformId));
 		assertThat(child.getMethodIdent(), is(registeredMethodId3));
 		assertThat(child.getSensorTypeIdent(), is(registeredSensorTypeId));
-		assertThat(child.getDuration(), is(fourthTimerValue - thirdTimerValue));
+		assertThat(child.getDuration(), is((fourthTimerValue - thirdTimerValue) / 1000000.0d));
 		assertThat(child.getNestedSequences(), is(empty()));
 		assertThat(child.getParentSequence(), is(invocation));
 		assertThat(child.getChildCount(), is(0L));
@@ -511,9 +511,9 @@ public class InvocationSequenceHookTest extends AbstractLogSupport {
 		when(idManager.getRegisteredMethodId(methodId1)).thenReturn(registeredMethodId1);
 		when(idManager.getRegisteredMethodId(methodId2)).thenReturn(registeredMethodId2);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1323.0d;
-		double thirdTimerValue = 1881.0d;
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1323000000L;
+		long thirdTimerValue = 1881000000L;
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue);
 
 		RegisteredSensorConfig removingRsc = mock(RegisteredSensorConfig.class);
@@ -536,7 +536,7 @@ public class InvocationSequenceHookTest extends AbstractLogSupport {
 		assertThat(invocation.getPlatformIdent(), is(platformId));
 		assertThat(invocation.getMethodIdent(), is(registeredMethodId1));
 		assertThat(invocation.getSensorTypeIdent(), is(registeredSensorTypeId));
-		assertThat(invocation.getDuration(), is(thirdTimerValue - firstTimerValue));
+		assertThat(invocation.getDuration(), is((thirdTimerValue - firstTimerValue) / 1000000.0d));
 		assertThat(invocation.getNestedSequences(), hasSize(0));
 		assertThat(invocation.getChildCount(), is(0L));
 	}
@@ -562,10 +562,10 @@ public class InvocationSequenceHookTest extends AbstractLogSupport {
 		when(idManager.getRegisteredMethodId(methodId1)).thenReturn(registeredMethodId1);
 		when(idManager.getRegisteredMethodId(methodId2)).thenReturn(registeredMethodId2);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1323.0d;
-		double thirdTimerValue = 1881.0d;
-		double fourthTimerValue = 2562.0d;
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1323000000L;
+		long thirdTimerValue = 1881000000L;
+		long fourthTimerValue = 2562000000L;
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue, fourthTimerValue);
 
 		RegisteredSensorConfig removingRsc = mock(RegisteredSensorConfig.class);
@@ -592,14 +592,14 @@ public class InvocationSequenceHookTest extends AbstractLogSupport {
 		assertThat(invocation.getPlatformIdent(), is(platformId));
 		assertThat(invocation.getMethodIdent(), is(registeredMethodId1));
 		assertThat(invocation.getSensorTypeIdent(), is(registeredSensorTypeId));
-		assertThat(invocation.getDuration(), is(fourthTimerValue - firstTimerValue));
+		assertThat(invocation.getDuration(), is((fourthTimerValue - firstTimerValue) / 1000000.0d));
 		assertThat(invocation.getNestedSequences(), hasSize(1));
 		assertThat(invocation.getChildCount(), is(1L));
 		InvocationSequenceData child = invocation.getNestedSequences().iterator().next();
 		assertThat(child.getPlatformIdent(), is(platformId));
 		assertThat(child.getMethodIdent(), is(registeredMethodId2));
 		assertThat(child.getSensorTypeIdent(), is(registeredSensorTypeId));
-		assertThat(child.getDuration(), is(thirdTimerValue - secondTimerValue));
+		assertThat(child.getDuration(), is((thirdTimerValue - secondTimerValue) / 1000000.0d));
 		assertThat(child.getNestedSequences(), is(empty()));
 		assertThat(child.getParentSequence(), is(invocation));
 		assertThat(child.getChildCount(), is(0L));
@@ -627,9 +627,9 @@ public class InvocationSequenceHookTest extends AbstractLogSupport {
 		when(idManager.getRegisteredMethodId(methodId1)).thenReturn(registeredMethodId1);
 		when(idManager.getRegisteredMethodId(methodId2)).thenReturn(registeredMethodId2);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1323.0d;
-		double thirdTimerValue = 1881.0d;
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1323000000L;
+		long thirdTimerValue = 1881000000L;
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue);
 
 		RegisteredSensorConfig removingRsc = mock(RegisteredSensorConfig.class);
@@ -652,7 +652,7 @@ public class InvocationSequenceHookTest extends AbstractLogSupport {
 		assertThat(invocation.getPlatformIdent(), is(platformId));
 		assertThat(invocation.getMethodIdent(), is(registeredMethodId1));
 		assertThat(invocation.getSensorTypeIdent(), is(registeredSensorTypeId));
-		assertThat(invocation.getDuration(), is(thirdTimerValue - firstTimerValue));
+		assertThat(invocation.getDuration(), is((thirdTimerValue - firstTimerValue) / 1000000.0d));
 		assertThat(invocation.getNestedSequences(), hasSize(0));
 		assertThat(invocation.getChildCount(), is(0L));
 	}
@@ -678,10 +678,10 @@ public class InvocationSequenceHookTest extends AbstractLogSupport {
 		when(idManager.getRegisteredMethodId(methodId1)).thenReturn(registeredMethodId1);
 		when(idManager.getRegisteredMethodId(methodId2)).thenReturn(registeredMethodId2);
 
-		double firstTimerValue = 1000.0d;
-		double secondTimerValue = 1323.0d;
-		double thirdTimerValue = 1881.0d;
-		double fourthTimerValue = 2562.0d;
+		long firstTimerValue = 1000000000L;
+		long secondTimerValue = 1323000000L;
+		long thirdTimerValue = 1881000000L;
+		long fourthTimerValue = 2562000000L;
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue, secondTimerValue, thirdTimerValue, fourthTimerValue);
 
 		RegisteredSensorConfig removingRsc = mock(RegisteredSensorConfig.class);
@@ -709,14 +709,14 @@ public class InvocationSequenceHookTest extends AbstractLogSupport {
 		assertThat(invocation.getPlatformIdent(), is(platformId));
 		assertThat(invocation.getMethodIdent(), is(registeredMethodId1));
 		assertThat(invocation.getSensorTypeIdent(), is(registeredSensorTypeId));
-		assertThat(invocation.getDuration(), is(fourthTimerValue - firstTimerValue));
+		assertThat(invocation.getDuration(), is((fourthTimerValue - firstTimerValue) / 1000000.0d));
 		assertThat(invocation.getNestedSequences(), hasSize(1));
 		assertThat(invocation.getChildCount(), is(1L));
 		InvocationSequenceData child = invocation.getNestedSequences().iterator().next();
 		assertThat(child.getPlatformIdent(), is(platformId));
 		assertThat(child.getMethodIdent(), is(registeredMethodId2));
 		assertThat(child.getSensorTypeIdent(), is(registeredSensorTypeId));
-		assertThat(child.getDuration(), is(thirdTimerValue - secondTimerValue));
+		assertThat(child.getDuration(), is((thirdTimerValue - secondTimerValue) / 1000000.0d));
 		assertThat(child.getNestedSequences(), is(empty()));
 		assertThat(child.getParentSequence(), is(invocation));
 		assertThat(child.getChildCount(), is(0L));
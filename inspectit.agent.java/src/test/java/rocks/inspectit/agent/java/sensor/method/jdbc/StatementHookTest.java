@@ -88,8 +88,8 @@ public class StatementHookTest extends AbstractLogSupport {
 		parameters[0] = "SELECT * FROM TEST";
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(idManager.getPlatformId()).thenReturn(platformId);
@@ -129,8 +129,8 @@ public class StatementHookTest extends AbstractLogSupport {
 		parameters[0] = "SELECT * FROM TEST";
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(idManager.getPlatformId()).thenReturn(platformId);
@@ -174,8 +174,8 @@ public class StatementHookTest extends AbstractLogSupport {
 		parameters[0] = "SELECT * FROM TEST";
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		doThrow(new IdNotAvailableException("")).when(idManager).getPlatformId();
@@ -198,8 +198,8 @@ public class StatementHookTest extends AbstractLogSupport {
 		parameters[0] = "SELECT * FROM TEST";
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(idManager.getPlatformId()).thenReturn(platformId);
@@ -224,8 +224,8 @@ public class StatementHookTest extends AbstractLogSupport {
 		parameters[0] = "SELECT * FROM TEST";
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(idManager.getPlatformId()).thenReturn(platformId);
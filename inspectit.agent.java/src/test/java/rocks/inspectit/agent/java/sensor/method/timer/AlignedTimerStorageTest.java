@@ -0,0 +1,201 @@
+package rocks.inspectit.agent.java.sensor.method.timer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.communication.data.TimerData;
+
+@SuppressWarnings("PMD")
+public class AlignedTimerStorageTest {
+
+	private AtomicLong clock;
+
+	private AlignedTimerStorage storage;
+
+	@BeforeMethod
+	public void initTestClass() {
+		clock = new AtomicLong(10500L);
+		final AtomicLong time = clock;
+		storage = new AlignedTimerStorage(1000L, 1L, 2L, 3L, null, true) {
+			@Override
+			long currentTimeMillis() {
+				return time.get();
+			}
+		};
+	}
+
+	@Test
+	public void openWindowNotSent() {
+		storage.addData(5d, 2d);
+
+		assertThat(storage.finalizeDataObject(), is(nullValue()));
+		assertThat(storage.isIdle(), is(false));
+	}
+
+	@Test
+	public void closedWindowSentOnce() {
+		storage.addData(5d, 2d);
+		storage.addData(3d, 1d);
+		clock.set(11000L);
+
+		TimerData timerData = (TimerData) storage.finalizeDataObject();
+
+		assertThat(timerData.getTimeStamp().getTime(), is(10000L));
+		assertThat(timerData.getCount(), is(2L));
+		assertThat(timerData.getDuration(), is(8d));
+		assertThat(timerData.getMin(), is(3d));
+		assertThat(timerData.getMax(), is(5d));
+		assertThat(timerData.getPlatformIdent(), is(1L));
+		assertThat(timerData.getSensorTypeIdent(), is(2L));
+		assertThat(timerData.getMethodIdent(), is(3L));
+		assertThat(timerData.isCharting(), is(true));
+		assertThat(storage.finalizeDataObject(), is(nullValue()));
+	}
+
+	@Test
+	public void windowsAligned() {
+		storage.addData(1d, 1d);
+		clock.set(11999L);
+		storage.addData(2d, 1d);
+		clock.set(14200L);
+		storage.addData(3d, 1d);
+		clock.set(15000L);
+
+		TimerData first = (TimerData) storage.finalizeDataObject();
+		TimerData second = (TimerData) storage.finalizeDataObject();
+		TimerData third = (TimerData) storage.finalizeDataObject();
+
+		assertThat(first.getTimeStamp().getTime(), is(10000L));
+		assertThat(first.getDuration(), is(1d));
+		assertThat(second.getTimeStamp().getTime(), is(11000L));
+		assertThat(second.getDuration(), is(2d));
+		assertThat(third.getTimeStamp().getTime(), is(14000L));
+		assertThat(third.getDuration(), is(3d));
+		assertThat(storage.finalizeDataObject(), is(nullValue()));
+	}
+
+	@Test
+	public void openWindowFinalizedOnDemand() {
+		storage.addData(5d, 2d);
+
+		TimerData timerData = (TimerData) storage.finalizeOpenWindow();
+
+		assertThat(timerData.getTimeStamp().getTime(), is(10000L));
+		assertThat(timerData.getCount(), is(1L));
+		assertThat(storage.finalizeOpenWindow(), is(nullValue()));
+		assertThat(storage.finalizeDataObject(), is(nullValue()));
+	}
+
+	@Test
+	public void idleAfterEmptyWindows() {
+		storage.addData(5d, 2d);
+		clock.set(11500L);
+
+		assertThat(storage.isIdle(), is(false));
+		assertThat(storage.finalizeDataObject(), is(notNullValue()));
+		assertThat(storage.isIdle(), is(false));
+
+		clock.set(12500L);
+		assertThat(storage.finalizeDataObject(), is(nullValue()));
+		assertThat(storage.isIdle(), is(false));
+
+		clock.set(13500L);
+		assertThat(storage.finalizeDataObject(), is(nullValue()));
+		assertThat(storage.isIdle(), is(true));
+
+		storage.addData(5d, 2d);
+		assertThat(storage.isIdle(), is(false));
+	}
+
+	@Test
+	public void notIdleWhenDataAddedInBetween() {
+		storage.addData(5d, 2d);
+		clock.set(11500L);
+		storage.finalizeDataObject();
+		clock.set(12500L);
+		storage.finalizeDataObject();
+		storage.addData(1d, 1d);
+		clock.set(13500L);
+
+		assertThat(storage.finalizeDataObject(), is(notNullValue()));
+		assertThat(storage.isIdle(), is(false));
+	}
+
+	@Test
+	public void noDataLostWhenWindowsRollConcurrently() throws Exception {
+		final int threads = 4;
+		final int addsPerThread = 20000;
+		final AtomicBoolean writing = new AtomicBoolean(true);
+		final AtomicLong sentCount = new AtomicLong();
+		final CountDownLatch startLatch = new CountDownLatch(1);
+
+		// rolls the windows and sends the closed ones while the data is added
+		Thread sender = new Thread() {
+			@Override
+			public void run() {
+				while (writing.get()) {
+					clock.addAndGet(1000L);
+					TimerData timerData = (TimerData) storage.finalizeDataObject();
+					while (null != timerData) {
+						sentCount.addAndGet(timerData.getCount());
+						timerData = (TimerData) storage.finalizeDataObject();
+					}
+				}
+			}
+		};
+		List<Thread> writers = new ArrayList<Thread>();
+		for (int i = 0; i < threads; i++) {
+			Thread writer = new Thread() {
+				@Override
+				public void run() {
+					try {
+						startLatch.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int j = 0; j < addsPerThread; j++) {
+						storage.addData(1d, 1d);
+					}
+				}
+			};
+			writer.start();
+			writers.add(writer);
+		}
+		sender.start();
+		startLatch.countDown();
+		for (Thread writer : writers) {
+			writer.join();
+		}
+		writing.set(false);
+		sender.join();
+
+		TimerData timerData = (TimerData) storage.finalizeDataObject();
+		while (null != timerData) {
+			sentCount.addAndGet(timerData.getCount());
+			timerData = (TimerData) storage.finalizeDataObject();
+		}
+		timerData = (TimerData) storage.finalizeOpenWindow();
+		if (null != timerData) {
+			sentCount.addAndGet(timerData.getCount());
+		}
+
+		assertThat(sentCount.get(), is((long) threads * addsPerThread));
+	}
+
+	@Test(expectedExceptions = { IllegalArgumentException.class })
+	public void nonPositivePeriod() {
+		new AlignedTimerStorage(0L, 1L, 2L, 3L, null, false);
+	}
+
+}
@@ -0,0 +1,89 @@
+package rocks.inspectit.agent.java.sensor.method.timer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.communication.data.TimerData;
+
+@SuppressWarnings("PMD")
+public class StripedTimerStorageTest {
+
+	@Test
+	public void noData() {
+		StripedTimerStorage storage = new StripedTimerStorage(null, 1L, 2L, 3L, null, false);
+
+		TimerData timerData = (TimerData) storage.finalizeDataObject();
+
+		assertThat(timerData.getCount(), is(0L));
+		assertThat(timerData.getDuration(), is(0d));
+		assertThat(timerData.getMin(), is(-1d));
+		assertThat(timerData.getMax(), is(-1d));
+		assertThat(timerData.getCpuDuration(), is(0d));
+		assertThat(timerData.getPlatformIdent(), is(1L));
+		assertThat(timerData.getSensorTypeIdent(), is(2L));
+		assertThat(timerData.getMethodIdent(), is(3L));
+	}
+
+	@Test
+	public void twoRecords() {
+		StripedTimerStorage storage = new StripedTimerStorage(null, 1L, 2L, 3L, null, true);
+
+		storage.addData(5d, 2d);
+		storage.addData(3d, -1d);
+		TimerData timerData = (TimerData) storage.finalizeDataObject();
+
+		assertThat(timerData.getCount(), is(2L));
+		assertThat(timerData.getDuration(), is(8d));
+		assertThat(timerData.getMin(), is(3d));
+		assertThat(timerData.getMax(), is(5d));
+		assertThat(timerData.getCpuDuration(), is(2d));
+		assertThat(timerData.getCpuMin(), is(2d));
+		assertThat(timerData.getCpuMax(), is(2d));
+		assertThat(timerData.isCharting(), is(true));
+	}
+
+	@Test
+	public void concurrentRecords() throws InterruptedException {
+		final StripedTimerStorage storage = new StripedTimerStorage(null, 1L, 2L, 3L, null, false);
+		final int threads = 8;
+		final int records = 10000;
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch end = new CountDownLatch(threads);
+
+		for (int i = 0; i < threads; i++) {
+			new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+						for (int j = 1; j <= records; j++) {
+							storage.addData(j, 1d);
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						end.countDown();
+					}
+				}
+			}.start();
+		}
+		start.countDown();
+		end.await();
+
+		TimerData timerData = (TimerData) storage.finalizeDataObject();
+
+		assertThat(timerData.getCount(), is((long) threads * records));
+		assertThat(timerData.getDuration(), is(closeTo(threads * (records * (records + 1d) / 2), 0.0001d)));
+		assertThat(timerData.getMin(), is(1d));
+		assertThat(timerData.getMax(), is((double) records));
+		assertThat(timerData.getCpuDuration(), is((double) threads * records));
+		assertThat(timerData.getCpuMin(), is(1d));
+		assertThat(timerData.getCpuMax(), is(1d));
+	}
+
+}
@@ -92,10 +92,10 @@ public class TimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.0d;
-		Double secondTimerValue = 1323.0d;
-		Double thirdTimerValue = 1894.0d;
-		Double fourthTimerValue = 2812.0d;
+		Long firstTimerValue = 1000000000L;
+		Long secondTimerValue = 1323000000L;
+		Long thirdTimerValue = 1894000000L;
+		Long fourthTimerValue = 2812000000L;
 
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue).thenReturn(thirdTimerValue).thenReturn(fourthTimerValue);
 		when(idManager.getPlatformId()).thenReturn(platformId);
@@ -118,7 +118,7 @@ public class TimerHookTest extends AbstractLogSupport {
 		verify(registeredSensorConfig).isPropertyAccess();
 
 		PlainTimerStorage plainTimerStorage = new PlainTimerStorage(null, platformId, registeredSensorTypeId, registeredMethodId, null, true);
-		plainTimerStorage.addData(secondTimerValue - firstTimerValue, 0.0d);
+		plainTimerStorage.addData((secondTimerValue - firstTimerValue) / 1000000.0d, 0.0d);
 		verify(coreService).addObjectStorage(eq(sensorTypeId), eq(methodId), (String) eq(null), argThat(new PlainTimerStorageVerifier(plainTimerStorage)));
 
 		// second one
@@ -138,8 +138,8 @@ public class TimerHookTest extends AbstractLogSupport {
 		assertThat(timerRawVO.getPlatformIdent(), is(equalTo(platformId)));
 		assertThat(timerRawVO.getMethodIdent(), is(equalTo(registeredMethodId)));
 		assertThat(timerRawVO.getSensorTypeIdent(), is(equalTo(registeredSensorTypeId)));
-		assertThat(((TimerRawContainer) timerRawVO.getData().get(0)).getData()[0], is(equalTo(secondTimerValue - firstTimerValue)));
-		assertThat(((TimerRawContainer) timerRawVO.getData().get(0)).getData()[1], is(equalTo(fourthTimerValue - thirdTimerValue)));
+		assertThat(((TimerRawContainer) timerRawVO.getData().get(0)).getData()[0], is(equalTo((secondTimerValue - firstTimerValue) / 1000000.0d)));
+		assertThat(((TimerRawContainer) timerRawVO.getData().get(0)).getData()[1], is(equalTo((fourthTimerValue - thirdTimerValue) / 1000000.0d)));
 
 		verifyNoMoreInteractions(timer, idManager, coreService, registeredSensorConfig);
 		verifyZeroInteractions(propertyAccessor, object, result);
@@ -188,8 +188,8 @@ public class TimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		doThrow(new IdNotAvailableException("")).when(idManager).getPlatformId();
@@ -211,8 +211,8 @@ public class TimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(idManager.getPlatformId()).thenReturn(platformId);
@@ -236,8 +236,8 @@ public class TimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(idManager.getPlatformId()).thenReturn(platformId);
@@ -262,8 +262,8 @@ public class TimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[2];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(idManager.getPlatformId()).thenReturn(platformId);
@@ -295,8 +295,8 @@ public class TimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(idManager.getPlatformId()).thenReturn(platformId);
@@ -320,7 +320,7 @@ public class TimerHookTest extends AbstractLogSupport {
 		verify(registeredSensorConfig).getSettings();
 
 		AggregateTimerStorage aggregateTimerStorage = new AggregateTimerStorage(null, platformId, registeredSensorTypeId, registeredMethodId, null, true);
-		aggregateTimerStorage.addData(secondTimerValue - firstTimerValue, -1.0d);
+		aggregateTimerStorage.addData((secondTimerValue - firstTimerValue) / 1000000.0d, -1.0d);
 		verify(coreService).addObjectStorage(eq(sensorTypeId), eq(methodId), (String) eq(null), argThat(new AggregateTimerStorageVerifier(aggregateTimerStorage)));
 
 		verifyNoMoreInteractions(timer, idManager, coreService, registeredSensorConfig);
@@ -383,8 +383,8 @@ public class TimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		when(timer.getCurrentTime()).thenReturn(firstTimerValue).thenReturn(secondTimerValue);
 		when(idManager.getPlatformId()).thenReturn(platformId);
@@ -408,7 +408,7 @@ public class TimerHookTest extends AbstractLogSupport {
 		verify(registeredSensorConfig).getSettings();
 
 		OptimizedTimerStorage optimizedTimerStorage = new OptimizedTimerStorage(null, platformId, registeredSensorTypeId, registeredMethodId, null, true);
-		optimizedTimerStorage.addData(secondTimerValue - firstTimerValue, -1.0d);
+		optimizedTimerStorage.addData((secondTimerValue - firstTimerValue) / 1000000.0d, -1.0d);
 		verify(coreService).addObjectStorage(eq(sensorTypeId), eq(methodId), (String) eq(null), argThat(new OptimizedTimerStorageVerifier(optimizedTimerStorage)));
 
 		verifyNoMoreInteractions(timer, idManager, coreService, registeredSensorConfig);
@@ -469,8 +469,8 @@ public class TimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
 
 		Long firstCpuTimerValue = 5000L;
 		Long secondCpuTimerValue = 6872L;
@@ -498,7 +498,7 @@ public class TimerHookTest extends AbstractLogSupport {
 		verify(registeredSensorConfig).getSettings();
 
 		PlainTimerStorage plainTimerStorage = new PlainTimerStorage(null, platformId, registeredSensorTypeId, registeredMethodId, null, true);
-		plainTimerStorage.addData(secondTimerValue - firstTimerValue, (secondCpuTimerValue - firstCpuTimerValue) / 1000000.0d);
+		plainTimerStorage.addData((secondTimerValue - firstTimerValue) / 1000000.0d, (secondCpuTimerValue - firstCpuTimerValue) / 1000000.0d);
 		verify(coreService).addObjectStorage(eq(sensorTypeId), eq(methodId), (String) eq(null), argThat(new PlainTimerStorageVerifier(plainTimerStorage)));
 
 		verifyNoMoreInteractions(timer, idManager, coreService, registeredSensorConfig);
@@ -518,10 +518,10 @@ public class TimerHookTest extends AbstractLogSupport {
 		Object[] parameters = new Object[0];
 		Object result = mock(Object.class);
 
-		Double firstTimerValue = 1000.453d;
-		Double secondTimerValue = 1323.675d;
-		Double thirdTimerValue = 1578.92d;
-		Double fourthTimerValue = 2319.712d;
+		Long firstTimerValue = 1000453000L;
+		Long secondTimerValue = 1323675000L;
+		Long thirdTimerValue = 1578920000L;
+		Long fourthTimerValue = 2319712000L;
 
 		Long firstCpuTimerValue = 5000L;
 		Long secondCpuTimerValue = 6872L;
@@ -541,13 +541,13 @@ public class TimerHookTest extends AbstractLogSupport {
 		timerHook.firstAfterBody(methodIdTwo, sensorTypeId, object, parameters, result, registeredSensorConfig);
 		timerHook.secondAfterBody(coreService, methodIdTwo, sensorTypeId, object, parameters, result, registeredSensorConfig);
 		PlainTimerStorage plainTimerStorageTwo = new PlainTimerStorage(null, platformId, registeredSensorTypeId, registeredMethodIdTwo, null, true);
-		plainTimerStorageTwo.addData(thirdTimerValue - secondTimerValue, (thirdCpuTimerValue - secondCpuTimerValue) / 1000000.0d);
+		plainTimerStorageTwo.addData((thirdTimerValue - secondTimerValue) / 1000000.0d, (thirdCpuTimerValue - secondCpuTimerValue) / 1000000.0d);
 		verify(coreService).addObjectStorage(eq(sensorTypeId), eq(methodIdTwo), (String) eq(null), argThat(new PlainTimerStorageVerifier(plainTimerStorageTwo)));
 
 		timerHook.firstAfterBody(methodIdOne, sensorTypeId, object, parameters, result, registeredSensorConfig);
 		timerHook.secondAfterBody(coreService, methodIdOne, sensorTypeId, object, parameters, result, registeredSensorConfig);
 		PlainTimerStorage plainTimerStorageOne = new PlainTimerStorage(null, platformId, registeredSensorTypeId, registeredMethodIdOne, null, true);
-		plainTimerStorageOne.addData(fourthTimerValue - firstTimerValue, (fourthCpuTimerValue - firstCpuTimerValue) / 1000000.0d);
+		plainTimerStorageOne.addData((fourthTimerValue - firstTimerValue) / 1000000.0d, (fourthCpuTimerValue - firstCpuTimerValue) / 1000000.0d);
 		verify(coreService).addObjectStorage(eq(sensorTypeId), eq(methodIdOne), (String) eq(null), argThat(new PlainTimerStorageVerifier(plainTimerStorageOne)));
 	}
 
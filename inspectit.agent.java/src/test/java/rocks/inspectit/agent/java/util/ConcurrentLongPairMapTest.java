@@ -0,0 +1,190 @@
+package rocks.inspectit.agent.java.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("PMD")
+public class ConcurrentLongPairMapTest {
+
+	private ConcurrentLongPairMap<String> map;
+
+	@BeforeMethod
+	public void initTestClass() {
+		map = new ConcurrentLongPairMap<String>();
+	}
+
+	@Test
+	public void emptyMap() {
+		assertThat(map.isEmpty(), is(true));
+		assertThat(map.size(), is(0));
+		assertThat(map.values(), is(empty()));
+		assertThat(map.get(1L, 2L, null), is(nullValue()));
+	}
+
+	@Test
+	public void putAndGet() {
+		assertThat(map.put(1L, 2L, null, "a"), is(nullValue()));
+		assertThat(map.put(2L, 1L, null, "b"), is(nullValue()));
+		assertThat(map.put(1L, 2L, "prefix", "c"), is(nullValue()));
+
+		assertThat(map.isEmpty(), is(false));
+		assertThat(map.size(), is(3));
+		assertThat(map.get(1L, 2L, null), is("a"));
+		assertThat(map.get(2L, 1L, null), is("b"));
+		assertThat(map.get(1L, 2L, "prefix"), is("c"));
+		assertThat(map.get(1L, 2L, new String("prefix")), is("c"));
+		assertThat(map.get(1L, 2L, "other"), is(nullValue()));
+		assertThat(map.values(), containsInAnyOrder("a", "b", "c"));
+	}
+
+	@Test
+	public void replace() {
+		map.put(1L, 2L, "prefix", "a");
+
+		assertThat(map.put(1L, 2L, "prefix", "b"), is("a"));
+		assertThat(map.size(), is(1));
+		assertThat(map.get(1L, 2L, "prefix"), is("b"));
+	}
+
+	@Test(expectedExceptions = { NullPointerException.class })
+	public void putNullValue() {
+		map.put(1L, 2L, null, null);
+	}
+
+	@Test
+	public void clear() {
+		map.put(1L, 2L, null, "a");
+		map.put(3L, 4L, null, "b");
+
+		map.clear();
+
+		assertThat(map.isEmpty(), is(true));
+		assertThat(map.get(1L, 2L, null), is(nullValue()));
+		assertThat(map.values(), is(empty()));
+	}
+
+	@Test
+	public void removeIf() {
+		map.put(1L, 2L, null, "a");
+		map.put(3L, 4L, null, "b");
+		map.put(5L, 6L, "prefix", "a");
+
+		map.removeIf(new ConcurrentLongPairMap.ValueFilter<String>() {
+			public boolean matches(String value) {
+				return "a".equals(value);
+			}
+		});
+
+		assertThat(map.size(), is(1));
+		assertThat(map.get(1L, 2L, null), is(nullValue()));
+		assertThat(map.get(5L, 6L, "prefix"), is(nullValue()));
+		assertThat(map.get(3L, 4L, null), is("b"));
+		assertThat(map.values(), contains("b"));
+	}
+
+	@Test
+	public void drain() {
+		map.put(1L, 2L, null, "a");
+		map.put(3L, 4L, "prefix", "b");
+
+		List<String> values = map.drain();
+
+		assertThat(values, containsInAnyOrder("a", "b"));
+		assertThat(map.isEmpty(), is(true));
+		assertThat(map.get(1L, 2L, null), is(nullValue()));
+
+		map.put(1L, 2L, null, "c");
+
+		assertThat(map.get(1L, 2L, null), is("c"));
+		assertThat(map.drain(), contains("c"));
+	}
+
+	@Test
+	public void drainConcurrentPut() throws InterruptedException {
+		final int keys = 100000;
+		Thread producer = new Thread() {
+			@Override
+			public void run() {
+				for (long i = 0; i < keys; i++) {
+					map.put(i, i, null, String.valueOf(i));
+				}
+			}
+		};
+		producer.start();
+
+		Set<String> drained = new HashSet<String>();
+		while (producer.isAlive()) {
+			drained.addAll(map.drain());
+		}
+		producer.join();
+		drained.addAll(map.drain());
+
+		assertThat(drained, hasSize(keys));
+	}
+
+	@Test
+	public void grow() {
+		for (long i = 0; i < 10000; i++) {
+			map.put(i, i * 2, null, String.valueOf(i));
+		}
+
+		assertThat(map.size(), is(10000));
+		assertThat(map.values(), hasSize(10000));
+		for (long i = 0; i < 10000; i++) {
+			assertThat(map.get(i, i * 2, null), is(String.valueOf(i)));
+		}
+	}
+
+	@Test
+	public void concurrentPut() throws InterruptedException {
+		final int threads = 8;
+		final int keys = 5000;
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch end = new CountDownLatch(threads);
+
+		for (int i = 0; i < threads; i++) {
+			final long thread = i;
+			new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+						for (long j = 0; j < keys; j++) {
+							map.put(thread, j, null, thread + "." + j);
+							if (null == map.get(thread, j, null)) {
+								throw new AssertionError("Value not visible after put.");
+							}
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						end.countDown();
+					}
+				}
+			}.start();
+		}
+		start.countDown();
+		end.await();
+
+		assertThat(map.size(), is(threads * keys));
+		for (long i = 0; i < threads; i++) {
+			for (long j = 0; j < keys; j++) {
+				assertThat(map.get(i, j, null), is(i + "." + j));
+			}
+		}
+	}
+
+}
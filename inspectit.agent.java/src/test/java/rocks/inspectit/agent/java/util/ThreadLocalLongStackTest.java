@@ -0,0 +1,83 @@
+package rocks.inspectit.agent.java.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+import java.util.NoSuchElementException;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.agent.java.util.ThreadLocalLongStack.LongStack;
+
+@SuppressWarnings("PMD")
+public class ThreadLocalLongStackTest {
+
+	private ThreadLocalLongStack threadLocalLongStack;
+
+	@BeforeMethod(firstTimeOnly = true)
+	public void initTestClass() {
+		threadLocalLongStack = new ThreadLocalLongStack();
+	}
+
+	@Test
+	public void emptyStack() {
+		LongStack longStack = threadLocalLongStack.get();
+
+		assertThat(longStack, is(notNullValue()));
+		assertThat(longStack.size(), is(0));
+	}
+
+	@Test(dependsOnMethods = "emptyStack")
+	public void oneValue() {
+		threadLocalLongStack.push(10L);
+
+		assertThat(threadLocalLongStack.getLast(), is(10L));
+		assertThat(threadLocalLongStack.pop(), is(10L));
+	}
+
+	@Test(dependsOnMethods = "emptyStack", expectedExceptions = { NoSuchElementException.class })
+	public void noSuchElement() {
+		threadLocalLongStack.pop();
+	}
+
+	@Test(dependsOnMethods = "emptyStack", expectedExceptions = { NoSuchElementException.class })
+	public void noSuchElementLast() {
+		threadLocalLongStack.getLast();
+	}
+
+	@Test(dependsOnMethods = "emptyStack", invocationCount = 10, threadPoolSize = 10)
+	public void stackTest() {
+		threadLocalLongStack.push(1L);
+		threadLocalLongStack.push(2L);
+		threadLocalLongStack.push(3L);
+
+		assertThat(threadLocalLongStack.pop(), is(3L));
+		assertThat(threadLocalLongStack.pop(), is(2L));
+		assertThat(threadLocalLongStack.pop(), is(1L));
+	}
+
+	@Test(dependsOnMethods = "emptyStack")
+	public void grow() {
+		LongStack longStack = threadLocalLongStack.get();
+		int initialCapacity = longStack.capacity();
+
+		for (long i = 0; i < initialCapacity * 4; i++) {
+			threadLocalLongStack.push(i);
+		}
+
+		assertThat(longStack.capacity(), is(greaterThan(initialCapacity)));
+		assertThat(longStack.size(), is(initialCapacity * 4));
+
+		for (long i = initialCapacity * 4 - 1; i >= 0; i--) {
+			assertThat(threadLocalLongStack.pop(), is(i));
+		}
+
+		// array is never shrunk
+		assertThat(longStack.size(), is(0));
+		assertThat(longStack.capacity(), is(greaterThan(initialCapacity)));
+	}
+
+}
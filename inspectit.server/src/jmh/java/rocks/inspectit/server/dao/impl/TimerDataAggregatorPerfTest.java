@@ -0,0 +1,106 @@
+package rocks.inspectit.server.dao.impl;
+
+import java.sql.Timestamp;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import rocks.inspectit.shared.all.communication.data.TimerData;
+
+/**
+ * Measures the throughput of the {@link TimerDataAggregator} when many threads aggregate timer
+ * data of different methods concurrently, like the agent storage service threads do.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 5)
+@Fork(2)
+@Threads(8)
+@State(Scope.Benchmark)
+public class TimerDataAggregatorPerfTest {
+
+	/**
+	 * Aggregator under test.
+	 */
+	private TimerDataAggregator aggregator;
+
+	/**
+	 * Number of different agents to simulate.
+	 */
+	@Param({ "2" })
+	private int agents;
+
+	/**
+	 * Number of different methods to simulate.
+	 */
+	@Param({ "10", "1000" })
+	private int methods;
+
+	/**
+	 * Prepared timer data, cycled through by the threads.
+	 */
+	private TimerData[] timerData;
+
+	/**
+	 * Set up, prepare the aggregator and the timer data.
+	 */
+	@Setup(Level.Trial)
+	public void init() {
+		aggregator = new TimerDataAggregator(null);
+		// all data falls into one aggregation period, so nothing is evicted during the run
+		aggregator.aggregationPeriod = Long.MAX_VALUE;
+		aggregator.maxElements = Integer.MAX_VALUE;
+
+		Random random = new Random();
+		Timestamp timestamp = new Timestamp(System.currentTimeMillis());
+		timerData = new TimerData[agents * methods];
+		for (int i = 0; i < timerData.length; i++) {
+			TimerData data = new TimerData(timestamp, i % agents, 1L, i / agents);
+			data.setCount(1L);
+			data.setDuration(random.nextDouble());
+			data.calculateMin(data.getDuration());
+			data.calculateMax(data.getDuration());
+			timerData[i] = data;
+		}
+	}
+
+	/**
+	 * Index of the next timer data of the thread.
+	 */
+	@State(Scope.Thread)
+	public static class ThreadIndex {
+
+		/**
+		 * Index of the next timer data.
+		 */
+		private int index = new Random().nextInt(Integer.MAX_VALUE);
+
+	}
+
+	/**
+	 * Aggregates one timer data.
+	 *
+	 * @param threadIndex
+	 *            Index of the next timer data of the thread.
+	 */
+	@Benchmark
+	public void processTimerData(ThreadIndex threadIndex) {
+		int index = threadIndex.index++;
+		aggregator.processTimerData(timerData[(index & Integer.MAX_VALUE) % timerData.length]);
+	}
+
+}
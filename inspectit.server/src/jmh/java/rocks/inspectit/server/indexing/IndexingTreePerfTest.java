@@ -4,6 +4,7 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 import java.util.Random;
@@ -31,6 +32,8 @@ import rocks.inspectit.server.processor.impl.IndexerCmrProcessor;
 import rocks.inspectit.server.processor.impl.InvocationModifierCmrProcessor;
 import rocks.inspectit.server.util.CacheIdGenerator;
 import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.communication.comparator.InvocationSequenceDataComparatorEnum;
+import rocks.inspectit.shared.all.communication.comparator.ResultComparator;
 import rocks.inspectit.shared.all.communication.data.ExceptionSensorData;
 import rocks.inspectit.shared.all.communication.data.HttpTimerData;
 import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
@@ -113,6 +116,17 @@ public class IndexingTreePerfTest {
 	 */
 	private IndexQuery invocationOverviewQuery;
 
+	/**
+	 * Number of invocations shown in the invocation overview.
+	 */
+	@Param({ "100" })
+	private int invocationOverviewLimit;
+
+	/**
+	 * Comparator of the invocation overview, sorting by descending duration.
+	 */
+	private Comparator<DefaultData> invocationOverviewComparator;
+
 	
 	/**
 	 * ForkJoinPool
@@ -193,6 +207,14 @@ public class IndexingTreePerfTest {
 		invocationSequenceDataQueryFactory.setIndexQueryProvider(indexQueryProvider);
 
 		invocationOverviewQuery = invocationSequenceDataQueryFactory.getInvocationSequenceOverview(platformIdent, 0, 0, null, null);
+
+		final Comparator<InvocationSequenceData> durationComparator = new ResultComparator<InvocationSequenceData>(InvocationSequenceDataComparatorEnum.DURATION, false);
+		invocationOverviewComparator = new Comparator<DefaultData>() {
+			@Override
+			public int compare(DefaultData o1, DefaultData o2) {
+				return durationComparator.compare((InvocationSequenceData) o1, (InvocationSequenceData) o2);
+			}
+		};
 	}
 
 	// Query fork&join benchmarks
@@ -237,13 +259,53 @@ public class IndexingTreePerfTest {
 		return indexingTree.query(invocationOverviewQuery);
 	}
 
+	// Invocation overview limited to the slowest invocations, as returned by the buffer DAO
+	@Benchmark
+	public List<DefaultData> queryInvocationOverviewSortAndLimit() {
+		List<DefaultData> data = indexingTree.query(invocationOverviewQuery);
+		Collections.sort(data, invocationOverviewComparator);
+		if (data.size() > invocationOverviewLimit) {
+			data = new ArrayList<DefaultData>(data.subList(0, invocationOverviewLimit));
+		}
+		return cloneInvocations(data);
+	}
+
+	@Benchmark
+	public List<DefaultData> queryInvocationOverviewSortAndLimitForkJoin() {
+		List<DefaultData> data = indexingTree.query(invocationOverviewQuery, forkJoinPool);
+		Collections.sort(data, invocationOverviewComparator);
+		if (data.size() > invocationOverviewLimit) {
+			data = new ArrayList<DefaultData>(data.subList(0, invocationOverviewLimit));
+		}
+		return cloneInvocations(data);
+	}
+
+	@Benchmark
+	public List<DefaultData> queryInvocationOverviewTopN() {
+		return cloneInvocations(indexingTree.query(invocationOverviewQuery, invocationOverviewComparator, invocationOverviewLimit));
+	}
+
+	@Benchmark
+	public List<DefaultData> queryInvocationOverviewTopNForkJoin() {
+		return cloneInvocations(indexingTree.query(invocationOverviewQuery, invocationOverviewComparator, invocationOverviewLimit, forkJoinPool));
+	}
+
 	// private helpers
+	private List<DefaultData> cloneInvocations(List<DefaultData> data) {
+		List<DefaultData> clones = new ArrayList<DefaultData>(data.size());
+		for (DefaultData invocation : data) {
+			clones.add(((InvocationSequenceData) invocation).getClonedInvocationSequence());
+		}
+		return clones;
+	}
+
 	private InvocationSequenceData getInvocationSequenceDataInstance(int childCount) {
 		Random random = new Random();
 		InvocationSequenceData invData = new InvocationSequenceData(new Timestamp(getRandomTimestamp(random)), getRandomPlatformIdent(random), getRandomSensorIdent(random),
 				getRandomMethodIdent(random));
 
 		setRadnomDataObject(invData, random);
+		invData.setDuration(random.nextInt(timestampSpread));
 
 		if (childCount == 0) {
 			return invData;
@@ -0,0 +1,246 @@
+package rocks.inspectit.server.rmi;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import com.esotericsoftware.kryonet.rmi.RemoteObject;
+
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.kryonet.Client;
+import rocks.inspectit.shared.all.kryonet.Connection;
+import rocks.inspectit.shared.all.kryonet.ExtendedSerializationImpl;
+import rocks.inspectit.shared.all.kryonet.IExtendedSerialization;
+import rocks.inspectit.shared.all.kryonet.Listener;
+import rocks.inspectit.shared.all.kryonet.Server;
+import rocks.inspectit.shared.all.kryonet.rmi.ObjectSpace;
+import rocks.inspectit.shared.all.storage.nio.stream.StreamProvider;
+import rocks.inspectit.shared.all.storage.serializer.IKryoProvider;
+import rocks.inspectit.shared.all.storage.serializer.provider.SerializationManagerProvider;
+
+/**
+ * Measures how many data batches the KryoNet {@link Server} receives per time unit when many
+ * agents send concurrently over the loopback interface. Each benchmark thread is one simulated
+ * agent with its own connection that sends a list of timer data with a blocking remote call, like
+ * the agent storage service is called.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 5)
+@Fork(2)
+@Threads(32)
+@State(Scope.Benchmark)
+public class KryoNetServerPerfTest {
+
+	/**
+	 * Port of the server.
+	 */
+	private static final int PORT = 8766;
+
+	/**
+	 * Number of threads that deserialize the incoming data, 0 for the single server thread.
+	 */
+	@Param({ "0", "2", "4", "8" })
+	private int decodeThreads;
+
+	/**
+	 * Spring context providing the serialization and streams.
+	 */
+	private ClassPathXmlApplicationContext context;
+
+	/**
+	 * Serialization of server and clients.
+	 */
+	private IExtendedSerialization serialization;
+
+	/**
+	 * Stream provider of server and clients.
+	 */
+	private StreamProvider streamProvider;
+
+	/**
+	 * Server under test.
+	 */
+	private Server server;
+
+	/**
+	 * Executor of the decoding threads.
+	 */
+	private ExecutorService decodeExecutorService;
+
+	/**
+	 * Executor of the object space.
+	 */
+	private ExecutorService objectSpaceExecutorService;
+
+	/**
+	 * Starts the server.
+	 *
+	 * @throws IOException
+	 *             If server can not be bound.
+	 */
+	@Setup(Level.Trial)
+	public void init() throws IOException {
+		context = new ClassPathXmlApplicationContext("spring/spring-context-global.xml", "spring/spring-context-database.xml", "spring/spring-context-beans.xml",
+				"spring/spring-context-processors.xml", "spring/spring-context-storage-test.xml");
+		streamProvider = context.getBean(StreamProvider.class);
+		serialization = new ExtendedSerializationImpl(context.getBean(SerializationManagerProvider.class)) {
+			@Override
+			protected IKryoProvider createKryoProvider() {
+				IKryoProvider kryoProvider = super.createKryoProvider();
+				kryoProvider.getKryo().register(Receiver.class);
+				return kryoProvider;
+			}
+		};
+
+		server = new Server(serialization, streamProvider);
+		if (decodeThreads > 0) {
+			decodeExecutorService = Executors.newFixedThreadPool(decodeThreads);
+			server.setDecodeExecutorService(decodeExecutorService);
+		}
+		server.start();
+		server.bind(PORT);
+
+		objectSpaceExecutorService = Executors.newFixedThreadPool(8);
+		final ObjectSpace objectSpace = new ObjectSpace();
+		objectSpace.setExecutor(objectSpaceExecutorService);
+		objectSpace.register(1, new Receiver() {
+			@Override
+			public int receive(List<TimerData> data) {
+				return data.size();
+			}
+		});
+		server.addListener(new Listener() {
+			@Override
+			public void connected(Connection connection) {
+				objectSpace.addConnection(connection);
+			}
+		});
+	}
+
+	/**
+	 * Stops the server.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		server.stop();
+		if (null != decodeExecutorService) {
+			decodeExecutorService.shutdownNow();
+		}
+		objectSpaceExecutorService.shutdownNow();
+		context.close();
+	}
+
+	/**
+	 * Simulated agent.
+	 */
+	@State(Scope.Thread)
+	public static class Agent {
+
+		/**
+		 * Number of timer data in one batch.
+		 */
+		@Param({ "500" })
+		private int batchSize;
+
+		/**
+		 * Connection of the agent.
+		 */
+		private Client client;
+
+		/**
+		 * Remote receiver.
+		 */
+		private Receiver receiver;
+
+		/**
+		 * Batch sent in each call.
+		 */
+		private List<TimerData> batch;
+
+		/**
+		 * Connects the agent.
+		 *
+		 * @param serverState
+		 *            Benchmark holding the started server.
+		 * @throws IOException
+		 *             If connecting fails.
+		 */
+		@Setup(Level.Trial)
+		public void connect(KryoNetServerPerfTest serverState) throws IOException {
+			client = new Client(serverState.serialization, serverState.streamProvider);
+			client.start();
+			client.connect(5000, "localhost", PORT);
+
+			receiver = ObjectSpace.getRemoteObject(client, 1, Receiver.class);
+			((RemoteObject) receiver).setNonBlocking(false);
+			((RemoteObject) receiver).setTransmitReturnValue(true);
+
+			Timestamp timestamp = new Timestamp(System.currentTimeMillis());
+			batch = new ArrayList<>(batchSize);
+			for (int i = 0; i < batchSize; i++) {
+				TimerData timerData = new TimerData(timestamp, 1L, 1L, i);
+				timerData.setCount(1L);
+				timerData.setDuration(i);
+				batch.add(timerData);
+			}
+		}
+
+		/**
+		 * Disconnects the agent.
+		 */
+		@TearDown(Level.Trial)
+		public void disconnect() {
+			client.stop();
+		}
+	}
+
+	/**
+	 * Sends one batch and waits for the server to receive it.
+	 *
+	 * @param agent
+	 *            Simulated agent.
+	 * @return Number of received objects.
+	 */
+	@Benchmark
+	public int sendBatch(Agent agent) {
+		return agent.receiver.receive(agent.batch);
+	}
+
+	/**
+	 * Remote interface the simulated agents send to.
+	 */
+	public interface Receiver {
+
+		/**
+		 * Receives the data.
+		 *
+		 * @param data
+		 *            Data.
+		 * @return Number of received objects.
+		 */
+		int receive(List<TimerData> data);
+	}
+
+}
@@ -0,0 +1,225 @@
+package rocks.inspectit.server.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.storage.serializer.ISerializer;
+import rocks.inspectit.shared.all.storage.serializer.SerializationException;
+import rocks.inspectit.shared.all.storage.serializer.provider.SerializationManagerProvider;
+import rocks.inspectit.shared.all.storage.serializer.util.KryoUtil;
+import rocks.inspectit.shared.cs.indexing.storage.IStorageDescriptor;
+import rocks.inspectit.shared.cs.indexing.storage.impl.StorageDescriptor;
+import rocks.inspectit.shared.cs.storage.IStorageData;
+import rocks.inspectit.shared.cs.storage.StorageData;
+import rocks.inspectit.shared.cs.storage.StorageFileType;
+import rocks.inspectit.shared.cs.storage.StorageManager;
+import rocks.inspectit.shared.cs.storage.nio.stream.ExtendedByteBufferInputStream;
+import rocks.inspectit.shared.cs.storage.nio.stream.MappedByteBufferInputStream;
+
+/**
+ * Compares reading of the local storage data with the asynchronous
+ * {@link ExtendedByteBufferInputStream} and the {@link MappedByteBufferInputStream}. The channel
+ * file holds serialized timer data and every benchmark invocation reads and de-serializes every
+ * n-th of them, skipping the others like a query would.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 5)
+@Fork(2)
+@State(Scope.Benchmark)
+public class StorageReadPerfTest {
+
+	/**
+	 * Channel ID of the channel file.
+	 */
+	private static final int CHANNEL_ID = 1;
+
+	/**
+	 * Number of timer data in the channel file.
+	 */
+	@Param({ "1000", "100000" })
+	private int objects;
+
+	/**
+	 * Every n-th descriptor is read.
+	 */
+	@Param({ "1", "10" })
+	private int readEvery;
+
+	/**
+	 * Spring context providing the serialization and the asynchronous streams.
+	 */
+	private ClassPathXmlApplicationContext context;
+
+	/**
+	 * Serializer.
+	 */
+	private ISerializer serializer;
+
+	/**
+	 * Folder of the storage.
+	 */
+	private Path storageFolder;
+
+	/**
+	 * Storage manager pointing to the {@link #storageFolder}.
+	 */
+	private StorageManager storageManager;
+
+	/**
+	 * Storage data.
+	 */
+	private StorageData storageData;
+
+	/**
+	 * Descriptors to read.
+	 */
+	private List<IStorageDescriptor> descriptors;
+
+	/**
+	 * Writes the channel file.
+	 *
+	 * @throws IOException
+	 *             If writing fails.
+	 * @throws SerializationException
+	 *             If serialization fails.
+	 */
+	@Setup(Level.Trial)
+	public void init() throws IOException, SerializationException {
+		context = new ClassPathXmlApplicationContext("spring/spring-context-global.xml", "spring/spring-context-database.xml", "spring/spring-context-beans.xml",
+				"spring/spring-context-processors.xml", "spring/spring-context-storage-test.xml");
+		serializer = context.getBean(SerializationManagerProvider.class).createSerializer();
+
+		storageFolder = Files.createTempDirectory("storage-read-perf");
+		storageManager = new StorageManager() {
+			@Override
+			public Path getStoragePath(IStorageData storageData) {
+				return storageFolder;
+			}
+
+			@Override
+			protected Path getDefaultStorageDirPath() {
+				return storageFolder;
+			}
+		};
+		storageData = new StorageData();
+
+		descriptors = new ArrayList<>();
+		Path channelPath = storageFolder.resolve(CHANNEL_ID + StorageFileType.DATA_FILE.getExtension());
+		try (OutputStream outputStream = Files.newOutputStream(channelPath)) {
+			Output output = new Output(outputStream);
+			Timestamp timestamp = new Timestamp(System.currentTimeMillis());
+			for (int i = 0; i < objects; i++) {
+				TimerData timerData = new TimerData(timestamp, 1L, 1L, i);
+				timerData.setCount(1L);
+				timerData.setDuration(i);
+				long position = output.total();
+				serializer.serialize(timerData, output);
+				if (0 == (i % readEvery)) {
+					// join the neighbouring descriptors like the data retriever does
+					StorageDescriptor last = descriptors.isEmpty() ? null : (StorageDescriptor) descriptors.get(descriptors.size() - 1);
+					StorageDescriptor descriptor = new StorageDescriptor(CHANNEL_ID, position, output.total() - position);
+					if ((null == last) || !last.join(descriptor)) {
+						descriptors.add(descriptor);
+					}
+				}
+			}
+			output.flush();
+		}
+	}
+
+	/**
+	 * Deletes the channel file and closes the context.
+	 *
+	 * @throws IOException
+	 *             If deleting fails.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(storageFolder.resolve(CHANNEL_ID + StorageFileType.DATA_FILE.getExtension()));
+		Files.deleteIfExists(storageFolder);
+		context.close();
+	}
+
+	/**
+	 * Reads with the asynchronous stream.
+	 *
+	 * @return Read objects.
+	 * @throws IOException
+	 *             If reading fails.
+	 * @throws SerializationException
+	 *             If de-serialization fails.
+	 */
+	@Benchmark
+	public List<Object> asyncRead() throws IOException, SerializationException {
+		ExtendedByteBufferInputStream inputStream = context.getBean(ExtendedByteBufferInputStream.class);
+		inputStream.setStorageManager(storageManager);
+		inputStream.setStorageData(storageData);
+		inputStream.setDescriptors(descriptors);
+		inputStream.prepare();
+		return read(inputStream);
+	}
+
+	/**
+	 * Reads with the memory mapped stream.
+	 *
+	 * @return Read objects.
+	 * @throws IOException
+	 *             If reading fails.
+	 * @throws SerializationException
+	 *             If de-serialization fails.
+	 */
+	@Benchmark
+	public List<Object> mappedRead() throws IOException, SerializationException {
+		return read(new MappedByteBufferInputStream(storageManager, storageData, descriptors));
+	}
+
+	/**
+	 * De-serializes all objects from the stream in the same way as the data retriever does.
+	 *
+	 * @param inputStream
+	 *            Stream to read from.
+	 * @return Read objects.
+	 * @throws IOException
+	 *             If reading fails.
+	 * @throws SerializationException
+	 *             If de-serialization fails.
+	 */
+	private List<Object> read(InputStream inputStream) throws IOException, SerializationException {
+		List<Object> result = new ArrayList<>(descriptors.size());
+		try (Input input = new Input(inputStream)) {
+			while (KryoUtil.hasMoreBytes(input)) {
+				result.add(serializer.deserialize(input));
+			}
+		}
+		return result;
+	}
+
+}
@@ -174,7 +174,7 @@ public abstract class AbstractObjectSizes implements IObjectSizes {
 	 */
 	public long getSizeOfCustomWeakReference() {
 		long size = this.getSizeOfObjectHeader();
-		size += this.getPrimitiveTypesSize(4, 0, 0, 0, 1, 0);
+		size += this.getPrimitiveTypesSize(5, 0, 0, 0, 1, 0);
 		return alignTo8Bytes(size);
 	}
 
@@ -0,0 +1,83 @@
+package rocks.inspectit.server.cache;
+
+import java.util.Date;
+import java.util.List;
+
+import rocks.inspectit.shared.all.communication.data.TimerData;
+
+/**
+ * Buffer segment that keeps the {@link TimerData} as numeric values instead of objects in the
+ * {@link IBuffer}. The segment has its own maximum size and evicts its oldest data when full.
+ */
+public interface ITimerDataSegment {
+
+	/**
+	 * Returns if the segment is active. Inactive segment does not accept any data.
+	 * 
+	 * @return <code>true</code> if the segment is active.
+	 */
+	boolean isActive();
+
+	/**
+	 * Puts the timer data into the segment if the segment is active and can store the timer data.
+	 * Only the numeric values of the timer data are kept, thus only plain {@link TimerData} without
+	 * parameters and invocation affiliation are accepted.
+	 * 
+	 * @param timerData
+	 *            Timer data to store.
+	 * @return <code>true</code> if the timer data was stored, <code>false</code> if it has to be
+	 *         kept in the {@link IBuffer}.
+	 */
+	boolean put(TimerData timerData);
+
+	/**
+	 * Returns the timer data in the segment aggregated by the method ident.
+	 * 
+	 * @param platformIdent
+	 *            Platform ident of the timer data or <code>0</code> for all platforms.
+	 * @param methodIdent
+	 *            Method ident of the timer data or <code>0</code> for all methods.
+	 * @param fromDate
+	 *            Date to include data from, can be <code>null</code>.
+	 * @param toDate
+	 *            Date to include data to, can be <code>null</code>. Like in the index queries, no
+	 *            interval is applied if both dates are set and the from date is not before the to
+	 *            date.
+	 * @return List of aggregated timer data, one per method.
+	 */
+	List<TimerData> getAggregatedTimerData(long platformIdent, long methodIdent, Date fromDate, Date toDate);
+
+	/**
+	 * Removes all data from the segment.
+	 */
+	void clearAll();
+
+	/**
+	 * Returns the number of timer data in the segment.
+	 * 
+	 * @return Number of timer data in the segment.
+	 */
+	long getNumberOfElements();
+
+	/**
+	 * Returns the number of evicted timer data since the segment has been created or cleared.
+	 * 
+	 * @return Number of evicted timer data.
+	 */
+	long getEvictedElements();
+
+	/**
+	 * Returns the memory currently occupied by the segment in bytes.
+	 * 
+	 * @return Current size in bytes.
+	 */
+	long getCurrentSize();
+
+	/**
+	 * Returns the maximum memory the segment can occupy in bytes.
+	 * 
+	 * @return Maximum size in bytes.
+	 */
+	long getMaxSize();
+
+}
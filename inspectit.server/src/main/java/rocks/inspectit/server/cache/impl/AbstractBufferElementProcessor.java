@@ -58,9 +58,13 @@ abstract class AbstractBufferElementProcessor<E extends DefaultData> {
 	}
 
 	/**
-	 * Processes next element to be processed. Note that this method passes the element to the
-	 * {@link #process(IBufferElement, IBufferElement)} method so that sub-classes can execute the
-	 * real processing. This method handles waiting of element to be available for processing.
+	 * Processes next element to be processed. Note that this method passes the elements to the
+	 * {@link #process(IBufferElement, int)} method so that sub-classes can execute the real
+	 * processing. This method handles waiting of element to be available for processing.
+	 * <p>
+	 * If the buffer properties define a processing batch size greater than one, a run of up to
+	 * that many consecutive processable elements is claimed with a single compare and set and
+	 * processed at once.
 	 * 
 	 * @throws InterruptedException
 	 *             If {@link InterruptedException} occurs.
@@ -110,7 +114,7 @@ abstract class AbstractBufferElementProcessor<E extends DefaultData> {
 					break;
 				}
 
-				if (process(elementToProcess, lastProcessElement)) {
+				if (claimAndProcess(elementToProcess, lastProcessElement)) {
 					break;
 				}
 			} finally {
@@ -120,15 +124,83 @@ abstract class AbstractBufferElementProcessor<E extends DefaultData> {
 	}
 
 	/**
-	 * Sub-classes should implement this method with the real processing.
+	 * Claims the run of consecutive processable elements starting with the given element and
+	 * processes it. Only the thread that moves the last processed reference with compare and set
+	 * processes the run.
 	 * 
 	 * @param elementToProcess
-	 *            Element to be processed.
+	 *            First element to be processed.
 	 * @param lastProcessedElement
 	 *            Last successfully processed element.
-	 * @return This method should return <code>true</code> if element was processed and
-	 *         <code>false</code> otherwise.
+	 * @return <code>true</code> if elements were processed and <code>false</code> otherwise.
+	 * @throws InterruptedException
+	 *             If {@link InterruptedException} occurs while waiting for the element to be
+	 *             processable.
+	 */
+	private boolean claimAndProcess(IBufferElement<E> elementToProcess, IBufferElement<E> lastProcessedElement) throws InterruptedException {
+		int batchSize = Math.max(1, this.atomicBuffer.bufferProperties.getProcessingBatchSize());
+		if (!isProcessable(elementToProcess)) {
+			// we go back to the while loop, because we want to check if the next element to
+			// process has changed
+			waitUntilProcessable(elementToProcess, batchSize > 1);
+			return false;
+		}
+
+		IBufferElement<E> lastElementInBatch = elementToProcess;
+		int elementsInBatch = 1;
+		while (elementsInBatch < batchSize) {
+			IBufferElement<E> nextElement = lastElementInBatch.getNextElement();
+			if (this.atomicBuffer.emptyBufferElement == nextElement || !isProcessable(nextElement)) { // NOPMD
+				break;
+			}
+			lastElementInBatch = nextElement;
+			elementsInBatch++;
+		}
+
+		// only thread that execute compare and set successfully can perform changes
+		if (lastProcessed.compareAndSet(lastProcessedElement, lastElementInBatch)) {
+			process(elementToProcess, elementsInBatch);
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns if the element can be processed. Default implementation returns <code>true</code>.
+	 * 
+	 * @param element
+	 *            Element to check.
+	 * @return <code>true</code> if element can be processed.
+	 */
+	protected boolean isProcessable(IBufferElement<E> element) {
+		return true;
+	}
+
+	/**
+	 * Waits until the element might be processable. Called when
+	 * {@link #isProcessable(IBufferElement)} returns <code>false</code>. Default implementation
+	 * does not wait.
+	 * 
+	 * @param element
+	 *            Element that is not processable.
+	 * @param batchMode
+	 *            If the elements are processed in batches.
+	 * @throws InterruptedException
+	 *             If {@link InterruptedException} occurs.
+	 */
+	protected void waitUntilProcessable(IBufferElement<E> element, boolean batchMode) throws InterruptedException {
+	}
+
+	/**
+	 * Sub-classes should implement this method with the real processing. The elements are already
+	 * claimed by the calling thread.
+	 * 
+	 * @param firstElement
+	 *            First element to be processed.
+	 * @param elementsCount
+	 *            Number of consecutive elements to process, starting with the first element.
 	 */
-	public abstract boolean process(IBufferElement<E> elementToProcess, IBufferElement<E> lastProcessedElement);
+	protected abstract void process(IBufferElement<E> firstElement, int elementsCount);
 
 }
\ No newline at end of file
@@ -37,20 +37,24 @@ class AnalyzeBufferElementProcessor<E extends DefaultData> extends AbstractBuffe
 
 	/**
 	 * {@inheritDoc}
+	 * <p>
+	 * The size of all analyzed elements is added to the buffer at once and the indexing threads
+	 * waiting for the analysis are signaled.
 	 */
 	@Override
-	public boolean process(IBufferElement<E> elementToProcess, IBufferElement<E> lastProcessedElement) {
-		// only thread that execute compare and set successfully can perform changes
-		if (lastProcessed.compareAndSet(lastProcessedElement, elementToProcess)) {
+	protected void process(IBufferElement<E> firstElement, int elementsCount) {
+		long analyzedSize = 0;
+		IBufferElement<E> elementToProcess = firstElement;
+		for (int i = 0; i < elementsCount; i++) {
 			// perform analysis
 			elementToProcess.calculateAndSetBufferElementSize(atomicBuffer.objectSizes);
 			elementToProcess.setBufferElementState(BufferElementState.ANALYZED);
-			atomicBuffer.addToCurrentSize(elementToProcess.getBufferElementSize(), true);
-			atomicBuffer.elementsAnalyzed.incrementAndGet();
-			return true;
+			analyzedSize += elementToProcess.getBufferElementSize();
+			elementToProcess = elementToProcess.getNextElement();
 		}
-
-		return false;
+		atomicBuffer.addToCurrentSize(analyzedSize, true);
+		atomicBuffer.elementsAnalyzed.addAndGet(elementsCount);
+		atomicBuffer.signalAnalyzed();
 	}
 
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package rocks.inspectit.server.cache.impl;
 import java.text.NumberFormat;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
@@ -144,6 +145,21 @@ public class AtomicBuffer<E extends DefaultData> implements IBuffer<E> {
 	 */
 	private Condition nothingToIndex = indexingLock.newCondition();
 
+	/**
+	 * Lock the indexing threads wait on for elements to be analyzed.
+	 */
+	private ReentrantLock analyzedLock = new ReentrantLock();
+
+	/**
+	 * Condition that states that new elements have been analyzed.
+	 */
+	private Condition somethingAnalyzed = analyzedLock.newCondition();
+
+	/**
+	 * Number of indexing threads waiting on the {@link #somethingAnalyzed} condition.
+	 */
+	private AtomicInteger waitingForAnalysis = new AtomicInteger();
+
 	/**
 	 * Atomic reference to the object that was indexed last.
 	 */
@@ -376,6 +392,49 @@ public class AtomicBuffer<E extends DefaultData> implements IBuffer<E> {
 		indexProcessor.process();
 	}
 
+	/**
+	 * Waits until the analyzing threads signal that new elements have been analyzed, but at most
+	 * the given time. Returns immediately if the element is already analyzed.
+	 * 
+	 * @param element
+	 *            Element waiting to be analyzed.
+	 * @param maxWaitTime
+	 *            Maximum wait time in milliseconds.
+	 * @throws InterruptedException
+	 *             If the waiting thread is interrupted.
+	 */
+	void awaitAnalyzed(IBufferElement<E> element, long maxWaitTime) throws InterruptedException {
+		analyzedLock.lock();
+		try {
+			waitingForAnalysis.incrementAndGet();
+			try {
+				// check again after announcing the wait, so no signal can be missed
+				if (!element.isAnalyzed()) {
+					somethingAnalyzed.await(maxWaitTime, TimeUnit.MILLISECONDS);
+				}
+			} finally {
+				waitingForAnalysis.decrementAndGet();
+			}
+		} finally {
+			analyzedLock.unlock();
+		}
+	}
+
+	/**
+	 * Signals the indexing threads waiting in {@link #awaitAnalyzed(IBufferElement, long)} that new
+	 * elements have been analyzed. The lock is only acquired if there are waiting threads.
+	 */
+	void signalAnalyzed() {
+		if (waitingForAnalysis.get() > 0) {
+			analyzedLock.lock();
+			try {
+				somethingAnalyzed.signalAll();
+			} finally {
+				analyzedLock.unlock();
+			}
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -582,6 +641,7 @@ public class AtomicBuffer<E extends DefaultData> implements IBuffer<E> {
 		this.lastIndexed = new AtomicReference<IBufferElement<E>>(emptyBufferElement);
 		this.indexingTreeCleaningExecutorService = Executors.newFixedThreadPool(bufferProperties.getIndexingTreeCleaningThreads());
 		this.flagsSetOnBytes = bufferProperties.getFlagsSetOnBytes(this.maxSize.get());
+		this.indexingTree.activateSizeTracking(objectSizes);
 
 		// initialize processors
 		this.analyzeProcessor = new AnalyzeBufferElementProcessor<E>(this, lastAnalyzed, analyzeLock, nothingToAnalyze);
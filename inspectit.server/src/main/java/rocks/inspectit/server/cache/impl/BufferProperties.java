@@ -107,6 +107,12 @@ public class BufferProperties {
 	@Value(value = "${buffer.indexingWaitTime}")
 	long indexingWaitTime;
 
+	/**
+	 * Number of consecutive elements the analyzing and indexing threads claim and process at once.
+	 */
+	@Value(value = "${buffer.processingBatchSize}")
+	int processingBatchSize;
+
 	/**
 	 * Size of old space occupancy till which min occupancy will be active.
 	 */
@@ -237,6 +243,13 @@ public class BufferProperties {
 		return indexingWaitTime;
 	}
 
+	/**
+	 * @return the processingBatchSize
+	 */
+	public int getProcessingBatchSize() {
+		return processingBatchSize;
+	}
+
 	/**
 	 * @return the minOldSpaceOccupancyActiveTillOldGenSize
 	 */
@@ -459,6 +472,7 @@ public class BufferProperties {
 			log.info("||-Eviction fragment size percentage: " + NumberFormat.getInstance().format(evictionFragmentSizePercentage * 100) + "%");
 			log.info("||-Indexing tree cleaning threads: " + NumberFormat.getInstance().format(indexingTreeCleaningThreads));
 			log.info("||-Indexing waiting time: " + NumberFormat.getInstance().format(indexingWaitTime) + " ms");
+			log.info("||-Processing batch size: " + NumberFormat.getInstance().format(processingBatchSize));
 			log.info("||-Min old generation occupancy percentage active till: " + NumberFormat.getInstance().format(minOldSpaceOccupancyActiveTillOldGenSize) + " bytes");
 			log.info("||-Max old generation occupancy percentage active from: " + NumberFormat.getInstance().format(maxOldSpaceOccupancyActiveFromOldGenSize) + " bytes");
 			log.info("||-Min old generation occupancy percentage: " + NumberFormat.getInstance().format(minOldSpaceOccupancy * 100) + "%");
@@ -515,6 +529,10 @@ public class BufferProperties {
 					"Buffer properties initialization error: The buffer bytes maintenance percentage that activate the clean and update of the indexing tree can not be less or equal than zero nor bigger that eviction occupancy percentage. Initialization value is: "
 							+ this.getBytesMaintenancePercentage());
 		}
+		if (this.getProcessingBatchSize() <= 0) {
+			throw new BeanInitializationException("Buffer properties initialization error: The processing batch size can not be less or equal than zero. Initialization value is: "
+					+ this.getProcessingBatchSize());
+		}
 		if (this.getIndexingTreeCleaningThreads() <= 0) {
 			throw new BeanInitializationException("Buffer properties initialization error: The number of indexing tree cleaning threads can not be less or equal than zero. Initialization value is: "
 					+ this.getIndexingTreeCleaningThreads());
@@ -75,70 +75,85 @@ class IndexBufferElementProcessor<E extends DefaultData> extends AbstractBufferE
 	/**
 	 * {@inheritDoc}
 	 * <p>
-	 * We wait until element is analyzed to index it.
+	 * We only index when the element has already been analyzed.
+	 */
+	@Override
+	protected boolean isProcessable(IBufferElement<E> element) {
+		return element.isAnalyzed();
+	}
+
+	/**
+	 * {@inheritDoc}
 	 * <p>
-	 * After successful indexing we check if update of indexing tree size is needed and if so update
-	 * it.
-	 * 
+	 * In batch mode the thread waits until the analyzing threads signal analyzed elements, but at
+	 * most the indexing wait time. Otherwise the thread sleeps for the indexing wait time.
 	 */
 	@Override
-	public boolean process(IBufferElement<E> elementToProcess, IBufferElement<E> lastProcessedElement) {
-		// we only index when the element has already been analyzed
-		if (!elementToProcess.isAnalyzed()) {
+	protected void waitUntilProcessable(IBufferElement<E> element, boolean batchMode) throws InterruptedException {
+		if (batchMode) {
+			atomicBuffer.awaitAnalyzed(element, atomicBuffer.bufferProperties.getIndexingWaitTime());
+		} else {
 			try {
 				Thread.sleep(atomicBuffer.bufferProperties.getIndexingWaitTime());
 			} catch (InterruptedException e) {
 				Thread.interrupted();
 			}
-			// we go back to the while loop, because we want to check if the nextForIndexing
-			// element has changed
-			return false;
 		}
+	}
 
-		// only thread that execute compare and set successfully can perform changes
-		if (lastProcessed.compareAndSet(lastProcessedElement, elementToProcess)) {
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * After successful indexing we check if update of indexing tree size is needed and if so update
+	 * it.
+	 * 
+	 */
+	@Override
+	protected void process(IBufferElement<E> firstElement, int elementsCount) {
+		int indexedCount = 0;
+		IBufferElement<E> elementToProcess = firstElement;
+		for (int i = 0; i < elementsCount; i++) {
 			try {
 				// index element
 				atomicBuffer.indexingTree.put(elementToProcess.getObject());
 				elementToProcess.setBufferElementState(BufferElementState.INDEXED);
+				indexedCount++;
+			} catch (IndexingException e) {
+				// indexing exception should not happen
+				atomicBuffer.log.error(e.getMessage(), e);
+			}
+			elementToProcess = elementToProcess.getNextElement();
+		}
 
-				// increase number of indexed elements, and perform calculation of the
-				// indexing tree size if enough elements have been indexed
-				atomicBuffer.elementsIndexed.incrementAndGet();
+		// increase number of indexed elements, and perform calculation of the
+		// indexing tree size if enough elements have been indexed
+		atomicBuffer.elementsIndexed.addAndGet(indexedCount);
 
-				long dataAddedInBytesCurrent = atomicBuffer.dataAddedInBytes.get();
-				if (dataAddedInBytesCurrent > atomicBuffer.flagsSetOnBytes) {
-					if (atomicBuffer.dataAddedInBytes.compareAndSet(dataAddedInBytesCurrent, 0)) {
-						long time = 0;
+		long dataAddedInBytesCurrent = atomicBuffer.dataAddedInBytes.get();
+		if (dataAddedInBytesCurrent > atomicBuffer.flagsSetOnBytes) {
+			if (atomicBuffer.dataAddedInBytes.compareAndSet(dataAddedInBytesCurrent, 0)) {
+				long time = 0;
+				if (atomicBuffer.log.isDebugEnabled()) {
+					time = System.nanoTime();
+				}
+				while (true) {
+					// reading of new size has to be repeated if old size
+					// compare and set fails, the tree maintains its size incrementally
+					long newSize = atomicBuffer.indexingTree.getTrackedComponentSize();
+					newSize += newSize * atomicBuffer.objectSizes.getObjectSecurityExpansionRate();
+					long oldSize = atomicBuffer.indexingTreeSize.get();
+					if (atomicBuffer.indexingTreeSize.compareAndSet(oldSize, newSize)) {
+						atomicBuffer.addToCurrentSize(newSize - oldSize, false);
 						if (atomicBuffer.log.isDebugEnabled()) {
-							time = System.nanoTime();
-						}
-						while (true) {
-							// calculation of new size has to be repeated if old size
-							// compare and set fails
-							long newSize = atomicBuffer.indexingTree.getComponentSize(atomicBuffer.objectSizes);
-							newSize += newSize * atomicBuffer.objectSizes.getObjectSecurityExpansionRate();
-							long oldSize = atomicBuffer.indexingTreeSize.get();
-							if (atomicBuffer.indexingTreeSize.compareAndSet(oldSize, newSize)) {
-								atomicBuffer.addToCurrentSize(newSize - oldSize, false);
-								if (atomicBuffer.log.isDebugEnabled()) {
-									atomicBuffer.log.debug("Indexing tree size update duration: " + Converter.nanoToMilliseconds(System.nanoTime() - time));
-									atomicBuffer.log.debug("Indexing tree delta: " + (newSize - oldSize));
-									atomicBuffer.log.debug("Indexing tree new size: " + newSize);
-								}
-								break;
-							}
+							atomicBuffer.log.debug("Indexing tree size update duration: " + Converter.nanoToMilliseconds(System.nanoTime() - time));
+							atomicBuffer.log.debug("Indexing tree delta: " + (newSize - oldSize));
+							atomicBuffer.log.debug("Indexing tree new size: " + newSize);
 						}
+						break;
 					}
 				}
-			} catch (IndexingException e) {
-				// indexing exception should not happen
-				atomicBuffer.log.error(e.getMessage(), e);
 			}
-			return true;
 		}
-
-		return false;
 	}
 
 }
\ No newline at end of file
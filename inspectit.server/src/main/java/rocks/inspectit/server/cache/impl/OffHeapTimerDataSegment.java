@@ -0,0 +1,223 @@
+package rocks.inspectit.server.cache.impl;
+
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.collections.MapUtils;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import rocks.inspectit.server.cache.ITimerDataSegment;
+import rocks.inspectit.shared.all.communication.data.AggregatedTimerData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.spring.logger.Log;
+
+/**
+ * {@link ITimerDataSegment} that keeps the timer data values in {@link TimerDataBlock}s outside of
+ * the Java heap. Thus, the timer data occupies only a fraction of the memory it would occupy in the
+ * buffer and does not need to be traced by the garbage collector. When the segment is full the
+ * oldest block is evicted as a whole.
+ * <p>
+ * The timer data put to the segment can only be queried in aggregated form.
+ */
+@Component
+public class OffHeapTimerDataSegment implements ITimerDataSegment {
+
+	/**
+	 * Number of timer data in one block.
+	 */
+	static final int BLOCK_CAPACITY = 16384;
+
+	/** The logger of this class. */
+	@Log
+	Logger log;
+
+	/**
+	 * If the segment is active.
+	 */
+	@Value("${buffer.offHeapTimerData}")
+	boolean active;
+
+	/**
+	 * Maximum size of the segment in bytes.
+	 */
+	@Value("${buffer.offHeapTimerDataSize}")
+	long maxSize;
+
+	/**
+	 * Blocks ordered from the oldest to the newest.
+	 */
+	private final ConcurrentLinkedDeque<TimerDataBlock> blocks = new ConcurrentLinkedDeque<>();
+
+	/**
+	 * Number of blocks in {@link #blocks}.
+	 */
+	private volatile int blockCount;
+
+	/**
+	 * Lock for adding the data and evicting the blocks.
+	 */
+	private final Lock writeLock = new ReentrantLock();
+
+	/**
+	 * Number of evicted timer data.
+	 */
+	private final AtomicLong elementsEvicted = new AtomicLong();
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isActive() {
+		return active;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean put(TimerData timerData) {
+		if (!active || !isSupported(timerData)) {
+			return false;
+		}
+
+		writeLock.lock();
+		try {
+			TimerDataBlock block = blocks.peekLast();
+			if ((null == block) || block.isFull()) {
+				block = addBlock();
+			}
+			block.add(timerData);
+		} finally {
+			writeLock.unlock();
+		}
+		return true;
+	}
+
+	/**
+	 * Adds a new block, evicting the oldest blocks if the new one would exceed the maximum size.
+	 * There is always at least one block. Must be called with the write lock held.
+	 *
+	 * @return Added block.
+	 */
+	private TimerDataBlock addBlock() {
+		long blockSize = TimerDataBlock.getMemorySize(BLOCK_CAPACITY);
+		while ((blockCount > 0) && ((blockCount + 1) * blockSize > maxSize)) {
+			TimerDataBlock evicted = blocks.pollFirst();
+			blockCount--;
+			elementsEvicted.addAndGet(evicted.getSize());
+		}
+
+		TimerDataBlock block = new TimerDataBlock(BLOCK_CAPACITY);
+		blocks.addLast(block);
+		blockCount++;
+		return block;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<TimerData> getAggregatedTimerData(long platformIdent, long methodIdent, Date fromDate, Date toDate) {
+		if (!active) {
+			return Collections.emptyList();
+		}
+
+		long fromTime = Long.MIN_VALUE;
+		long toTime = Long.MAX_VALUE;
+		// same as the interval of the index query
+		if ((null == fromDate) || (null == toDate) || fromDate.before(toDate)) {
+			if (null != fromDate) {
+				fromTime = fromDate.getTime();
+			}
+			if (null != toDate) {
+				toTime = toDate.getTime();
+			}
+		}
+		Map<Long, AggregatedTimerData> aggregatedMap = new HashMap<>();
+		for (TimerDataBlock block : blocks) {
+			block.aggregate(platformIdent, methodIdent, fromTime, toTime, aggregatedMap);
+		}
+		return new ArrayList<TimerData>(aggregatedMap.values());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void clearAll() {
+		writeLock.lock();
+		try {
+			blocks.clear();
+			blockCount = 0;
+			elementsEvicted.set(0);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getNumberOfElements() {
+		long elements = 0;
+		for (TimerDataBlock block : blocks) {
+			elements += block.getSize();
+		}
+		return elements;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getEvictedElements() {
+		return elementsEvicted.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getCurrentSize() {
+		return blockCount * TimerDataBlock.getMemorySize(BLOCK_CAPACITY);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Returns if the timer data can be kept in the segment. The segment only keeps the numeric
+	 * values, thus sub-classes, timer data with parameters or invocation affiliation and timer data
+	 * without time stamp are not supported.
+	 *
+	 * @param timerData
+	 *            Timer data to check.
+	 * @return <code>true</code> if the timer data can be kept in the segment.
+	 */
+	static boolean isSupported(TimerData timerData) {
+		return (TimerData.class == timerData.getClass()) && (null != timerData.getTimeStamp()) && !timerData.providesCapturedParameters()
+				&& MapUtils.isEmpty(timerData.getInvocationsParentsIdMap());
+	}
+
+	/**
+	 * Is executed after dependency injection is done to perform any initialization.
+	 */
+	@PostConstruct
+	public void postConstruct() {
+		if (active && log.isInfoEnabled()) {
+			log.info("|-Using off-heap timer data segment with maximum size " + NumberFormat.getInstance().format(maxSize) + " bytes...");
+		}
+	}
+
+}
@@ -0,0 +1,331 @@
+package rocks.inspectit.server.cache.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.util.Map;
+
+import rocks.inspectit.shared.all.communication.data.AggregatedTimerData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+
+/**
+ * Block of timer data values kept outside of the Java heap. Every value needed for the aggregation
+ * has its own column, so the scans only touch the columns they need. Block is filled by one thread at a
+ * time and can be read concurrently, the rows are visible to the readers after they are completely
+ * written.
+ */
+final class TimerDataBlock {
+
+	/**
+	 * Number of long columns.
+	 */
+	private static final int LONG_COLUMNS = 6;
+
+	/**
+	 * Number of double columns.
+	 */
+	private static final int DOUBLE_COLUMNS = 9;
+
+	/**
+	 * Size of one row in bytes, the charting flag takes one byte.
+	 */
+	static final int ROW_SIZE = (LONG_COLUMNS * 8) + (DOUBLE_COLUMNS * 8) + 1;
+
+	/**
+	 * Maximum number of rows in the block.
+	 */
+	private final int capacity;
+
+	/**
+	 * Time stamps in milliseconds.
+	 */
+	private final LongBuffer timestamps;
+
+	/**
+	 * Platform idents.
+	 */
+	private final LongBuffer platformIdents;
+
+	/**
+	 * Sensor type idents.
+	 */
+	private final LongBuffer sensorTypeIdents;
+
+	/**
+	 * Method idents.
+	 */
+	private final LongBuffer methodIdents;
+
+	/**
+	 * Counts.
+	 */
+	private final LongBuffer counts;
+
+	/**
+	 * Exclusive counts.
+	 */
+	private final LongBuffer exclusiveCounts;
+
+	/**
+	 * Durations.
+	 */
+	private final DoubleBuffer durations;
+
+	/**
+	 * Minimum durations.
+	 */
+	private final DoubleBuffer mins;
+
+	/**
+	 * Maximum durations.
+	 */
+	private final DoubleBuffer maxs;
+
+	/**
+	 * CPU durations.
+	 */
+	private final DoubleBuffer cpuDurations;
+
+	/**
+	 * Minimum CPU durations.
+	 */
+	private final DoubleBuffer cpuMins;
+
+	/**
+	 * Maximum CPU durations.
+	 */
+	private final DoubleBuffer cpuMaxs;
+
+	/**
+	 * Exclusive durations.
+	 */
+	private final DoubleBuffer exclusiveDurations;
+
+	/**
+	 * Minimum exclusive durations.
+	 */
+	private final DoubleBuffer exclusiveMins;
+
+	/**
+	 * Maximum exclusive durations.
+	 */
+	private final DoubleBuffer exclusiveMaxs;
+
+	/**
+	 * Charting flags.
+	 */
+	private final ByteBuffer chartings;
+
+	/**
+	 * Number of completely written rows.
+	 */
+	private volatile int size;
+
+	/**
+	 * Smallest time stamp in the block.
+	 */
+	private volatile long minTimestamp = Long.MAX_VALUE;
+
+	/**
+	 * Biggest time stamp in the block.
+	 */
+	private volatile long maxTimestamp = Long.MIN_VALUE;
+
+	/**
+	 * Default constructor. Allocates the memory of the block.
+	 *
+	 * @param capacity
+	 *            Maximum number of rows in the block.
+	 */
+	TimerDataBlock(int capacity) {
+		this.capacity = capacity;
+		ByteBuffer memory = ByteBuffer.allocateDirect(capacity * ROW_SIZE);
+		int column = 0;
+		timestamps = getColumn(memory, column++, 8).asLongBuffer();
+		platformIdents = getColumn(memory, column++, 8).asLongBuffer();
+		sensorTypeIdents = getColumn(memory, column++, 8).asLongBuffer();
+		methodIdents = getColumn(memory, column++, 8).asLongBuffer();
+		counts = getColumn(memory, column++, 8).asLongBuffer();
+		exclusiveCounts = getColumn(memory, column++, 8).asLongBuffer();
+		durations = getColumn(memory, column++, 8).asDoubleBuffer();
+		mins = getColumn(memory, column++, 8).asDoubleBuffer();
+		maxs = getColumn(memory, column++, 8).asDoubleBuffer();
+		cpuDurations = getColumn(memory, column++, 8).asDoubleBuffer();
+		cpuMins = getColumn(memory, column++, 8).asDoubleBuffer();
+		cpuMaxs = getColumn(memory, column++, 8).asDoubleBuffer();
+		exclusiveDurations = getColumn(memory, column++, 8).asDoubleBuffer();
+		exclusiveMins = getColumn(memory, column++, 8).asDoubleBuffer();
+		exclusiveMaxs = getColumn(memory, column++, 8).asDoubleBuffer();
+		chartings = getColumn(memory, column, 1);
+	}
+
+	/**
+	 * Returns the part of the memory for the column with the given index. All columns before the
+	 * given one must have 8 bytes values.
+	 *
+	 * @param memory
+	 *            Memory of the block.
+	 * @param index
+	 *            Index of the column.
+	 * @param valueSize
+	 *            Size of one value of the column in bytes.
+	 * @return Column memory.
+	 */
+	private ByteBuffer getColumn(ByteBuffer memory, int index, int valueSize) {
+		ByteBuffer duplicate = memory.duplicate();
+		int offset = index * capacity * 8;
+		duplicate.position(offset);
+		duplicate.limit(offset + (capacity * valueSize));
+		return duplicate.slice().order(ByteOrder.nativeOrder());
+	}
+
+	/**
+	 * Adds the values of the timer data as a new row. Must not be called concurrently and only if
+	 * the block is not full.
+	 *
+	 * @param timerData
+	 *            Timer data.
+	 */
+	void add(TimerData timerData) {
+		int row = size;
+		long timestamp = timerData.getTimeStamp().getTime();
+		timestamps.put(row, timestamp);
+		platformIdents.put(row, timerData.getPlatformIdent());
+		sensorTypeIdents.put(row, timerData.getSensorTypeIdent());
+		methodIdents.put(row, timerData.getMethodIdent());
+		counts.put(row, timerData.getCount());
+		exclusiveCounts.put(row, timerData.getExclusiveCount());
+		durations.put(row, timerData.getDuration());
+		mins.put(row, timerData.getMin());
+		maxs.put(row, timerData.getMax());
+		cpuDurations.put(row, timerData.getCpuDuration());
+		cpuMins.put(row, timerData.getCpuMin());
+		cpuMaxs.put(row, timerData.getCpuMax());
+		exclusiveDurations.put(row, timerData.getExclusiveDuration());
+		exclusiveMins.put(row, timerData.getExclusiveMin());
+		exclusiveMaxs.put(row, timerData.getExclusiveMax());
+		chartings.put(row, timerData.isCharting() ? (byte) 1 : (byte) 0);
+
+		if (timestamp < minTimestamp) {
+			minTimestamp = timestamp;
+		}
+		if (timestamp > maxTimestamp) {
+			maxTimestamp = timestamp;
+		}
+		// publish the row
+		size = row + 1;
+	}
+
+	/**
+	 * Aggregates the rows matching the given restrictions into the given map of aggregated timer
+	 * data by method ident. The matching rows are selected in a first pass over the restricted
+	 * columns only, then the selected rows are aggregated.
+	 *
+	 * @param platformIdent
+	 *            Platform ident or <code>0</code> for all platforms.
+	 * @param methodIdent
+	 *            Method ident or <code>0</code> for all methods.
+	 * @param fromTime
+	 *            Minimum time stamp in milliseconds.
+	 * @param toTime
+	 *            Maximum time stamp in milliseconds.
+	 * @param aggregatedMap
+	 *            Map of aggregated timer data by method ident to aggregate into.
+	 */
+	void aggregate(long platformIdent, long methodIdent, long fromTime, long toTime, Map<Long, AggregatedTimerData> aggregatedMap) {
+		int rows = size;
+		if (0 == rows || fromTime > maxTimestamp || toTime < minTimestamp) {
+			return;
+		}
+
+		int[] selection = new int[rows];
+		int selected = 0;
+		for (int i = 0; i < rows; i++) {
+			long timestamp = timestamps.get(i);
+			if ((timestamp >= fromTime) && (timestamp <= toTime) && ((0 == platformIdent) || (platformIdent == platformIdents.get(i)))
+					&& ((0 == methodIdent) || (methodIdent == methodIdents.get(i)))) {
+				selection[selected++] = i;
+			}
+		}
+
+		AggregatedTimerData aggregatedTimerData = null;
+		for (int j = 0; j < selected; j++) {
+			int i = selection[j];
+			long rowMethodIdent = methodIdents.get(i);
+			if ((null == aggregatedTimerData) || (aggregatedTimerData.getMethodIdent() != rowMethodIdent)) {
+				aggregatedTimerData = aggregatedMap.get(rowMethodIdent);
+				if (null == aggregatedTimerData) {
+					aggregatedTimerData = new AggregatedTimerData();
+					aggregatedTimerData.setPlatformIdent(platformIdents.get(i));
+					aggregatedTimerData.setSensorTypeIdent(sensorTypeIdents.get(i));
+					aggregatedTimerData.setMethodIdent(rowMethodIdent);
+					aggregatedMap.put(rowMethodIdent, aggregatedTimerData);
+				}
+			}
+			aggregateRow(aggregatedTimerData, i);
+		}
+	}
+
+	/**
+	 * Aggregates one row in the same way as {@link TimerData#aggregateTimerData(TimerData)}.
+	 *
+	 * @param aggregatedTimerData
+	 *            Timer data to aggregate to.
+	 * @param row
+	 *            Row index.
+	 */
+	private void aggregateRow(AggregatedTimerData aggregatedTimerData, int row) {
+		aggregatedTimerData.setCount(aggregatedTimerData.getCount() + counts.get(row));
+		aggregatedTimerData.addDuration(durations.get(row));
+		aggregatedTimerData.calculateMax(maxs.get(row));
+		aggregatedTimerData.calculateMin(mins.get(row));
+
+		double cpuMin = cpuMins.get(row);
+		if (-1 != cpuMin) {
+			aggregatedTimerData.addCpuDuration(cpuDurations.get(row));
+			aggregatedTimerData.calculateCpuMax(cpuMaxs.get(row));
+			aggregatedTimerData.calculateCpuMin(cpuMin);
+		}
+		double exclusiveMin = exclusiveMins.get(row);
+		if (-1 != exclusiveMin) {
+			aggregatedTimerData.addExclusiveDuration(exclusiveDurations.get(row));
+			aggregatedTimerData.setExclusiveCount(aggregatedTimerData.getExclusiveCount() + exclusiveCounts.get(row));
+			aggregatedTimerData.calculateExclusiveMax(exclusiveMaxs.get(row));
+			aggregatedTimerData.calculateExclusiveMin(exclusiveMin);
+		}
+		if (0 != chartings.get(row)) {
+			aggregatedTimerData.setCharting(true);
+		}
+	}
+
+	/**
+	 * Returns if no more rows can be added.
+	 *
+	 * @return <code>true</code> if the block is full.
+	 */
+	boolean isFull() {
+		return size >= capacity;
+	}
+
+	/**
+	 * Returns the number of rows in the block.
+	 *
+	 * @return Number of rows.
+	 */
+	int getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the memory occupied by a block with the given capacity in bytes.
+	 *
+	 * @param capacity
+	 *            Maximum number of rows in the block.
+	 * @return Size in bytes.
+	 */
+	static long getMemorySize(int capacity) {
+		return (long) capacity * ROW_SIZE;
+	}
+
+}
@@ -12,7 +12,6 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.indexing.IIndexQuery;
 import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
-import rocks.inspectit.shared.cs.indexing.aggregation.impl.AggregationPerformer;
 import rocks.inspectit.shared.cs.indexing.buffer.IBufferTreeComponent;
 
 /**
@@ -174,16 +173,25 @@ public abstract class AbstractBufferDataDao<E extends DefaultData> {
 	protected List<E> executeQuery(IIndexQuery indexQuery, IAggregator<E> aggregator, Comparator<? super E> comparator, int limit, boolean useForkJoin) {
 		List<E> data;
 		
-		if (useForkJoin) {
+		if (null == aggregator && null != comparator && limit > 0) {
+			// every tree component keeps only the first elements, so the full result is never sorted
+			if (useForkJoin) {
+				return indexingTree.query(indexQuery, comparator, limit, forkJoinPool);
+			} else {
+				return indexingTree.query(indexQuery, comparator, limit);
+			}
+		} else if (null != aggregator) {
+			// the tree aggregates in every component, so the matching elements are never collected
+			if (useForkJoin) {
+				data = indexingTree.query(indexQuery, aggregator, forkJoinPool);
+			} else {
+				data = indexingTree.query(indexQuery, aggregator);
+			}
+		} else if (useForkJoin) {
 			data = indexingTree.query(indexQuery, forkJoinPool);
 		} else {
 			data = indexingTree.query(indexQuery);
 		}
-		if (null != aggregator) {
-			AggregationPerformer<E> aggregationPerformer = new AggregationPerformer<E>(aggregator);
-			aggregationPerformer.processCollection(data);
-			data = aggregationPerformer.getResultList();
-		}
 
 		if (null != comparator) {
 			Collections.sort(data, comparator);
@@ -61,9 +61,9 @@ public class BufferInvocationDataDaoImpl extends AbstractBufferDataDao<Invocatio
 		IIndexQuery query = invocationDataQueryFactory.getInvocationSequenceOverview(platformId, methodId, limit, fromDate, toDate);
 		List<InvocationSequenceData> resultWithChildren;
 		if (null != comparator) {
-			resultWithChildren = super.executeQuery(query, comparator, limit, false);
+			resultWithChildren = super.executeQuery(query, comparator, limit, true);
 		} else {
-			resultWithChildren = super.executeQuery(query, DefaultDataComparatorEnum.TIMESTAMP, limit, false);
+			resultWithChildren = super.executeQuery(query, DefaultDataComparatorEnum.TIMESTAMP, limit, true);
 		}
 		List<InvocationSequenceData> realResults = new ArrayList<InvocationSequenceData>(resultWithChildren.size());
 		for (InvocationSequenceData invocationSequenceData : resultWithChildren) {
@@ -81,9 +81,9 @@ public class BufferInvocationDataDaoImpl extends AbstractBufferDataDao<Invocatio
 		IIndexQuery query = invocationDataQueryFactory.getInvocationSequenceOverview(platformId, invocationIdCollection, limit);
 		List<InvocationSequenceData> resultWithChildren;
 		if (null != comparator) {
-			resultWithChildren = super.executeQuery(query, comparator, limit, false);
+			resultWithChildren = super.executeQuery(query, comparator, limit, true);
 		} else {
-			resultWithChildren = super.executeQuery(query, DefaultDataComparatorEnum.TIMESTAMP, limit, false);
+			resultWithChildren = super.executeQuery(query, DefaultDataComparatorEnum.TIMESTAMP, limit, true);
 		}
 		List<InvocationSequenceData> realResults = new ArrayList<InvocationSequenceData>(resultWithChildren.size());
 		for (InvocationSequenceData invocationSequenceData : resultWithChildren) {
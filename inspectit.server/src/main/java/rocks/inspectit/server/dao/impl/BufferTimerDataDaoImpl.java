@@ -6,11 +6,13 @@ import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import rocks.inspectit.server.cache.ITimerDataSegment;
 import rocks.inspectit.server.dao.TimerDataDao;
 import rocks.inspectit.shared.all.communication.data.TimerData;
 import rocks.inspectit.shared.all.indexing.IIndexQuery;
 import rocks.inspectit.shared.cs.indexing.AbstractBranch;
 import rocks.inspectit.shared.cs.indexing.aggregation.Aggregators;
+import rocks.inspectit.shared.cs.indexing.aggregation.impl.AggregationPerformer;
 import rocks.inspectit.shared.cs.indexing.query.factory.impl.TimerDataQueryFactory;
 
 /**
@@ -30,6 +32,12 @@ public class BufferTimerDataDaoImpl extends AbstractBufferDataDao<TimerData> imp
 	@Autowired
 	private TimerDataQueryFactory<IIndexQuery> timerDataQueryFactory;
 
+	/**
+	 * Segment holding the timer data that is not in the indexing tree.
+	 */
+	@Autowired
+	private ITimerDataSegment timerDataSegment;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -39,9 +47,22 @@ public class BufferTimerDataDaoImpl extends AbstractBufferDataDao<TimerData> imp
 
 	/**
 	 * {@inheritDoc}
+	 * <p>
+	 * The results of the indexing tree are merged with the aggregated data of the
+	 * {@link ITimerDataSegment} if the segment is active.
 	 */
 	public List<TimerData> getAggregatedTimerData(TimerData timerData, Date fromDate, Date toDate) {
 		IIndexQuery query = timerDataQueryFactory.getAggregatedTimerDataQuery(timerData, fromDate, toDate);
-		return super.executeQuery(query, Aggregators.TIMER_DATA_AGGREGATOR, true);
+		List<TimerData> result = super.executeQuery(query, Aggregators.TIMER_DATA_AGGREGATOR, true);
+		if (timerDataSegment.isActive()) {
+			List<TimerData> segmentResult = timerDataSegment.getAggregatedTimerData(timerData.getPlatformIdent(), timerData.getMethodIdent(), fromDate, toDate);
+			if (!segmentResult.isEmpty()) {
+				AggregationPerformer<TimerData> aggregationPerformer = new AggregationPerformer<>(Aggregators.TIMER_DATA_AGGREGATOR);
+				aggregationPerformer.processCollection(result);
+				aggregationPerformer.processCollection(segmentResult);
+				result = aggregationPerformer.getResultList();
+			}
+		}
+		return result;
 	}
 }
@@ -1,10 +1,16 @@
 package rocks.inspectit.server.dao.impl;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
 import javax.annotation.PostConstruct;
@@ -22,6 +28,16 @@ import rocks.inspectit.shared.all.communication.data.TimerData;
 
 /**
  * Aggregator for the {@link TimerData} objects that need to be persisted to the DB.
+ * <p>
+ * The cache is split into shards, each guarded by its own lock, so that threads aggregating
+ * different methods do not contend. Entries are keyed by the complete platform ident, method
+ * ident and aggregation time stamp. The insertion order is kept in a lock-free queue over all
+ * shards, evicting or persisting an entry only locks the shard owning it.
+ * <p>
+ * If a persist batch size is set, the objects are persisted ordered by time stamp, platform and
+ * method and the entity manager is flushed and cleared after every batch, so that the inserts are
+ * sent as JDBC batches and the persistence context does not grow with the amount of persisted
+ * objects.
  * 
  * @author Ivan Senic
  * @see https://inspectit-performance.atlassian.net/wiki/display/DEV/TimerData+Aggregator
@@ -49,15 +65,44 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 	@Value("${cmr.cacheCleanSleepingPeriod}")
 	long cacheCleanSleepingPeriod;
 
+	/**
+	 * Amount of objects persisted before the entity manager is flushed and cleared. Zero or less
+	 * persists all objects in one flush at the end of the transaction.
+	 */
+	@Value("${cmr.aggregationPersistBatchSize}")
+	int persistBatchSize;
+
+	/**
+	 * Order in which the objects are persisted in batched mode.
+	 */
+	private static final Comparator<TimerData> PERSIST_ORDER = new Comparator<TimerData>() {
+		@Override
+		public int compare(TimerData o1, TimerData o2) {
+			int result = Long.compare(o1.getTimeStamp().getTime(), o2.getTimeStamp().getTime());
+			if (0 == result) {
+				result = Long.compare(o1.getPlatformIdent(), o2.getPlatformIdent());
+			}
+			if (0 == result) {
+				result = Long.compare(o1.getMethodIdent(), o2.getMethodIdent());
+			}
+			return result;
+		}
+	};
+
 	/**
 	 * Current element count in cache.
 	 */
 	private AtomicInteger elementCount;
 
 	/**
-	 * Map for caching.
+	 * Number of shards, must be a power of two.
 	 */
-	private Map<Integer, TimerData> map;
+	private static final int SHARDS = 64;
+
+	/**
+	 * Shards of the cache.
+	 */
+	private final Shard[] shards;
 
 	/**
 	 * Queue for knowing the order.
@@ -69,11 +114,6 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 	 */
 	private ConcurrentLinkedQueue<TimerData> persistList;
 
-	/**
-	 * Lock for persist all.
-	 */
-	private ReentrantLock persistAllLock;
-
 	/**
 	 * Cache cleaner.
 	 */
@@ -84,6 +124,26 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 	 */
 	private TransactionTemplate tt;
 
+	/**
+	 * Amount of persisted objects.
+	 */
+	private final AtomicLong persistedCount = new AtomicLong();
+
+	/**
+	 * Summed up duration of the persist transactions in nanoseconds.
+	 */
+	private final AtomicLong persistNanos = new AtomicLong();
+
+	/**
+	 * Amount of flushes of the entity manager in batched mode.
+	 */
+	private final AtomicLong flushCount = new AtomicLong();
+
+	/**
+	 * Summed up duration of the flushes in nanoseconds.
+	 */
+	private final AtomicLong flushNanos = new AtomicLong();
+
 	/**
 	 * Default constructor.
 	 * 
@@ -94,10 +154,12 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 	public TimerDataAggregator(PlatformTransactionManager transactionManager) {
 		super(TimerData.class);
 		elementCount = new AtomicInteger(0);
-		map = new HashMap<Integer, TimerData>();
+		shards = new Shard[SHARDS];
+		for (int i = 0; i < SHARDS; i++) {
+			shards[i] = new Shard();
+		}
 		queue = new ConcurrentLinkedQueue<TimerData>();
 		persistList = new ConcurrentLinkedQueue<TimerData>();
-		persistAllLock = new ReentrantLock();
 
 		this.tt = new TransactionTemplate(transactionManager);
 	}
@@ -111,37 +173,46 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 	 */
 	public void processTimerData(TimerData timerData) {
 		long aggregationTimestamp = getAlteredTimestamp(timerData);
-		int cacheHash = getCacheHash(timerData.getPlatformIdent(), timerData.getMethodIdent(), aggregationTimestamp);
+		CacheKey cacheKey = new CacheKey(timerData.getPlatformIdent(), timerData.getMethodIdent(), aggregationTimestamp);
+		Shard shard = getShard(cacheKey);
 
-		persistAllLock.lock();
+		boolean added = false;
+		shard.lock();
 		try {
-			TimerData aggTimerData = map.get(cacheHash);
+			TimerData aggTimerData = shard.map.get(cacheKey);
 			if (aggTimerData == null) {
 				// we create a DB aggregated timer data because we don't want to alter objects that
 				// are in the memory
 				aggTimerData = new DatabaseAggregatedTimerData(new Timestamp(aggregationTimestamp), timerData.getPlatformIdent(), timerData.getSensorTypeIdent(), timerData.getMethodIdent());
-				map.put(cacheHash, aggTimerData);
+				shard.map.put(cacheKey, aggTimerData);
 				queue.add(aggTimerData);
+				added = true;
 
 				// set most recently in cleaner
 				if (null != timerDataAggregatorCacheCleaner) {
 					timerDataAggregatorCacheCleaner.setMostRecentlyAdded(aggTimerData);
 				}
-
-				int count = elementCount.incrementAndGet();
-				// remove oldest as long as number of elements is higher than maximum
-				while (maxElements < count) {
-					TimerData oldest = queue.poll();
-					if (null != oldest) {
-						map.remove(getCacheHash(oldest.getPlatformIdent(), oldest.getMethodIdent(), oldest.getTimeStamp().getTime()));
-						persistList.add(oldest);
-						count = elementCount.decrementAndGet();
-					}
-				}
 			}
 			aggTimerData.aggregateTimerData(timerData);
 		} finally {
-			persistAllLock.unlock();
+			shard.unlock();
+		}
+
+		if (added) {
+			int count = elementCount.incrementAndGet();
+			// remove oldest as long as number of elements is higher than maximum
+			while (maxElements < count) {
+				TimerData oldest = queue.poll();
+				if (null == oldest) {
+					break;
+				}
+				if (remove(oldest)) {
+					persistList.add(oldest);
+					count = elementCount.decrementAndGet();
+				} else {
+					count = elementCount.get();
+				}
+			}
 		}
 	}
 
@@ -150,24 +221,22 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 	 */
 	public void removeAndPersistAll() {
 		if (!queue.isEmpty()) {
-			persistAllLock.lock();
-			try {
-				tt.execute(new TransactionCallbackWithoutResult() {
-					@Override
-					protected void doInTransactionWithoutResult(TransactionStatus status) {
-						TimerData oldest = queue.poll();
-						while (oldest != null) {
-							map.remove(getCacheHash(oldest.getPlatformIdent(), oldest.getMethodIdent(), oldest.getTimeStamp().getTime()));
-							TimerDataAggregator.super.create(oldest);
-							elementCount.decrementAndGet();
-
-							oldest = queue.poll();
-						}
-					}
-				});
-			} finally {
-				persistAllLock.unlock();
+			// every entry is removed under the lock of its shard only, the aggregation is never
+			// blocked during the database work
+			final List<TimerData> removed = new ArrayList<>();
+			TimerData oldest = queue.poll();
+			while (oldest != null) {
+				if (remove(oldest)) {
+					removed.add(oldest);
+					elementCount.decrementAndGet();
+				}
+				oldest = queue.poll();
+			}
+			if (removed.isEmpty()) {
+				return;
 			}
+
+			persist(removed, false);
 		}
 	}
 
@@ -176,38 +245,104 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 	 */
 	void saveAllInPersistList() {
 		if (!persistList.isEmpty()) {
-			tt.execute(new TransactionCallbackWithoutResult() {
-				@Override
-				protected void doInTransactionWithoutResult(TransactionStatus status) {
-					TimerData last = persistList.poll();
-					while (last != null) {
-						last.finalizeData();
-						TimerDataAggregator.super.create(last);
-						last = persistList.poll();
+			List<TimerData> toPersist = new ArrayList<>();
+			TimerData last = persistList.poll();
+			while (last != null) {
+				toPersist.add(last);
+				last = persistList.poll();
+			}
+			persist(toPersist, true);
+		}
+	}
+
+	/**
+	 * Persists the objects in one transaction. In batched mode the objects are sorted and the
+	 * entity manager is flushed and cleared after every {@link #persistBatchSize} objects.
+	 * 
+	 * @param timerDataList
+	 *            Objects to persist.
+	 * @param finalizeData
+	 *            If {@link TimerData#finalizeData()} should be called before persisting.
+	 */
+	private void persist(final List<TimerData> timerDataList, final boolean finalizeData) {
+		final int batchSize = persistBatchSize;
+		if (batchSize > 0) {
+			Collections.sort(timerDataList, PERSIST_ORDER);
+		}
+
+		long start = System.nanoTime();
+		tt.execute(new TransactionCallbackWithoutResult() {
+			@Override
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				int inBatch = 0;
+				for (TimerData timerData : timerDataList) {
+					if (finalizeData) {
+						timerData.finalizeData();
+					}
+					TimerDataAggregator.super.create(timerData);
+
+					inBatch++;
+					if ((batchSize > 0) && (inBatch >= batchSize)) {
+						flushAndClear();
+						inBatch = 0;
 					}
 				}
-			});
+				if ((batchSize > 0) && (inBatch > 0)) {
+					flushAndClear();
+				}
+			}
+		});
+		persistNanos.addAndGet(System.nanoTime() - start);
+		persistedCount.addAndGet(timerDataList.size());
+	}
+
+	/**
+	 * Flushes the pending inserts to the database and detaches the persisted objects.
+	 */
+	private void flushAndClear() {
+		long start = System.nanoTime();
+		getEntityManager().flush();
+		getEntityManager().clear();
+		flushNanos.addAndGet(System.nanoTime() - start);
+		flushCount.incrementAndGet();
+	}
+
+	/**
+	 * Removes the aggregated timer data from its shard.
+	 * 
+	 * @param aggTimerData
+	 *            Aggregated timer data to remove.
+	 * @return <code>true</code> if the object was removed, <code>false</code> if it was already
+	 *         removed from the cache.
+	 */
+	private boolean remove(TimerData aggTimerData) {
+		CacheKey cacheKey = new CacheKey(aggTimerData.getPlatformIdent(), aggTimerData.getMethodIdent(), aggTimerData.getTimeStamp().getTime());
+		Shard shard = getShard(cacheKey);
+
+		shard.lock();
+		try {
+			if (shard.map.get(cacheKey) == aggTimerData) { // NOPMD
+				shard.map.remove(cacheKey);
+				return true;
+			}
+			return false;
+		} finally {
+			shard.unlock();
 		}
 	}
 
 	/**
-	 * Returns the cache hash code.
+	 * Returns the shard for the cache key.
 	 * 
-	 * @param platformIdent
-	 *            Platform ident.
-	 * @param methodIdent
-	 *            Method ident.
-	 * @param timestampValue
-	 *            Time stamp value as long.
-	 * @return Cache hash for the given set of values.
-	 */
-	private int getCacheHash(long platformIdent, long methodIdent, long timestampValue) {
-		final int prime = 31;
-		int result = 0;
-		result = prime * result + (int) (platformIdent ^ (platformIdent >>> 32));
-		result = prime * result + (int) (methodIdent ^ (methodIdent >>> 32));
-		result = prime * result + (int) (timestampValue ^ (timestampValue >>> 32));
-		return result;
+	 * @param cacheKey
+	 *            Cache key.
+	 * @return Shard holding the key.
+	 */
+	private Shard getShard(CacheKey cacheKey) {
+		int hash = cacheKey.hashCode();
+		hash ^= (hash >>> 20) ^ (hash >>> 12);
+		hash ^= (hash >>> 7) ^ (hash >>> 4);
+		return shards[hash & (SHARDS - 1)];
 	}
 
 	/**
@@ -262,4 +397,143 @@ public class TimerDataAggregator extends AbstractJpaDao<TimerData> {
 		return elementCount.get();
 	}
 
+	/**
+	 * Returns the amount of persisted objects.
+	 * 
+	 * @return Amount of persisted objects.
+	 */
+	public long getPersistedCount() {
+		return persistedCount.get();
+	}
+
+	/**
+	 * Returns the average amount of objects persisted per second while persisting.
+	 * 
+	 * @return Persisted objects per second or <code>0</code> if nothing was persisted.
+	 */
+	public double getPersistRowsPerSecond() {
+		long nanos = persistNanos.get();
+		if (0 == nanos) {
+			return 0d;
+		}
+		return (double) persistedCount.get() * TimeUnit.SECONDS.toNanos(1) / nanos;
+	}
+
+	/**
+	 * Returns the amount of flushes done in batched mode.
+	 * 
+	 * @return Amount of flushes.
+	 */
+	public long getFlushCount() {
+		return flushCount.get();
+	}
+
+	/**
+	 * Returns the average duration of a flush in batched mode.
+	 * 
+	 * @return Average flush duration in milliseconds or <code>0</code> if no flush was done.
+	 */
+	public double getAverageFlushMillis() {
+		long count = flushCount.get();
+		if (0 == count) {
+			return 0d;
+		}
+		return (double) flushNanos.get() / TimeUnit.MILLISECONDS.toNanos(1) / count;
+	}
+
+	/**
+	 * One shard of the cache. Guarded by its own lock.
+	 */
+	private static final class Shard extends ReentrantLock {
+
+		/**
+		 * Generated UID.
+		 */
+		private static final long serialVersionUID = 4411934719475316236L;
+
+		/**
+		 * Aggregated timer data of the shard.
+		 */
+		private final Map<CacheKey, TimerData> map = new HashMap<>();
+
+	}
+
+	/**
+	 * Key of the cache consisting of the platform ident, method ident and aggregation time stamp.
+	 */
+	private static final class CacheKey {
+
+		/**
+		 * Platform ident.
+		 */
+		private final long platformIdent;
+
+		/**
+		 * Method ident.
+		 */
+		private final long methodIdent;
+
+		/**
+		 * Aggregation time stamp.
+		 */
+		private final long timestamp;
+
+		/**
+		 * Default constructor.
+		 * 
+		 * @param platformIdent
+		 *            Platform ident.
+		 * @param methodIdent
+		 *            Method ident.
+		 * @param timestamp
+		 *            Aggregation time stamp.
+		 */
+		CacheKey(long platformIdent, long methodIdent, long timestamp) {
+			this.platformIdent = platformIdent;
+			this.methodIdent = methodIdent;
+			this.timestamp = timestamp;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + (int) (platformIdent ^ (platformIdent >>> 32));
+			result = prime * result + (int) (methodIdent ^ (methodIdent >>> 32));
+			result = prime * result + (int) (timestamp ^ (timestamp >>> 32));
+			return result;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null) {
+				return false;
+			}
+			if (getClass() != obj.getClass()) {
+				return false;
+			}
+			CacheKey other = (CacheKey) obj;
+			if (platformIdent != other.platformIdent) {
+				return false;
+			}
+			if (methodIdent != other.methodIdent) {
+				return false;
+			}
+			if (timestamp != other.timestamp) {
+				return false;
+			}
+			return true;
+		}
+
+	}
+
 }
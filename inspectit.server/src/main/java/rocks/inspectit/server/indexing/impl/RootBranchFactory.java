@@ -1,9 +1,12 @@
 package rocks.inspectit.server.indexing.impl;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
 import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import rocks.inspectit.server.indexing.impl.RootBranchFactory.RootBranch;
@@ -12,6 +15,7 @@ import rocks.inspectit.shared.cs.indexing.buffer.IBufferBranchIndexer;
 import rocks.inspectit.shared.cs.indexing.buffer.IBufferTreeComponent;
 import rocks.inspectit.shared.cs.indexing.buffer.impl.Branch;
 import rocks.inspectit.shared.cs.indexing.buffer.impl.BufferBranchIndexer;
+import rocks.inspectit.shared.cs.indexing.buffer.impl.LeafIndexType;
 import rocks.inspectit.shared.cs.indexing.impl.IndexingException;
 import rocks.inspectit.shared.cs.indexing.indexer.impl.ObjectTypeIndexer;
 import rocks.inspectit.shared.cs.indexing.indexer.impl.PlatformIdentIndexer;
@@ -27,12 +31,24 @@ import rocks.inspectit.shared.cs.indexing.indexer.impl.TimestampIndexer;
 @Component
 public class RootBranchFactory implements FactoryBean<RootBranch<DefaultData>> {
 
+	/**
+	 * If the leafs should keep the elements sorted by time stamp.
+	 */
+	@Value("${buffer.sortedLeafIndexes}")
+	boolean sortedLeafIndexes;
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public RootBranch<DefaultData> getObject() throws Exception {
-		BufferBranchIndexer<DefaultData> timestampIndexer = new BufferBranchIndexer<DefaultData>(new TimestampIndexer<DefaultData>());
+		List<LeafIndexType> leafIndexTypes;
+		if (sortedLeafIndexes) {
+			leafIndexTypes = Collections.singletonList(LeafIndexType.TIMESTAMP);
+		} else {
+			leafIndexTypes = Collections.emptyList();
+		}
+		BufferBranchIndexer<DefaultData> timestampIndexer = new BufferBranchIndexer<DefaultData>(new TimestampIndexer<DefaultData>(), null, leafIndexTypes);
 		BufferBranchIndexer<DefaultData> objectTypeIndexer = new BufferBranchIndexer<DefaultData>(new ObjectTypeIndexer<DefaultData>(), timestampIndexer);
 		BufferBranchIndexer<DefaultData> platformIndexer = new BufferBranchIndexer<DefaultData>(new PlatformIdentIndexer<DefaultData>(), objectTypeIndexer);
 		return new RootBranch<DefaultData>(platformIndexer);
@@ -5,16 +5,19 @@ import javax.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import rocks.inspectit.server.cache.IBuffer;
+import rocks.inspectit.server.cache.ITimerDataSegment;
 import rocks.inspectit.server.cache.impl.BufferElement;
 import rocks.inspectit.server.processor.AbstractCmrDataProcessor;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.MethodSensorData;
 import rocks.inspectit.shared.all.communication.data.InvocationAwareData;
 import rocks.inspectit.shared.all.communication.data.InvocationSequenceData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
 
 /**
  * Buffer inserter data processor. Inserts only {@link MethodSensorData} data objects that are not
- * part of an invocation.
+ * part of an invocation. {@link TimerData} is inserted to the {@link ITimerDataSegment} if the
+ * segment accepts it.
  * 
  * @author Ivan Senic
  * 
@@ -27,11 +30,20 @@ public class BufferInserterCmrProcessor extends AbstractCmrDataProcessor {
 	@Autowired
 	IBuffer<MethodSensorData> buffer;
 
+	/**
+	 * Segment for the timer data.
+	 */
+	@Autowired
+	ITimerDataSegment timerDataSegment;
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	protected void processData(DefaultData defaultData, EntityManager entityManager) {
+		if ((defaultData instanceof TimerData) && timerDataSegment.put((TimerData) defaultData)) {
+			return;
+		}
 		buffer.put(new BufferElement<MethodSensorData>((MethodSensorData) defaultData));
 	}
 
@@ -2,6 +2,7 @@ package rocks.inspectit.server.rmi;
 
 import java.io.IOException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.slf4j.Logger;
 import org.springframework.beans.factory.BeanInitializationException;
@@ -13,6 +14,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import rocks.inspectit.shared.all.kryonet.Connection;
 import rocks.inspectit.shared.all.kryonet.ExtendedSerializationImpl;
@@ -45,6 +47,13 @@ public class KryoNetServerCreator {
 	@Value("${cmr.port}")
 	private int port;
 
+	/**
+	 * Number of threads that deserialize the incoming data. If 0 the data is deserialized in the
+	 * server thread.
+	 */
+	@Value("${cmr.kryonetDecodeThreads}")
+	private int decodeThreads;
+
 	/**
 	 * Serialization manager to provide {@link Kryo} instance.
 	 */
@@ -65,21 +74,40 @@ public class KryoNetServerCreator {
 	@Qualifier("kryoNetObjectSpaceExecutorService")
 	private ExecutorService executorService;
 
+	/**
+	 * Creates the executor service deserializing the incoming data. The threads are only started
+	 * when tasks are submitted, thus the executor does not cost anything if the data is
+	 * deserialized in the server thread.
+	 * 
+	 * @return Executor service for the deserialization.
+	 */
+	@Bean(name = "kryoNetDecodeExecutorService", destroyMethod = "shutdown")
+	public ExecutorService createDecodeExecutorService() {
+		return Executors.newFixedThreadPool(Math.max(1, decodeThreads), new ThreadFactoryBuilder().setNameFormat("kryonet-decode-thread-%d").setDaemon(true).build());
+	}
+
 	/**
 	 * Start the kryonet server and binds it to the specified port.
 	 * 
+	 * @param decodeExecutorService
+	 *            Executor service for the deserialization, only used if decode threads are
+	 *            defined.
 	 * @return Start the kryonet server and binds it to the specified port.
 	 */
 	@Bean(name = "kryonet-server", destroyMethod = "stop")
-	public Server createServer() {
+	@Autowired
+	public Server createServer(@Qualifier("kryoNetDecodeExecutorService") ExecutorService decodeExecutorService) {
 		IExtendedSerialization serialization = new ExtendedSerializationImpl(serializationManagerProvider);
 
 		Server server = new Server(serialization, streamProvider);
+		if (decodeThreads > 0) {
+			server.setDecodeExecutorService(decodeExecutorService);
+		}
 		server.start();
 
 		try {
 			server.bind(port);
-			log.info("|-Kryonet server successfully started and running on port " + port);
+			log.info("|-Kryonet server successfully started and running on port " + port + (decodeThreads > 0 ? " with " + decodeThreads + " decode threads" : ""));
 		} catch (IOException e) {
 			throw new BeanInitializationException("Could not bind the kryonet server to the specified ports.", e);
 		}
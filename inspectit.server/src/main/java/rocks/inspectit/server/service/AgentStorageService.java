@@ -16,7 +16,9 @@ import org.springframework.stereotype.Service;
 import rocks.inspectit.server.dao.DefaultDataDao;
 import rocks.inspectit.server.spring.aop.MethodLog;
 import rocks.inspectit.server.util.AgentStatusDataProvider;
+import rocks.inspectit.server.util.ByteBoundedBlockingQueue;
 import rocks.inspectit.server.util.Converter;
+import rocks.inspectit.shared.all.cmr.cache.IObjectSizes;
 import rocks.inspectit.shared.all.cmr.property.spring.PropertyUpdate;
 import rocks.inspectit.shared.all.cmr.service.IAgentStorageService;
 import rocks.inspectit.shared.all.communication.DefaultData;
@@ -26,6 +28,11 @@ import rocks.inspectit.shared.cs.cmr.service.ICmrManagementService;
 /**
  * The default implementation of the {@link IAgentStorageService} interface. Uses an implementation
  * of the {@link DefaultDataDao} interface to save and retrieve the data objects from the database.
+ * <p>
+ * In the lossless mode the incoming data is put into a queue bounded by the size of the data in
+ * bytes. If the queue is full the data is rejected and the Agent is told to keep it and send it
+ * again later, no data is dropped on the CMR. The processing threads take several lists at once
+ * and pass them to the {@link DefaultDataDao} together.
  * 
  * @author Patrice Bouillet
  * 
@@ -76,6 +83,36 @@ public class AgentStorageService implements IAgentStorageService {
 	@Value("${cmr.agentStorageServiceThreadCount}")
 	private int threadCount;
 
+	/**
+	 * If the lossless mode with back pressure to the Agents is active.
+	 */
+	@Value("${cmr.agentStorageServiceLossless}")
+	boolean lossless;
+
+	/**
+	 * Maximum size of the data in the queue of the lossless mode in bytes.
+	 */
+	@Value("${cmr.agentStorageServiceQueueSize}")
+	long queueSize;
+
+	/**
+	 * Maximum amount of lists a processing thread takes from the queue at once in the lossless
+	 * mode.
+	 */
+	@Value("${cmr.agentStorageServiceDrainBatches}")
+	int drainBatches;
+
+	/**
+	 * {@link IObjectSizes} for the size of the incoming data in the lossless mode.
+	 */
+	@Autowired
+	IObjectSizes objectSizes;
+
+	/**
+	 * Queue of the lossless mode. <code>null</code> if the lossless mode is not active.
+	 */
+	private ByteBoundedBlockingQueue<List<? extends DefaultData>> losslessQueue;
+
 	/**
 	 * List of currently active threads that process the data.
 	 */
@@ -97,15 +134,30 @@ public class AgentStorageService implements IAgentStorageService {
 		this.dataObjectsBlockingQueue = dataObjectsBlockingQueue;
 	}
 
+	/**
+	 * Constructor that can be used in testing for suppling the queue of the lossless mode.
+	 * 
+	 * @param losslessQueue
+	 *            Queue of the lossless mode.
+	 */
+	AgentStorageService(ByteBoundedBlockingQueue<List<? extends DefaultData>> losslessQueue) {
+		this.losslessQueue = losslessQueue;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@MethodLog
-	public void addDataObjects(final List<? extends DefaultData> dataObjects) {
-		SoftReference<List<? extends DefaultData>> softReference = new SoftReference<List<? extends DefaultData>>(dataObjects);
+	public boolean addDataObjects(final List<? extends DefaultData> dataObjects) {
 		if (!dataObjects.isEmpty()) {
 			platformIdentDateSaver.registerDataSent(dataObjects.get(0).getPlatformIdent());
 		}
+
+		if (null != losslessQueue) {
+			return addDataObjectsLossless(dataObjects);
+		}
+
+		SoftReference<List<? extends DefaultData>> softReference = new SoftReference<List<? extends DefaultData>>(dataObjects);
 		try {
 			boolean added = dataObjectsBlockingQueue.offer(softReference, DATA_THROW_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
 			if (!added) {
@@ -116,8 +168,34 @@ public class AgentStorageService implements IAgentStorageService {
 				cmrManagementService.addDroppedDataCount(droppedSize);
 			}
 		} catch (InterruptedException e) {
-			return;
+			return true;
 		}
+		return true;
+	}
+
+	/**
+	 * Adds the data to the queue of the lossless mode.
+	 * 
+	 * @param dataObjects
+	 *            The list containing all the data objects.
+	 * @return <code>true</code> if the data was added, <code>false</code> if the queue is full and
+	 *         the Agent has to send the data again.
+	 */
+	private boolean addDataObjectsLossless(List<? extends DefaultData> dataObjects) {
+		long size = 0;
+		for (DefaultData data : dataObjects) {
+			size += data.getObjectSize(objectSizes);
+		}
+
+		boolean added = losslessQueue.offer(dataObjects, size);
+		if (!added) {
+			int rejectedSize = dataObjects.size();
+			if (log.isTraceEnabled()) {
+				log.trace("Data rejected on the CMR due to the high volume of incoming data from Agent(s), the Agent will resend it. Rejected data objects count: " + rejectedSize);
+			}
+			cmrManagementService.addRejectedDataCount(rejectedSize);
+		}
+		return added;
 	}
 
 	/**
@@ -163,6 +241,9 @@ public class AgentStorageService implements IAgentStorageService {
 	 */
 	@PostConstruct
 	public void postConstruct() throws Exception {
+		if (lossless) {
+			losslessQueue = new ByteBoundedBlockingQueue<>(queueSize);
+		}
 		updateThreadCount();
 
 		if (log.isInfoEnabled()) {
@@ -201,6 +282,13 @@ public class AgentStorageService implements IAgentStorageService {
 					break;
 				}
 
+				if (null != losslessQueue) {
+					if (!processLossless()) {
+						return;
+					}
+					continue;
+				}
+
 				SoftReference<List<? extends DefaultData>> softReference = null;
 				try {
 					softReference = dataObjectsBlockingQueue.take();
@@ -228,5 +316,48 @@ public class AgentStorageService implements IAgentStorageService {
 				}
 			}
 		}
+
+		/**
+		 * Takes up to {@link AgentStorageService#drainBatches} lists from the lossless queue and
+		 * saves them with one call to the {@link DefaultDataDao}.
+		 * 
+		 * @return <code>false</code> if the thread was interrupted.
+		 */
+		private boolean processLossless() {
+			List<List<? extends DefaultData>> batches = new ArrayList<>(drainBatches);
+			try {
+				losslessQueue.drainTo(batches, Math.max(1, drainBatches));
+			} catch (InterruptedException e) {
+				this.interrupt();
+				return false;
+			}
+
+			List<? extends DefaultData> defaultDataList;
+			if (batches.size() == 1) {
+				defaultDataList = batches.get(0);
+			} else {
+				List<DefaultData> joined = new ArrayList<>();
+				for (List<? extends DefaultData> batch : batches) {
+					joined.addAll(batch);
+				}
+				defaultDataList = joined;
+			}
+
+			for (DefaultData data : defaultDataList) {
+				data.finalizeData();
+			}
+
+			long time = 0;
+			if (log.isDebugEnabled()) {
+				time = System.nanoTime();
+			}
+
+			defaultDataDao.saveAll(defaultDataList);
+
+			if (log.isDebugEnabled()) {
+				log.debug("Data Objects count: " + defaultDataList.size() + " from " + batches.size() + " batches, Save duration: " + Converter.nanoToMilliseconds(System.nanoTime() - time));
+			}
+			return true;
+		}
 	}
 }
@@ -9,6 +9,7 @@ import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collection;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.PostConstruct;
 
@@ -18,6 +19,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import rocks.inspectit.server.cache.IBuffer;
+import rocks.inspectit.server.cache.ITimerDataSegment;
+import rocks.inspectit.server.dao.impl.TimerDataAggregator;
 import rocks.inspectit.server.property.PropertyManager;
 import rocks.inspectit.server.spring.aop.MethodLog;
 import rocks.inspectit.server.util.ShutdownService;
@@ -53,6 +56,12 @@ public class CmrManagementService implements ICmrManagementService {
 	@Autowired
 	private IBuffer<DefaultData> buffer;
 
+	/**
+	 * Timer data segment of the buffer.
+	 */
+	@Autowired
+	private ITimerDataSegment timerDataSegment;
+
 	/**
 	 * {@link StorageManager}.
 	 */
@@ -65,11 +74,22 @@ public class CmrManagementService implements ICmrManagementService {
 	@Autowired
 	private PropertyManager propertyManager;
 
+	/**
+	 * {@link TimerDataAggregator} for the persistence statistics.
+	 */
+	@Autowired
+	private TimerDataAggregator timerDataAggregator;
+
 	/**
 	 * Count of dropped data due to high volume of incoming data objects.
 	 */
 	private int droppedDataCount = 0;
 
+	/**
+	 * Count of data rejected in the lossless mode due to high volume of incoming data objects.
+	 */
+	private final AtomicLong rejectedDataCount = new AtomicLong();
+
 	/**
 	 * {@link ShutdownService}.
 	 */
@@ -108,6 +128,7 @@ public class CmrManagementService implements ICmrManagementService {
 	@MethodLog
 	public void clearBuffer() {
 		buffer.clearAll();
+		timerDataSegment.clearAll();
 	}
 
 	/**
@@ -128,6 +149,13 @@ public class CmrManagementService implements ICmrManagementService {
 		cmrStatusData.setUpTime(System.currentTimeMillis() - timeStarted);
 		cmrStatusData.setDateStarted(dateStarted);
 		cmrStatusData.setDatabaseSize(getDatabaseSize());
+		cmrStatusData.setTimerDataPersistRowsPerSecond(timerDataAggregator.getPersistRowsPerSecond());
+		cmrStatusData.setTimerDataFlushMillis(timerDataAggregator.getAverageFlushMillis());
+		cmrStatusData.setRejectedDataCount(rejectedDataCount.get());
+		cmrStatusData.setOffHeapTimerDataSize(timerDataSegment.getCurrentSize());
+		cmrStatusData.setOffHeapTimerDataMaxSize(timerDataSegment.getMaxSize());
+		cmrStatusData.setOffHeapTimerDataElements(timerDataSegment.getNumberOfElements());
+		cmrStatusData.setOffHeapTimerDataEvictedElements(timerDataSegment.getEvictedElements());
 		return cmrStatusData;
 	}
 
@@ -148,6 +176,20 @@ public class CmrManagementService implements ICmrManagementService {
 		return droppedDataCount;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public void addRejectedDataCount(int count) {
+		rejectedDataCount.addAndGet(count);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getRejectedDataCount() {
+		return rejectedDataCount.get();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
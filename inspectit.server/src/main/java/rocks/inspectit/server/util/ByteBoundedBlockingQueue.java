@@ -0,0 +1,195 @@
+package rocks.inspectit.server.util;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Multi-producer/multi-consumer queue that is bounded by the size of the contained elements in
+ * bytes. Producers never block, an element that does not fit is rejected and the producer can
+ * decide what to do with it. Consumers block until at least one element is available and can take
+ * several elements at once.
+ * <p>
+ * An element is always accepted if the queue is empty, even if it is bigger than the maximum size,
+ * so that no element is rejected forever.
+ *
+ * @param <E>
+ *            Type of the elements.
+ */
+public class ByteBoundedBlockingQueue<E> {
+
+	/**
+	 * Maximum size of the queue in bytes.
+	 */
+	private final long maxBytes;
+
+	/**
+	 * Elements with their sizes.
+	 */
+	private final Deque<Entry<E>> entries = new ArrayDeque<>();
+
+	/**
+	 * Lock guarding the queue.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Signaled when an element is added.
+	 */
+	private final Condition notEmpty = lock.newCondition();
+
+	/**
+	 * Size of the contained elements in bytes.
+	 */
+	private long bytes;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param maxBytes
+	 *            Maximum size of the queue in bytes.
+	 */
+	public ByteBoundedBlockingQueue(long maxBytes) {
+		if (maxBytes <= 0) {
+			throw new IllegalArgumentException("Maximum size must be positive.");
+		}
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Adds the element if it fits into the queue.
+	 *
+	 * @param element
+	 *            Element to add.
+	 * @param size
+	 *            Size of the element in bytes.
+	 * @return <code>true</code> if the element was added, <code>false</code> if the queue is full.
+	 */
+	public boolean offer(E element, long size) {
+		if (null == element) {
+			throw new NullPointerException();
+		}
+
+		lock.lock();
+		try {
+			if (!entries.isEmpty() && (bytes + size > maxBytes)) {
+				return false;
+			}
+			entries.addLast(new Entry<>(element, size));
+			bytes += size;
+			notEmpty.signal();
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Waits until the queue is not empty and moves up to the given amount of elements to the
+	 * collection in the order they were added.
+	 *
+	 * @param collection
+	 *            Collection to add the elements to.
+	 * @param maxElements
+	 *            Maximum amount of elements to take.
+	 * @return Amount of elements taken.
+	 * @throws InterruptedException
+	 *             If interrupted while waiting.
+	 */
+	public int drainTo(Collection<? super E> collection, int maxElements) throws InterruptedException {
+		lock.lockInterruptibly();
+		try {
+			while (entries.isEmpty()) {
+				notEmpty.await();
+			}
+
+			int taken = 0;
+			while ((taken < maxElements) && !entries.isEmpty()) {
+				Entry<E> entry = entries.pollFirst();
+				bytes -= entry.size;
+				collection.add(entry.element);
+				taken++;
+			}
+
+			// more elements left, wake another consumer
+			if (!entries.isEmpty()) {
+				notEmpty.signal();
+			}
+			return taken;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the amount of elements in the queue.
+	 *
+	 * @return Amount of elements in the queue.
+	 */
+	public int size() {
+		lock.lock();
+		try {
+			return entries.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the size of the contained elements in bytes.
+	 *
+	 * @return Size of the contained elements in bytes.
+	 */
+	public long getBytes() {
+		lock.lock();
+		try {
+			return bytes;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the maximum size of the queue in bytes.
+	 *
+	 * @return Maximum size of the queue in bytes.
+	 */
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * Element with its size.
+	 *
+	 * @param <E>
+	 *            Type of the element.
+	 */
+	private static final class Entry<E> {
+
+		/**
+		 * The element.
+		 */
+		private final E element;
+
+		/**
+		 * Size of the element in bytes.
+		 */
+		private final long size;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param element
+		 *            The element.
+		 * @param size
+		 *            Size of the element in bytes.
+		 */
+		Entry(E element, long size) {
+			this.element = element;
+			this.size = size;
+		}
+	}
+
+}
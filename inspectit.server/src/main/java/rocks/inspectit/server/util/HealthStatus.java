@@ -440,10 +440,11 @@ public class HealthStatus {
 	}
 
 	/**
-	 * Logs the amount of dropped data on CMR.
+	 * Logs the amount of dropped and rejected data on CMR.
 	 */
 	private void logDroppedData() {
 		log.info("Dropped elements due to the high load on the CMR (total count): " + cmrManagementService.getDroppedDataCount());
+		log.info("Rejected elements sent again by the Agents due to the high load on the CMR (total count): " + cmrManagementService.getRejectedDataCount());
 	}
 
 	/**
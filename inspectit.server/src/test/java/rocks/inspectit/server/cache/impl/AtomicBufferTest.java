@@ -316,6 +316,68 @@ public class AtomicBufferTest extends AbstractTestNGLogSupport {
 		verify(indexingTree, times((int) elements)).put(defaultData);
 	}
 
+	/**
+	 * Test that elements are correctly analyzed and indexed when processed in batches. The
+	 * indexing wait time is high, so the indexers have to be signaled by the analyzers.
+	 * 
+	 * @throws Exception
+	 */
+	@Test(invocationCount = 5)
+	public void batchProcessing() throws Exception {
+		Random random = new Random();
+		long elements = 1 + random.nextInt(10000);
+		int analyzers = 1 + random.nextInt(3);
+		int indexers = 1 + random.nextInt(3);
+
+		when(bufferProperties.getIndexingWaitTime()).thenReturn(60000L);
+		when(bufferProperties.getProcessingBatchSize()).thenReturn(2 + random.nextInt(64));
+
+		DefaultData defaultData = mock(DefaultData.class);
+		when(defaultData.getObjectSize(objectSizes)).thenReturn(1L);
+
+		// start workers
+		BufferWorker[] workerArray = new BufferWorker[analyzers + indexers];
+		for (int i = 0; i < analyzers; i++) {
+			workerArray[i] = new BufferAnalyzer(buffer);
+		}
+		for (int i = 0; i < indexers; i++) {
+			workerArray[analyzers + i] = new BufferIndexer(buffer);
+		}
+		for (BufferWorker bufferWorker : workerArray) {
+			bufferWorker.start();
+		}
+
+		IBufferElement<DefaultData> first = null;
+
+		for (int i = 0; i < elements; i++) {
+			IBufferElement<DefaultData> bufferElement = new BufferElement<DefaultData>(defaultData);
+			if (0 == i) {
+				first = bufferElement;
+			}
+			buffer.put(bufferElement);
+		}
+
+		// wait for the elements to be analyzed and indexed
+		while (buffer.getAnalyzedElements() < elements || buffer.getIndexedElements() < elements) {
+			Thread.sleep(50);
+		}
+
+		// interrupt workers
+		for (BufferWorker bufferWorker : workerArray) {
+			bufferWorker.interrupt();
+		}
+
+		for (int i = 0; i < elements; i++) {
+			assertThat(first.isIndexed(), is(true));
+			first = first.getNextElement();
+		}
+
+		assertThat(buffer.getAnalyzedElements(), is(elements));
+		assertThat(buffer.getIndexedElements(), is(elements));
+		assertThat(buffer.getCurrentSize(), is(elements));
+		verify(indexingTree, times((int) elements)).put(defaultData);
+	}
+
 	/**
 	 * Tests that the tree size calculations and maintenance is done.
 	 * 
@@ -334,8 +396,9 @@ public class AtomicBufferTest extends AbstractTestNGLogSupport {
 		when(bufferProperties.getEvictionFragmentSizePercentage()).thenReturn(0.35f);
 		when(bufferProperties.getFlagsSetOnBytes(anyLong())).thenReturn(flagsSetOnBytes);
 		when(bufferProperties.getIndexingWaitTime()).thenReturn(10L);
-		when(indexingTree.getComponentSize(objectSizes)).thenReturn(10L);
+		when(indexingTree.getTrackedComponentSize()).thenReturn(10L);
 		buffer.postConstruct();
+		verify(indexingTree, atLeast(1)).activateSizeTracking(objectSizes);
 
 		DefaultData defaultData = mock(DefaultData.class);
 		when(defaultData.getObjectSize(objectSizes)).thenReturn(1L);
@@ -358,11 +421,13 @@ public class AtomicBufferTest extends AbstractTestNGLogSupport {
 
 		if (elements > flagsSetOnBytes) {
 			assertThat(buffer.getCurrentSize(), is(elements + 10L));
-			verify(indexingTree, atLeast(1)).getComponentSize(objectSizes);
+			verify(indexingTree, atLeast(1)).getTrackedComponentSize();
 		} else {
 			assertThat(buffer.getCurrentSize(), is(elements));
-			verify(indexingTree, times(0)).getComponentSize(objectSizes);
+			verify(indexingTree, times(0)).getTrackedComponentSize();
 		}
+		// the tree is never walked for the size
+		verify(indexingTree, times(0)).getComponentSize(objectSizes);
 
 		// evict
 		assertThat(buffer.shouldEvict(), is(true));
@@ -0,0 +1,168 @@
+package rocks.inspectit.server.cache.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.all.communication.data.HttpTimerData;
+import rocks.inspectit.shared.all.communication.data.ParameterContentData;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.cs.indexing.aggregation.Aggregators;
+import rocks.inspectit.shared.cs.indexing.aggregation.impl.AggregationPerformer;
+
+/**
+ * Tests the {@link OffHeapTimerDataSegment}.
+ */
+@SuppressWarnings("PMD")
+public class OffHeapTimerDataSegmentTest {
+
+	private OffHeapTimerDataSegment segment;
+
+	private Random random = new Random();
+
+	@BeforeMethod
+	public void init() {
+		segment = new OffHeapTimerDataSegment();
+		segment.active = true;
+		segment.maxSize = 10 * TimerDataBlock.getMemorySize(OffHeapTimerDataSegment.BLOCK_CAPACITY);
+		segment.log = mock(Logger.class);
+	}
+
+	@Test
+	public void notActive() {
+		segment.active = false;
+
+		boolean put = segment.put(getTimerData(1L, 1L, 1000L));
+
+		assertThat(put, is(false));
+		assertThat(segment.getNumberOfElements(), is(0L));
+		assertThat(segment.getAggregatedTimerData(0L, 0L, null, null), is(empty()));
+	}
+
+	@Test
+	public void unsupportedData() {
+		HttpTimerData httpTimerData = new HttpTimerData(new Timestamp(1000L), 1L, 1L, 1L);
+		TimerData withParameters = new TimerData(new Timestamp(1000L), 1L, 1L, 1L, Collections.singletonList(new ParameterContentData()));
+		TimerData withoutTimestamp = new TimerData();
+
+		assertThat(segment.put(httpTimerData), is(false));
+		assertThat(segment.put(withParameters), is(false));
+		assertThat(segment.put(withoutTimestamp), is(false));
+		assertThat(segment.getNumberOfElements(), is(0L));
+	}
+
+	@Test
+	public void aggregation() {
+		List<TimerData> timerDataList = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			TimerData timerData = getTimerData(1L, 1L, 1000L + i);
+			timerDataList.add(timerData);
+			assertThat(segment.put(timerData), is(true));
+		}
+		AggregationPerformer<TimerData> aggregationPerformer = new AggregationPerformer<>(Aggregators.TIMER_DATA_AGGREGATOR);
+		aggregationPerformer.processCollection(timerDataList);
+		TimerData expected = aggregationPerformer.getResultList().get(0);
+
+		List<TimerData> result = segment.getAggregatedTimerData(0L, 0L, null, null);
+
+		assertThat(result, hasSize(1));
+		TimerData aggregated = result.get(0);
+		assertThat(aggregated.getPlatformIdent(), is(1L));
+		assertThat(aggregated.getMethodIdent(), is(1L));
+		assertThat(aggregated.getCount(), is(expected.getCount()));
+		assertThat(aggregated.getDuration(), is(equalTo(expected.getDuration())));
+		assertThat(aggregated.getMin(), is(equalTo(expected.getMin())));
+		assertThat(aggregated.getMax(), is(equalTo(expected.getMax())));
+		assertThat(aggregated.getCpuDuration(), is(equalTo(expected.getCpuDuration())));
+		assertThat(aggregated.getCpuMin(), is(equalTo(expected.getCpuMin())));
+		assertThat(aggregated.getCpuMax(), is(equalTo(expected.getCpuMax())));
+		assertThat(aggregated.getExclusiveCount(), is(expected.getExclusiveCount()));
+		assertThat(aggregated.getExclusiveDuration(), is(equalTo(expected.getExclusiveDuration())));
+		assertThat(aggregated.isCharting(), is(expected.isCharting()));
+	}
+
+	@Test
+	public void restrictions() {
+		segment.put(getTimerData(1L, 1L, 1000L));
+		segment.put(getTimerData(1L, 2L, 2000L));
+		segment.put(getTimerData(2L, 3L, 3000L));
+
+		assertThat(segment.getAggregatedTimerData(0L, 0L, null, null), hasSize(3));
+		assertThat(segment.getAggregatedTimerData(1L, 0L, null, null), hasSize(2));
+		assertThat(segment.getAggregatedTimerData(2L, 0L, null, null), hasSize(1));
+		assertThat(segment.getAggregatedTimerData(1L, 2L, null, null), hasSize(1));
+		assertThat(segment.getAggregatedTimerData(2L, 2L, null, null), is(empty()));
+		assertThat(segment.getAggregatedTimerData(0L, 0L, new Date(1500L), null), hasSize(2));
+		assertThat(segment.getAggregatedTimerData(0L, 0L, new Date(1500L), new Date(2500L)), hasSize(1));
+		assertThat(segment.getAggregatedTimerData(0L, 0L, new Date(4000L), null), is(empty()));
+	}
+
+	@Test
+	public void fromDateNotBeforeToDate() {
+		segment.put(getTimerData(1L, 1L, 1000L));
+		segment.put(getTimerData(1L, 2L, 2000L));
+
+		// like in the index query no interval is applied
+		assertThat(segment.getAggregatedTimerData(0L, 0L, new Date(2500L), new Date(1500L)), hasSize(2));
+		assertThat(segment.getAggregatedTimerData(0L, 0L, new Date(1500L), new Date(1500L)), hasSize(2));
+	}
+
+	@Test
+	public void eviction() {
+		long blockSize = TimerDataBlock.getMemorySize(OffHeapTimerDataSegment.BLOCK_CAPACITY);
+		segment.maxSize = 2 * blockSize;
+
+		for (int i = 0; i < (3 * OffHeapTimerDataSegment.BLOCK_CAPACITY); i++) {
+			segment.put(getTimerData(1L, 1L, 1000L + i));
+		}
+
+		assertThat(segment.getCurrentSize(), is(2 * blockSize));
+		assertThat(segment.getNumberOfElements(), is(2L * OffHeapTimerDataSegment.BLOCK_CAPACITY));
+		assertThat(segment.getEvictedElements(), is((long) OffHeapTimerDataSegment.BLOCK_CAPACITY));
+		List<TimerData> result = segment.getAggregatedTimerData(0L, 0L, null, null);
+		assertThat(result, hasSize(1));
+		assertThat(result.get(0).getCount(), is(2L * OffHeapTimerDataSegment.BLOCK_CAPACITY));
+	}
+
+	@Test
+	public void clearAll() {
+		segment.put(getTimerData(1L, 1L, 1000L));
+
+		segment.clearAll();
+
+		assertThat(segment.getNumberOfElements(), is(0L));
+		assertThat(segment.getCurrentSize(), is(0L));
+		assertThat(segment.getAggregatedTimerData(0L, 0L, null, null), is(empty()));
+	}
+
+	private TimerData getTimerData(long platformIdent, long methodIdent, long time) {
+		TimerData timerData = new TimerData(new Timestamp(time), platformIdent, 1L, methodIdent);
+		double duration = random.nextDouble() * 100;
+		timerData.setCount(1L);
+		timerData.setDuration(duration);
+		timerData.calculateMin(duration);
+		timerData.calculateMax(duration);
+		if (random.nextBoolean()) {
+			double cpuDuration = duration / 2;
+			timerData.setCpuDuration(cpuDuration);
+			timerData.calculateCpuMin(cpuDuration);
+			timerData.calculateCpuMax(cpuDuration);
+		}
+		timerData.setCharting(random.nextBoolean());
+		return timerData;
+	}
+}
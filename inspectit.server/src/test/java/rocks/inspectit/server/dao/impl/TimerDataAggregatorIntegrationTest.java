@@ -0,0 +1,58 @@
+package rocks.inspectit.server.dao.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+
+import java.sql.Timestamp;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.server.test.AbstractTransactionalTestNGLogSupport;
+import rocks.inspectit.shared.all.communication.data.TimerData;
+
+/**
+ * Tests the batched persistence of the {@link TimerDataAggregator} against the embedded database.
+ */
+@ContextConfiguration(locations = { "classpath:spring/spring-context-global.xml", "classpath:spring/spring-context-database.xml", "classpath:spring/spring-context-beans.xml",
+		"classpath:spring/spring-context-processors.xml", "classpath:spring/spring-context-storage-test.xml" })
+public class TimerDataAggregatorIntegrationTest extends AbstractTransactionalTestNGLogSupport {
+
+	/**
+	 * Table of the aggregated timer data.
+	 */
+	private static final String TABLE = "DatabaseAggregatedTimerData";
+
+	@Autowired
+	TimerDataAggregator timerDataAggregator;
+
+	/**
+	 * Tests that all aggregated objects are in the database after the batched persist.
+	 */
+	@Test
+	public void batchedPersist() {
+		int methods = timerDataAggregator.persistBatchSize * 2 + 1;
+		int rowsBefore = countRowsInTable(TABLE);
+		long persistedBefore = timerDataAggregator.getPersistedCount();
+		long flushesBefore = timerDataAggregator.getFlushCount();
+
+		Timestamp timestamp = new Timestamp(System.currentTimeMillis());
+		for (int i = 0; i < methods; i++) {
+			TimerData timerData = new TimerData(timestamp, 1L, 1L, i);
+			timerData.setCount(1L);
+			timerDataAggregator.processTimerData(timerData);
+		}
+		timerDataAggregator.removeAndPersistAll();
+
+		// the aggregator bean is shared, other cached data is persisted as well
+		assertThat(countRowsInTable(TABLE), is(greaterThanOrEqualTo(rowsBefore + methods)));
+		assertThat(timerDataAggregator.getPersistedCount(), is(greaterThanOrEqualTo(persistedBefore + methods)));
+		assertThat(timerDataAggregator.getPersistRowsPerSecond(), is(greaterThan(0d)));
+		// one flush per full batch and one for the remaining object
+		assertThat(timerDataAggregator.getFlushCount(), is(greaterThanOrEqualTo(flushesBefore + 3)));
+	}
+
+}
@@ -2,12 +2,14 @@ package rocks.inspectit.server.dao.impl;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Matchers.anyDouble;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.argThat;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
@@ -19,11 +21,13 @@ import java.sql.Timestamp;
 import java.util.Date;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 
 import javax.persistence.EntityManager;
 
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatcher;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -216,6 +220,119 @@ public class TimerDataAggregatorTest extends AbstractTestNGLogSupport {
 		}));
 	}
 
+	/**
+	 * Tests that in batched mode the objects are persisted ordered and the entity manager is
+	 * flushed and cleared after every batch.
+	 */
+	@Test
+	public void batchedPersist() {
+		aggregator.persistBatchSize = 2;
+
+		long timestamp = System.currentTimeMillis();
+		aggregator.processTimerData(new TimerData(new Timestamp(timestamp), 10L, 20L, 3L));
+		aggregator.processTimerData(new TimerData(new Timestamp(timestamp), 10L, 20L, 1L));
+		aggregator.processTimerData(new TimerData(new Timestamp(timestamp), 10L, 20L, 2L));
+
+		aggregator.removeAndPersistAll();
+
+		ArgumentCaptor<DatabaseAggregatedTimerData> argument = ArgumentCaptor.forClass(DatabaseAggregatedTimerData.class);
+		InOrder inOrder = inOrder(entityManager);
+		inOrder.verify(entityManager, times(2)).persist(argument.capture());
+		inOrder.verify(entityManager).flush();
+		inOrder.verify(entityManager).clear();
+		inOrder.verify(entityManager).persist(argument.capture());
+		inOrder.verify(entityManager).flush();
+		inOrder.verify(entityManager).clear();
+		assertThat(argument.getAllValues().get(0).getMethodIdent(), is(1L));
+		assertThat(argument.getAllValues().get(1).getMethodIdent(), is(2L));
+		assertThat(argument.getAllValues().get(2).getMethodIdent(), is(3L));
+		assertThat(aggregator.getPersistedCount(), is(3L));
+		assertThat(aggregator.getPersistRowsPerSecond(), is(greaterThan(0d)));
+	}
+
+	/**
+	 * Tests that without batch size nothing is flushed by the aggregator.
+	 */
+	@Test
+	public void notBatchedPersist() {
+		aggregator.persistBatchSize = 0;
+
+		aggregator.processTimerData(new TimerData(new Timestamp(System.currentTimeMillis()), 10L, 20L, 30L));
+		aggregator.removeAndPersistAll();
+
+		verify(entityManager, times(1)).persist(anyObject());
+		verify(entityManager, times(0)).flush();
+		assertThat(aggregator.getAverageFlushMillis(), is(0d));
+	}
+
+	/**
+	 * Tests that data of different methods is not merged even if the hash codes of the keys are
+	 * equal.
+	 */
+	@Test
+	public void noMergeOnHashCollision() {
+		Timestamp timestamp = new Timestamp(System.currentTimeMillis());
+		// 31 * (31 * platform + method) is equal for both
+		TimerData timerData1 = new TimerData(timestamp, 0L, 20L, 31L);
+		TimerData timerData2 = new TimerData(timestamp, 1L, 20L, 0L);
+		timerData1.setCount(1L);
+		timerData2.setCount(1L);
+
+		aggregator.processTimerData(timerData1);
+		aggregator.processTimerData(timerData2);
+
+		assertThat(aggregator.getElementCount(), is(2));
+
+		aggregator.removeAndPersistAll();
+
+		ArgumentCaptor<DatabaseAggregatedTimerData> argument = ArgumentCaptor.forClass(DatabaseAggregatedTimerData.class);
+		verify(entityManager, times(2)).persist(argument.capture());
+		assertThat(argument.getAllValues().get(0).getMethodIdent(), is(31L));
+		assertThat(argument.getAllValues().get(0).getCount(), is(1L));
+		assertThat(argument.getAllValues().get(1).getMethodIdent(), is(0L));
+		assertThat(argument.getAllValues().get(1).getCount(), is(1L));
+		assertThat(aggregator.getElementCount(), is(0));
+	}
+
+	/**
+	 * Tests that concurrent aggregation does not lose any data.
+	 */
+	@Test
+	public void concurrentAggregation() throws InterruptedException {
+		final int threads = 8;
+		final int methods = 50;
+		final int iterations = 1000;
+		final Timestamp timestamp = new Timestamp(System.currentTimeMillis());
+		final CountDownLatch latch = new CountDownLatch(threads);
+
+		for (int i = 0; i < threads; i++) {
+			new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < iterations; j++) {
+						TimerData timerData = new TimerData(timestamp, 10L, 20L, j % methods);
+						timerData.setCount(1L);
+						aggregator.processTimerData(timerData);
+					}
+					latch.countDown();
+				}
+			}.start();
+		}
+		latch.await();
+
+		assertThat(aggregator.getElementCount(), is(methods));
+
+		aggregator.removeAndPersistAll();
+
+		ArgumentCaptor<DatabaseAggregatedTimerData> argument = ArgumentCaptor.forClass(DatabaseAggregatedTimerData.class);
+		verify(entityManager, times(methods)).persist(argument.capture());
+		long count = 0;
+		for (DatabaseAggregatedTimerData timerData : argument.getAllValues()) {
+			count += timerData.getCount();
+		}
+		assertThat(count, is((long) threads * iterations));
+	}
+
 	/**
 	 * Verify the zero interactions with setters of {@link TimerData} object passed to the
 	 * aggregator.
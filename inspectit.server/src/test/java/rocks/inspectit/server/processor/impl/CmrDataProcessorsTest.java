@@ -33,6 +33,7 @@ import org.testng.annotations.Test;
 
 import rocks.inspectit.server.cache.IBuffer;
 import rocks.inspectit.server.cache.IBufferElement;
+import rocks.inspectit.server.cache.ITimerDataSegment;
 import rocks.inspectit.server.dao.impl.TimerDataAggregator;
 import rocks.inspectit.server.processor.AbstractCmrDataProcessor;
 import rocks.inspectit.server.processor.impl.BufferInserterCmrProcessor;
@@ -78,6 +79,9 @@ public class CmrDataProcessorsTest {
 	@Mock
 	private IBuffer<MethodSensorData> buffer;
 
+	@Mock
+	private ITimerDataSegment timerDataSegment;
+
 	@Mock
 	private CacheIdGenerator cacheIdGenerator;
 
@@ -112,6 +116,7 @@ public class CmrDataProcessorsTest {
 	public void bufferInserter() {
 		BufferInserterCmrProcessor processor = new BufferInserterCmrProcessor();
 		processor.buffer = buffer;
+		processor.timerDataSegment = timerDataSegment;
 
 		// don't fail on null
 		processor.process((DefaultData) null, entityManager);
@@ -142,6 +147,23 @@ public class CmrDataProcessorsTest {
 		verify(buffer, times(1)).put(captor.capture());
 		verifyZeroInteractions(entityManager);
 		assertThat(captor.getValue().getObject(), is(equalTo(((Object) invocationAwareData))));
+
+		// timer data accepted by the segment is not put to buffer
+		TimerData timerData = new TimerData();
+		timerData.setCount(1L);
+		when(timerDataSegment.put(timerData)).thenReturn(true);
+		processor.process(timerData, entityManager);
+		verify(timerDataSegment, times(1)).put(timerData);
+		verifyNoMoreInteractions(buffer);
+		verifyZeroInteractions(entityManager);
+
+		// timer data not accepted by the segment goes to buffer
+		timerData = new TimerData();
+		timerData.setCount(1L);
+		when(timerDataSegment.put(timerData)).thenReturn(false);
+		processor.process(timerData, entityManager);
+		verify(buffer, times(2)).put(captor.capture());
+		assertThat(captor.getValue().getObject(), is(equalTo(((Object) timerData))));
 	}
 
 	/**
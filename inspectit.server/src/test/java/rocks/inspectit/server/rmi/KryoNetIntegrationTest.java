@@ -1,6 +1,7 @@
 package rocks.inspectit.server.rmi;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Matchers.eq;
@@ -17,7 +18,12 @@ import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -218,6 +224,105 @@ public class KryoNetIntegrationTest extends AbstractTransactionalTestNGLogSuppor
 		}
 	}
 
+	public class DecodeExecutor extends KryoNetIntegrationTest {
+
+		private ExecutorService decodeExecutorService;
+
+		@Override
+		@BeforeClass
+		public void init() throws Exception {
+			super.init();
+			decodeExecutorService = Executors.newFixedThreadPool(4);
+			server.setDecodeExecutorService(decodeExecutorService);
+		}
+
+		@Override
+		@AfterClass
+		public void closeConnections() throws IOException {
+			super.closeConnections();
+			decodeExecutorService.shutdownNow();
+		}
+
+		@Test
+		public void remoteMethodInvocation() {
+			Service clientService = getServiceForClient();
+
+			String toSend = "toSend";
+			assertThat(clientService.returnSame(toSend), is(equalTo(toSend)));
+
+			verify(service).returnSame(toSend);
+		}
+
+		@Test
+		public void orderPerConnection() throws Exception {
+			int numClients = 4;
+			int numObjects = 1000;
+
+			final ConcurrentMap<Integer, Queue<Object>> received = new ConcurrentHashMap<>();
+			Listener orderListener = new Listener() {
+				@Override
+				public void received(Connection connection, Object object) {
+					if (object instanceof Integer) {
+						Queue<Object> queue = received.get(connection.getID());
+						if (null == queue) {
+							queue = new ConcurrentLinkedQueue<>();
+							Queue<Object> existing = received.putIfAbsent(connection.getID(), queue);
+							if (null != existing) {
+								queue = existing;
+							}
+						}
+						queue.add(object);
+					}
+				}
+			};
+			server.addListener(orderListener);
+
+			List<Client> clients = new ArrayList<>();
+			try {
+				for (int i = 0; i < numClients; i++) {
+					Client sendingClient = new Client((IExtendedSerialization) client.getSerialization(), streamProvider);
+					sendingClient.start();
+					sendingClient.connect(5000, "localhost", 8765);
+					clients.add(sendingClient);
+				}
+
+				for (int i = 0; i < numObjects; i++) {
+					for (Client sendingClient : clients) {
+						sendingClient.sendTCP(Integer.valueOf(i));
+					}
+				}
+
+				// wait as the receiving is done in another thread
+				long end = System.currentTimeMillis() + 10000;
+				while ((getReceivedCount(received) < numClients * numObjects) && (System.currentTimeMillis() < end)) {
+					Thread.sleep(10);
+				}
+			} finally {
+				server.removeListener(orderListener);
+				for (Client sendingClient : clients) {
+					sendingClient.stop();
+				}
+			}
+
+			Integer[] expected = new Integer[numObjects];
+			for (int i = 0; i < numObjects; i++) {
+				expected[i] = Integer.valueOf(i);
+			}
+			assertThat(received.size(), is(numClients));
+			for (Queue<Object> queue : received.values()) {
+				assertThat(queue, contains((Object[]) expected));
+			}
+		}
+
+		private int getReceivedCount(ConcurrentMap<Integer, Queue<Object>> received) {
+			int count = 0;
+			for (Queue<Object> queue : received.values()) {
+				count += queue.size();
+			}
+			return count;
+		}
+	}
+
 	protected Set<Object> getObjectToSend(int numObjects) {
 		Random random = new Random();
 		// use set to avoid possibility of same to send
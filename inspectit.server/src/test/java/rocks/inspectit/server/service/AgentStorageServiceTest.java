@@ -1,5 +1,8 @@
 package rocks.inspectit.server.service;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
 import java.lang.ref.SoftReference;
 import java.util.ArrayList;
 import java.util.List;
@@ -12,9 +15,11 @@ import org.slf4j.LoggerFactory;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import rocks.inspectit.server.cache.impl.ObjectSizesFactory;
 import rocks.inspectit.server.service.AgentStorageService;
 import rocks.inspectit.server.test.AbstractTestNGLogSupport;
 import rocks.inspectit.server.util.AgentStatusDataProvider;
+import rocks.inspectit.server.util.ByteBoundedBlockingQueue;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.data.TimerData;
 import rocks.inspectit.shared.cs.cmr.service.ICmrManagementService;
@@ -87,4 +92,31 @@ public class AgentStorageServiceTest extends AbstractTestNGLogSupport {
 		Mockito.verify(agentStatusDataProvider, Mockito.times(1)).registerDataSent(1L);
 		Mockito.verifyZeroInteractions(cmrManagementService);
 	}
+
+	/**
+	 * Proves that in the lossless mode the data is rejected if the queue is full, so that the agent
+	 * sends it again, and that the rejected and not the dropped amount is reported.
+	 */
+	@Test
+	public void losslessRejectWhenFull() {
+		ByteBoundedBlockingQueue<List<? extends DefaultData>> queue = new ByteBoundedBlockingQueue<>(1L);
+		agentStorageService = new AgentStorageService(queue);
+		agentStorageService.platformIdentDateSaver = agentStatusDataProvider;
+		agentStorageService.cmrManagementService = cmrManagementService;
+		agentStorageService.objectSizes = new ObjectSizesFactory().getObject();
+		agentStorageService.log = LoggerFactory.getLogger(AgentStorageService.class);
+
+		List<DefaultData> dataList = new ArrayList<DefaultData>();
+		TimerData timerData = new TimerData();
+		timerData.setPlatformIdent(1L);
+		dataList.add(timerData);
+
+		assertThat(agentStorageService.addDataObjects(dataList), is(true));
+		assertThat(agentStorageService.addDataObjects(dataList), is(false));
+
+		assertThat(queue.size(), is(1));
+		Mockito.verify(agentStatusDataProvider, Mockito.times(2)).registerDataSent(1L);
+		Mockito.verify(cmrManagementService, Mockito.times(1)).addRejectedDataCount(dataList.size());
+		Mockito.verifyNoMoreInteractions(cmrManagementService);
+	}
 }
@@ -0,0 +1,84 @@
+package rocks.inspectit.server.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import rocks.inspectit.server.test.AbstractTestNGLogSupport;
+
+/**
+ * Tests the {@link ByteBoundedBlockingQueue}.
+ */
+@SuppressWarnings("PMD")
+public class ByteBoundedBlockingQueueTest extends AbstractTestNGLogSupport {
+
+	@Test
+	public void rejectWhenFull() {
+		ByteBoundedBlockingQueue<String> queue = new ByteBoundedBlockingQueue<>(10L);
+
+		assertThat(queue.offer("a", 6L), is(true));
+		assertThat(queue.offer("b", 5L), is(false));
+		assertThat(queue.offer("c", 4L), is(true));
+
+		assertThat(queue.size(), is(2));
+		assertThat(queue.getBytes(), is(10L));
+	}
+
+	@Test
+	public void oversizedAcceptedWhenEmpty() {
+		ByteBoundedBlockingQueue<String> queue = new ByteBoundedBlockingQueue<>(10L);
+
+		assertThat(queue.offer("a", 20L), is(true));
+		assertThat(queue.offer("b", 1L), is(false));
+	}
+
+	@Test
+	public void drainMaxElements() throws InterruptedException {
+		ByteBoundedBlockingQueue<String> queue = new ByteBoundedBlockingQueue<>(10L);
+		queue.offer("a", 1L);
+		queue.offer("b", 2L);
+		queue.offer("c", 3L);
+
+		List<String> drained = new ArrayList<>();
+		assertThat(queue.drainTo(drained, 2), is(2));
+
+		assertThat(drained, contains("a", "b"));
+		assertThat(queue.size(), is(1));
+		assertThat(queue.getBytes(), is(3L));
+		assertThat(queue.offer("d", 7L), is(true));
+	}
+
+	@Test(timeOut = 10000)
+	public void drainBlocksUntilAvailable() throws Exception {
+		final ByteBoundedBlockingQueue<String> queue = new ByteBoundedBlockingQueue<>(10L);
+		Thread producer = new Thread() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(100L);
+				} catch (InterruptedException e) {
+					Thread.interrupted();
+				}
+				queue.offer("a", 1L);
+			}
+		};
+		producer.start();
+
+		List<String> drained = new ArrayList<>();
+		assertThat(queue.drainTo(drained, 10), is(1));
+
+		assertThat(drained, contains("a"));
+		producer.join();
+	}
+
+	@Test(expectedExceptions = { IllegalArgumentException.class })
+	public void nonPositiveMaxBytes() {
+		new ByteBoundedBlockingQueue<String>(0L);
+	}
+
+}
@@ -21,7 +21,10 @@ public interface IAgentStorageService extends Remote {
 	 * 
 	 * @param dataObjects
 	 *            The list containing all the data objects.
+	 * @return <code>true</code> if the data was accepted, <code>false</code> if the CMR is
+	 *         overloaded and did not take the data. In that case the Agent should keep the data
+	 *         and send it again later.
 	 */
-	void addDataObjects(List<? extends DefaultData> dataObjects);
+	boolean addDataObjects(List<? extends DefaultData> dataObjects);
 
 }
@@ -73,6 +73,42 @@ public class CmrStatusData implements Serializable {
 	 */
 	private Long databaseSize;
 
+	/**
+	 * Average amount of aggregated timer data objects persisted to the database per second.
+	 */
+	private double timerDataPersistRowsPerSecond;
+
+	/**
+	 * Average duration of one flush of aggregated timer data objects to the database in
+	 * milliseconds.
+	 */
+	private double timerDataFlushMillis;
+
+	/**
+	 * Amount of data objects rejected in the lossless mode and sent again by the Agents.
+	 */
+	private long rejectedDataCount;
+
+	/**
+	 * Memory occupied by the off-heap timer data segment in bytes.
+	 */
+	private long offHeapTimerDataSize;
+
+	/**
+	 * Maximum memory the off-heap timer data segment can occupy in bytes.
+	 */
+	private long offHeapTimerDataMaxSize;
+
+	/**
+	 * Number of timer data in the off-heap timer data segment.
+	 */
+	private long offHeapTimerDataElements;
+
+	/**
+	 * Number of timer data evicted from the off-heap timer data segment.
+	 */
+	private long offHeapTimerDataEvictedElements;
+
 	/**
 	 * Gets {@link #currentBufferSize}.
 	 * 
@@ -282,6 +318,139 @@ public class CmrStatusData implements Serializable {
 		this.databaseSize = databaseSize;
 	}
 
+	/**
+	 * Gets {@link #timerDataPersistRowsPerSecond}.
+	 * 
+	 * @return {@link #timerDataPersistRowsPerSecond}
+	 */
+	public double getTimerDataPersistRowsPerSecond() {
+		return timerDataPersistRowsPerSecond;
+	}
+
+	/**
+	 * Sets {@link #timerDataPersistRowsPerSecond}.
+	 * 
+	 * @param timerDataPersistRowsPerSecond
+	 *            New value for {@link #timerDataPersistRowsPerSecond}
+	 */
+	public void setTimerDataPersistRowsPerSecond(double timerDataPersistRowsPerSecond) {
+		this.timerDataPersistRowsPerSecond = timerDataPersistRowsPerSecond;
+	}
+
+	/**
+	 * Gets {@link #timerDataFlushMillis}.
+	 * 
+	 * @return {@link #timerDataFlushMillis}
+	 */
+	public double getTimerDataFlushMillis() {
+		return timerDataFlushMillis;
+	}
+
+	/**
+	 * Sets {@link #timerDataFlushMillis}.
+	 * 
+	 * @param timerDataFlushMillis
+	 *            New value for {@link #timerDataFlushMillis}
+	 */
+	public void setTimerDataFlushMillis(double timerDataFlushMillis) {
+		this.timerDataFlushMillis = timerDataFlushMillis;
+	}
+
+	/**
+	 * Gets {@link #rejectedDataCount}.
+	 * 
+	 * @return {@link #rejectedDataCount}
+	 */
+	public long getRejectedDataCount() {
+		return rejectedDataCount;
+	}
+
+	/**
+	 * Sets {@link #rejectedDataCount}.
+	 * 
+	 * @param rejectedDataCount
+	 *            New value for {@link #rejectedDataCount}
+	 */
+	public void setRejectedDataCount(long rejectedDataCount) {
+		this.rejectedDataCount = rejectedDataCount;
+	}
+
+	/**
+	 * Gets {@link #offHeapTimerDataSize}.
+	 * 
+	 * @return {@link #offHeapTimerDataSize}
+	 */
+	public long getOffHeapTimerDataSize() {
+		return offHeapTimerDataSize;
+	}
+
+	/**
+	 * Sets {@link #offHeapTimerDataSize}.
+	 * 
+	 * @param offHeapTimerDataSize
+	 *            New value for {@link #offHeapTimerDataSize}
+	 */
+	public void setOffHeapTimerDataSize(long offHeapTimerDataSize) {
+		this.offHeapTimerDataSize = offHeapTimerDataSize;
+	}
+
+	/**
+	 * Gets {@link #offHeapTimerDataMaxSize}.
+	 * 
+	 * @return {@link #offHeapTimerDataMaxSize}
+	 */
+	public long getOffHeapTimerDataMaxSize() {
+		return offHeapTimerDataMaxSize;
+	}
+
+	/**
+	 * Sets {@link #offHeapTimerDataMaxSize}.
+	 * 
+	 * @param offHeapTimerDataMaxSize
+	 *            New value for {@link #offHeapTimerDataMaxSize}
+	 */
+	public void setOffHeapTimerDataMaxSize(long offHeapTimerDataMaxSize) {
+		this.offHeapTimerDataMaxSize = offHeapTimerDataMaxSize;
+	}
+
+	/**
+	 * Gets {@link #offHeapTimerDataElements}.
+	 * 
+	 * @return {@link #offHeapTimerDataElements}
+	 */
+	public long getOffHeapTimerDataElements() {
+		return offHeapTimerDataElements;
+	}
+
+	/**
+	 * Sets {@link #offHeapTimerDataElements}.
+	 * 
+	 * @param offHeapTimerDataElements
+	 *            New value for {@link #offHeapTimerDataElements}
+	 */
+	public void setOffHeapTimerDataElements(long offHeapTimerDataElements) {
+		this.offHeapTimerDataElements = offHeapTimerDataElements;
+	}
+
+	/**
+	 * Gets {@link #offHeapTimerDataEvictedElements}.
+	 * 
+	 * @return {@link #offHeapTimerDataEvictedElements}
+	 */
+	public long getOffHeapTimerDataEvictedElements() {
+		return offHeapTimerDataEvictedElements;
+	}
+
+	/**
+	 * Sets {@link #offHeapTimerDataEvictedElements}.
+	 * 
+	 * @param offHeapTimerDataEvictedElements
+	 *            New value for {@link #offHeapTimerDataEvictedElements}
+	 */
+	public void setOffHeapTimerDataEvictedElements(long offHeapTimerDataEvictedElements) {
+		this.offHeapTimerDataEvictedElements = offHeapTimerDataEvictedElements;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -296,8 +465,18 @@ public class CmrStatusData implements Serializable {
 		result = prime * result + ((databaseSize == null) ? 0 : databaseSize.hashCode());
 		result = prime * result + ((dateStarted == null) ? 0 : dateStarted.hashCode());
 		result = prime * result + (int) (maxBufferSize ^ (maxBufferSize >>> 32));
+		result = prime * result + (int) (rejectedDataCount ^ (rejectedDataCount >>> 32));
+		result = prime * result + (int) (offHeapTimerDataSize ^ (offHeapTimerDataSize >>> 32));
+		result = prime * result + (int) (offHeapTimerDataMaxSize ^ (offHeapTimerDataMaxSize >>> 32));
+		result = prime * result + (int) (offHeapTimerDataElements ^ (offHeapTimerDataElements >>> 32));
+		result = prime * result + (int) (offHeapTimerDataEvictedElements ^ (offHeapTimerDataEvictedElements >>> 32));
 		result = prime * result + (int) (storageDataSpaceLeft ^ (storageDataSpaceLeft >>> 32));
 		result = prime * result + (int) (storageMaxDataSpace ^ (storageMaxDataSpace >>> 32));
+		long temp;
+		temp = Double.doubleToLongBits(timerDataFlushMillis);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(timerDataPersistRowsPerSecond);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
 		result = prime * result + (int) (upTime ^ (upTime >>> 32));
 		result = prime * result + (warnSpaceLeftActive ? 1231 : 1237);
 		return result;
@@ -355,12 +534,33 @@ public class CmrStatusData implements Serializable {
 		if (maxBufferSize != other.maxBufferSize) {
 			return false;
 		}
+		if (rejectedDataCount != other.rejectedDataCount) {
+			return false;
+		}
+		if (offHeapTimerDataSize != other.offHeapTimerDataSize) {
+			return false;
+		}
+		if (offHeapTimerDataMaxSize != other.offHeapTimerDataMaxSize) {
+			return false;
+		}
+		if (offHeapTimerDataElements != other.offHeapTimerDataElements) {
+			return false;
+		}
+		if (offHeapTimerDataEvictedElements != other.offHeapTimerDataEvictedElements) {
+			return false;
+		}
 		if (storageDataSpaceLeft != other.storageDataSpaceLeft) {
 			return false;
 		}
 		if (storageMaxDataSpace != other.storageMaxDataSpace) {
 			return false;
 		}
+		if (Double.doubleToLongBits(timerDataFlushMillis) != Double.doubleToLongBits(other.timerDataFlushMillis)) {
+			return false;
+		}
+		if (Double.doubleToLongBits(timerDataPersistRowsPerSecond) != Double.doubleToLongBits(other.timerDataPersistRowsPerSecond)) {
+			return false;
+		}
 		if (upTime != other.upTime) {
 			return false;
 		}
@@ -23,6 +23,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.util.IntMap;
@@ -54,6 +56,13 @@ public class Server implements EndPoint {
 	 */
 	private StreamProvider streamProvider; // Added by ISE
 
+	/**
+	 * Executor service that reads and deserializes the incoming objects. If <code>null</code> the
+	 * objects are read in the update thread.
+	 */
+	// Added by ISE
+	private volatile ExecutorService decodeExecutorService;
+
 	private final IExtendedSerialization serialization;
 	private final int writeBufferSize, objectBufferSize;
 	private final Selector selector;
@@ -228,32 +237,12 @@ public class Server implements EndPoint {
 								continue;
 							}
 							if ((ops & SelectionKey.OP_READ) == SelectionKey.OP_READ) {
-								try {
-									while (true) {
-										Object object = fromConnection.tcp.readObject(fromConnection);
-										if (object == null)
-											break;
-										if (DEBUG) {
-											String objectString = object == null ? "null" : object.getClass().getSimpleName();
-											if (!(object instanceof FrameworkMessage)) {
-												debug("kryonet", fromConnection + " received TCP: " + objectString);
-											} else if (TRACE) {
-												trace("kryonet", fromConnection + " received TCP: " + objectString);
-											}
-										}
-										fromConnection.notifyReceived(object);
-									}
-								} catch (IOException ex) {
-									if (TRACE) {
-										trace("kryonet", "Unable to read TCP from: " + fromConnection, ex);
-									} else if (DEBUG) {
-										debug("kryonet", fromConnection + " update: " + ex.getMessage());
-									}
-									fromConnection.close();
-								} catch (KryoNetException ex) {
-									if (ERROR)
-										error("kryonet", "Error reading TCP from connection: " + fromConnection, ex);
-									fromConnection.close();
+								// Changed by ISE: read in the decode executor if one is set
+								ExecutorService decodeExecutorService = this.decodeExecutorService;
+								if (decodeExecutorService != null) {
+									decode(decodeExecutorService, fromConnection);
+								} else {
+									readObjects(fromConnection);
 								}
 							}
 							if ((ops & SelectionKey.OP_WRITE) == SelectionKey.OP_WRITE) {
@@ -399,6 +388,80 @@ public class Server implements EndPoint {
 		}
 	}
 
+	/**
+	 * Reads all objects that are available from the connection and notifies the listeners.
+	 * 
+	 * @param fromConnection
+	 *            Connection to read from.
+	 */
+	// Added by ISE: moved from update(int)
+	private void readObjects(Connection fromConnection) {
+		try {
+			while (true) {
+				Object object = fromConnection.tcp.readObject(fromConnection);
+				if (object == null)
+					break;
+				if (DEBUG) {
+					String objectString = object == null ? "null" : object.getClass().getSimpleName();
+					if (!(object instanceof FrameworkMessage)) {
+						debug("kryonet", fromConnection + " received TCP: " + objectString);
+					} else if (TRACE) {
+						trace("kryonet", fromConnection + " received TCP: " + objectString);
+					}
+				}
+				fromConnection.notifyReceived(object);
+			}
+		} catch (IOException ex) {
+			if (TRACE) {
+				trace("kryonet", "Unable to read TCP from: " + fromConnection, ex);
+			} else if (DEBUG) {
+				debug("kryonet", fromConnection + " update: " + ex.getMessage());
+			}
+			fromConnection.close();
+		} catch (KryoNetException ex) {
+			if (ERROR)
+				error("kryonet", "Error reading TCP from connection: " + fromConnection, ex);
+			fromConnection.close();
+		}
+	}
+
+	/**
+	 * Hands the reading of the connection to the decode executor. The connection is not selected
+	 * for reading until the executor has read all available objects, thus there is only one reader
+	 * per connection at a time and the objects of a connection are received in the order they were
+	 * sent.
+	 * 
+	 * @param decodeExecutorService
+	 *            Executor to read in.
+	 * @param fromConnection
+	 *            Connection to read from.
+	 */
+	// Added by ISE
+	private void decode(ExecutorService decodeExecutorService, final Connection fromConnection) {
+		fromConnection.tcp.suspendRead();
+		try {
+			decodeExecutorService.execute(new Runnable() {
+				public void run() {
+					// the lock makes the read state of the previous worker visible
+					synchronized (fromConnection.tcp.readLock) {
+						readObjects(fromConnection);
+					}
+					try {
+						fromConnection.tcp.resumeRead();
+					} catch (CancelledKeyException ex) {
+						fromConnection.close();
+					}
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			// executor is shut down, fall back to reading here
+			synchronized (fromConnection.tcp.readLock) {
+				readObjects(fromConnection);
+			}
+			fromConnection.tcp.resumeRead();
+		}
+	}
+
 	public void run() {
 		if (TRACE)
 			trace("kryonet", "Server thread started.");
@@ -628,6 +691,19 @@ public class Server implements EndPoint {
 		return updateThread;
 	}
 
+	/**
+	 * Sets the executor service that reads and deserializes the incoming objects, so that the
+	 * objects of different connections are deserialized in parallel. If <code>null</code> (the
+	 * default) the objects are read in the update thread.
+	 * 
+	 * @param decodeExecutorService
+	 *            Executor service for reading the incoming objects.
+	 */
+	// Added by ISE
+	public void setDecodeExecutorService(ExecutorService decodeExecutorService) {
+		this.decodeExecutorService = decodeExecutorService;
+	}
+
 	/** Returns the current connections. The array returned should not be modified. */
 	public Connection[] getConnections() {
 		return connections;
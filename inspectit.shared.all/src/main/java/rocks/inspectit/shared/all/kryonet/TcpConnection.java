@@ -59,6 +59,19 @@ class TcpConnection {
 	// Added by ISE
 	private SocketExtendedByteBufferInputStream socketInputStream;
 
+	/**
+	 * Lock held while reading objects outside of the update thread.
+	 */
+	// Added by ISE
+	final Object readLock = new Object();
+
+	/**
+	 * If the connection is not selected for reading, because another thread is reading from it.
+	 * Changed under {@link #writeReentrantLock} together with the interest operations.
+	 */
+	// Added by ISE
+	private volatile boolean readSuspended;
+
 	SocketChannel socketChannel;
 	int keepAliveMillis = 8000;
 	final ByteBuffer readBuffer, writeBuffer;
@@ -86,6 +99,7 @@ class TcpConnection {
 		readBuffer.clear();
 		readBuffer.flip();
 		currentObjectLength = 0;
+		readSuspended = false; // Added by ISE
 		try {
 			this.socketChannel = socketChannel;
 			socketChannel.configureBlocking(false);
@@ -199,7 +213,7 @@ class TcpConnection {
 		try {
 			if (writeToSocket()) {
 				// Write successful, clear OP_WRITE.
-				selectionKey.interestOps(SelectionKey.OP_READ);
+				selectionKey.interestOps(readInterestOps()); // Changed by ISE
 			}
 			lastWriteTime = System.currentTimeMillis();
 		} finally {
@@ -284,7 +298,7 @@ class TcpConnection {
 			writeQueue.add(outputStream);
 			if (!hasQueuedData && !writeToSocket()) {
 				// A partial write, set OP_WRITE to be notified when more writing can occur.
-				selectionKey.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+				selectionKey.interestOps(readInterestOps() | SelectionKey.OP_WRITE); // Changed by ISE
 			} else {
 				// Full write, wake up selector so idle event will be fired.
 				selectionKey.selector().wakeup();
@@ -297,6 +311,47 @@ class TcpConnection {
 		}
 	}
 
+	/**
+	 * Stops selecting the connection for reading, until {@link #resumeRead()} is called.
+	 */
+	// Added by ISE
+	void suspendRead() {
+		writeReentrantLock.lock();
+		try {
+			readSuspended = true;
+			selectionKey.interestOps(selectionKey.interestOps() & ~SelectionKey.OP_READ);
+		} finally {
+			writeReentrantLock.unlock();
+		}
+	}
+
+	/**
+	 * Selects the connection for reading again and wakes up the selector, so that data that
+	 * arrived in the meantime is read.
+	 */
+	// Added by ISE
+	void resumeRead() {
+		writeReentrantLock.lock();
+		try {
+			readSuspended = false;
+			SelectionKey selectionKey = this.selectionKey;
+			if (selectionKey != null && selectionKey.isValid()) {
+				selectionKey.interestOps(selectionKey.interestOps() | SelectionKey.OP_READ);
+				selectionKey.selector().wakeup();
+			}
+		} finally {
+			writeReentrantLock.unlock();
+		}
+	}
+
+	/**
+	 * @return Returns the read interest operation, <code>0</code> if reading is suspended.
+	 */
+	// Added by ISE
+	private int readInterestOps() {
+		return readSuspended ? 0 : SelectionKey.OP_READ;
+	}
+
 	/**
 	 * @return Returns if any data is queued for writing.
 	 */
@@ -341,7 +396,8 @@ class TcpConnection {
 	}
 
 	public boolean isTimedOut(long time) {
-		return socketChannel != null && timeoutMillis > 0 && time - lastReadTime > timeoutMillis;
+		// Changed by ISE: not timed out while another thread is reading from the connection
+		return socketChannel != null && !readSuspended && timeoutMillis > 0 && time - lastReadTime > timeoutMillis;
 	}
 
 	/**
@@ -56,6 +56,24 @@ public interface ICmrManagementService {
 	 */
 	int getDroppedDataCount();
 
+	/**
+	 * Reports that an amount of data has been rejected in the lossless mode. The Agents send this
+	 * data again, thus it is not lost.
+	 * 
+	 * @param count
+	 *            Rejected amount.
+	 */
+	void addRejectedDataCount(int count);
+
+	/**
+	 * Returns the number of data objects that have been rejected on the CMR in the lossless mode,
+	 * due to the high incoming load.
+	 * 
+	 * @return Returns the number of data objects that have been rejected on the CMR in the
+	 *         lossless mode, due to the high incoming load.
+	 */
+	long getRejectedDataCount();
+
 	/**
 	 * Returns the currently existing {@link PropertySection} in the CMR configuration.
 	 * 
@@ -99,12 +99,24 @@ public abstract class AbstractBranch<R, E> implements ITreeComponent<R, E> {
 				ITreeComponent<R, E> existing = map.putIfAbsent(key, treeComponent);
 				if (null != existing) {
 					treeComponent = existing;
+				} else {
+					treeComponentAdded(treeComponent);
 				}
 			}
 			return treeComponent.put(element);
 		}
 	}
 
+	/**
+	 * Called after a new tree component created with {@link #getNextTreeComponent(Object)} has
+	 * been added to the component map. Default implementation does nothing.
+	 * 
+	 * @param treeComponent
+	 *            Added tree component.
+	 */
+	protected void treeComponentAdded(ITreeComponent<R, E> treeComponent) {
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -253,14 +265,26 @@ public abstract class AbstractBranch<R, E> implements ITreeComponent<R, E> {
 	 * {@inheritDoc}
 	 */
 	public long getComponentSize(IObjectSizes objectSizes) {
+		long size = getOwnComponentSize(objectSizes);
+		for (ITreeComponent<R, E> treeComponent : map.values()) {
+			size += treeComponent.getComponentSize(objectSizes);
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the size of this branch without the sizes of its children.
+	 * 
+	 * @param objectSizes
+	 *            Instance of {@link IObjectSizes}.
+	 * @return Size of the branch itself in bytes.
+	 */
+	protected long getOwnComponentSize(IObjectSizes objectSizes) {
 		int mapSize = map.size();
 		long size = objectSizes.getSizeOfObjectHeader();
 		size += objectSizes.getPrimitiveTypesSize(2, 0, 0, 0, 0, 0);
 		size += objectSizes.getSizeOfConcurrentHashMap(mapSize, CONCURRENCY_LEVEL);
 		size += mapSize * objectSizes.getSizeOfLongObject(); // for a Long key in a Map.entry
-		for (ITreeComponent<R, E> treeComponent : map.values()) {
-			size += treeComponent.getComponentSize(objectSizes);
-		}
 		return size;
 	}
 
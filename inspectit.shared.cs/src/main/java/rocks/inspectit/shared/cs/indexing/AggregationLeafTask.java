@@ -0,0 +1,58 @@
+package rocks.inspectit.shared.cs.indexing;
+
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
+import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
+import rocks.inspectit.shared.cs.indexing.buffer.IBufferTreeComponent;
+
+/**
+ * Returns the aggregated objects of the committed leaf.
+ *
+ * @param <E>
+ *            Type of the element indexed and aggregated.
+ */
+public class AggregationLeafTask<E extends DefaultData> extends RecursiveTask<List<E>> {
+
+	/**
+	 * The given leaf.
+	 */
+	private IBufferTreeComponent<E> leaf;
+
+	/**
+	 * The given query.
+	 */
+	private IIndexQuery query;
+
+	/**
+	 * Aggregator to use.
+	 */
+	private IAggregator<E> aggregator;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param leaf
+	 *            leaf
+	 * @param query
+	 *            query
+	 * @param aggregator
+	 *            aggregator
+	 */
+	public AggregationLeafTask(IBufferTreeComponent<E> leaf, IIndexQuery query, IAggregator<E> aggregator) {
+		this.leaf = leaf;
+		this.query = query;
+		this.aggregator = aggregator;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Queries and aggregates the Leaf.
+	 */
+	protected List<E> compute() {
+		return leaf.query(query, aggregator);
+	}
+}
@@ -0,0 +1,78 @@
+package rocks.inspectit.shared.cs.indexing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
+import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
+import rocks.inspectit.shared.cs.indexing.aggregation.impl.AggregationPerformer;
+import rocks.inspectit.shared.cs.indexing.buffer.IBufferTreeComponent;
+
+/**
+ * Queries through the branches, creates new tasks for each branch and merges the aggregated
+ * results of the tasks.
+ *
+ * @param <E>
+ *            Type of the element indexed and aggregated.
+ */
+public class AggregationQueryTask<E extends DefaultData> extends RecursiveTask<List<E>> {
+
+	/**
+	 * The given query.
+	 */
+	private IIndexQuery query;
+
+	/**
+	 * Aggregator to use.
+	 */
+	private IAggregator<E> aggregator;
+
+	/**
+	 * The branches, which have to be queried.
+	 */
+	private Collection<? extends ITreeComponent<E, E>> branchesToQuery;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param branchesToQuery
+	 *            The branches, which have to be queried.
+	 * @param query
+	 *            the given query
+	 * @param aggregator
+	 *            aggregator
+	 */
+	public AggregationQueryTask(Collection<? extends ITreeComponent<E, E>> branchesToQuery, IIndexQuery query, IAggregator<E> aggregator) {
+		this.query = query;
+		this.aggregator = aggregator;
+		this.branchesToQuery = branchesToQuery;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Forks and queries all subbranches.
+	 */
+	protected List<E> compute() {
+		List<RecursiveTask<List<E>>> forks = new ArrayList<RecursiveTask<List<E>>>();
+		for (ITreeComponent<E, E> component : branchesToQuery) {
+			RecursiveTask<List<E>> task;
+			if (component instanceof IBufferTreeComponent) {
+				task = ((IBufferTreeComponent<E>) component).getTaskForForkJoinQuery(query, aggregator);
+			} else {
+				task = component.getTaskForForkJoinQuery(query);
+			}
+			forks.add(task);
+			task.fork();
+		}
+
+		AggregationPerformer<E> aggregationPerformer = new AggregationPerformer<E>(aggregator);
+		for (RecursiveTask<List<E>> fork : forks) {
+			aggregationPerformer.processCollection(fork.join());
+		}
+		return aggregationPerformer.getResultList();
+	}
+}
@@ -0,0 +1,66 @@
+package rocks.inspectit.shared.cs.indexing;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
+import rocks.inspectit.shared.cs.indexing.buffer.IBufferTreeComponent;
+
+/**
+ * Returns the first N objects of the committed leaf.
+ *
+ * @param <E>
+ *            Type of the element indexed.
+ */
+public class TopNLeafTask<E extends DefaultData> extends RecursiveTask<List<E>> {
+
+	/**
+	 * The given leaf.
+	 */
+	private IBufferTreeComponent<E> leaf;
+
+	/**
+	 * The given query.
+	 */
+	private IIndexQuery query;
+
+	/**
+	 * Comparator defining the order.
+	 */
+	private Comparator<? super E> comparator;
+
+	/**
+	 * Maximum number of elements to return.
+	 */
+	private int limit;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param leaf
+	 *            leaf
+	 * @param query
+	 *            query
+	 * @param comparator
+	 *            comparator defining the order
+	 * @param limit
+	 *            maximum number of elements to return
+	 */
+	public TopNLeafTask(IBufferTreeComponent<E> leaf, IIndexQuery query, Comparator<? super E> comparator, int limit) {
+		this.leaf = leaf;
+		this.query = query;
+		this.comparator = comparator;
+		this.limit = limit;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Queries the Leaf.
+	 */
+	protected List<E> compute() {
+		return leaf.query(query, comparator, limit);
+	}
+}
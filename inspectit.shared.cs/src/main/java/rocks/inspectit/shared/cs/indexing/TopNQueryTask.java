@@ -0,0 +1,86 @@
+package rocks.inspectit.shared.cs.indexing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
+import rocks.inspectit.shared.cs.indexing.buffer.IBufferTreeComponent;
+import rocks.inspectit.shared.cs.indexing.util.TopNCollector;
+
+/**
+ * Queries through the branches, creates new tasks for each branch and keeps the first N results of
+ * all tasks.
+ *
+ * @param <E>
+ *            Type of the element indexed.
+ */
+public class TopNQueryTask<E extends DefaultData> extends RecursiveTask<List<E>> {
+
+	/**
+	 * The given query.
+	 */
+	private IIndexQuery query;
+
+	/**
+	 * Comparator defining the order.
+	 */
+	private Comparator<? super E> comparator;
+
+	/**
+	 * Maximum number of elements to return.
+	 */
+	private int limit;
+
+	/**
+	 * The branches, which have to be queried.
+	 */
+	private Collection<? extends ITreeComponent<E, E>> branchesToQuery;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param branchesToQuery
+	 *            The branches, which have to be queried.
+	 * @param query
+	 *            the given query
+	 * @param comparator
+	 *            comparator defining the order
+	 * @param limit
+	 *            maximum number of elements to return
+	 */
+	public TopNQueryTask(Collection<? extends ITreeComponent<E, E>> branchesToQuery, IIndexQuery query, Comparator<? super E> comparator, int limit) {
+		this.query = query;
+		this.comparator = comparator;
+		this.limit = limit;
+		this.branchesToQuery = branchesToQuery;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Forks and queries all subbranches.
+	 */
+	protected List<E> compute() {
+		List<RecursiveTask<List<E>>> forks = new ArrayList<RecursiveTask<List<E>>>();
+		for (ITreeComponent<E, E> component : branchesToQuery) {
+			RecursiveTask<List<E>> task;
+			if (component instanceof IBufferTreeComponent) {
+				task = ((IBufferTreeComponent<E>) component).getTaskForForkJoinQuery(query, comparator, limit);
+			} else {
+				task = component.getTaskForForkJoinQuery(query);
+			}
+			forks.add(task);
+			task.fork();
+		}
+
+		TopNCollector<E> topNCollector = new TopNCollector<E>(comparator, limit);
+		for (RecursiveTask<List<E>> fork : forks) {
+			topNCollector.processCollection(fork.join());
+		}
+		return topNCollector.getResultList();
+	}
+}
@@ -1,5 +1,6 @@
 package rocks.inspectit.shared.cs.indexing.buffer;
 
+import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.cs.indexing.indexer.IBranchIndexer;
 
 /**
@@ -10,7 +11,7 @@ import rocks.inspectit.shared.cs.indexing.indexer.IBranchIndexer;
  * @param <E>
  *            Type of the elements indexed.
  */
-public interface IBufferBranchIndexer<E> extends IBranchIndexer<E> {
+public interface IBufferBranchIndexer<E extends DefaultData> extends IBranchIndexer<E> {
 
 	/**
 	 * Returns the correct {@link IBufferTreeComponent} for the next level.
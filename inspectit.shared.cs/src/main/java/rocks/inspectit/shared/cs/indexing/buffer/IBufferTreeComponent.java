@@ -1,8 +1,16 @@
 package rocks.inspectit.shared.cs.indexing.buffer;
 
+import java.util.Comparator;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
+import rocks.inspectit.shared.all.cmr.cache.IObjectSizes;
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
 import rocks.inspectit.shared.cs.indexing.ITreeComponent;
+import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
 import rocks.inspectit.shared.cs.indexing.storage.IStorageTreeComponent;
 
 /**
@@ -13,7 +21,7 @@ import rocks.inspectit.shared.cs.indexing.storage.IStorageTreeComponent;
  * @param <E>
  *            Type of the elements indexed.
  */
-public interface IBufferTreeComponent<E> extends ITreeComponent<E, E> {
+public interface IBufferTreeComponent<E extends DefaultData> extends ITreeComponent<E, E> {
 
 	/**
 	 * Cleans the indexing tree by submitting the {@link Runnable} to the provided
@@ -54,4 +62,112 @@ public interface IBufferTreeComponent<E> extends ITreeComponent<E, E> {
 	 */
 	long getNumberOfElements();
 
+	/**
+	 * Returns the elements that satisfy the query already aggregated with the given
+	 * {@link IAggregator}. Every tree component aggregates its own elements and merges the
+	 * aggregated results of its children, thus the size of the result depends on the number of
+	 * aggregation groups and not on the number of elements. The aggregator must be able to
+	 * aggregate its own results.
+	 * 
+	 * @param query
+	 *            Query.
+	 * @param aggregator
+	 *            {@link IAggregator} to use.
+	 * @return List of aggregated elements, or empty list if nothing is found.
+	 */
+	List<E> query(IIndexQuery query, IAggregator<E> aggregator);
+
+	/**
+	 * Returns the elements that satisfy the query already aggregated with the given
+	 * {@link IAggregator}. Uses Join&Fork and creates a new task for each child, the results of the
+	 * tasks are merged when joining.
+	 * 
+	 * @param query
+	 *            Query.
+	 * @param aggregator
+	 *            {@link IAggregator} to use.
+	 * @param forkJoinPool
+	 *            The Pool which starts and manages the forks
+	 * @return List of aggregated elements, or empty list if nothing is found.
+	 * @see #query(IIndexQuery, IAggregator)
+	 */
+	List<E> query(IIndexQuery query, IAggregator<E> aggregator, ForkJoinPool forkJoinPool);
+
+	/**
+	 * Creates a fitting task for the aggregating query.
+	 * 
+	 * @param query
+	 *            Query.
+	 * @param aggregator
+	 *            {@link IAggregator} to use.
+	 * @return Task.
+	 */
+	RecursiveTask<List<E>> getTaskForForkJoinQuery(IIndexQuery query, IAggregator<E> aggregator);
+
+	/**
+	 * Returns the first elements that satisfy the query in the order of the given comparator.
+	 * Every tree component keeps only the first elements of its own elements and of the results
+	 * of its children, thus the elements are never sorted completely.
+	 * 
+	 * @param query
+	 *            Query.
+	 * @param comparator
+	 *            Comparator defining the order.
+	 * @param limit
+	 *            Maximum number of elements to return. Must be positive.
+	 * @return Sorted list of at most limit elements, or empty list if nothing is found.
+	 */
+	List<E> query(IIndexQuery query, Comparator<? super E> comparator, int limit);
+
+	/**
+	 * Returns the first elements that satisfy the query in the order of the given comparator. Uses
+	 * Join&Fork and creates a new task for each child.
+	 * 
+	 * @param query
+	 *            Query.
+	 * @param comparator
+	 *            Comparator defining the order.
+	 * @param limit
+	 *            Maximum number of elements to return. Must be positive.
+	 * @param forkJoinPool
+	 *            The Pool which starts and manages the forks
+	 * @return Sorted list of at most limit elements, or empty list if nothing is found.
+	 * @see #query(IIndexQuery, Comparator, int)
+	 */
+	List<E> query(IIndexQuery query, Comparator<? super E> comparator, int limit, ForkJoinPool forkJoinPool);
+
+	/**
+	 * Creates a fitting task for the query of the first elements.
+	 * 
+	 * @param query
+	 *            Query.
+	 * @param comparator
+	 *            Comparator defining the order.
+	 * @param limit
+	 *            Maximum number of elements to return.
+	 * @return Task.
+	 */
+	RecursiveTask<List<E>> getTaskForForkJoinQuery(IIndexQuery query, Comparator<? super E> comparator, int limit);
+
+	/**
+	 * Activates the incremental size tracking of this tree component and all its children. After
+	 * activation every component updates its size on put, remove, clean and clear, so the size of
+	 * the complete tree can be read with {@link #getTrackedComponentSize()} without walking the
+	 * tree. Should be called on the root of the tree.
+	 * 
+	 * @param objectSizes
+	 *            Instance of {@link IObjectSizes} used to calculate the sizes.
+	 */
+	void activateSizeTracking(IObjectSizes objectSizes);
+
+	/**
+	 * Returns the incrementally tracked size of this tree component and all its children. The
+	 * result equals {@link #getComponentSize(IObjectSizes)} when the tree is not changed
+	 * concurrently. Returns zero if size tracking was never activated.
+	 * 
+	 * @return Tracked size in bytes.
+	 * @see #activateSizeTracking(IObjectSizes)
+	 */
+	long getTrackedComponentSize();
+
 }
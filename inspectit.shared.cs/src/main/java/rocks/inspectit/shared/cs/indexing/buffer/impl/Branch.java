@@ -1,14 +1,25 @@
 package rocks.inspectit.shared.cs.indexing.buffer.impl;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
+import rocks.inspectit.shared.all.cmr.cache.IObjectSizes;
 import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
 import rocks.inspectit.shared.cs.indexing.AbstractBranch;
+import rocks.inspectit.shared.cs.indexing.AggregationQueryTask;
 import rocks.inspectit.shared.cs.indexing.ITreeComponent;
+import rocks.inspectit.shared.cs.indexing.TopNQueryTask;
+import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
+import rocks.inspectit.shared.cs.indexing.aggregation.impl.AggregationPerformer;
 import rocks.inspectit.shared.cs.indexing.buffer.IBufferBranchIndexer;
 import rocks.inspectit.shared.cs.indexing.buffer.IBufferTreeComponent;
+import rocks.inspectit.shared.cs.indexing.util.TopNCollector;
 
 /**
  * {@link Branch} is a {@link ITreeComponent} that holds references to other {@link ITreeComponent}
@@ -26,6 +37,11 @@ public class Branch<E extends DefaultData> extends AbstractBranch<E, E> implemen
 	 */
 	private IBufferBranchIndexer<E> bufferBranchIndexer;
 
+	/**
+	 * Incrementally maintained size of the branch and its children.
+	 */
+	private final TrackedSize trackedSize = new TrackedSize();
+
 	/**
 	 * Default constructor.
 	 * 
@@ -41,7 +57,24 @@ public class Branch<E extends DefaultData> extends AbstractBranch<E, E> implemen
 	 * {@inheritDoc}
 	 */
 	protected ITreeComponent<E, E> getNextTreeComponent(E element) {
-		return bufferBranchIndexer.getNextTreeComponent();
+		IBufferTreeComponent<E> treeComponent = bufferBranchIndexer.getNextTreeComponent();
+		IObjectSizes objectSizes = trackedSize.getObjectSizes();
+		if (null != objectSizes) {
+			// the size is not reported yet, as the component might not win the put in the map
+			TrackedSize childTrackedSize = getTrackedSize(treeComponent);
+			if (null != childTrackedSize) {
+				childTrackedSize.activate(objectSizes, trackedSize);
+			}
+		}
+		return treeComponent;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void treeComponentAdded(ITreeComponent<E, E> treeComponent) {
+		updateTrackedSize();
 	}
 
 	/**
@@ -68,9 +101,7 @@ public class Branch<E extends DefaultData> extends AbstractBranch<E, E> implemen
 				}
 			}
 		}
-		for (Object key : keysToRemove) {
-			getComponentMap().remove(key);
-		}
+		removeTreeComponents(keysToRemove);
 
 		if (getComponentMap().isEmpty()) {
 			return true;
@@ -91,9 +122,7 @@ public class Branch<E extends DefaultData> extends AbstractBranch<E, E> implemen
 				}
 			}
 		}
-		for (Object key : keysToRemove) {
-			getComponentMap().remove(key);
-		}
+		removeTreeComponents(keysToRemove);
 
 		if (getComponentMap().isEmpty()) {
 			return true;
@@ -101,6 +130,102 @@ public class Branch<E extends DefaultData> extends AbstractBranch<E, E> implemen
 		return false;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clearAll() {
+		for (ITreeComponent<E, E> treeComponent : getComponentMap().values()) {
+			TrackedSize childTrackedSize = getTrackedSize(treeComponent);
+			if (null != childTrackedSize) {
+				childTrackedSize.detach();
+			}
+		}
+		super.clearAll();
+		updateTrackedSize();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void activateSizeTracking(IObjectSizes objectSizes) {
+		activateSizeTracking(objectSizes, null);
+	}
+
+	/**
+	 * Activates the size tracking of this branch and all its children.
+	 * 
+	 * @param objectSizes
+	 *            Instance of {@link IObjectSizes}.
+	 * @param parent
+	 *            Tracked size of the parent or <code>null</code> if this branch is the root.
+	 */
+	void activateSizeTracking(IObjectSizes objectSizes, TrackedSize parent) {
+		trackedSize.activate(objectSizes, parent);
+		for (ITreeComponent<E, E> treeComponent : getComponentMap().values()) {
+			if (treeComponent instanceof Branch) {
+				((Branch<E>) treeComponent).activateSizeTracking(objectSizes, trackedSize);
+			} else if (treeComponent instanceof Leaf) {
+				((Leaf<E>) treeComponent).activateSizeTracking(objectSizes, trackedSize);
+			}
+		}
+		updateTrackedSize();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getTrackedComponentSize() {
+		return trackedSize.get();
+	}
+
+	/**
+	 * Removes the tree components with given keys and removes their sizes from the tracked size.
+	 * 
+	 * @param keys
+	 *            Keys of the tree components to remove.
+	 */
+	private void removeTreeComponents(List<Object> keys) {
+		if (keys.isEmpty()) {
+			return;
+		}
+		for (Object key : keys) {
+			ITreeComponent<E, E> removed = getComponentMap().remove(key);
+			TrackedSize childTrackedSize = getTrackedSize(removed);
+			if (null != childTrackedSize) {
+				childTrackedSize.detach();
+			}
+		}
+		updateTrackedSize();
+	}
+
+	/**
+	 * Reports the current own size of the branch if size tracking is active.
+	 */
+	private void updateTrackedSize() {
+		IObjectSizes objectSizes = trackedSize.getObjectSizes();
+		if (null != objectSizes) {
+			long version = trackedSize.nextVersion();
+			trackedSize.setOwnSize(version, getOwnComponentSize(objectSizes));
+		}
+	}
+
+	/**
+	 * Returns the tracked size of the given tree component.
+	 * 
+	 * @param treeComponent
+	 *            Tree component.
+	 * @return Tracked size or <code>null</code> if the component does not track its size.
+	 */
+	private TrackedSize getTrackedSize(ITreeComponent<E, E> treeComponent) {
+		if (treeComponent instanceof Branch) {
+			return ((Branch<E>) treeComponent).trackedSize;
+		} else if (treeComponent instanceof Leaf) {
+			return ((Leaf<E>) treeComponent).getTrackedSize();
+		}
+		return null;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -114,6 +239,66 @@ public class Branch<E extends DefaultData> extends AbstractBranch<E, E> implemen
 		return sum;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<E> query(IIndexQuery query, IAggregator<E> aggregator) {
+		AggregationPerformer<E> aggregationPerformer = new AggregationPerformer<E>(aggregator);
+		for (ITreeComponent<E, E> treeComponent : getBranchesToQuery(query)) {
+			List<E> componentResult;
+			if (treeComponent instanceof IBufferTreeComponent) {
+				componentResult = ((IBufferTreeComponent<E>) treeComponent).query(query, aggregator);
+			} else {
+				componentResult = treeComponent.query(query);
+			}
+			aggregationPerformer.processCollection(componentResult);
+		}
+		return aggregationPerformer.getResultList();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<E> query(IIndexQuery query, IAggregator<E> aggregator, ForkJoinPool forkJoinPool) {
+		return forkJoinPool.invoke(getTaskForForkJoinQuery(query, aggregator));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public RecursiveTask<List<E>> getTaskForForkJoinQuery(IIndexQuery query, IAggregator<E> aggregator) {
+		return new AggregationQueryTask<>(getBranchesToQuery(query), query, aggregator);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<E> query(IIndexQuery query, Comparator<? super E> comparator, int limit) {
+		TopNCollector<E> topNCollector = new TopNCollector<E>(comparator, limit);
+		for (ITreeComponent<E, E> treeComponent : getBranchesToQuery(query)) {
+			if (treeComponent instanceof IBufferTreeComponent) {
+				topNCollector.processCollection(((IBufferTreeComponent<E>) treeComponent).query(query, comparator, limit));
+			} else {
+				topNCollector.processCollection(treeComponent.query(query));
+			}
+		}
+		return topNCollector.getResultList();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<E> query(IIndexQuery query, Comparator<? super E> comparator, int limit, ForkJoinPool forkJoinPool) {
+		return forkJoinPool.invoke(getTaskForForkJoinQuery(query, comparator, limit));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public RecursiveTask<List<E>> getTaskForForkJoinQuery(IIndexQuery query, Comparator<? super E> comparator, int limit) {
+		return new TopNQueryTask<>(getBranchesToQuery(query), query, comparator, limit);
+	}
+
 	/**
 	 * @return the bufferBranchIndexer
 	 */
@@ -1,5 +1,8 @@
 package rocks.inspectit.shared.cs.indexing.buffer.impl;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.apache.commons.lang.builder.ToStringBuilder;
 
 import rocks.inspectit.shared.all.communication.DefaultData;
@@ -29,6 +32,11 @@ public class BufferBranchIndexer<E extends DefaultData> implements IBufferBranch
 	 */
 	private BufferBranchIndexer<E> childBufferIndexer;
 
+	/**
+	 * Types of the sorted secondary indexes of the leafs created by this indexer.
+	 */
+	private List<LeafIndexType> leafIndexTypes;
+
 	/**
 	 * Default constructor.
 	 * 
@@ -48,8 +56,25 @@ public class BufferBranchIndexer<E extends DefaultData> implements IBufferBranch
 	 *            Indexer to be used in the child branch.
 	 */
 	public BufferBranchIndexer(IBranchIndexer<E> delegateIndexer, BufferBranchIndexer<E> childBufferIndexer) {
+		this(delegateIndexer, childBufferIndexer, Collections.<LeafIndexType> emptyList());
+	}
+
+	/**
+	 * Constructor that defines the sorted secondary indexes of the leafs. The leaf indexes are only
+	 * used if this is the last indexer in the tree, thus no child indexer is given.
+	 * 
+	 * @param delegateIndexer
+	 *            Type of the delegate indexer that will actually generate keys for objects.
+	 * @param childBufferIndexer
+	 *            Indexer to be used in the child branch.
+	 * @param leafIndexTypes
+	 *            Types of the sorted secondary indexes of the created leafs.
+	 * @see Leaf#Leaf(List)
+	 */
+	public BufferBranchIndexer(IBranchIndexer<E> delegateIndexer, BufferBranchIndexer<E> childBufferIndexer, List<LeafIndexType> leafIndexTypes) {
 		this.delegateIndexer = delegateIndexer;
 		this.childBufferIndexer = childBufferIndexer;
+		this.leafIndexTypes = leafIndexTypes;
 	}
 
 	/**
@@ -85,7 +110,7 @@ public class BufferBranchIndexer<E extends DefaultData> implements IBufferBranch
 	 */
 	public IBufferBranchIndexer<E> getNewInstance() {
 		if (!sharedInstance()) {
-			BufferBranchIndexer<E> bufferBranchIndexer = new BufferBranchIndexer<E>(delegateIndexer.getNewInstance(), childBufferIndexer);
+			BufferBranchIndexer<E> bufferBranchIndexer = new BufferBranchIndexer<E>(delegateIndexer.getNewInstance(), childBufferIndexer, leafIndexTypes);
 			return bufferBranchIndexer;
 		} else {
 			throw new UnsupportedOperationException("Method getNewInstance() called on the Indexer that has a shared instance.");
@@ -103,7 +128,7 @@ public class BufferBranchIndexer<E extends DefaultData> implements IBufferBranch
 				return new Branch<E>(childBufferIndexer.getNewInstance());
 			}
 		} else {
-			return new Leaf<E>();
+			return new Leaf<E>(leafIndexTypes);
 		}
 	}
 
@@ -123,6 +148,7 @@ public class BufferBranchIndexer<E extends DefaultData> implements IBufferBranch
 	public String toString() {
 		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
 		toStringBuilder.append("delegateIndexer", delegateIndexer);
+		toStringBuilder.append("leafIndexTypes", leafIndexTypes);
 		return toStringBuilder.toString();
 	}
 
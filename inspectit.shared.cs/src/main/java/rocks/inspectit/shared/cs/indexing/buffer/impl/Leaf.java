@@ -3,6 +3,9 @@ package rocks.inspectit.shared.cs.indexing.buffer.impl;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
@@ -16,8 +19,14 @@ import org.cliffc.high_scale_lib.NonBlockingHashMapLong;
 import rocks.inspectit.shared.all.cmr.cache.IObjectSizes;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.indexing.IIndexQuery;
+import rocks.inspectit.shared.cs.indexing.AggregationLeafTask;
 import rocks.inspectit.shared.cs.indexing.LeafTask;
+import rocks.inspectit.shared.cs.indexing.TopNLeafTask;
+import rocks.inspectit.shared.cs.indexing.aggregation.IAggregator;
+import rocks.inspectit.shared.cs.indexing.aggregation.impl.AggregationPerformer;
 import rocks.inspectit.shared.cs.indexing.buffer.IBufferTreeComponent;
+import rocks.inspectit.shared.cs.indexing.buffer.impl.SortedLeafIndex.IndexKey;
+import rocks.inspectit.shared.cs.indexing.util.TopNCollector;
 
 /**
  * Leaf class is the one that holds the weak references to objects, thus last in tree structure.
@@ -34,6 +43,11 @@ public class Leaf<E extends DefaultData> implements IBufferTreeComponent<E> {
 	 */
 	private NonBlockingHashMapLong<CustomWeakReference<E>> map;
 
+	/**
+	 * Sorted secondary indexes of the weak references. Empty if the leaf has no secondary indexes.
+	 */
+	private List<SortedLeafIndex<CustomWeakReference<E>>> sortedIndexes;
+
 	/**
 	 * Reference queue where cleared Weak references are queued by garbage collection.
 	 */
@@ -54,11 +68,36 @@ public class Leaf<E extends DefaultData> implements IBufferTreeComponent<E> {
 	private Future<?> clearFuture;
 
 	/**
-	 * Default constructor.
+	 * Incrementally maintained size of the leaf.
+	 */
+	private final TrackedSize trackedSize = new TrackedSize();
+
+	/**
+	 * Default constructor. Leaf has no sorted secondary indexes.
 	 */
 	public Leaf() {
+		this(Collections.<LeafIndexType> emptyList());
+	}
+
+	/**
+	 * Secondary constructor.
+	 * 
+	 * @param leafIndexTypes
+	 *            Types of the sorted secondary indexes the leaf should keep. Queries with a range on
+	 *            the indexed value only check the elements in range. The first index that the query
+	 *            defines a range for is used.
+	 */
+	public Leaf(List<LeafIndexType> leafIndexTypes) {
 		map = new NonBlockingHashMapLong<>();
 		referenceQueue = new ReferenceQueue<E>();
+		if (leafIndexTypes.isEmpty()) {
+			sortedIndexes = Collections.emptyList();
+		} else {
+			sortedIndexes = new ArrayList<>(leafIndexTypes.size());
+			for (LeafIndexType leafIndexType : leafIndexTypes) {
+				sortedIndexes.add(new SortedLeafIndex<CustomWeakReference<E>>(leafIndexType));
+			}
+		}
 	}
 
 	/**
@@ -66,7 +105,21 @@ public class Leaf<E extends DefaultData> implements IBufferTreeComponent<E> {
 	 */
 	public E put(E element) {
 		CustomWeakReference<E> weakReference = new CustomWeakReference<E>(element, referenceQueue);
-		map.put(element.getId(), weakReference);
+		if (sortedIndexes.isEmpty()) {
+			map.put(element.getId(), weakReference);
+		} else {
+			// keys are set before the reference is visible in the map, so every removal finds them
+			IndexKey[] indexKeys = new IndexKey[sortedIndexes.size()];
+			for (int i = 0; i < indexKeys.length; i++) {
+				indexKeys[i] = sortedIndexes.get(i).put(element, weakReference);
+			}
+			weakReference.setIndexKeys(indexKeys);
+			CustomWeakReference<E> replaced = map.put(element.getId(), weakReference);
+			if (null != replaced) {
+				removeFromSortedIndexes(replaced);
+			}
+		}
+		updateTrackedSize();
 		return element;
 	}
 
@@ -78,7 +131,8 @@ public class Leaf<E extends DefaultData> implements IBufferTreeComponent<E> {
 		WeakReference<E> weakReference = map.get(id);
 		if (null != weakReference) {
 			if (null == weakReference.get()) {
-				map.remove(id);
+				remove(id);
+				updateTrackedSize();
 				return null;
 			}
 			return weakReference.get();
@@ -95,11 +149,13 @@ public class Leaf<E extends DefaultData> implements IBufferTreeComponent<E> {
 		WeakReference<E> weakReference = map.get(id);
 		if (null != weakReference) {
 			if (null == weakReference.get()) {
-				map.remove(id);
+				remove(id);
+				updateTrackedSize();
 				return null;
 			} else {
 				E result = weakReference.get();
-				map.remove(id);
+				remove(id);
+				updateTrackedSize();
 				return result;
 			}
 		} else {
@@ -112,7 +168,7 @@ public class Leaf<E extends DefaultData> implements IBufferTreeComponent<E> {
 	 */
 	public List<E> query(IIndexQuery query) {
 		List<E> results = new ArrayList<E>();
-		Iterator<CustomWeakReference<E>> iterator = map.values().iterator();
+		Iterator<CustomWeakReference<E>> iterator = getCandidates(query).iterator();
 		while (iterator.hasNext()) {
 			WeakReference<E> weakReference = iterator.next();
 			if (null != weakReference) {
@@ -131,6 +187,56 @@ public class Leaf<E extends DefaultData> implements IBufferTreeComponent<E> {
 		return forkJoinPool.invoke(getTaskForForkJoinQuery(query));
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<E> query(IIndexQuery query, IAggregator<E> aggregator) {
+		AggregationPerformer<E> aggregationPerformer = new AggregationPerformer<E>(aggregator);
+		Iterator<CustomWeakReference<E>> iterator = getCandidates(query).iterator();
+		while (iterator.hasNext()) {
+			WeakReference<E> weakReference = iterator.next();
+			if (null != weakReference) {
+				E element = weakReference.get();
+				if (null != element && element.isQueryComplied(query)) {
+					aggregationPerformer.processElement(element);
+				}
+			}
+		}
+		return aggregationPerformer.getResultList();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<E> query(IIndexQuery query, IAggregator<E> aggregator, ForkJoinPool forkJoinPool) {
+		return forkJoinPool.invoke(getTaskForForkJoinQuery(query, aggregator));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<E> query(IIndexQuery query, Comparator<? super E> comparator, int limit) {
+		TopNCollector<E> topNCollector = new TopNCollector<E>(comparator, limit);
+		Iterator<CustomWeakReference<E>> iterator = getCandidates(query).iterator();
+		while (iterator.hasNext()) {
+			WeakReference<E> weakReference = iterator.next();
+			if (null != weakReference) {
+				E element = weakReference.get();
+				if (null != element && element.isQueryComplied(query)) {
+					topNCollector.processElement(element);
+				}
+			}
+		}
+		return topNCollector.getResultList();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<E> query(IIndexQuery query, Comparator<? super E> comparator, int limit, ForkJoinPool forkJoinPool) {
+		return forkJoinPool.invoke(getTaskForForkJoinQuery(query, comparator, limit));
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -145,6 +251,12 @@ public class Leaf<E extends DefaultData> implements IBufferTreeComponent<E> {
 		// for each CustomWeakReference in a map
 		size += map.size() * objectSizes.getSizeOfCustomWeakReference();
 
+		// sorted indexes and the index keys array of each CustomWeakReference
+		if (!sortedIndexes.isEmpty()) {
+			size += sortedIndexes.size() * SortedLeafIndex.getSize(objectSizes, mapSize);
+			size += mapSize * objectSizes.getSizeOfArray(sortedIndexes.size());
+		}
+
 		return size;
 		// the size of the reference queue, runnable and future and not included, because they are
 		// simply to small and its size is constant and does not depend on the number of elements in
@@ -162,8 +274,11 @@ public class Leaf<E extends DefaultData> implements IBufferTreeComponent<E> {
 			toClean.add(customWeakReference.getReferentId());
 			customWeakReference = (CustomWeakReference<E>) referenceQueue.poll();
 		}
-		for (Object key : toClean) {
-			map.remove(key);
+		for (Long key : toClean) {
+			remove(key.longValue());
+		}
+		if (!toClean.isEmpty()) {
+			updateTrackedSize();
 		}
 		if (map.isEmpty()) {
 			return true;
@@ -183,6 +298,46 @@ public class Leaf<E extends DefaultData> implements IBufferTreeComponent<E> {
 	 */
 	public void clearAll() {
 		map.clear();
+		for (SortedLeafIndex<CustomWeakReference<E>> sortedIndex : sortedIndexes) {
+			sortedIndex.clear();
+		}
+		updateTrackedSize();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void activateSizeTracking(IObjectSizes objectSizes) {
+		activateSizeTracking(objectSizes, null);
+	}
+
+	/**
+	 * Activates the size tracking of this leaf.
+	 * 
+	 * @param objectSizes
+	 *            Instance of {@link IObjectSizes}.
+	 * @param parent
+	 *            Tracked size of the parent or <code>null</code> if this leaf is the root.
+	 */
+	void activateSizeTracking(IObjectSizes objectSizes, TrackedSize parent) {
+		trackedSize.activate(objectSizes, parent);
+		updateTrackedSize();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getTrackedComponentSize() {
+		return trackedSize.get();
+	}
+
+	/**
+	 * Gets {@link #trackedSize}.
+	 * 
+	 * @return {@link #trackedSize}
+	 */
+	TrackedSize getTrackedSize() {
+		return trackedSize;
 	}
 
 	/**
@@ -201,6 +356,66 @@ public class Leaf<E extends DefaultData> implements IBufferTreeComponent<E> {
 		return map.isEmpty();
 	}
 
+	/**
+	 * Returns the weak references that can refer to the elements fulfilling the query. These are
+	 * the references in range of the first sorted index the query defines a range for, or all
+	 * references if there is no such index.
+	 * 
+	 * @param query
+	 *            Query.
+	 * @return Weak references to check against the query.
+	 */
+	private Collection<CustomWeakReference<E>> getCandidates(IIndexQuery query) {
+		for (SortedLeafIndex<CustomWeakReference<E>> sortedIndex : sortedIndexes) {
+			double[] range = sortedIndex.getIndexType().getRange(query);
+			if (null != range) {
+				return sortedIndex.getValues(range);
+			}
+		}
+		return map.values();
+	}
+
+	/**
+	 * Removes the element with the given id from the map and the sorted indexes.
+	 * 
+	 * @param id
+	 *            Id of the element.
+	 */
+	private void remove(long id) {
+		CustomWeakReference<E> weakReference = map.remove(id);
+		if (null != weakReference && !sortedIndexes.isEmpty()) {
+			removeFromSortedIndexes(weakReference);
+		}
+	}
+
+	/**
+	 * Reports the current size of the leaf if size tracking is active.
+	 */
+	private void updateTrackedSize() {
+		IObjectSizes objectSizes = trackedSize.getObjectSizes();
+		if (null != objectSizes) {
+			long version = trackedSize.nextVersion();
+			trackedSize.setOwnSize(version, getComponentSize(objectSizes));
+		}
+	}
+
+	/**
+	 * Removes the weak reference from the sorted indexes.
+	 * 
+	 * @param weakReference
+	 *            Weak reference to remove.
+	 */
+	private void removeFromSortedIndexes(CustomWeakReference<E> weakReference) {
+		IndexKey[] indexKeys = weakReference.getIndexKeys();
+		if (null != indexKeys) {
+			for (int i = 0; i < indexKeys.length; i++) {
+				if (null != indexKeys[i]) {
+					sortedIndexes.get(i).remove(indexKeys[i], weakReference);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Custom extension of {@link WeakReference} that will additionally hold the id of the referent
 	 * {@link DefaultData} object.
@@ -216,6 +431,11 @@ public class Leaf<E extends DefaultData> implements IBufferTreeComponent<E> {
 		 */
 		private long referentId;
 
+		/**
+		 * Keys of the reference in the sorted indexes of the leaf. Can be <code>null</code>.
+		 */
+		private IndexKey[] indexKeys;
+
 		/**
 		 * Default constructor.
 		 * 
@@ -237,6 +457,25 @@ public class Leaf<E extends DefaultData> implements IBufferTreeComponent<E> {
 			return referentId;
 		}
 
+		/**
+		 * Gets {@link #indexKeys}.
+		 * 
+		 * @return {@link #indexKeys}
+		 */
+		public IndexKey[] getIndexKeys() {
+			return indexKeys;
+		}
+
+		/**
+		 * Sets {@link #indexKeys}.
+		 * 
+		 * @param indexKeys
+		 *            New value for {@link #indexKeys}
+		 */
+		public void setIndexKeys(IndexKey[] indexKeys) {
+			this.indexKeys = indexKeys;
+		}
+
 	}
 
 	/**
@@ -255,4 +494,18 @@ public class Leaf<E extends DefaultData> implements IBufferTreeComponent<E> {
 	public RecursiveTask<List<E>> getTaskForForkJoinQuery(IIndexQuery query) {
 		return new LeafTask<>(this, query);
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public RecursiveTask<List<E>> getTaskForForkJoinQuery(IIndexQuery query, IAggregator<E> aggregator) {
+		return new AggregationLeafTask<>(this, query, aggregator);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public RecursiveTask<List<E>> getTaskForForkJoinQuery(IIndexQuery query, Comparator<? super E> comparator, int limit) {
+		return new TopNLeafTask<>(this, query, comparator, limit);
+	}
 }
@@ -0,0 +1,62 @@
+package rocks.inspectit.shared.cs.indexing.buffer.impl;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+import rocks.inspectit.shared.all.indexing.IIndexQuery;
+
+/**
+ * Values the elements of a {@link Leaf} can additionally be sorted by. A leaf with a sorted index
+ * resolves the range restrictions of a query on the indexed value with a range lookup instead of
+ * checking every element.
+ */
+public enum LeafIndexType {
+
+	/**
+	 * Sorts by the time stamp of the element. Range is defined by the interval of the query.
+	 */
+	TIMESTAMP;
+
+	/**
+	 * Returns the indexed value of the element.
+	 *
+	 * @param element
+	 *            Element.
+	 * @return Indexed value or {@link Double#NaN} if the element does not define the value. Such
+	 *         elements never fulfill a range of this index.
+	 */
+	public double getValue(DefaultData element) {
+		switch (this) {
+		case TIMESTAMP:
+			if (null != element.getTimeStamp()) {
+				return element.getTimeStamp().getTime();
+			}
+			return Double.NaN;
+		default:
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * Returns the range of the indexed values that the elements fulfilling the query can have.
+	 * Bounds are always inclusive, thus the elements in range still have to be checked against the
+	 * query.
+	 *
+	 * @param query
+	 *            Query.
+	 * @return Array with the lower and upper bound or <code>null</code> if the query does not
+	 *         restrict the indexed value.
+	 */
+	public double[] getRange(IIndexQuery query) {
+		switch (this) {
+		case TIMESTAMP:
+			if (!query.isIntervalSet()) {
+				return null;
+			}
+			double from = (null != query.getFromDate()) ? query.getFromDate().getTime() : Double.NEGATIVE_INFINITY;
+			double to = (null != query.getToDate()) ? query.getToDate().getTime() : Double.POSITIVE_INFINITY;
+			return new double[] { from, to };
+		default:
+			return null;
+		}
+	}
+
+}
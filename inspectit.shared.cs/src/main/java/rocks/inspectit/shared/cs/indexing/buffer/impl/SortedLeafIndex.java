@@ -0,0 +1,194 @@
+package rocks.inspectit.shared.cs.indexing.buffer.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import rocks.inspectit.shared.all.cmr.cache.IObjectSizes;
+import rocks.inspectit.shared.all.communication.DefaultData;
+
+/**
+ * Secondary index of the {@link Leaf} that keeps the leaf values sorted by the value defined with
+ * the {@link LeafIndexType}.
+ *
+ * @param <V>
+ *            Type of the values held in the index.
+ */
+class SortedLeafIndex<V> {
+
+	/**
+	 * Type of the index.
+	 */
+	private final LeafIndexType indexType;
+
+	/**
+	 * Values sorted by the indexed value and the element id.
+	 */
+	private final ConcurrentSkipListMap<IndexKey, V> map = new ConcurrentSkipListMap<>();
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param indexType
+	 *            Type of the index.
+	 */
+	SortedLeafIndex(LeafIndexType indexType) {
+		this.indexType = indexType;
+	}
+
+	/**
+	 * Puts the value of the element to the index.
+	 *
+	 * @param element
+	 *            Element.
+	 * @param value
+	 *            Value to put.
+	 * @return Key the value is indexed with, that has to be passed to
+	 *         {@link #remove(IndexKey, Object)}, or <code>null</code> if the element does not
+	 *         define the indexed value.
+	 */
+	IndexKey put(DefaultData element, V value) {
+		double indexedValue = indexType.getValue(element);
+		if (Double.isNaN(indexedValue)) {
+			return null;
+		}
+		IndexKey key = new IndexKey(indexedValue, element.getId());
+		map.put(key, value);
+		return key;
+	}
+
+	/**
+	 * Removes the value indexed with the given key, if the key is still mapped to it. Element put
+	 * again with the same id and indexed value replaces the key mapping, thus its value stays.
+	 *
+	 * @param key
+	 *            Key returned by {@link #put(DefaultData, Object)}.
+	 * @param value
+	 *            Value to remove.
+	 */
+	void remove(IndexKey key, V value) {
+		map.remove(key, value);
+	}
+
+	/**
+	 * Returns the values with the indexed value in the given inclusive range.
+	 *
+	 * @param range
+	 *            Array with the lower and upper bound.
+	 * @return Values in the range, ordered by the indexed value.
+	 */
+	Collection<V> getValues(double[] range) {
+		if (range[0] > range[1]) {
+			return Collections.emptyList();
+		}
+		return map.subMap(new IndexKey(range[0], Long.MIN_VALUE), true, new IndexKey(range[1], Long.MAX_VALUE), true).values();
+	}
+
+	/**
+	 * Removes all values.
+	 */
+	void clear() {
+		map.clear();
+	}
+
+	/**
+	 * Returns the type of the index.
+	 *
+	 * @return Returns the type of the index.
+	 */
+	LeafIndexType getIndexType() {
+		return indexType;
+	}
+
+	/**
+	 * Returns the size of the index in bytes for the given number of indexed values.
+	 *
+	 * @param objectSizes
+	 *            Object sizes.
+	 * @param indexedValues
+	 *            Number of indexed values.
+	 * @return Size in bytes.
+	 */
+	static long getSize(IObjectSizes objectSizes, long indexedValues) {
+		long size = objectSizes.getSizeOfObjectHeader();
+		size += objectSizes.getPrimitiveTypesSize(4, 0, 0, 0, 0, 0);
+		size = objectSizes.alignTo8Bytes(size);
+
+		// node and key per value, and on average one index node for every third value
+		long nodeSize = objectSizes.alignTo8Bytes(objectSizes.getSizeOfObjectHeader() + objectSizes.getPrimitiveTypesSize(3, 0, 0, 0, 0, 0));
+		long keySize = objectSizes.alignTo8Bytes(objectSizes.getSizeOfObjectHeader() + objectSizes.getPrimitiveTypesSize(0, 0, 0, 0, 1, 1));
+		size += indexedValues * (nodeSize + keySize);
+		size += (indexedValues / 3) * nodeSize;
+		return size;
+	}
+
+	/**
+	 * Key in the index. Keys are ordered by the indexed value and then by the id of the element,
+	 * thus elements with the same indexed value are all kept.
+	 */
+	static final class IndexKey implements Comparable<IndexKey> {
+
+		/**
+		 * Indexed value.
+		 */
+		private final double value;
+
+		/**
+		 * Id of the element.
+		 */
+		private final long id;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param value
+		 *            Indexed value.
+		 * @param id
+		 *            Id of the element.
+		 */
+		IndexKey(double value, long id) {
+			this.value = value;
+			this.id = id;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int compareTo(IndexKey other) {
+			int result = Double.compare(value, other.value);
+			if (0 != result) {
+				return result;
+			}
+			return Long.compare(id, other.id);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			long bits = Double.doubleToLongBits(value);
+			int result = prime + (int) (bits ^ (bits >>> 32));
+			result = (prime * result) + (int) (id ^ (id >>> 32));
+			return result;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof IndexKey)) {
+				return false;
+			}
+			return 0 == compareTo((IndexKey) obj);
+		}
+
+	}
+
+}
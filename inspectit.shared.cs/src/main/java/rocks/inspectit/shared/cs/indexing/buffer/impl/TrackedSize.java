@@ -0,0 +1,217 @@
+package rocks.inspectit.shared.cs.indexing.buffer.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import rocks.inspectit.shared.all.cmr.cache.IObjectSizes;
+
+/**
+ * Incrementally maintained size of a buffer tree component and all its children. Every change of
+ * the component own size is propagated to the sizes of all parent components, thus the size of the
+ * root component is always the size of the complete tree and can be read without walking it.
+ * <p>
+ * The tracking is lock-free. The size is kept together with the detached flag in one atomic long,
+ * so a change is either added before the detach and then propagated to the parent, or after the
+ * detach and then not propagated at all. A detach removes exactly the size it marked as detached,
+ * thus concurrent changes and detaches never leave a part of the size at the parents.
+ * <p>
+ * The own size is reported with a version taken before it was calculated. A report with an older
+ * version than the last one is dropped, so that the last reported own size is calculated after the
+ * last change of the component.
+ */
+final class TrackedSize {
+
+	/**
+	 * Size of the component and its children in bytes shifted left by one, the lowest bit marks the
+	 * detached component.
+	 */
+	private final AtomicLong sizeAndDetached = new AtomicLong();
+
+	/**
+	 * Last reported own size of the component.
+	 */
+	private final AtomicReference<OwnSize> ownSize = new AtomicReference<OwnSize>(new OwnSize(0, 0));
+
+	/**
+	 * Last version given out for the own size calculation.
+	 */
+	private final AtomicLong version = new AtomicLong();
+
+	/**
+	 * Tracked size of the parent component, <code>null</code> for the root.
+	 */
+	private volatile TrackedSize parent;
+
+	/**
+	 * Object sizes used to calculate the own size. <code>null</code> as long as the tracking is not
+	 * active.
+	 */
+	private volatile IObjectSizes objectSizes;
+
+	/**
+	 * Activates the tracking. The own size is not reported, this happens with the next
+	 * {@link #setOwnSize(long, long)}.
+	 *
+	 * @param objectSizes
+	 *            Object sizes used to calculate the own size.
+	 * @param parent
+	 *            Tracked size of the parent component or <code>null</code> for the root.
+	 */
+	void activate(IObjectSizes objectSizes, TrackedSize parent) {
+		this.parent = parent;
+		this.objectSizes = objectSizes;
+	}
+
+	/**
+	 * Deactivates the tracking and removes the size of the component from the parents. Called when
+	 * the component is removed from the tree.
+	 */
+	void detach() {
+		objectSizes = null;
+		long current;
+		do {
+			current = sizeAndDetached.get();
+			if (isDetached(current)) {
+				return;
+			}
+		} while (!sizeAndDetached.compareAndSet(current, current | 1L));
+
+		TrackedSize currentParent = parent;
+		if (null != currentParent) {
+			currentParent.add(-getSize(current));
+		}
+	}
+
+	/**
+	 * Returns the version the next own size calculation has to be reported with. Must be taken
+	 * before the own size is calculated.
+	 *
+	 * @return Version for the {@link #setOwnSize(long, long)}.
+	 */
+	long nextVersion() {
+		return version.incrementAndGet();
+	}
+
+	/**
+	 * Reports the new own size of the component. The report is dropped if a newer own size was
+	 * already reported.
+	 *
+	 * @param ownSizeVersion
+	 *            Version taken with {@link #nextVersion()} before calculating the own size.
+	 * @param newOwnSize
+	 *            Own size of the component in bytes.
+	 */
+	void setOwnSize(long ownSizeVersion, long newOwnSize) {
+		OwnSize newValue = new OwnSize(ownSizeVersion, newOwnSize);
+		OwnSize current;
+		do {
+			current = ownSize.get();
+			if (current.version > ownSizeVersion) {
+				return;
+			}
+		} while (!ownSize.compareAndSet(current, newValue));
+		add(newOwnSize - current.size);
+	}
+
+	/**
+	 * Adds the delta to this size and to the sizes of all parents.
+	 *
+	 * @param delta
+	 *            Delta in bytes.
+	 */
+	private void add(long delta) {
+		if (0 != delta) {
+			TrackedSize trackedSize = this;
+			while (null != trackedSize) {
+				trackedSize = trackedSize.addToSize(delta);
+			}
+		}
+	}
+
+	/**
+	 * Adds the delta to this size only.
+	 *
+	 * @param delta
+	 *            Delta in bytes.
+	 * @return The parent the delta has to be added to next or <code>null</code> if there is none or
+	 *         the component is detached.
+	 */
+	private TrackedSize addToSize(long delta) {
+		long current;
+		do {
+			current = sizeAndDetached.get();
+		} while (!sizeAndDetached.compareAndSet(current, current + (delta << 1)));
+		return isDetached(current) ? null : parent;
+	}
+
+	/**
+	 * Gets {@link #objectSizes}.
+	 *
+	 * @return {@link #objectSizes}
+	 */
+	IObjectSizes getObjectSizes() {
+		return objectSizes;
+	}
+
+	/**
+	 * Returns the size of the component and its children in bytes.
+	 *
+	 * @return Returns the size of the component and its children in bytes.
+	 */
+	long get() {
+		return getSize(sizeAndDetached.get());
+	}
+
+	/**
+	 * Returns the size stored in the value of {@link #sizeAndDetached}.
+	 *
+	 * @param value
+	 *            Value of {@link #sizeAndDetached}.
+	 * @return Size in bytes.
+	 */
+	private static long getSize(long value) {
+		return value >> 1;
+	}
+
+	/**
+	 * Returns if the value of {@link #sizeAndDetached} marks the component as detached.
+	 *
+	 * @param value
+	 *            Value of {@link #sizeAndDetached}.
+	 * @return <code>true</code> if detached.
+	 */
+	private static boolean isDetached(long value) {
+		return 0 != (value & 1L);
+	}
+
+	/**
+	 * Reported own size with the version it was calculated with.
+	 */
+	private static final class OwnSize {
+
+		/**
+		 * Version of the calculation.
+		 */
+		private final long version;
+
+		/**
+		 * Own size in bytes.
+		 */
+		private final long size;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param version
+		 *            Version of the calculation.
+		 * @param size
+		 *            Own size in bytes.
+		 */
+		OwnSize(long version, long size) {
+			this.version = version;
+			this.size = size;
+		}
+
+	}
+
+}
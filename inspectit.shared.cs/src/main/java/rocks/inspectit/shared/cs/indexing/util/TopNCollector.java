@@ -0,0 +1,93 @@
+package rocks.inspectit.shared.cs.indexing.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the first N elements of all processed elements in the order defined by a comparator. The
+ * elements are held in a bounded heap, thus processing M elements needs O(M log N) time and O(N)
+ * memory, instead of sorting all M elements.
+ *
+ * @param <E>
+ *            Type of the elements.
+ */
+public class TopNCollector<E> {
+
+	/**
+	 * Comparator defining the order.
+	 */
+	private final Comparator<? super E> comparator;
+
+	/**
+	 * Maximum number of elements to keep.
+	 */
+	private final int limit;
+
+	/**
+	 * Heap with the last of the kept elements on top.
+	 */
+	private final PriorityQueue<E> heap;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param comparator
+	 *            Comparator defining the order. Must not be <code>null</code>.
+	 * @param limit
+	 *            Maximum number of elements to keep. Must be positive.
+	 */
+	public TopNCollector(final Comparator<? super E> comparator, int limit) {
+		if (null == comparator) {
+			throw new IllegalArgumentException("Comparator can not be null.");
+		}
+		if (limit <= 0) {
+			throw new IllegalArgumentException("Limit must be positive.");
+		}
+		this.comparator = comparator;
+		this.limit = limit;
+		this.heap = new PriorityQueue<E>(Math.min(limit, 1024), Collections.reverseOrder(comparator));
+	}
+
+	/**
+	 * Process one element.
+	 *
+	 * @param element
+	 *            Element to process.
+	 */
+	public void processElement(E element) {
+		if (heap.size() < limit) {
+			heap.add(element);
+		} else if (comparator.compare(element, heap.peek()) < 0) {
+			heap.poll();
+			heap.add(element);
+		}
+	}
+
+	/**
+	 * Process the collection of elements.
+	 *
+	 * @param collection
+	 *            Collection of elements.
+	 */
+	public void processCollection(Collection<? extends E> collection) {
+		for (E element : collection) {
+			processElement(element);
+		}
+	}
+
+	/**
+	 * Returns the kept elements sorted by the comparator.
+	 *
+	 * @return Returns the kept elements sorted by the comparator.
+	 */
+	public List<E> getResultList() {
+		List<E> result = new ArrayList<E>(heap);
+		Collections.sort(result, comparator);
+		return result;
+	}
+
+}
@@ -10,12 +10,16 @@ import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
@@ -31,6 +35,7 @@ import javax.annotation.Resource;
 import org.apache.commons.lang.builder.ToStringBuilder;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 import com.esotericsoftware.kryo.io.Output;
 
@@ -52,6 +57,9 @@ import rocks.inspectit.shared.cs.storage.processor.write.AbstractWriteDataProces
  * {@link StorageWriter} is class that contains shared functionality for writing data on one
  * storage. It can be overwritten, with special additional functionality, but care needs to be taken
  * that methods of this class are correctly called in super classes.
+ * <p>
+ * If the {@link #writeBatchSize} is bigger than one, the pending writes are grouped and each group
+ * is written with one I/O operation per channel by the {@link BatchWriteTask}.
  * 
  * @author Ivan Senic
  * 
@@ -144,6 +152,30 @@ public class StorageWriter implements IWriter {
 	@Autowired
 	List<AbstractWriteDataProcessor> writeDataProcessors;
 
+	/**
+	 * Maximum number of objects written with one I/O operation. Values smaller than 2 mean that
+	 * each object is written on its own.
+	 */
+	@Value(value = "${storage.writeBatchSize}")
+	int writeBatchSize;
+
+	/**
+	 * Writing future tasks waiting to be written in a batch.
+	 */
+	private Queue<WriteFutureTask> pendingBatchWrites = new ConcurrentLinkedQueue<WriteFutureTask>();
+
+	/**
+	 * Task that writes the next batch of the {@link #pendingBatchWrites}. One such task is
+	 * submitted for every pending write, thus every write is included in a batch, but tasks that
+	 * find no pending writes simply return.
+	 */
+	private final Runnable pendingBatchWriteTask = new Runnable() {
+		@Override
+		public void run() {
+			writePendingBatch();
+		}
+	};
+
 	/**
 	 * Opened channels {@link Paths}. These paths need to be closed when writing is finalized.
 	 */
@@ -281,7 +313,12 @@ public class StorageWriter implements IWriter {
 			WriteTask writeTask = new WriteTask(defaultData, kryoPreferences);
 			WriteFutureTask writeFutureTask = new WriteFutureTask(writeTask);
 			activeWritingTasks.add(writeFutureTask);
-			writingExecutorService.submit(writeFutureTask);
+			if (writeBatchSize > 1) {
+				pendingBatchWrites.add(writeFutureTask);
+				writingExecutorService.submit(pendingBatchWriteTask);
+			} else {
+				writingExecutorService.submit(writeFutureTask);
+			}
 			return writeFutureTask;
 		} else {
 			return null;
@@ -538,6 +575,35 @@ public class StorageWriter implements IWriter {
 		}
 	}
 
+	/**
+	 * Writes up to {@link #writeBatchSize} pending writes with the {@link BatchWriteTask} and marks
+	 * their futures as done.
+	 */
+	private void writePendingBatch() {
+		List<WriteFutureTask> writeFutureTasks = new ArrayList<>();
+		List<WriteTask> writeTasks = new ArrayList<>();
+		while (writeFutureTasks.size() < writeBatchSize) {
+			WriteFutureTask writeFutureTask = pendingBatchWrites.poll();
+			if (null == writeFutureTask) {
+				break;
+			}
+			writeFutureTasks.add(writeFutureTask);
+			writeTasks.add(writeFutureTask.getWriteTask());
+		}
+
+		if (writeTasks.isEmpty()) {
+			return;
+		}
+
+		try {
+			new BatchWriteTask(writeTasks).run();
+		} finally {
+			for (WriteFutureTask writtenFutureTask : writeFutureTasks) {
+				writtenFutureTask.setDone();
+			}
+		}
+	}
+
 	/**
 	 * Updates the write status.
 	 */
@@ -701,6 +767,209 @@ public class StorageWriter implements IWriter {
 			return referenceToWriteData.get();
 		}
 
+		/**
+		 * @return Returns map of preferences to be passed to the serializer.
+		 */
+		public Map<?, ?> getKryoPreferences() {
+			return kryoPreferences;
+		}
+
+	}
+
+	/**
+	 * Task for writing many {@link WriteTask}s with one I/O operation per channel. The data of all
+	 * write tasks going to the same channel is serialized one after another into one stream, and
+	 * the position of each object is calculated from its offset in the stream, thus every object
+	 * gets its own storage descriptor exactly as when written alone.
+	 */
+	public class BatchWriteTask implements Runnable {
+
+		/**
+		 * Write tasks to write in the batch.
+		 */
+		private Collection<WriteTask> writeTasks;
+
+		/**
+		 * Default constructor.
+		 * 
+		 * @param writeTasks
+		 *            Write tasks to write in the batch.
+		 */
+		public BatchWriteTask(Collection<WriteTask> writeTasks) {
+			this.writeTasks = writeTasks;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public void run() {
+			if (!storageManager.canWriteMore()) {
+				if (log.isWarnEnabled()) {
+					log.warn("Writing of data canceled because of limited hard disk space left for the storage.");
+				}
+				return;
+			}
+
+			// group the tasks by the channel, the strong references to the data are kept in the map
+			Map<Integer, Map<WriteTask, DefaultData>> channelWrites = new HashMap<>();
+			for (WriteTask writeTask : writeTasks) {
+				DefaultData data = writeTask.getData();
+				if (null == data) {
+					log.warn("Failed to write data to storage. The data to be written was already garbage collected due to the high amount of writing tasks.");
+					continue;
+				}
+
+				int channelId;
+				try {
+					channelId = indexingTreeHandler.startWrite(writeTask);
+				} catch (IndexingException e) {
+					indexingTreeHandler.writeFailed(writeTask);
+					if (log.isDebugEnabled()) {
+						log.debug("Indexing exception occurred while attempting to write data to disk.", e);
+					}
+					continue;
+				}
+
+				if (0 == channelId) {
+					indexingTreeHandler.writeFailed(writeTask);
+					log.error("Channel ID could not be obtained during attempt to write data to disk. Data will be skipped.");
+					continue;
+				}
+
+				Map<WriteTask, DefaultData> writes = channelWrites.get(channelId);
+				if (null == writes) {
+					writes = new LinkedHashMap<>();
+					channelWrites.put(channelId, writes);
+				}
+				writes.put(writeTask, data);
+			}
+
+			if (channelWrites.isEmpty()) {
+				return;
+			}
+
+			ISerializer serializer = null;
+			try {
+				serializer = serializerQueue.take();
+			} catch (InterruptedException e1) {
+				Thread.interrupted();
+			}
+			if (null == serializer) {
+				for (Map<WriteTask, DefaultData> writes : channelWrites.values()) {
+					writeFailed(writes.keySet());
+				}
+				log.error("Serializer instance could not be obtained.");
+				return;
+			}
+
+			try {
+				for (Map.Entry<Integer, Map<WriteTask, DefaultData>> entry : channelWrites.entrySet()) {
+					writeChannelBatch(entry.getKey().intValue(), entry.getValue(), serializer);
+				}
+			} finally {
+				serializerQueue.add(serializer);
+			}
+		}
+
+		/**
+		 * Serializes the data of the given write tasks into one stream and writes it to the channel
+		 * with one I/O operation.
+		 * 
+		 * @param channelId
+		 *            Channel to write to.
+		 * @param writes
+		 *            Write tasks with their data.
+		 * @param serializer
+		 *            Serializer to use.
+		 */
+		private void writeChannelBatch(int channelId, Map<WriteTask, DefaultData> writes, ISerializer serializer) {
+			ExtendedByteBufferOutputStream extendedByteBufferOutputStream = null;
+			final List<WriteTask> serializedTasks = new ArrayList<>(writes.size());
+			try {
+				extendedByteBufferOutputStream = streamProvider.getExtendedByteBufferOutputStream();
+
+				// offsets and sizes of the serialized objects in the stream
+				final long[] offsets = new long[writes.size()];
+				final long[] sizes = new long[writes.size()];
+				for (Map.Entry<WriteTask, DefaultData> entry : writes.entrySet()) {
+					WriteTask writeTask = entry.getKey();
+					long offset = extendedByteBufferOutputStream.getTotalWriteSize();
+					try {
+						// new output for each object, so that nothing buffered of a failed object
+						// is flushed with the next one
+						Output output = new Output(extendedByteBufferOutputStream);
+						serializer.serialize(entry.getValue(), output, writeTask.getKryoPreferences());
+					} catch (SerializationException e) {
+						// bytes of the failed object are not referenced by any descriptor
+						indexingTreeHandler.writeFailed(writeTask);
+						if (log.isWarnEnabled()) {
+							log.warn("Serialization for the object " + entry.getValue() + " failed. Data will be skipped.", e);
+						}
+						continue;
+					}
+					int index = serializedTasks.size();
+					offsets[index] = offset;
+					sizes[index] = extendedByteBufferOutputStream.getTotalWriteSize() - offset;
+					serializedTasks.add(writeTask);
+				}
+				extendedByteBufferOutputStream.flush(false);
+
+				if (serializedTasks.isEmpty()) {
+					extendedByteBufferOutputStream.close();
+					return;
+				}
+
+				// final reference needed because of the runnable
+				int buffersToWrite = extendedByteBufferOutputStream.getBuffersCount();
+				final ExtendedByteBufferOutputStream finalOutputStream = extendedByteBufferOutputStream;
+				WriteReadCompletionRunnable completionRunnable = new WriteReadCompletionRunnable(buffersToWrite) {
+					@Override
+					public void run() {
+						finalOutputStream.close();
+						if (isCompleted()) {
+							long position = getAttemptedWriteReadPosition();
+							for (int i = 0; i < serializedTasks.size(); i++) {
+								indexingTreeHandler.writeSuccessful(serializedTasks.get(i), position + offsets[i], sizes[i]);
+							}
+						} else {
+							writeFailed(serializedTasks);
+						}
+					}
+				};
+
+				// write to disk
+				Path channelPath = storageManager.getChannelPath(storageData, channelId);
+				openedChannelPaths.add(channelPath);
+				try {
+					// position will be set in the completion runnable
+					writingChannelManager.write(extendedByteBufferOutputStream, channelPath, completionRunnable);
+				} catch (IOException e) {
+					// remove from indexing tree if exception occurs
+					extendedByteBufferOutputStream.close();
+					writeFailed(serializedTasks);
+					log.error("Exception occurred while attempting to write data to disk", e);
+				}
+			} catch (Throwable t) { // NOPMD
+				// catch any exception
+				if (null != extendedByteBufferOutputStream) {
+					extendedByteBufferOutputStream.close();
+				}
+				writeFailed(writes.keySet());
+				log.error("Unknown exception occurred during data write", t);
+			}
+		}
+
+		/**
+		 * Signals to the indexing tree handler that the write of the given tasks failed.
+		 * 
+		 * @param failedTasks
+		 *            Write tasks that failed.
+		 */
+		private void writeFailed(Collection<WriteTask> failedTasks) {
+			for (WriteTask writeTask : failedTasks) {
+				indexingTreeHandler.writeFailed(writeTask);
+			}
+		}
 	}
 
 	/**
@@ -712,14 +981,37 @@ public class StorageWriter implements IWriter {
 	 */
 	private class WriteFutureTask extends FutureTask<Void> {
 
+		/**
+		 * Write task of this future.
+		 */
+		private final WriteTask writeTask;
+
 		/**
 		 * Default constructor.
 		 * 
-		 * @param runnable
-		 *            Runnable to execute.
+		 * @param writeTask
+		 *            Write task to execute.
+		 */
+		public WriteFutureTask(WriteTask writeTask) {
+			super(writeTask, null);
+			this.writeTask = writeTask;
+		}
+
+		/**
+		 * Gets {@link #writeTask}.
+		 * 
+		 * @return {@link #writeTask}
+		 */
+		public WriteTask getWriteTask() {
+			return writeTask;
+		}
+
+		/**
+		 * Marks the future as done without executing the write task, used when the write task has
+		 * been written in a batch.
 		 */
-		public WriteFutureTask(Runnable runnable) {
-			super(runnable, null);
+		public void setDone() {
+			set(null);
 		}
 
 		/**
@@ -0,0 +1,299 @@
+package rocks.inspectit.shared.cs.storage.nio.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import rocks.inspectit.shared.cs.indexing.storage.IStorageDescriptor;
+import rocks.inspectit.shared.cs.storage.IStorageData;
+import rocks.inspectit.shared.cs.storage.StorageManager;
+
+/**
+ * Input stream that reads the data described by the {@link IStorageDescriptor}s directly from the
+ * memory mapped storage channel files. In contrast to the {@link ExtendedByteBufferInputStream}
+ * there are no reading tasks, pooled buffers or waiting between the chunks, the bytes are copied
+ * straight from the mapped regions. Thus, this stream can only be used for the storages that are
+ * available on the local disk.
+ * <p>
+ * Consecutive descriptors of the same channel are served from one mapped region. The stream must
+ * be closed after usage, as closing releases the currently mapped region.
+ */
+public class MappedByteBufferInputStream extends InputStream {
+
+	/**
+	 * {@link StorageManager} to resolve the channel paths.
+	 */
+	private final StorageManager storageManager;
+
+	/**
+	 * {@link IStorageData} to read data for.
+	 */
+	private final IStorageData storageData;
+
+	/**
+	 * List of descriptors that point to the data.
+	 */
+	private final List<IStorageDescriptor> descriptors;
+
+	/**
+	 * Currently mapped region. Only one region is mapped at a time, the previous one is released
+	 * when the next is mapped.
+	 */
+	private MappedByteBuffer currentRegion;
+
+	/**
+	 * Channel ID of the {@link #currentRegion}.
+	 */
+	private int currentRegionChannelId;
+
+	/**
+	 * Position in the channel file where the {@link #currentRegion} starts.
+	 */
+	private long currentRegionPosition;
+
+	/**
+	 * Buffer with the data of the descriptor currently read.
+	 */
+	private ByteBuffer currentBuffer;
+
+	/**
+	 * Next index of the descriptor to be read.
+	 */
+	private int nextDescriptorIndex;
+
+	/**
+	 * Bytes left to read in the descriptors after the current one.
+	 */
+	private long bytesLeftInNextDescriptors;
+
+	/**
+	 * If stream has been closed.
+	 */
+	private boolean closed;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param storageManager
+	 *            {@link StorageManager} to resolve the channel paths.
+	 * @param storageData
+	 *            {@link IStorageData} to read data for.
+	 * @param descriptors
+	 *            List of descriptors that point to the data.
+	 */
+	public MappedByteBufferInputStream(StorageManager storageManager, IStorageData storageData, List<IStorageDescriptor> descriptors) {
+		this.storageManager = storageManager;
+		this.storageData = storageData;
+		this.descriptors = descriptors;
+		for (IStorageDescriptor descriptor : descriptors) {
+			bytesLeftInNextDescriptors += descriptor.getSize();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int read() throws IOException {
+		if (!ensureCurrentBuffer()) {
+			return -1;
+		}
+		return currentBuffer.get() & 0xFF;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		int read = 0;
+		while ((read < len) && ensureCurrentBuffer()) {
+			int count = Math.min(len - read, currentBuffer.remaining());
+			currentBuffer.get(b, off + read, count);
+			read += count;
+		}
+		return (read > 0) ? read : -1;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int available() throws IOException {
+		if (closed) {
+			return 0;
+		}
+		long available = bytesLeftInNextDescriptors;
+		if (null != currentBuffer) {
+			available += currentBuffer.remaining();
+		}
+		return (int) Math.min(available, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Releases the currently mapped region.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		releaseCurrentRegion();
+	}
+
+	/**
+	 * Makes sure that the {@link #currentBuffer} has remaining bytes by moving to the next
+	 * descriptors if needed.
+	 *
+	 * @return <code>true</code> if there are bytes to read, <code>false</code> if all descriptors
+	 *         have been read.
+	 * @throws IOException
+	 *             If mapping of the channel file fails.
+	 */
+	private boolean ensureCurrentBuffer() throws IOException {
+		if (closed) {
+			throw new IOException("Stream is closed.");
+		}
+		while ((null == currentBuffer) || !currentBuffer.hasRemaining()) {
+			if (nextDescriptorIndex >= descriptors.size()) {
+				return false;
+			}
+			IStorageDescriptor descriptor = descriptors.get(nextDescriptorIndex);
+			currentBuffer = getDescriptorBuffer(nextDescriptorIndex, descriptor);
+			bytesLeftInNextDescriptors -= descriptor.getSize();
+			nextDescriptorIndex++;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the buffer holding the data of the given descriptor. If the descriptor is not in the
+	 * {@link #currentRegion} a new region is mapped, covering the descriptor and as many following
+	 * descriptors of the same channel as possible.
+	 *
+	 * @param index
+	 *            Index of the descriptor in the {@link #descriptors}.
+	 * @param descriptor
+	 *            Descriptor.
+	 * @return Buffer with position and limit set to the data of the descriptor.
+	 * @throws IOException
+	 *             If mapping of the channel file fails.
+	 */
+	private ByteBuffer getDescriptorBuffer(int index, IStorageDescriptor descriptor) throws IOException {
+		if ((descriptor.getSize() > Integer.MAX_VALUE) || (descriptor.getSize() < 0)) {
+			throw new IOException("Storage descriptor size " + descriptor.getSize() + " can not be mapped.");
+		}
+		if (!isInCurrentRegion(descriptor)) {
+			mapRegion(index, descriptor);
+		}
+		ByteBuffer buffer = currentRegion.duplicate();
+		int offset = (int) (descriptor.getPosition() - currentRegionPosition);
+		buffer.limit(offset + (int) descriptor.getSize());
+		buffer.position(offset);
+		return buffer;
+	}
+
+	/**
+	 * Returns if the data of the descriptor is completely in the {@link #currentRegion}.
+	 *
+	 * @param descriptor
+	 *            Descriptor.
+	 * @return <code>true</code> if the {@link #currentRegion} can be used.
+	 */
+	private boolean isInCurrentRegion(IStorageDescriptor descriptor) {
+		return (null != currentRegion) && (currentRegionChannelId == descriptor.getChannelId()) && (descriptor.getPosition() >= currentRegionPosition)
+				&& ((descriptor.getPosition() + descriptor.getSize()) <= (currentRegionPosition + currentRegion.capacity()));
+	}
+
+	/**
+	 * Maps the region of the channel file that starts at the given descriptor and spans the
+	 * following descriptors of the same channel as long as the region is not bigger than
+	 * {@link Integer#MAX_VALUE}. The previously mapped region is released first, as all its
+	 * descriptors have been read when a new region is needed.
+	 *
+	 * @param index
+	 *            Index of the descriptor in the {@link #descriptors}.
+	 * @param descriptor
+	 *            Descriptor.
+	 * @throws IOException
+	 *             If mapping of the channel file fails.
+	 */
+	private void mapRegion(int index, IStorageDescriptor descriptor) throws IOException {
+		long regionStart = descriptor.getPosition();
+		long regionEnd = regionStart + descriptor.getSize();
+		for (int i = index + 1; i < descriptors.size(); i++) {
+			IStorageDescriptor next = descriptors.get(i);
+			if (next.getChannelId() != descriptor.getChannelId()) {
+				break;
+			}
+			long start = Math.min(regionStart, next.getPosition());
+			long end = Math.max(regionEnd, next.getPosition() + next.getSize());
+			if ((end - start) > Integer.MAX_VALUE) {
+				break;
+			}
+			regionStart = start;
+			regionEnd = end;
+		}
+
+		releaseCurrentRegion();
+		Path channelPath = storageManager.getChannelPath(storageData, descriptor);
+		try (FileChannel fileChannel = FileChannel.open(channelPath, StandardOpenOption.READ)) {
+			regionEnd = Math.min(regionEnd, fileChannel.size());
+			if (regionEnd < (descriptor.getPosition() + descriptor.getSize())) {
+				throw new IOException("Storage descriptor " + descriptor + " points after the end of the channel file " + channelPath + ".");
+			}
+			currentRegion = fileChannel.map(MapMode.READ_ONLY, regionStart, regionEnd - regionStart);
+		}
+		currentRegionChannelId = descriptor.getChannelId();
+		currentRegionPosition = regionStart;
+	}
+
+	/**
+	 * Releases the {@link #currentRegion} together with the {@link #currentBuffer} pointing to it.
+	 */
+	private void releaseCurrentRegion() {
+		currentBuffer = null;
+		if (null != currentRegion) {
+			MappedByteBuffer mappedRegion = currentRegion;
+			currentRegion = null;
+			unmap(mappedRegion);
+		}
+	}
+
+	/**
+	 * Releases the mapped region without waiting for the garbage collection. Unmapping is
+	 * important on operating systems where a mapped file can not be deleted. If the region can not
+	 * be released here, it is released when garbage collected.
+	 *
+	 * @param mappedRegion
+	 *            Region to release.
+	 */
+	private static void unmap(MappedByteBuffer mappedRegion) {
+		try {
+			Method cleanerMethod = mappedRegion.getClass().getMethod("cleaner");
+			cleanerMethod.setAccessible(true);
+			Object cleaner = cleanerMethod.invoke(mappedRegion);
+			if (null != cleaner) {
+				Method cleanMethod = cleaner.getClass().getMethod("clean");
+				cleanMethod.setAccessible(true);
+				cleanMethod.invoke(cleaner);
+			}
+		} catch (Exception e) { // NOPMD
+			// not supported by the JVM, region is released on garbage collection
+		}
+	}
+
+}
@@ -1,34 +1,55 @@
 package rocks.inspectit.shared.cs.indexing.impl;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import rocks.inspectit.shared.all.cmr.cache.IObjectSizes;
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.communication.MethodSensorData;
 import rocks.inspectit.shared.all.communication.data.SqlStatementData;
 import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.cs.indexing.aggregation.impl.AggregationPerformer;
+import rocks.inspectit.shared.cs.indexing.aggregation.impl.TimerDataAggregator;
 import rocks.inspectit.shared.cs.indexing.buffer.IBufferTreeComponent;
 import rocks.inspectit.shared.cs.indexing.buffer.impl.Branch;
 import rocks.inspectit.shared.cs.indexing.buffer.impl.BufferBranchIndexer;
+import rocks.inspectit.shared.cs.indexing.buffer.impl.LeafIndexType;
 import rocks.inspectit.shared.cs.indexing.impl.IndexQuery;
 import rocks.inspectit.shared.cs.indexing.impl.IndexingException;
 import rocks.inspectit.shared.cs.indexing.indexer.impl.MethodIdentIndexer;
@@ -37,6 +58,8 @@ import rocks.inspectit.shared.cs.indexing.indexer.impl.PlatformIdentIndexer;
 import rocks.inspectit.shared.cs.indexing.indexer.impl.SensorTypeIdentIndexer;
 import rocks.inspectit.shared.cs.indexing.indexer.impl.TimestampIndexer;
 import rocks.inspectit.shared.cs.indexing.restriction.IIndexQueryRestrictionProcessor;
+import rocks.inspectit.shared.cs.indexing.restriction.impl.CachingIndexQueryRestrictionProcessor;
+import rocks.inspectit.shared.cs.indexing.restriction.impl.IndexQueryRestrictionFactory;
 
 /**
  * Test class for testing functionality of {@link IBufferTreeComponent}.
@@ -442,4 +465,305 @@ public class BufferIndexingTest {
 		assertThat(rootBranch.get(defaultData), is(nullValue()));
 	}
 
+	/**
+	 * Test that the aggregating query returns the same as aggregating all queried elements, but
+	 * only one object per aggregation group.
+	 * 
+	 * @throws IndexingException
+	 *             If {@link IndexingException} occurs.
+	 */
+	@Test
+	public void aggregatingQuery() throws IndexingException {
+		BufferBranchIndexer<TimerData> methodIndexer = new BufferBranchIndexer<TimerData>(new MethodIdentIndexer<TimerData>());
+		IBufferTreeComponent<TimerData> rootBranch = new Branch<TimerData>(new BufferBranchIndexer<TimerData>(new PlatformIdentIndexer<TimerData>(), methodIndexer));
+
+		int platforms = 3;
+		int methods = 4;
+		int perMethod = 5;
+		long id = 1;
+		Timestamp timestamp = new Timestamp(new Date().getTime());
+		for (int platform = 1; platform <= platforms; platform++) {
+			for (int method = 1; method <= methods; method++) {
+				for (int i = 0; i < perMethod; i++) {
+					TimerData timerData = new TimerData(timestamp, platform, 1L, method);
+					timerData.setId(id++);
+					timerData.setCount(1L);
+					timerData.setDuration(i);
+					timerData.calculateMin(i);
+					timerData.calculateMax(i);
+					rootBranch.put(timerData);
+				}
+			}
+		}
+
+		AggregationPerformer<TimerData> aggregationPerformer = new AggregationPerformer<TimerData>(new TimerDataAggregator());
+		aggregationPerformer.processCollection(rootBranch.query(indexQuery));
+		List<TimerData> expected = aggregationPerformer.getResultList();
+
+		List<TimerData> results = rootBranch.query(indexQuery, new TimerDataAggregator());
+		List<TimerData> resultsForkJoin = rootBranch.query(indexQuery, new TimerDataAggregator(), forkJoinPool);
+
+		assertThat(expected.size(), is(methods));
+		for (List<TimerData> aggregated : new List[] { results, resultsForkJoin }) {
+			assertThat(aggregated.size(), is(methods));
+			for (TimerData timerData : aggregated) {
+				assertThat(timerData.getCount(), is((long) (platforms * perMethod)));
+				for (TimerData expectedData : expected) {
+					if (expectedData.getMethodIdent() == timerData.getMethodIdent()) {
+						assertThat(timerData.getDuration(), is(expectedData.getDuration()));
+						assertThat(timerData.getMin(), is(expectedData.getMin()));
+						assertThat(timerData.getMax(), is(expectedData.getMax()));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tests that the top-N query returns the same elements as sorting the complete query result and
+	 * taking the first N elements.
+	 *
+	 * @throws IndexingException
+	 *             If {@link IndexingException} occurs.
+	 */
+	@Test
+	public void topNQuery() throws IndexingException {
+		BufferBranchIndexer<TimerData> methodIndexer = new BufferBranchIndexer<TimerData>(new MethodIdentIndexer<TimerData>());
+		IBufferTreeComponent<TimerData> rootBranch = new Branch<TimerData>(new BufferBranchIndexer<TimerData>(new PlatformIdentIndexer<TimerData>(), methodIndexer));
+
+		int platforms = 3;
+		int methods = 4;
+		int perMethod = 20;
+		int limit = 10;
+		long id = 1;
+		Timestamp timestamp = new Timestamp(new Date().getTime());
+		for (int platform = 1; platform <= platforms; platform++) {
+			for (int method = 1; method <= methods; method++) {
+				for (int i = 0; i < perMethod; i++) {
+					TimerData timerData = new TimerData(timestamp, platform, 1L, method);
+					timerData.setId(id++);
+					timerData.setDuration((id * 7919) % 1000);
+					rootBranch.put(timerData);
+				}
+			}
+		}
+
+		Comparator<TimerData> comparator = new Comparator<TimerData>() {
+			@Override
+			public int compare(TimerData o1, TimerData o2) {
+				int result = Double.compare(o2.getDuration(), o1.getDuration());
+				if (0 == result) {
+					result = Long.compare(o1.getId(), o2.getId());
+				}
+				return result;
+			}
+		};
+		List<TimerData> all = rootBranch.query(indexQuery);
+		Collections.sort(all, comparator);
+		TimerData[] expected = all.subList(0, limit).toArray(new TimerData[limit]);
+
+		List<TimerData> results = rootBranch.query(indexQuery, comparator, limit);
+		List<TimerData> resultsForkJoin = rootBranch.query(indexQuery, comparator, limit, forkJoinPool);
+
+		assertThat(results, contains(expected));
+		assertThat(resultsForkJoin, contains(expected));
+		assertThat(rootBranch.query(indexQuery, comparator, platforms * methods * perMethod * 2), hasSize(platforms * methods * perMethod));
+	}
+
+	/**
+	 * Tests that the leafs with the sorted indexes return the same results as the leafs without
+	 * them for time frame queries, also combined with other restrictions.
+	 *
+	 * @throws IndexingException
+	 *             If {@link IndexingException} occurs.
+	 */
+	@Test
+	public void sortedLeafIndexes() throws IndexingException {
+		IBufferTreeComponent<TimerData> rootBranch = new Branch<TimerData>(new BufferBranchIndexer<TimerData>(new PlatformIdentIndexer<TimerData>()));
+		IBufferTreeComponent<TimerData> indexedRootBranch = new Branch<TimerData>(new BufferBranchIndexer<TimerData>(new PlatformIdentIndexer<TimerData>(), null,
+				Arrays.asList(LeafIndexType.TIMESTAMP)));
+
+		long base = new Date().getTime();
+		List<TimerData> elements = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			TimerData timerData = new TimerData(new Timestamp(base + (i * 1000L)), 1 + (i % 2), 1L, 1L);
+			timerData.setId(i + 1);
+			timerData.setDuration((i * 37) % 100);
+			elements.add(timerData);
+			rootBranch.put(timerData);
+			indexedRootBranch.put(timerData);
+		}
+
+		IndexQuery intervalQuery = new IndexQuery();
+		intervalQuery.restrictionProcessor = new CachingIndexQueryRestrictionProcessor();
+		intervalQuery.setFromDate(new Timestamp(base + 50000L));
+		intervalQuery.setToDate(new Timestamp(base + 120000L));
+
+		IndexQuery combinedQuery = new IndexQuery();
+		combinedQuery.restrictionProcessor = new CachingIndexQueryRestrictionProcessor();
+		combinedQuery.setFromDate(new Timestamp(base + 50000L));
+		combinedQuery.addIndexingRestriction(IndexQueryRestrictionFactory.greaterThan("duration", 90d));
+
+		for (IndexQuery query : new IndexQuery[] { intervalQuery, combinedQuery }) {
+			List<TimerData> expected = rootBranch.query(query);
+			assertThat(expected.isEmpty(), is(false));
+			assertThat(indexedRootBranch.query(query), containsInAnyOrder(expected.toArray()));
+			assertThat(indexedRootBranch.query(query, forkJoinPool), containsInAnyOrder(expected.toArray()));
+		}
+
+		for (int i = 40; i < 80; i++) {
+			rootBranch.getAndRemove(elements.get(i));
+			indexedRootBranch.getAndRemove(elements.get(i));
+		}
+		List<TimerData> expected = rootBranch.query(intervalQuery);
+		assertThat(expected, hasSize(41));
+		assertThat(indexedRootBranch.query(intervalQuery), containsInAnyOrder(expected.toArray()));
+	}
+
+	/**
+	 * Tests that the incrementally tracked size always equals the size calculated by walking the
+	 * tree.
+	 *
+	 * @throws IndexingException
+	 *             If {@link IndexingException} occurs.
+	 */
+	@Test
+	public void trackedComponentSize() throws IndexingException {
+		IObjectSizes objectSizes = createObjectSizes();
+
+		BufferBranchIndexer<TimerData> methodIndexer = new BufferBranchIndexer<TimerData>(new MethodIdentIndexer<TimerData>(), null, Arrays.asList(LeafIndexType.TIMESTAMP));
+		IBufferTreeComponent<TimerData> rootBranch = new Branch<TimerData>(new BufferBranchIndexer<TimerData>(new PlatformIdentIndexer<TimerData>(), methodIndexer));
+
+		List<TimerData> elements = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			TimerData timerData = new TimerData(new Timestamp(new Date().getTime()), 1 + (i % 3), 1L, 1 + (i % 4));
+			timerData.setId(i + 1);
+			timerData.setDuration(i);
+			elements.add(timerData);
+		}
+
+		// activation on the tree that already has elements
+		for (TimerData timerData : elements.subList(0, 50)) {
+			rootBranch.put(timerData);
+		}
+		assertThat(rootBranch.getTrackedComponentSize(), is(0L));
+		rootBranch.activateSizeTracking(objectSizes);
+		assertThat(rootBranch.getTrackedComponentSize(), is(rootBranch.getComponentSize(objectSizes)));
+
+		for (TimerData timerData : elements.subList(50, 100)) {
+			rootBranch.put(timerData);
+		}
+		assertThat(rootBranch.getTrackedComponentSize(), is(rootBranch.getComponentSize(objectSizes)));
+
+		// remove all elements of one method so that the empty leafs are cleared
+		for (TimerData timerData : elements) {
+			if (timerData.getMethodIdent() == 1L) {
+				rootBranch.getAndRemove(timerData);
+			}
+		}
+		assertThat(rootBranch.getTrackedComponentSize(), is(rootBranch.getComponentSize(objectSizes)));
+		rootBranch.clearEmptyComponents();
+		assertThat(rootBranch.getTrackedComponentSize(), is(rootBranch.getComponentSize(objectSizes)));
+		rootBranch.clean();
+		assertThat(rootBranch.getTrackedComponentSize(), is(rootBranch.getComponentSize(objectSizes)));
+
+		rootBranch.clearAll();
+		assertThat(rootBranch.getTrackedComponentSize(), is(rootBranch.getComponentSize(objectSizes)));
+
+		// new components after clear are tracked as well
+		for (TimerData timerData : elements) {
+			rootBranch.put(timerData);
+		}
+		assertThat(rootBranch.getTrackedComponentSize(), is(rootBranch.getComponentSize(objectSizes)));
+	}
+
+	/**
+	 * Tests that the tracked size equals the size calculated by walking the tree after concurrent
+	 * puts, removals and removals of the empty components.
+	 *
+	 * @throws Exception
+	 *             If exception occurs.
+	 */
+	@Test
+	public void trackedComponentSizeConcurrent() throws Exception {
+		final IObjectSizes objectSizes = createObjectSizes();
+		BufferBranchIndexer<TimerData> methodIndexer = new BufferBranchIndexer<TimerData>(new MethodIdentIndexer<TimerData>(), null, Arrays.asList(LeafIndexType.TIMESTAMP));
+		final IBufferTreeComponent<TimerData> rootBranch = new Branch<TimerData>(new BufferBranchIndexer<TimerData>(new PlatformIdentIndexer<TimerData>(), methodIndexer));
+		rootBranch.activateSizeTracking(objectSizes);
+
+		final int threads = 4;
+		final int perThread = 500;
+		final CountDownLatch startLatch = new CountDownLatch(1);
+		final AtomicBoolean writing = new AtomicBoolean(true);
+		ExecutorService executorService = Executors.newFixedThreadPool(threads + 1);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				final int thread = t;
+				futures.add(executorService.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						startLatch.await();
+						for (int i = 0; i < perThread; i++) {
+							TimerData timerData = new TimerData(new Timestamp(new Date().getTime()), 1 + (i % 3), 1L, 1 + (i % 5));
+							timerData.setId((thread * perThread) + i + 1);
+							rootBranch.put(timerData);
+							if (0 == (i % 2)) {
+								rootBranch.getAndRemove(timerData);
+							}
+						}
+						return null;
+					}
+				}));
+			}
+			Future<?> cleaner = executorService.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					startLatch.await();
+					while (writing.get()) {
+						rootBranch.clearEmptyComponents();
+					}
+					return null;
+				}
+			});
+
+			startLatch.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+			writing.set(false);
+			cleaner.get(30, TimeUnit.SECONDS);
+		} finally {
+			executorService.shutdownNow();
+		}
+
+		assertThat(rootBranch.getTrackedComponentSize(), is(rootBranch.getComponentSize(objectSizes)));
+		rootBranch.clearEmptyComponents();
+		assertThat(rootBranch.getTrackedComponentSize(), is(rootBranch.getComponentSize(objectSizes)));
+	}
+
+	/**
+	 * Creates the object sizes mock used for the tracked size tests.
+	 *
+	 * @return {@link IObjectSizes} mock.
+	 */
+	private IObjectSizes createObjectSizes() {
+		IObjectSizes objectSizes = mock(IObjectSizes.class);
+		Answer<Long> mapSizeAnswer = new Answer<Long>() {
+			@Override
+			public Long answer(InvocationOnMock invocation) throws Throwable {
+				return Long.valueOf(64L + (8L * ((Integer) invocation.getArguments()[0]).intValue()));
+			}
+		};
+		when(objectSizes.getSizeOfObjectHeader()).thenReturn(12L);
+		when(objectSizes.getPrimitiveTypesSize(anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt())).thenReturn(8L);
+		when(objectSizes.alignTo8Bytes(anyLong())).thenReturn(24L);
+		when(objectSizes.getSizeOfLongObject()).thenReturn(16L);
+		when(objectSizes.getSizeOfCustomWeakReference()).thenReturn(40L);
+		when(objectSizes.getSizeOfConcurrentHashMap(anyInt(), anyInt())).thenAnswer(mapSizeAnswer);
+		when(objectSizes.getSizeOfNonBlockingHashMapLong(anyInt())).thenAnswer(mapSizeAnswer);
+		when(objectSizes.getSizeOfArray(anyInt())).thenAnswer(mapSizeAnswer);
+		return objectSizes;
+	}
+
 }
\ No newline at end of file
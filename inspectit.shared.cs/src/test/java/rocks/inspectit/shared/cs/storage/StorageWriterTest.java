@@ -6,6 +6,7 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -18,6 +19,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
@@ -27,6 +29,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
@@ -49,6 +52,7 @@ import rocks.inspectit.shared.cs.storage.StorageData;
 import rocks.inspectit.shared.cs.storage.StorageIndexingTreeHandler;
 import rocks.inspectit.shared.cs.storage.StorageManager;
 import rocks.inspectit.shared.cs.storage.StorageWriter;
+import rocks.inspectit.shared.cs.storage.StorageWriter.BatchWriteTask;
 import rocks.inspectit.shared.cs.storage.StorageWriter.WriteTask;
 import rocks.inspectit.shared.cs.storage.nio.WriteReadCompletionRunnable;
 import rocks.inspectit.shared.cs.storage.nio.write.WritingChannelManager;
@@ -250,6 +254,75 @@ public class StorageWriterTest {
 		verify(serializerQueue, times(1)).add(serializer);
 	}
 
+	@Test
+	public void batchWriteTask() throws IOException {
+		TimerData timerData1 = new TimerData();
+		TimerData timerData2 = new TimerData();
+		WriteTask writeTask1 = storageWriter.new WriteTask(timerData1, Collections.emptyMap());
+		WriteTask writeTask2 = storageWriter.new WriteTask(timerData2, Collections.emptyMap());
+		when(extendedByteBufferOutputStream.getTotalWriteSize()).thenReturn(0L, 10L, 10L, 25L);
+		when(extendedByteBufferOutputStream.getBuffersCount()).thenReturn(1);
+
+		storageWriter.new BatchWriteTask(Arrays.asList(writeTask1, writeTask2)).run();
+
+		ArgumentCaptor<WriteReadCompletionRunnable> captor = ArgumentCaptor.forClass(WriteReadCompletionRunnable.class);
+		verify(writingChannelManager, times(1)).write(eq(extendedByteBufferOutputStream), Mockito.<Path> anyObject(), captor.capture());
+		verify(serializerQueue, times(1)).take();
+		verify(serializerQueue, times(1)).add(serializer);
+
+		WriteReadCompletionRunnable completionRunnable = captor.getValue();
+		completionRunnable.setAttemptedWriteReadPosition(100L);
+		completionRunnable.markSuccess();
+		completionRunnable.run();
+
+		verify(storageIndexingTreeHandler, times(1)).writeSuccessful(writeTask1, 100L, 10L);
+		verify(storageIndexingTreeHandler, times(1)).writeSuccessful(writeTask2, 110L, 15L);
+		verify(extendedByteBufferOutputStream, times(1)).close();
+	}
+
+	@Test
+	public void batchWriteTaskFailedSerialization() throws IOException, SerializationException {
+		TimerData timerData1 = new TimerData();
+		timerData1.setId(1L);
+		TimerData timerData2 = new TimerData();
+		timerData2.setId(2L);
+		WriteTask writeTask1 = storageWriter.new WriteTask(timerData1, Collections.emptyMap());
+		WriteTask writeTask2 = storageWriter.new WriteTask(timerData2, Collections.emptyMap());
+		when(extendedByteBufferOutputStream.getTotalWriteSize()).thenReturn(0L, 10L, 25L);
+		when(extendedByteBufferOutputStream.getBuffersCount()).thenReturn(1);
+		doThrow(SerializationException.class).when(serializer).serialize(eq(timerData1), Mockito.<Output> anyObject(), Mockito.<Map<?, ?>> anyObject());
+
+		BatchWriteTask batchWriteTask = storageWriter.new BatchWriteTask(Arrays.asList(writeTask1, writeTask2));
+		batchWriteTask.run();
+
+		verify(storageIndexingTreeHandler, times(1)).writeFailed(writeTask1);
+		ArgumentCaptor<WriteReadCompletionRunnable> captor = ArgumentCaptor.forClass(WriteReadCompletionRunnable.class);
+		verify(writingChannelManager, times(1)).write(eq(extendedByteBufferOutputStream), Mockito.<Path> anyObject(), captor.capture());
+
+		WriteReadCompletionRunnable completionRunnable = captor.getValue();
+		completionRunnable.setAttemptedWriteReadPosition(100L);
+		completionRunnable.markSuccess();
+		completionRunnable.run();
+
+		verify(storageIndexingTreeHandler, times(1)).writeSuccessful(writeTask2, 110L, 15L);
+		verify(storageIndexingTreeHandler, times(0)).writeSuccessful(eq(writeTask1), anyLong(), anyLong());
+	}
+
+	@Test
+	public void batchWriteTaskExceptionDuringWrite() throws IOException {
+		WriteTask writeTask1 = storageWriter.new WriteTask(new TimerData(), Collections.emptyMap());
+		WriteTask writeTask2 = storageWriter.new WriteTask(new TimerData(), Collections.emptyMap());
+		doThrow(IOException.class).when(writingChannelManager).write(Mockito.<ExtendedByteBufferOutputStream> anyObject(), Mockito.<Path> anyObject(),
+				Mockito.<WriteReadCompletionRunnable> anyObject());
+
+		storageWriter.new BatchWriteTask(Arrays.asList(writeTask1, writeTask2)).run();
+
+		verify(storageIndexingTreeHandler, times(1)).writeFailed(writeTask1);
+		verify(storageIndexingTreeHandler, times(1)).writeFailed(writeTask2);
+		verify(extendedByteBufferOutputStream, times(1)).close();
+		verify(serializerQueue, times(1)).add(serializer);
+	}
+
 	@Test
 	public void objectWriteNoSerializerAvailable() throws InterruptedException {
 		when(serializerQueue.take()).thenReturn(null);
@@ -0,0 +1,152 @@
+package rocks.inspectit.shared.cs.storage.nio.stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import rocks.inspectit.shared.cs.indexing.storage.IStorageDescriptor;
+import rocks.inspectit.shared.cs.indexing.storage.impl.StorageDescriptor;
+import rocks.inspectit.shared.cs.storage.StorageData;
+import rocks.inspectit.shared.cs.storage.StorageManager;
+
+/**
+ * Testing of the {@link MappedByteBufferInputStream} class.
+ */
+@SuppressWarnings("PMD")
+public class MappedByteBufferInputStreamTest {
+
+	@Mock
+	private StorageManager storageManager;
+
+	@Mock
+	private StorageData storageData;
+
+	private Path channelPath;
+
+	private byte[] fileContent;
+
+	@BeforeMethod
+	public void init() throws IOException {
+		MockitoAnnotations.initMocks(this);
+		fileContent = new byte[64 * 1024];
+		new Random().nextBytes(fileContent);
+		channelPath = Files.createTempFile("channel", ".itdata");
+		Files.write(channelPath, fileContent);
+		when(storageManager.getChannelPath(eq(storageData), Mockito.<IStorageDescriptor> anyObject())).thenReturn(channelPath);
+	}
+
+	@AfterMethod
+	public void cleanUp() throws IOException {
+		Files.deleteIfExists(channelPath);
+	}
+
+	/**
+	 * Tests reading of random descriptors.
+	 */
+	@Test(invocationCount = 20)
+	public void read() throws IOException {
+		Random random = new Random();
+		List<IStorageDescriptor> descriptors = new ArrayList<>();
+		List<Byte> expected = new ArrayList<>();
+		int descriptorCount = 1 + random.nextInt(10);
+		for (int i = 0; i < descriptorCount; i++) {
+			int position = random.nextInt(fileContent.length);
+			int size = random.nextInt(fileContent.length - position);
+			StorageDescriptor descriptor = new StorageDescriptor(1);
+			descriptor.setPositionAndSize(position, size);
+			descriptors.add(descriptor);
+			for (int j = position; j < (position + size); j++) {
+				expected.add(fileContent[j]);
+			}
+		}
+
+		MappedByteBufferInputStream inputStream = new MappedByteBufferInputStream(storageManager, storageData, descriptors);
+		assertThat(inputStream.available(), is(expected.size()));
+
+		byte[] bytes = new byte[expected.size()];
+		int read = 0;
+		while (read < bytes.length) {
+			read += inputStream.read(bytes, read, Math.min(1 + random.nextInt(4096), bytes.length - read));
+		}
+		assertThat(inputStream.available(), is(0));
+		assertThat(inputStream.read(), is(-1));
+		inputStream.close();
+
+		for (int i = 0; i < bytes.length; i++) {
+			assertThat(bytes[i], is(equalTo(expected.get(i).byteValue())));
+		}
+	}
+
+	/**
+	 * Tests reading byte by byte.
+	 */
+	@Test
+	public void readSingleBytes() throws IOException {
+		StorageDescriptor descriptor = new StorageDescriptor(1);
+		descriptor.setPositionAndSize(10, 100);
+
+		MappedByteBufferInputStream inputStream = new MappedByteBufferInputStream(storageManager, storageData, Collections.<IStorageDescriptor> singletonList(descriptor));
+		for (int i = 10; i < 110; i++) {
+			assertThat(inputStream.read(), is(fileContent[i] & 0xFF));
+		}
+		assertThat(inputStream.read(), is(-1));
+		inputStream.close();
+	}
+
+	/**
+	 * Tests reading of descriptors that alternate between channels, so that every descriptor maps
+	 * a new region and releases the previous one.
+	 */
+	@Test
+	public void readAlternatingChannels() throws IOException {
+		List<IStorageDescriptor> descriptors = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			StorageDescriptor descriptor = new StorageDescriptor(1 + (i % 2));
+			descriptor.setPositionAndSize(i * 1000, 500);
+			descriptors.add(descriptor);
+		}
+
+		MappedByteBufferInputStream inputStream = new MappedByteBufferInputStream(storageManager, storageData, descriptors);
+		for (int i = 0; i < 6; i++) {
+			for (int j = i * 1000; j < ((i * 1000) + 500); j++) {
+				assertThat(inputStream.read(), is(fileContent[j] & 0xFF));
+			}
+		}
+		assertThat(inputStream.read(), is(-1));
+		inputStream.close();
+	}
+
+	/**
+	 * Descriptor pointing after the end of file must fail.
+	 */
+	@Test(expectedExceptions = IOException.class)
+	public void descriptorAfterFileEnd() throws IOException {
+		StorageDescriptor descriptor = new StorageDescriptor(1);
+		descriptor.setPositionAndSize(fileContent.length - 10, 100);
+
+		MappedByteBufferInputStream inputStream = new MappedByteBufferInputStream(storageManager, storageData, Collections.<IStorageDescriptor> singletonList(descriptor));
+		try {
+			inputStream.read();
+		} finally {
+			inputStream.close();
+		}
+	}
+
+}
@@ -23,6 +23,7 @@ import rocks.inspectit.ui.rcp.InspectIT;
 import rocks.inspectit.ui.rcp.repository.CmrRepositoryDefinition;
 import rocks.inspectit.ui.rcp.repository.StorageRepositoryDefinition;
 import rocks.inspectit.ui.rcp.storage.util.DataRetriever;
+import rocks.inspectit.ui.rcp.storage.util.IDataReceiver;
 
 /**
  * Abstract class for all storage services.
@@ -299,7 +300,7 @@ public abstract class AbstractStorageService<E extends DefaultData> {
 	 *            {@link IAggregator}
 	 * @return Return results of a query.
 	 */
-	private List<E> loadData(StorageIndexQuery storageIndexQuery, IAggregator<E> aggregator) {
+	private List<E> loadData(final StorageIndexQuery storageIndexQuery, IAggregator<E> aggregator) {
 		List<IStorageDescriptor> descriptors = getIndexingTree().query(storageIndexQuery);
 		// sort the descriptors to optimize the number of read operations
 		Collections.sort(descriptors, new Comparator<IStorageDescriptor>() {
@@ -314,11 +315,13 @@ public abstract class AbstractStorageService<E extends DefaultData> {
 			}
 		});
 
-		AggregationPerformer<E> aggregationPerformer = null;
+		final AggregationPerformer<E> aggregationPerformer;
 		if (null != aggregator) {
 			aggregationPerformer = new AggregationPerformer<E>(aggregator);
+		} else {
+			aggregationPerformer = null;
 		}
-		List<E> returnList = new ArrayList<E>();
+		final List<E> returnList = new ArrayList<E>();
 
 		int size = 0;
 		int count = 0;
@@ -347,7 +350,21 @@ public abstract class AbstractStorageService<E extends DefaultData> {
 					}
 				} else {
 					try {
-						allData = dataRetriever.getDataViaHttp(getCmrRepositoryDefinition(), localStorageData, limitedDescriptors);
+						if (dataRetriever.isConcurrentHttpRetrieval()) {
+							// filter and aggregate the data while it is still being transferred
+							dataRetriever.getDataViaHttp(getCmrRepositoryDefinition(), localStorageData, limitedDescriptors, new IDataReceiver<E>() {
+								@Override
+								public void dataReceived(List<E> data) {
+									List<E> passedData = getRestrictionsPassedList(data, storageIndexQuery);
+									synchronized (returnList) {
+										processPassedData(passedData, aggregationPerformer, returnList);
+									}
+								}
+							});
+							allData = Collections.emptyList();
+						} else {
+							allData = dataRetriever.getDataViaHttp(getCmrRepositoryDefinition(), localStorageData, limitedDescriptors);
+						}
 					} catch (SerializationException e) {
 						String msg = "Data in the remote storage " + localStorageData + " can not be loaded with this version of the inspectIT. Version of the CMR where storage was created is "
 								+ localStorageData.getCmrVersion() + ".";
@@ -359,13 +376,7 @@ public abstract class AbstractStorageService<E extends DefaultData> {
 					}
 				}
 				List<E> passedData = getRestrictionsPassedList(allData, storageIndexQuery);
-
-				// if we need to aggregate then do so, otherwise just add to result list
-				if (null != aggregationPerformer) {
-					aggregationPerformer.processCollection(passedData);
-				} else {
-					returnList.addAll(passedData);
-				}
+				processPassedData(passedData, aggregationPerformer, returnList);
 
 				// reset the size and current list
 				size = 0;
@@ -374,13 +385,32 @@ public abstract class AbstractStorageService<E extends DefaultData> {
 		}
 
 		// aggregate if needed
-		if (null != aggregator) {
-			returnList = aggregationPerformer.getResultList();
+		if (null != aggregationPerformer) {
+			return aggregationPerformer.getResultList();
 		}
 
 		return returnList;
 	}
 
+	/**
+	 * Aggregates the data that passed the restrictions if the aggregation performer is given,
+	 * otherwise adds the data to the result list.
+	 * 
+	 * @param passedData
+	 *            Data that passed the query restrictions.
+	 * @param aggregationPerformer
+	 *            {@link AggregationPerformer} or <code>null</code> if no aggregation is needed.
+	 * @param returnList
+	 *            Result list for the not aggregated data.
+	 */
+	private void processPassedData(List<E> passedData, AggregationPerformer<E> aggregationPerformer, List<E> returnList) {
+		if (null != aggregationPerformer) {
+			aggregationPerformer.processCollection(passedData);
+		} else {
+			returnList.addAll(passedData);
+		}
+	}
+
 	/**
 	 * This utility method is used to create a list of elements that pass all the restrictions in
 	 * the {@link StorageIndexQuery}.
@@ -1,5 +1,6 @@
 package rocks.inspectit.ui.rcp.storage.util;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -11,10 +12,18 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -34,6 +43,7 @@ import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.entity.HttpEntityWrapper;
 import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.util.EntityUtils;
 import org.eclipse.core.runtime.SubMonitor;
@@ -41,6 +51,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatus.Series;
 
 import com.esotericsoftware.kryo.io.Input;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import rocks.inspectit.shared.all.communication.DefaultData;
 import rocks.inspectit.shared.all.exception.BusinessException;
@@ -57,6 +68,7 @@ import rocks.inspectit.shared.cs.storage.StorageData;
 import rocks.inspectit.shared.cs.storage.StorageFileType;
 import rocks.inspectit.shared.cs.storage.StorageManager;
 import rocks.inspectit.shared.cs.storage.nio.stream.InputStreamProvider;
+import rocks.inspectit.shared.cs.storage.nio.stream.MappedByteBufferInputStream;
 import rocks.inspectit.shared.cs.storage.util.RangeDescriptor;
 import rocks.inspectit.ui.rcp.repository.CmrRepositoryDefinition;
 import rocks.inspectit.ui.rcp.storage.http.TransferDataMonitor;
@@ -69,6 +81,11 @@ import rocks.inspectit.ui.rcp.storage.http.TransferDataMonitor;
  */
 public class DataRetriever {
 
+	/**
+	 * Maximum amount of objects passed to the {@link IDataReceiver} at once.
+	 */
+	private static final int RECEIVE_CHUNK_SIZE = 1000;
+
 	/**
 	 * Amount of serializers to be available to this class.
 	 */
@@ -94,6 +111,36 @@ public class DataRetriever {
 	 */
 	private InputStreamProvider streamProvider;
 
+	/**
+	 * If the local storage data is read from the memory mapped channel files with the
+	 * {@link MappedByteBufferInputStream}. If <code>false</code> the asynchronous reading with the
+	 * {@link InputStreamProvider} streams is used.
+	 */
+	private boolean mappedLocalRead = true;
+
+	/**
+	 * If the channel files are retrieved concurrently via HTTP and de-serialized while the data is
+	 * being transferred. If <code>false</code> the files are retrieved one after another and each
+	 * response is de-serialized after it has been completely received.
+	 */
+	private boolean concurrentHttpRetrieval = true;
+
+	/**
+	 * Amount of channel files retrieved concurrently via HTTP. Note that the concurrency is also
+	 * limited by the {@link #serializerCount}.
+	 */
+	private int httpRetrievalThreads = 3;
+
+	/**
+	 * Executor service for the concurrent HTTP retrieval.
+	 */
+	private ExecutorService httpRetrievalExecutorService;
+
+	/**
+	 * HTTP client with the pooled connection manager used for the concurrent HTTP retrieval.
+	 */
+	private DefaultHttpClient pooledHttpClient;
+
 	/**
 	 * Initializes the retriever.
 	 * 
@@ -104,6 +151,25 @@ public class DataRetriever {
 		for (int i = 0; i < serializerCount; i++) {
 			serializerQueue.add(serializationManagerProvider.createSerializer());
 		}
+
+		ThreadSafeClientConnManager connectionManager = new ThreadSafeClientConnManager();
+		connectionManager.setMaxTotal(httpRetrievalThreads);
+		connectionManager.setDefaultMaxPerRoute(httpRetrievalThreads);
+		pooledHttpClient = new DefaultHttpClient(connectionManager);
+		ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("data-retriever-http-%d").setDaemon(true).build();
+		httpRetrievalExecutorService = Executors.newFixedThreadPool(httpRetrievalThreads, threadFactory);
+	}
+
+	/**
+	 * Releases the threads and the pooled HTTP connections.
+	 */
+	protected void destroy() {
+		if (null != httpRetrievalExecutorService) {
+			httpRetrievalExecutorService.shutdownNow();
+		}
+		if (null != pooledHttpClient) {
+			pooledHttpClient.getConnectionManager().shutdown();
+		}
 	}
 
 	/**
@@ -111,7 +177,9 @@ public class DataRetriever {
 	 * {@link CmrRepositoryDefinition}. This method will try to invoke as less as possible HTTP
 	 * requests for all descriptors.
 	 * <p>
-	 * The method will execute the HTTP requests sequentially.
+	 * If {@link #concurrentHttpRetrieval} is active the HTTP requests for the different channel
+	 * files are executed concurrently, otherwise the method will execute the HTTP requests
+	 * sequentially.
 	 * <p>
 	 * It is not guaranteed that amount of returned objects in the list is same as the amount of
 	 * provided descriptors. If some of the descriptors are pointing to the wrong files or files
@@ -137,6 +205,19 @@ public class DataRetriever {
 	@SuppressWarnings("unchecked")
 	public <E extends DefaultData> List<E> getDataViaHttp(CmrRepositoryDefinition cmrRepositoryDefinition, IStorageData storageData, List<IStorageDescriptor> descriptors) throws IOException,
 			SerializationException {
+		if (concurrentHttpRetrieval) {
+			final List<E> receivedData = new ArrayList<E>(descriptors.size());
+			getDataViaHttp(cmrRepositoryDefinition, storageData, descriptors, new IDataReceiver<E>() {
+				@Override
+				public void dataReceived(List<E> data) {
+					synchronized (receivedData) {
+						receivedData.addAll(data);
+					}
+				}
+			});
+			return receivedData;
+		}
+
 		Map<Integer, List<IStorageDescriptor>> separateFilesGroup = createFilesGroup(descriptors);
 		List<E> receivedData = new ArrayList<E>();
 		String serverUri = getServerUri(cmrRepositoryDefinition);
@@ -144,25 +225,7 @@ public class DataRetriever {
 		HttpClient httpClient = new DefaultHttpClient();
 		for (Map.Entry<Integer, List<IStorageDescriptor>> entry : separateFilesGroup.entrySet()) {
 			HttpGet httpGet = new HttpGet(serverUri + storageManager.getHttpFileLocation(storageData, entry.getKey()));
-			StringBuilder rangeHeader = new StringBuilder("bytes=");
-
-			RangeDescriptor rangeDescriptor = null;
-			for (IStorageDescriptor descriptor : entry.getValue()) {
-				if (null == rangeDescriptor) {
-					rangeDescriptor = new RangeDescriptor(descriptor);
-				} else {
-					if (rangeDescriptor.getEnd() + 1 == descriptor.getPosition()) {
-						rangeDescriptor.setEnd(descriptor.getPosition() + descriptor.getSize() - 1);
-					} else {
-						rangeHeader.append(rangeDescriptor.toString());
-						rangeHeader.append(',');
-						rangeDescriptor = new RangeDescriptor(descriptor);
-					}
-				}
-			}
-			rangeHeader.append(rangeDescriptor);
-
-			httpGet.addHeader("Range", rangeHeader.toString());
+			httpGet.addHeader("Range", getRangeHeader(entry.getValue()));
 			ISerializer serializer = null;
 			try {
 				serializer = serializerQueue.take();
@@ -183,6 +246,7 @@ public class DataRetriever {
 					boolean nextPart = multipartStream.skipPreamble();
 					while (nextPart) {
 						multipartStream.readHeaders();
+						byteArrayOutputStream.reset();
 						multipartStream.readBodyData(byteArrayOutputStream);
 						input = new Input(byteArrayOutputStream.toByteArray());
 						while (KryoUtil.hasMoreBytes(input)) {
@@ -214,6 +278,191 @@ public class DataRetriever {
 		return receivedData;
 	}
 
+	/**
+	 * Retrieves the wanted data described in the {@link StorageDescriptor} from the desired
+	 * {@link CmrRepositoryDefinition} and passes it to the given {@link IDataReceiver} while the
+	 * data is still being transferred. This method will try to invoke as less as possible HTTP
+	 * requests for all descriptors.
+	 * <p>
+	 * The HTTP requests for the different channel files are executed concurrently with the pooled
+	 * connections. Each response is de-serialized while it streams in and the objects are passed to
+	 * the receiver in chunks, thus the receiver can be called concurrently. The method returns when
+	 * all requests are finished.
+	 * <p>
+	 * Same as with {@link #getDataViaHttp(CmrRepositoryDefinition, IStorageData, List)} it is not
+	 * guaranteed that amount of received objects is same as the amount of provided descriptors.
+	 * 
+	 * @param <E>
+	 *            Type of the objects are wanted.
+	 * @param cmrRepositoryDefinition
+	 *            {@link CmrRepositoryDefinition}.
+	 * @param storageData
+	 *            {@link StorageData} that points to the wanted storage.
+	 * @param descriptors
+	 *            Descriptors.
+	 * @param dataReceiver
+	 *            Receiver of the de-serialized objects. Note that if the data described in the
+	 *            descriptor is not of a supplied generic type, there will be a casting exception
+	 *            thrown.
+	 * @throws SerializationException
+	 *             If {@link SerializationException} occurs.
+	 * @throws IOException
+	 *             If {@link IOException} occurs or if the server does not respond with the partial
+	 *             content.
+	 */
+	public <E extends DefaultData> void getDataViaHttp(CmrRepositoryDefinition cmrRepositoryDefinition, IStorageData storageData, List<IStorageDescriptor> descriptors,
+			final IDataReceiver<E> dataReceiver) throws IOException, SerializationException {
+		Map<Integer, List<IStorageDescriptor>> separateFilesGroup = createFilesGroup(descriptors);
+		String serverUri = getServerUri(cmrRepositoryDefinition);
+
+		final RequestGroup requestGroup = new RequestGroup();
+		List<Future<Void>> futures = new ArrayList<Future<Void>>(separateFilesGroup.size());
+		for (Map.Entry<Integer, List<IStorageDescriptor>> entry : separateFilesGroup.entrySet()) {
+			final String fileUri = serverUri + storageManager.getHttpFileLocation(storageData, entry.getKey());
+			final String rangeHeader = getRangeHeader(entry.getValue());
+			futures.add(httpRetrievalExecutorService.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					streamDataViaHttp(fileUri, rangeHeader, dataReceiver, requestGroup);
+					return null;
+				}
+			}));
+		}
+
+		boolean completed = false;
+		try {
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+			completed = true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for the storage data retrieval.", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof SerializationException) {
+				throw (SerializationException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else {
+				throw new IOException("Storage data retrieval failed.", cause);
+			}
+		} finally {
+			if (!completed) {
+				// stop the not yet started requests and abort the running ones in case of failure
+				for (Future<Void> future : futures) {
+					future.cancel(false);
+				}
+				requestGroup.abortAll();
+			}
+		}
+	}
+
+	/**
+	 * Executes one HTTP range request and de-serializes the response while it streams in. The
+	 * multipart/byteranges response is read part by part with the
+	 * {@link MultipartByteRangesReader}, the single range response is bounded by its content
+	 * length.
+	 * 
+	 * @param <E>
+	 *            Type of the objects are wanted.
+	 * @param fileUri
+	 *            URI of the channel file.
+	 * @param rangeHeader
+	 *            Value of the Range header.
+	 * @param dataReceiver
+	 *            Receiver of the de-serialized objects.
+	 * @param requestGroup
+	 *            Group the request is registered to while executing, so that it can be aborted
+	 *            when another request of the same retrieval fails.
+	 * @throws SerializationException
+	 *             If {@link SerializationException} occurs.
+	 * @throws IOException
+	 *             If {@link IOException} occurs, if the server does not respond with the partial
+	 *             content or if the request has been aborted.
+	 */
+	private <E extends DefaultData> void streamDataViaHttp(String fileUri, String rangeHeader, IDataReceiver<E> dataReceiver, RequestGroup requestGroup) throws IOException,
+			SerializationException {
+		HttpGet httpGet = new HttpGet(fileUri);
+		httpGet.addHeader("Range", rangeHeader);
+		ISerializer serializer = null;
+		try {
+			serializer = serializerQueue.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for the serializer.", e);
+		}
+		boolean completed = false;
+		try {
+			requestGroup.register(httpGet);
+			HttpResponse response = pooledHttpClient.execute(httpGet);
+			StatusLine statusLine = response.getStatusLine();
+			if (HttpStatus.PARTIAL_CONTENT.value() != statusLine.getStatusCode()) {
+				throw new IOException("Server responded with the status " + statusLine + " to the range request for " + fileUri + ".");
+			}
+			HttpEntity entity = response.getEntity();
+			InputStream content = entity.getContent();
+			if (MultipartEntityUtil.isMultipart(entity)) {
+				MultipartByteRangesReader multipartReader = new MultipartByteRangesReader(content, MultipartEntityUtil.getBoundary(entity));
+				InputStream part = multipartReader.nextPart();
+				while (null != part) {
+					deserialize(part, serializer, dataReceiver);
+					part = multipartReader.nextPart();
+				}
+			} else if (entity.getContentLength() >= 0) {
+				deserialize(MultipartByteRangesReader.singlePart(content, entity.getContentLength()), serializer, dataReceiver);
+			} else {
+				deserialize(new ByteArrayInputStream(IOUtils.toByteArray(content)), serializer, dataReceiver);
+			}
+			// closing the content releases the connection back to the pool
+			content.close();
+			completed = true;
+		} finally {
+			requestGroup.unregister(httpGet);
+			if (!completed) {
+				httpGet.abort();
+			}
+			serializerQueue.add(serializer);
+		}
+	}
+
+	/**
+	 * De-serializes all objects from the stream and passes them to the receiver in chunks of
+	 * {@link #RECEIVE_CHUNK_SIZE}. The stream must report the bytes left with the
+	 * {@link InputStream#available()} method.
+	 * 
+	 * @param <E>
+	 *            Type of the objects are wanted.
+	 * @param inputStream
+	 *            Stream to read from.
+	 * @param serializer
+	 *            Serializer to use.
+	 * @param dataReceiver
+	 *            Receiver of the de-serialized objects.
+	 * @throws SerializationException
+	 *             If {@link SerializationException} occurs.
+	 * @throws IOException
+	 *             If {@link IOException} occurs.
+	 */
+	@SuppressWarnings("unchecked")
+	private <E extends DefaultData> void deserialize(InputStream inputStream, ISerializer serializer, IDataReceiver<E> dataReceiver) throws IOException, SerializationException {
+		Input input = new Input(inputStream);
+		List<E> chunk = new ArrayList<E>();
+		while (KryoUtil.hasMoreBytes(input)) {
+			Object object = serializer.deserialize(input);
+			chunk.add((E) object);
+			if (chunk.size() >= RECEIVE_CHUNK_SIZE) {
+				dataReceiver.dataReceived(chunk);
+				chunk = new ArrayList<E>();
+			}
+		}
+		if (!chunk.isEmpty()) {
+			dataReceiver.dataReceived(chunk);
+		}
+	}
+
 	/**
 	 * Retrieves the wanted data described in the {@link StorageDescriptor} from the desired
 	 * offline-available storage.
@@ -269,7 +518,11 @@ public class DataRetriever {
 		InputStream inputStream = null;
 		Input input = null;
 		try {
-			inputStream = streamProvider.getExtendedByteBufferInputStream(localStorageData, optimizedDescriptors);
+			if (mappedLocalRead) {
+				inputStream = new MappedByteBufferInputStream(storageManager, localStorageData, optimizedDescriptors);
+			} else {
+				inputStream = streamProvider.getExtendedByteBufferInputStream(localStorageData, optimizedDescriptors);
+			}
 			input = new Input(inputStream);
 			while (KryoUtil.hasMoreBytes(input)) {
 				Object object = serializer.deserialize(input);
@@ -609,6 +862,35 @@ public class DataRetriever {
 		return "http://" + repositoryDefinition.getIp() + ":" + repositoryDefinition.getPort();
 	}
 
+	/**
+	 * Creates the value of the HTTP Range header for the sorted descriptors of one channel file.
+	 * Neighbouring descriptors are joined into one range.
+	 * 
+	 * @param descriptors
+	 *            Descriptors of one channel sorted by position.
+	 * @return Range header value.
+	 */
+	private String getRangeHeader(List<IStorageDescriptor> descriptors) {
+		StringBuilder rangeHeader = new StringBuilder("bytes=");
+
+		RangeDescriptor rangeDescriptor = null;
+		for (IStorageDescriptor descriptor : descriptors) {
+			if (null == rangeDescriptor) {
+				rangeDescriptor = new RangeDescriptor(descriptor);
+			} else {
+				if (rangeDescriptor.getEnd() + 1 == descriptor.getPosition()) {
+					rangeDescriptor.setEnd(descriptor.getPosition() + descriptor.getSize() - 1);
+				} else {
+					rangeHeader.append(rangeDescriptor.toString());
+					rangeHeader.append(',');
+					rangeDescriptor = new RangeDescriptor(descriptor);
+				}
+			}
+		}
+		rangeHeader.append(rangeDescriptor);
+		return rangeHeader.toString();
+	}
+
 	/**
 	 * Creates the pairs that have a channel ID as a key, and list of descriptors as value. All the
 	 * descriptors in the list are associated with the channel, thus all the data described in the
@@ -705,6 +987,100 @@ public class DataRetriever {
 		this.streamProvider = streamProvider;
 	}
 
+	/**
+	 * Sets {@link #mappedLocalRead}.
+	 * 
+	 * @param mappedLocalRead
+	 *            New value for {@link #mappedLocalRead}
+	 */
+	public void setMappedLocalRead(boolean mappedLocalRead) {
+		this.mappedLocalRead = mappedLocalRead;
+	}
+
+	/**
+	 * Sets {@link #concurrentHttpRetrieval}.
+	 * 
+	 * @param concurrentHttpRetrieval
+	 *            New value for {@link #concurrentHttpRetrieval}
+	 */
+	public void setConcurrentHttpRetrieval(boolean concurrentHttpRetrieval) {
+		this.concurrentHttpRetrieval = concurrentHttpRetrieval;
+	}
+
+	/**
+	 * Gets {@link #concurrentHttpRetrieval}.
+	 * 
+	 * @return {@link #concurrentHttpRetrieval}
+	 */
+	public boolean isConcurrentHttpRetrieval() {
+		return concurrentHttpRetrieval;
+	}
+
+	/**
+	 * Sets {@link #httpRetrievalThreads}. Must be set before the initialization.
+	 * 
+	 * @param httpRetrievalThreads
+	 *            New value for {@link #httpRetrievalThreads}
+	 */
+	public void setHttpRetrievalThreads(int httpRetrievalThreads) {
+		this.httpRetrievalThreads = httpRetrievalThreads;
+	}
+
+	/**
+	 * The HTTP requests of one concurrent retrieval. When one request fails the running requests
+	 * are aborted, so that their connections are released and the threads are not blocked reading
+	 * the data that is not needed any more.
+	 */
+	private static class RequestGroup {
+
+		/**
+		 * Requests currently being executed.
+		 */
+		private final Set<HttpGet> runningRequests = new HashSet<HttpGet>();
+
+		/**
+		 * If the group has been aborted.
+		 */
+		private boolean aborted;
+
+		/**
+		 * Registers the request before its execution. The request is aborted immediately if the
+		 * group has already been aborted.
+		 * 
+		 * @param httpGet
+		 *            Request to register.
+		 */
+		public synchronized void register(HttpGet httpGet) {
+			if (aborted) {
+				httpGet.abort();
+			} else {
+				runningRequests.add(httpGet);
+			}
+		}
+
+		/**
+		 * Unregisters the finished request.
+		 * 
+		 * @param httpGet
+		 *            Request to unregister.
+		 */
+		public synchronized void unregister(HttpGet httpGet) {
+			runningRequests.remove(httpGet);
+		}
+
+		/**
+		 * Aborts all running requests and the ones that are registered later on.
+		 */
+		public synchronized void abortAll() {
+			aborted = true;
+			for (HttpGet httpGet : runningRequests) {
+				httpGet.abort();
+			}
+			runningRequests.clear();
+		}
+
+	}
+
 	/**
 	 * A wrapper for the {@link HttpEntity} that will surround the entity's input stream with the
 	 * {@link GZIPInputStream}. *
@@ -0,0 +1,26 @@
+package rocks.inspectit.ui.rcp.storage.util;
+
+import java.util.List;
+
+import rocks.inspectit.shared.all.communication.DefaultData;
+
+/**
+ * Receiver of the data that is de-serialized by the {@link DataRetriever} while it is still being
+ * transferred. The data is passed in chunks, as soon as they are available.
+ *
+ * @param <E>
+ *            Type of the received objects.
+ */
+public interface IDataReceiver<E extends DefaultData> {
+
+	/**
+	 * Passes the next chunk of the retrieved data to the receiver. Note that this method can be
+	 * called concurrently by the several threads that retrieve the data, thus implementations must
+	 * be thread safe.
+	 *
+	 * @param data
+	 *            Retrieved data. The list is not used by the retriever after the call.
+	 */
+	void dataReceived(List<E> data);
+
+}
@@ -0,0 +1,279 @@
+package rocks.inspectit.ui.rcp.storage.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Streaming reader of the HTTP multipart/byteranges response body. In contrast to buffering each
+ * part, the reader returns every part as an {@link InputStream} that reads directly from the
+ * response. The length of each part is taken from its Content-Range header, thus the part streams
+ * know exactly how many bytes are left and report that with {@link InputStream#available()}. This
+ * makes them usable with the Kryo based de-serialization that checks the available bytes to decide
+ * if there are more objects to read.
+ */
+public class MultipartByteRangesReader {
+
+	/**
+	 * Name of the header that describes the range of the part.
+	 */
+	private static final String CONTENT_RANGE_HEADER = "content-range";
+
+	/**
+	 * Charset of the boundary and header lines.
+	 */
+	private static final Charset ASCII = Charset.forName("US-ASCII");
+
+	/**
+	 * Response body.
+	 */
+	private final InputStream inputStream;
+
+	/**
+	 * Boundary line that starts a part.
+	 */
+	private final String boundaryLine;
+
+	/**
+	 * Boundary line that ends the body.
+	 */
+	private final String closeBoundaryLine;
+
+	/**
+	 * Part that is currently read.
+	 */
+	private InputStream currentPart;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param inputStream
+	 *            Response body.
+	 * @param boundary
+	 *            Boundary as defined in the Content-Type header of the response.
+	 */
+	public MultipartByteRangesReader(InputStream inputStream, String boundary) {
+		this.inputStream = inputStream;
+		this.boundaryLine = "--" + boundary;
+		this.closeBoundaryLine = boundaryLine + "--";
+	}
+
+	/**
+	 * Returns the stream of the next part. Any unread bytes of the previously returned part are
+	 * skipped.
+	 *
+	 * @return Stream of the next part or <code>null</code> if there are no more parts.
+	 * @throws IOException
+	 *             If reading fails or the response is not a valid multipart/byteranges body.
+	 */
+	public InputStream nextPart() throws IOException {
+		if (null != currentPart) {
+			// part stream skips all remaining bytes at once
+			currentPart.skip(Long.MAX_VALUE);
+			currentPart = null;
+		}
+
+		String line = readLine();
+		while ((null != line) && !boundaryLine.equals(line)) {
+			if (closeBoundaryLine.equals(line)) {
+				return null;
+			}
+			line = readLine();
+		}
+		if (null == line) {
+			return null;
+		}
+
+		long length = -1;
+		line = readLine();
+		while ((null != line) && !line.isEmpty()) {
+			int colonIndex = line.indexOf(':');
+			if ((colonIndex > 0) && CONTENT_RANGE_HEADER.equalsIgnoreCase(line.substring(0, colonIndex).trim())) {
+				length = getRangeLength(line.substring(colonIndex + 1));
+			}
+			line = readLine();
+		}
+		if (null == line) {
+			throw new IOException("Unexpected end of the multipart response in the part headers.");
+		}
+		if (length < 0) {
+			throw new IOException("Part of the multipart response does not define the Content-Range header.");
+		}
+
+		currentPart = new PartInputStream(inputStream, length);
+		return currentPart;
+	}
+
+	/**
+	 * Returns the stream of the response that holds a single range, thus is not a multipart
+	 * response.
+	 *
+	 * @param inputStream
+	 *            Response body.
+	 * @param contentLength
+	 *            Length of the body as defined in the Content-Length header.
+	 * @return Stream that knows how many bytes are available.
+	 */
+	public static InputStream singlePart(InputStream inputStream, long contentLength) {
+		return new PartInputStream(inputStream, contentLength);
+	}
+
+	/**
+	 * Parses the length of the range from the Content-Range header value in format
+	 * <code>bytes start-end/total</code>.
+	 *
+	 * @param contentRange
+	 *            Header value.
+	 * @return Length of the range.
+	 * @throws IOException
+	 *             If the value can not be parsed.
+	 */
+	private static long getRangeLength(String contentRange) throws IOException {
+		String value = contentRange.trim();
+		int spaceIndex = value.indexOf(' ');
+		int dashIndex = value.indexOf('-');
+		int slashIndex = value.indexOf('/');
+		if ((spaceIndex < 0) || (dashIndex < spaceIndex) || (slashIndex < dashIndex)) {
+			throw new IOException("Content-Range header value " + value + " can not be parsed.");
+		}
+		try {
+			long start = Long.parseLong(value.substring(spaceIndex + 1, dashIndex).trim());
+			long end = Long.parseLong(value.substring(dashIndex + 1, slashIndex).trim());
+			return (end - start) + 1;
+		} catch (NumberFormatException e) {
+			throw new IOException("Content-Range header value " + value + " can not be parsed.", e);
+		}
+	}
+
+	/**
+	 * Reads one line of the boundary or header section without the line terminator.
+	 *
+	 * @return Line or <code>null</code> if the end of the stream is reached.
+	 * @throws IOException
+	 *             If reading fails.
+	 */
+	private String readLine() throws IOException {
+		ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+		int b = inputStream.read();
+		if (b < 0) {
+			return null;
+		}
+		while ((b >= 0) && (b != '\n')) {
+			if (b != '\r') {
+				line.write(b);
+			}
+			b = inputStream.read();
+		}
+		return new String(line.toByteArray(), ASCII);
+	}
+
+	/**
+	 * Stream that reads the fixed amount of bytes from the underlying stream. The underlying
+	 * stream is never closed by this stream, as it holds the following parts.
+	 */
+	private static class PartInputStream extends InputStream {
+
+		/**
+		 * Underlying stream.
+		 */
+		private final InputStream inputStream;
+
+		/**
+		 * Bytes left to read.
+		 */
+		private long remaining;
+
+		/**
+		 * Default constructor.
+		 *
+		 * @param inputStream
+		 *            Underlying stream.
+		 * @param length
+		 *            Amount of bytes that belong to this stream.
+		 */
+		PartInputStream(InputStream inputStream, long length) {
+			this.inputStream = inputStream;
+			this.remaining = length;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int read() throws IOException {
+			if (remaining <= 0) {
+				return -1;
+			}
+			int b = inputStream.read();
+			if (b < 0) {
+				throw new IOException("Unexpected end of the response, " + remaining + " bytes are missing.");
+			}
+			remaining--;
+			return b;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (remaining <= 0) {
+				return -1;
+			}
+			int read = inputStream.read(b, off, (int) Math.min(len, remaining));
+			if (read < 0) {
+				throw new IOException("Unexpected end of the response, " + remaining + " bytes are missing.");
+			}
+			remaining -= read;
+			return read;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public long skip(long n) throws IOException {
+			long toSkip = Math.min(n, remaining);
+			long skipped = 0;
+			while (skipped < toSkip) {
+				long count = inputStream.skip(toSkip - skipped);
+				if (count <= 0) {
+					if (inputStream.read() < 0) {
+						throw new IOException("Unexpected end of the response, " + (remaining - skipped) + " bytes are missing.");
+					}
+					count = 1;
+				}
+				skipped += count;
+			}
+			remaining -= skipped;
+			return skipped;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * <p>
+		 * Returns the amount of bytes left in the part, regardless of how many can be read without
+		 * blocking.
+		 */
+		@Override
+		public int available() throws IOException {
+			return (int) Math.min(remaining, Integer.MAX_VALUE);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * <p>
+		 * Does not close the underlying stream.
+		 */
+		@Override
+		public void close() throws IOException {
+			// underlying stream is closed by the owner
+		}
+
+	}
+
+}
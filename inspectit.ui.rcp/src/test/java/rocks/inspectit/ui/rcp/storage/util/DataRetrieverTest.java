@@ -0,0 +1,302 @@
+package rocks.inspectit.ui.rcp.storage.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.fail;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.mortbay.jetty.Server;
+import org.mortbay.jetty.servlet.Context;
+import org.mortbay.jetty.servlet.DefaultServlet;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.esotericsoftware.kryo.io.Input;
+
+import rocks.inspectit.shared.all.communication.data.TimerData;
+import rocks.inspectit.shared.all.storage.serializer.ISerializer;
+import rocks.inspectit.shared.all.storage.serializer.provider.SerializationManagerProvider;
+import rocks.inspectit.shared.cs.indexing.storage.IStorageDescriptor;
+import rocks.inspectit.shared.cs.indexing.storage.impl.StorageDescriptor;
+import rocks.inspectit.shared.cs.storage.IStorageData;
+import rocks.inspectit.shared.cs.storage.StorageManager;
+import rocks.inspectit.ui.rcp.repository.CmrRepositoryDefinition;
+
+/**
+ * Tests the HTTP retrieval of the {@link DataRetriever} against a local Jetty serving a storage
+ * directory. Every channel file holds longs that the mocked serializer reads as IDs of the timer
+ * data.
+ */
+@SuppressWarnings("PMD")
+public class DataRetrieverTest {
+
+	private static final int CHANNELS = 4;
+
+	private static final int OBJECTS_PER_CHANNEL = 2500;
+
+	private static final int OBJECT_SIZE = 8;
+
+	private DataRetriever dataRetriever;
+
+	@Mock
+	private StorageManager storageManager;
+
+	@Mock
+	private SerializationManagerProvider serializationManagerProvider;
+
+	@Mock
+	private ISerializer serializer;
+
+	@Mock
+	private CmrRepositoryDefinition cmrRepositoryDefinition;
+
+	@Mock
+	private IStorageData storageData;
+
+	private Path storageDir;
+
+	private Server server;
+
+	@BeforeMethod
+	public void init() throws Exception {
+		MockitoAnnotations.initMocks(this);
+
+		storageDir = Files.createTempDirectory("storage");
+		for (int channel = 1; channel <= CHANNELS; channel++) {
+			try (OutputStream outputStream = Files.newOutputStream(getChannelPath(channel))) {
+				DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+				for (int i = 0; i < OBJECTS_PER_CHANNEL; i++) {
+					dataOutputStream.writeLong(getId(channel, i));
+				}
+				dataOutputStream.flush();
+			}
+		}
+
+		server = new Server(0);
+		Context context = new Context(server, "/", Context.NO_SESSIONS);
+		context.setResourceBase(storageDir.toString());
+		context.addServlet(DefaultServlet.class, "/");
+		server.start();
+
+		when(cmrRepositoryDefinition.getIp()).thenReturn("localhost");
+		when(cmrRepositoryDefinition.getPort()).thenReturn(server.getConnectors()[0].getLocalPort());
+		when(storageManager.getHttpFileLocation(eq(storageData), Mockito.<Integer> anyObject())).thenAnswer(new Answer<String>() {
+			@Override
+			public String answer(InvocationOnMock invocation) throws Throwable {
+				return "/" + invocation.getArguments()[1] + ".itdata";
+			}
+		});
+		when(serializationManagerProvider.createSerializer()).thenReturn(serializer);
+		when(serializer.deserialize(Mockito.<Input> anyObject())).thenAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				Input input = (Input) invocation.getArguments()[0];
+				TimerData timerData = new TimerData();
+				timerData.setId(input.readLong());
+				return timerData;
+			}
+		});
+
+		dataRetriever = new DataRetriever();
+		dataRetriever.setStorageManager(storageManager);
+		dataRetriever.setSerializationManagerProvider(serializationManagerProvider);
+		dataRetriever.init();
+	}
+
+	@AfterMethod
+	public void cleanUp() throws Exception {
+		dataRetriever.destroy();
+		server.stop();
+		for (int channel = 1; channel <= CHANNELS; channel++) {
+			Files.deleteIfExists(getChannelPath(channel));
+		}
+		Files.deleteIfExists(storageDir);
+	}
+
+	/**
+	 * Multiple ranges per channel result in the multipart responses.
+	 */
+	@Test
+	public void concurrentRetrieval() throws Exception {
+		List<IStorageDescriptor> descriptors = new ArrayList<>();
+		List<Long> expected = new ArrayList<>();
+		for (int channel = 1; channel <= CHANNELS; channel++) {
+			for (int i = 0; i < OBJECTS_PER_CHANNEL; i++) {
+				if (((i / 7) % 3) != 0) {
+					descriptors.add(getDescriptor(channel, i));
+					expected.add(getId(channel, i));
+				}
+			}
+		}
+		Collections.shuffle(descriptors);
+
+		List<TimerData> result = dataRetriever.getDataViaHttp(cmrRepositoryDefinition, storageData, descriptors);
+
+		assertThat(getSortedIds(result), is(equalTo(getSorted(expected))));
+	}
+
+	/**
+	 * Single range per channel results in the non multipart responses.
+	 */
+	@Test
+	public void singleRange() throws Exception {
+		List<IStorageDescriptor> descriptors = new ArrayList<>();
+		List<Long> expected = new ArrayList<>();
+		for (int channel = 1; channel <= CHANNELS; channel++) {
+			for (int i = 100; i < 200; i++) {
+				descriptors.add(getDescriptor(channel, i));
+				expected.add(getId(channel, i));
+			}
+		}
+
+		List<TimerData> result = dataRetriever.getDataViaHttp(cmrRepositoryDefinition, storageData, descriptors);
+
+		assertThat(getSortedIds(result), is(equalTo(getSorted(expected))));
+	}
+
+	/**
+	 * Data must be passed to the receiver in several chunks.
+	 */
+	@Test
+	public void incrementalDelivery() throws Exception {
+		List<IStorageDescriptor> descriptors = new ArrayList<>();
+		for (int i = 0; i < OBJECTS_PER_CHANNEL; i++) {
+			descriptors.add(getDescriptor(1, i));
+		}
+		final List<TimerData> received = Collections.synchronizedList(new ArrayList<TimerData>());
+		final AtomicInteger chunks = new AtomicInteger();
+
+		dataRetriever.getDataViaHttp(cmrRepositoryDefinition, storageData, descriptors, new IDataReceiver<TimerData>() {
+			@Override
+			public void dataReceived(List<TimerData> data) {
+				chunks.incrementAndGet();
+				received.addAll(data);
+			}
+		});
+
+		assertThat(received.size(), is(OBJECTS_PER_CHANNEL));
+		assertThat(chunks.get(), is(greaterThan(1)));
+	}
+
+	/**
+	 * Sequential retrieval must return same data.
+	 */
+	@Test
+	public void sequentialRetrieval() throws Exception {
+		dataRetriever.setConcurrentHttpRetrieval(false);
+		List<IStorageDescriptor> descriptors = new ArrayList<>();
+		List<Long> expected = new ArrayList<>();
+		for (int channel = 1; channel <= CHANNELS; channel++) {
+			for (int i = 0; i < OBJECTS_PER_CHANNEL; i += 2) {
+				descriptors.add(getDescriptor(channel, i));
+				expected.add(getId(channel, i));
+			}
+		}
+
+		List<TimerData> result = dataRetriever.getDataViaHttp(cmrRepositoryDefinition, storageData, descriptors);
+
+		assertThat(getSortedIds(result), is(equalTo(getSorted(expected))));
+	}
+
+	/**
+	 * Not existing channel file must fail.
+	 */
+	@Test(expectedExceptions = IOException.class)
+	public void missingChannelFile() throws Exception {
+		List<IStorageDescriptor> descriptors = new ArrayList<>();
+		descriptors.add(getDescriptor(1, 0));
+		descriptors.add(getDescriptor(CHANNELS + 1, 0));
+
+		dataRetriever.getDataViaHttp(cmrRepositoryDefinition, storageData, descriptors);
+	}
+
+	/**
+	 * Failure of one request must abort the requests that are still running, so that they don't
+	 * deliver the rest of their data.
+	 */
+	@Test
+	public void failureAbortsRunningRequests() throws Exception {
+		List<IStorageDescriptor> descriptors = new ArrayList<>();
+		for (int channel = 1; channel <= CHANNELS; channel++) {
+			for (int i = 0; i < OBJECTS_PER_CHANNEL; i++) {
+				descriptors.add(getDescriptor(channel, i));
+			}
+		}
+		final List<TimerData> received = Collections.synchronizedList(new ArrayList<TimerData>());
+
+		try {
+			dataRetriever.getDataViaHttp(cmrRepositoryDefinition, storageData, descriptors, new IDataReceiver<TimerData>() {
+				@Override
+				public void dataReceived(List<TimerData> data) {
+					if (data.get(0).getId() < getId(2, 0)) {
+						throw new IllegalStateException("Failing channel.");
+					}
+					received.addAll(data);
+					try {
+						Thread.sleep(500);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			});
+			fail("Exception must be thrown.");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+
+		// wait for the aborted requests to finish
+		Thread.sleep(1000);
+		assertThat(received.size(), is(lessThan((CHANNELS - 1) * OBJECTS_PER_CHANNEL)));
+
+		// connections must be released back to the pool
+		List<TimerData> result = dataRetriever.getDataViaHttp(cmrRepositoryDefinition, storageData, descriptors);
+		assertThat(result.size(), is(CHANNELS * OBJECTS_PER_CHANNEL));
+	}
+
+	private Path getChannelPath(int channel) {
+		return storageDir.resolve(channel + ".itdata");
+	}
+
+	private long getId(int channel, int index) {
+		return ((long) channel * OBJECTS_PER_CHANNEL) + index;
+	}
+
+	private IStorageDescriptor getDescriptor(int channel, int index) {
+		StorageDescriptor descriptor = new StorageDescriptor(channel);
+		descriptor.setPositionAndSize((long) index * OBJECT_SIZE, OBJECT_SIZE);
+		return descriptor;
+	}
+
+	private List<Long> getSortedIds(List<TimerData> data) {
+		List<Long> ids = new ArrayList<>();
+		for (TimerData timerData : data) {
+			ids.add(timerData.getId());
+		}
+		return getSorted(ids);
+	}
+
+	private List<Long> getSorted(List<Long> list) {
+		Collections.sort(list);
+		return list;
+	}
+}